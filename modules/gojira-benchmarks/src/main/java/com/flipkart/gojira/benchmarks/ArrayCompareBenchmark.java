@@ -0,0 +1,121 @@
+/*
+ * Copyright 2020 Flipkart Internet, pvt ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.flipkart.gojira.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flipkart.compare.TestCompareException;
+import com.flipkart.compare.handlers.json.JsonTestCompareHandler;
+import com.flipkart.gojira.core.Mode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link JsonTestCompareHandler} comparing a recorded response holding an array of items
+ * with a response holding the same items in another order, some of which may be modified.
+ */
+@BenchmarkMode(org.openjdk.jmh.annotations.Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ArrayCompareBenchmark {
+
+  /**
+   * How the items of the actual response differ from the recorded ones.
+   */
+  public enum Variant {
+    SHUFFLED,
+    SHUFFLED_MODIFIED
+  }
+
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+  @Param({"500", "5000"})
+  private int items;
+
+  @Param({"SHUFFLED", "SHUFFLED_MODIFIED"})
+  private Variant variant;
+
+  private JsonTestCompareHandler compareHandler;
+  private byte[] expected;
+  private byte[] actual;
+
+  /**
+   * Builds a response with {@code items} items, and a copy with the items shuffled and, for
+   * {@link Variant#SHUFFLED_MODIFIED}, the price of one in a hundred items changed.
+   */
+  @Setup
+  public void setup() throws Exception {
+    // injects the diff ignore repository used by the compare handler.
+    BenchmarkSetup.install(Mode.NONE, 0.00d);
+    compareHandler = new JsonTestCompareHandler();
+
+    List<Map<String, Object>> expectedItems = new ArrayList<>();
+    for (int i = 0; i < items; i++) {
+      Map<String, Object> item = new LinkedHashMap<>();
+      item.put("id", i);
+      item.put("name", "item-" + i);
+      item.put("price", 10.5 + i);
+      item.put("tags", Arrays.asList("tag-" + (i % 11), "tag-" + (i % 13)));
+      expectedItems.add(item);
+    }
+    expected = OBJECT_MAPPER.writeValueAsBytes(Collections.singletonMap("items", expectedItems));
+
+    Random random = new Random(items);
+    List<Map<String, Object>> actualItems = new ArrayList<>();
+    for (Map<String, Object> item : expectedItems) {
+      Map<String, Object> actualItem = new LinkedHashMap<>(item);
+      if (variant == Variant.SHUFFLED_MODIFIED && random.nextInt(100) == 0) {
+        actualItem.put("price", 0.5);
+      }
+      actualItems.add(actualItem);
+    }
+    Collections.shuffle(actualItems, random);
+    actual = OBJECT_MAPPER.writeValueAsBytes(Collections.singletonMap("items", actualItems));
+  }
+
+  /**
+   * Compares the responses, returning false if they have a diff.
+   */
+  @Benchmark
+  public boolean compare() {
+    try {
+      compareHandler.compare(expected, actual);
+      return true;
+    } catch (TestCompareException e) {
+      return false;
+    }
+  }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2020 Flipkart Internet, pvt ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.flipkart.gojira.benchmarks;
+
+import com.flipkart.gojira.core.aspects.AopAllianceAdapter;
+import com.flipkart.gojira.core.aspects.MethodInvocationClosure;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.TimeUnit;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.CodeSignature;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.aspectj.runtime.reflect.Factory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the overhead of {@link AopAllianceAdapter#around(ProceedingJoinPoint)} with an
+ * interceptor which resolves the method, as the Gojira interceptors do, before proceeding. {@link
+ * #aroundReflective()} resolves the method by reflection on every call, as the join point closures
+ * did before the method was cached per {@link JoinPoint.StaticPart}, and is kept as the baseline.
+ */
+@BenchmarkMode(org.openjdk.jmh.annotations.Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AspectBenchmark {
+
+  /**
+   * Name of the advised method. Non-public methods are resolved via the NoSuchMethodException
+   * fallback to {@link Class#getDeclaredMethod(String, Class[])}.
+   */
+  @Param({"publicTarget", "privateTarget"})
+  private String target;
+
+  private ProceedingJoinPoint joinPoint;
+  private MethodInterceptor interceptor;
+  private AopAllianceAdapter adapter;
+
+  /**
+   * Creates a join point the way woven code does, with one static part per advised method.
+   */
+  @Setup
+  public void setup() {
+    Factory factory = new Factory("AspectBenchmark.java", AspectBenchmark.class);
+    JoinPoint.StaticPart staticPart =
+        factory.makeSJP(
+            JoinPoint.METHOD_EXECUTION,
+            factory.makeMethodSig(
+                "publicTarget".equals(target) ? Modifier.PUBLIC : Modifier.PRIVATE,
+                target,
+                AspectBenchmark.class,
+                new Class[] {String.class},
+                new String[] {"argument"},
+                new Class[0],
+                String.class),
+            1);
+    joinPoint = (ProceedingJoinPoint) Factory.makeJP(staticPart, this, this, "argument");
+    interceptor = invocation -> invocation.getMethod() == null ? null : invocation.proceed();
+    adapter =
+        new AopAllianceAdapter() {
+          @Override
+          protected MethodInterceptor getMethodInterceptor() {
+            return interceptor;
+          }
+
+          @Override
+          protected void targetJoinPoint() {}
+        };
+  }
+
+  public String publicTarget(String argument) {
+    return argument;
+  }
+
+  private String privateTarget(String argument) {
+    return argument;
+  }
+
+  @Benchmark
+  public Object baseline() throws Throwable {
+    return joinPoint.proceed();
+  }
+
+  @Benchmark
+  public Object around() throws Throwable {
+    return adapter.around(joinPoint);
+  }
+
+  /**
+   * Same as {@link AopAllianceAdapter#around(ProceedingJoinPoint)}, resolving the method by
+   * reflection on every call.
+   */
+  @Benchmark
+  public Object aroundReflective() throws Throwable {
+    MethodInvocationClosure mic =
+        new MethodInvocationClosure(joinPoint) {
+          public Object execute() throws Throwable {
+            return joinPoint.proceed();
+          }
+
+          @Override
+          public AccessibleObject getStaticPart() {
+            return reflect(jp);
+          }
+        };
+    return interceptor.invoke(mic);
+  }
+
+  private static AccessibleObject reflect(JoinPoint jp) {
+    CodeSignature codeSignature = (CodeSignature) jp.getSignature();
+    Class clazz = codeSignature.getDeclaringType();
+    AccessibleObject ret = null;
+    try {
+      if (codeSignature instanceof MethodSignature) {
+        ret = clazz.getMethod(codeSignature.getName(), codeSignature.getParameterTypes());
+      }
+    } catch (NoSuchMethodException e) {
+      try {
+        ret = clazz.getDeclaredMethod(codeSignature.getName(), codeSignature.getParameterTypes());
+      } catch (NoSuchMethodException e1) {
+        throw new UnsupportedOperationException(
+            "Can't find member " + codeSignature.toLongString());
+      }
+    }
+    return ret;
+  }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2020 Flipkart Internet, pvt ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.flipkart.gojira.benchmarks;
+
+import com.flipkart.compare.handlers.json.JsonTestCompareHandler;
+import com.flipkart.gojira.compare.config.GojiraComparisonConfig;
+import com.flipkart.gojira.core.AsyncCaptureConfig;
+import com.flipkart.gojira.core.CaptureBufferConfig;
+import com.flipkart.gojira.core.InFlightDataConfig;
+import com.flipkart.gojira.core.Mode;
+import com.flipkart.gojira.core.SetupModule;
+import com.flipkart.gojira.queuedsender.config.TestQueuedSenderConfig;
+import com.flipkart.gojira.requestsampling.config.RequestSamplingConfig;
+import com.flipkart.gojira.serde.config.SerdeConfig;
+import com.flipkart.gojira.serde.handlers.json.JsonDefaultTestSerdeHandler;
+import com.flipkart.gojira.sinkstore.config.DataStoreConfig;
+import com.flipkart.gojira.sinkstore.file.SegmentedLogDataStoreHandler;
+import com.google.inject.Guice;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Installs Gojira with its configuration backed by temporary directories, the same way a client
+ * application would, so that benchmarks exercise the real code paths.
+ */
+public final class BenchmarkSetup {
+
+  private BenchmarkSetup() {}
+
+  /**
+   * Installs Gojira in the given {@link Mode}.
+   *
+   * @param mode global mode
+   * @param samplingPercentage percentage of requests to profile in {@link Mode#PROFILE}
+   * @return directory holding the sink and queue, to be used by benchmarks if needed
+   */
+  public static File install(Mode mode, double samplingPercentage) {
+    return install(mode, samplingPercentage, CaptureBufferConfig.builder().build());
+  }
+
+  /**
+   * Installs Gojira in the given {@link Mode} with the given capture buffer pool.
+   *
+   * @param mode global mode
+   * @param samplingPercentage percentage of requests to profile in {@link Mode#PROFILE}
+   * @param captureBufferConfig sizing of the pool of http capture buffers
+   * @return directory holding the sink and queue, to be used by benchmarks if needed
+   */
+  public static File install(
+      Mode mode, double samplingPercentage, CaptureBufferConfig captureBufferConfig) {
+    return install(mode, samplingPercentage, captureBufferConfig, new HashMap<>());
+  }
+
+  /**
+   * Installs Gojira in the given {@link Mode} with the given diff ignore patterns.
+   *
+   * @param mode global mode
+   * @param samplingPercentage percentage of requests to profile in {@link Mode#PROFILE}
+   * @param captureBufferConfig sizing of the pool of http capture buffers
+   * @param diffIgnoreMap diff ignore patterns by diff type
+   * @return directory holding the sink and queue, to be used by benchmarks if needed
+   */
+  public static File install(
+      Mode mode,
+      double samplingPercentage,
+      CaptureBufferConfig captureBufferConfig,
+      Map<String, List<String>> diffIgnoreMap) {
+    File dir;
+    try {
+      dir = Files.createTempDirectory("gojira-benchmarks").toFile();
+    } catch (IOException e) {
+      throw new RuntimeException("unable to create temp directory for benchmarks.", e);
+    }
+    dir.deleteOnExit();
+
+    Guice.createInjector(
+        new SetupModule(
+            mode,
+            RequestSamplingConfig.builder().setSamplingPercentage(samplingPercentage).build(),
+            SerdeConfig.builder().setDefaultSerdeHandler(new JsonDefaultTestSerdeHandler()).build(),
+            GojiraComparisonConfig.builder()
+                .setDiffIgnoreMap(diffIgnoreMap)
+                .setDefaultCompareHandler(new JsonTestCompareHandler())
+                .setResponseDataCompareHandler(new JsonTestCompareHandler())
+                .build(),
+            DataStoreConfig.builder()
+                .setDataStoreHandler(
+                    new SegmentedLogDataStoreHandler(new File(dir, "sink").getAbsolutePath()))
+                .build(),
+            TestQueuedSenderConfig.builder()
+                .setPath(new File(dir, "queue").getAbsolutePath())
+                .setQueueSize(1024L * 1024 * 1024)
+                .setQueuePurgeIntervalInSeconds(60)
+                .build(),
+            InFlightDataConfig.builder().build(),
+            AsyncCaptureConfig.builder().build(),
+            captureBufferConfig));
+    return dir;
+  }
+}
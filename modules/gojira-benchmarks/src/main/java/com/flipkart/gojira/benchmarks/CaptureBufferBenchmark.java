@@ -0,0 +1,159 @@
+/*
+ * Copyright 2020 Flipkart Internet, pvt ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.flipkart.gojira.benchmarks;
+
+import com.flipkart.gojira.core.CaptureBufferConfig;
+import com.flipkart.gojira.core.DefaultProfileOrTestHandler;
+import com.flipkart.gojira.core.HttpFilter;
+import com.flipkart.gojira.core.Mode;
+import java.io.ByteArrayInputStream;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures capture of an http request and response body by the {@link HttpFilter} wrappers, with
+ * and without reuse of capture buffers. Run with {@code -prof gc} to compare allocation rates.
+ */
+@BenchmarkMode(org.openjdk.jmh.annotations.Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CaptureBufferBenchmark {
+
+  private static final int CHUNK_BYTES = 4096;
+
+  @Param({"true", "false"})
+  private boolean pooled;
+
+  @Param({"1024", "65536"})
+  private int payloadBytes;
+
+  private byte[] payload;
+  private HttpFilter httpFilter;
+  private HttpServletRequest request;
+  private HttpServletResponse response;
+
+  /**
+   * Installs Gojira with the capture buffer pool enabled or disabled, and creates stubs which read
+   * and write the payload.
+   */
+  @Setup
+  public void setup() {
+    BenchmarkSetup.install(
+        Mode.NONE, 0.00d, CaptureBufferConfig.builder().setEnabled(pooled).build());
+    payload = new byte[payloadBytes];
+    Arrays.fill(payload, (byte) 'a');
+    httpFilter = new HttpFilter();
+    ServletOutputStream discard =
+        new ServletOutputStream() {
+          @Override
+          public void write(int data) {}
+
+          @Override
+          public void write(byte[] data, int off, int len) {}
+
+          @Override
+          public boolean isReady() {
+            return true;
+          }
+
+          @Override
+          public void setWriteListener(WriteListener writeListener) {}
+        };
+    request =
+        (HttpServletRequest)
+            Proxy.newProxyInstance(
+                HttpServletRequest.class.getClassLoader(),
+                new Class[] {HttpServletRequest.class},
+                (proxy, method, args) ->
+                    "getInputStream".equals(method.getName()) ? inputStream(payload) : null);
+    response =
+        (HttpServletResponse)
+            Proxy.newProxyInstance(
+                HttpServletResponse.class.getClassLoader(),
+                new Class[] {HttpServletResponse.class},
+                (proxy, method, args) ->
+                    "getOutputStream".equals(method.getName()) ? discard : null);
+  }
+
+  /**
+   * Captures the request body, streams the response body in chunks while capturing it, and ends
+   * the request, which returns leased buffers to the pool.
+   */
+  @Benchmark
+  public Object capture() throws Exception {
+    HttpFilter.CustomHttpServletRequestWrapper requestWrapper =
+        httpFilter.new CustomHttpServletRequestWrapper(request);
+    HttpFilter.TestServletResponseWrapper responseWrapper =
+        httpFilter.new TestServletResponseWrapper(response);
+    ServletOutputStream outputStream = responseWrapper.getOutputStream();
+    for (int off = 0; off < payload.length; off += CHUNK_BYTES) {
+      outputStream.write(payload, off, Math.min(CHUNK_BYTES, payload.length - off));
+    }
+    byte[] captured = responseWrapper.getBuffer();
+    DefaultProfileOrTestHandler.end(null);
+    return requestWrapper.getBody().length + captured.length;
+  }
+
+  private static ServletInputStream inputStream(byte[] payload) {
+    ByteArrayInputStream byteArrayInputStream = new ByteArrayInputStream(payload);
+    return new ServletInputStream() {
+      @Override
+      public int read() {
+        return byteArrayInputStream.read();
+      }
+
+      @Override
+      public int read(byte[] data, int off, int len) {
+        return byteArrayInputStream.read(data, off, len);
+      }
+
+      @Override
+      public boolean isFinished() {
+        return byteArrayInputStream.available() == 0;
+      }
+
+      @Override
+      public boolean isReady() {
+        return true;
+      }
+
+      @Override
+      public void setReadListener(ReadListener readListener) {}
+    };
+  }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2020 Flipkart Internet, pvt ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.flipkart.gojira.benchmarks;
+
+import com.flipkart.gojira.models.MethodData;
+import com.flipkart.gojira.models.MethodDataType;
+import com.flipkart.gojira.models.TestData;
+import com.flipkart.gojira.models.http.HttpTestRequestData;
+import com.flipkart.gojira.models.http.HttpTestResponseData;
+import com.flipkart.gojira.serde.config.CompressionCodec;
+import com.flipkart.gojira.serde.config.CompressionConfig;
+import com.flipkart.gojira.serde.handlers.TestSerdeHandler;
+import com.flipkart.gojira.serde.handlers.TypeParameter;
+import com.flipkart.gojira.serde.handlers.compression.CompressingTestSerdeHandler;
+import com.flipkart.gojira.serde.handlers.json.JsonDefaultTestSerdeHandler;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures compressing and decompressing a JSON serialized {@link TestData} with {@link
+ * CompressingTestSerdeHandler}, separately from serialization. The compression ratio is printed
+ * during setup. DEFLATE_DICTIONARY uses another recording of the same API as dictionary.
+ */
+@BenchmarkMode(org.openjdk.jmh.annotations.Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CompressionBenchmark {
+
+  @Param({"NONE", "DEFLATE", "DEFLATE_DICTIONARY", "LZ4"})
+  private String codec;
+
+  @Param({"2048", "32768"})
+  private int payloadBytes;
+
+  private CompressingTestSerdeHandler compressingSerdeHandler;
+  private byte[] serialized;
+  private byte[] compressed;
+
+  /**
+   * Serializes a recording whose request, response and method return value are JSON arrays of
+   * similar objects.
+   */
+  @Setup
+  public void setup() throws Exception {
+    JsonDefaultTestSerdeHandler jsonSerdeHandler = new JsonDefaultTestSerdeHandler();
+    CompressionConfig.Builder compressionConfig =
+        CompressionConfig.builder().setMinCompressBytes(0);
+    if ("DEFLATE_DICTIONARY".equals(codec)) {
+      compressionConfig
+          .setCodec(CompressionCodec.DEFLATE)
+          .setDictionary(jsonSerdeHandler.serialize(testData(2048)));
+    } else {
+      compressionConfig.setCodec(CompressionCodec.valueOf(codec));
+    }
+    compressingSerdeHandler =
+        new CompressingTestSerdeHandler(new PassThroughSerdeHandler(), compressionConfig.build());
+    serialized = jsonSerdeHandler.serialize(testData(payloadBytes));
+    compressed = compressingSerdeHandler.serialize(serialized);
+    System.out.println(
+        String.format(
+            "%s: %d bytes compressed to %d, ratio %.2f",
+            codec, serialized.length, compressed.length, (double) serialized.length
+                / compressed.length));
+  }
+
+  @Benchmark
+  public byte[] compress() throws Exception {
+    return compressingSerdeHandler.serialize(serialized);
+  }
+
+  @Benchmark
+  public byte[] decompress() throws Exception {
+    return compressingSerdeHandler.deserialize(compressed, byte[].class);
+  }
+
+  private static TestData<HttpTestRequestData, HttpTestResponseData, ?> testData(int bytes) {
+    byte[] payload = payload(bytes);
+    TestData<HttpTestRequestData, HttpTestResponseData, ?> testData = new TestData<>();
+    testData.setRequestData(
+        HttpTestRequestData.builder()
+            .setBody(payload(bytes / 4))
+            .setHeaders(Collections.singletonMap("Content-Type", "application/json"))
+            .setMethod("POST")
+            .setQueryParams("")
+            .setUri("/orders/search")
+            .build());
+    testData.setResponseData(
+        HttpTestResponseData.builder()
+            .setStatusCode(200)
+            .setHeaders(Collections.singletonMap("Content-Type", "application/json"))
+            .setBody(payload)
+            .build());
+    ConcurrentHashMap<MethodDataType, List<MethodData>> entry = new ConcurrentHashMap<>();
+    entry.put(
+        MethodDataType.RETURN,
+        Collections.singletonList(
+            new MethodData(MethodDataType.RETURN, "java.util.List", payload, -1)));
+    ConcurrentSkipListMap<Long, ConcurrentHashMap<MethodDataType, List<MethodData>>> entries =
+        new ConcurrentSkipListMap<>();
+    entries.put(0L, entry);
+    testData.getMethodDataMap().put("public java.util.List OrderDao.search(Query)", entries);
+    return testData;
+  }
+
+  private static byte[] payload(int bytes) {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    StringBuilder payload = new StringBuilder("[");
+    while (payload.length() < bytes) {
+      payload
+          .append("{\"orderId\":\"OD")
+          .append(random.nextLong(1_000_000_000_000L))
+          .append("\",\"amount\":")
+          .append(random.nextInt(100_000))
+          .append(",\"status\":\"")
+          .append(random.nextBoolean() ? "DELIVERED" : "SHIPPED")
+          .append("\"},");
+    }
+    payload.append("{}]");
+    return payload.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Serializes byte[] as they are, so that only compression is measured.
+   */
+  private static final class PassThroughSerdeHandler implements TestSerdeHandler {
+
+    @Override
+    public <T> byte[] serialize(T obj) {
+      return (byte[]) obj;
+    }
+
+    @Override
+    public <T> T deserialize(byte[] bytes, Class<T> clazz) {
+      return clazz.cast(bytes);
+    }
+
+    @Override
+    public <T> T deserialize(byte[] bytes, TypeParameter<T> typeParameter) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public <T> void deserializeToInstance(byte[] bytes, T obj) {
+      throw new UnsupportedOperationException();
+    }
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2020 Flipkart Internet, pvt ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.flipkart.gojira.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flipkart.compare.TestCompareException;
+import com.flipkart.compare.diff.DiffType;
+import com.flipkart.compare.handlers.json.JsonTestCompareHandler;
+import com.flipkart.gojira.core.CaptureBufferConfig;
+import com.flipkart.gojira.core.Mode;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link JsonTestCompareHandler} comparing responses of 2000 items which differ in a
+ * field of every item, with {@code ignorePatterns} MODIFY ignore patterns of which the last one
+ * ignores that field.
+ */
+@BenchmarkMode(org.openjdk.jmh.annotations.Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DiffIgnoreBenchmark {
+
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+  private static final int ITEMS = 2000;
+
+  @Param({"1", "10", "100"})
+  private int ignorePatterns;
+
+  private JsonTestCompareHandler compareHandler;
+  private byte[] expected;
+  private byte[] actual;
+
+  /**
+   * Installs the ignore patterns and builds the responses.
+   */
+  @Setup
+  public void setup() throws Exception {
+    List<String> patterns = new ArrayList<>();
+    for (int i = 1; i < ignorePatterns; i++) {
+      patterns.add("/, items, (.*), field" + i + ", /");
+    }
+    patterns.add("/, items, (.*), updatedAt, /");
+    Map<String, List<String>> diffIgnoreMap = new HashMap<>();
+    diffIgnoreMap.put(DiffType.MODIFY.name(), patterns);
+    BenchmarkSetup.install(Mode.NONE, 0.00d, CaptureBufferConfig.builder().build(), diffIgnoreMap);
+    compareHandler = new JsonTestCompareHandler();
+
+    expected = OBJECT_MAPPER.writeValueAsBytes(response(0));
+    actual = OBJECT_MAPPER.writeValueAsBytes(response(1));
+  }
+
+  /**
+   * Compares the responses, returning false if they have a diff.
+   */
+  @Benchmark
+  public boolean compare() {
+    try {
+      compareHandler.compare(expected, actual);
+      return true;
+    } catch (TestCompareException e) {
+      return false;
+    }
+  }
+
+  private static Map<String, Object> response(long updatedAt) {
+    List<Map<String, Object>> items = new ArrayList<>();
+    for (int i = 0; i < ITEMS; i++) {
+      Map<String, Object> item = new LinkedHashMap<>();
+      item.put("id", i);
+      item.put("name", "item-" + i);
+      item.put("updatedAt", updatedAt);
+      items.add(item);
+    }
+    return Collections.singletonMap("items", items);
+  }
+}
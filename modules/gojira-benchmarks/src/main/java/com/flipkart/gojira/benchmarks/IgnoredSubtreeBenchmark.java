@@ -0,0 +1,124 @@
+/*
+ * Copyright 2020 Flipkart Internet, pvt ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.flipkart.gojira.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flipkart.compare.TestCompareException;
+import com.flipkart.compare.diff.DiffType;
+import com.flipkart.compare.handlers.json.JsonTestCompareHandler;
+import com.flipkart.gojira.core.CaptureBufferConfig;
+import com.flipkart.gojira.core.Mode;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link JsonTestCompareHandler} comparing responses with a small data object and a
+ * debugInfo object of about {@code documentBytes}, which differs in every span and is ignored for
+ * all diff types.
+ */
+@BenchmarkMode(org.openjdk.jmh.annotations.Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IgnoredSubtreeBenchmark {
+
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+  @Param({"102400", "1048576"})
+  private int documentBytes;
+
+  private JsonTestCompareHandler compareHandler;
+  private byte[] expected;
+  private byte[] actual;
+
+  /**
+   * Installs ignore patterns of the debugInfo object and builds the responses.
+   */
+  @Setup
+  public void setup() throws Exception {
+    Map<String, List<String>> diffIgnoreMap = new HashMap<>();
+    for (DiffType diffType : DiffType.values()) {
+      diffIgnoreMap.put(diffType.name(), Collections.singletonList("/, debugInfo, .*"));
+    }
+    BenchmarkSetup.install(Mode.NONE, 0.00d, CaptureBufferConfig.builder().build(), diffIgnoreMap);
+    compareHandler = new JsonTestCompareHandler();
+
+    expected = OBJECT_MAPPER.writeValueAsBytes(response(0));
+    actual = OBJECT_MAPPER.writeValueAsBytes(response(1));
+  }
+
+  /**
+   * Compares the responses, returning false if they have a diff.
+   */
+  @Benchmark
+  public boolean compare() {
+    try {
+      compareHandler.compare(expected, actual);
+      return true;
+    } catch (TestCompareException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Builds a response whose spans start at the offset.
+   */
+  private Map<String, Object> response(long offset) throws Exception {
+    Map<String, Object> data = new LinkedHashMap<>();
+    data.put("id", 42);
+    data.put("name", "item-42");
+    data.put("price", 10.5);
+
+    List<Map<String, Object>> spans = new ArrayList<>();
+    int size = 0;
+    for (int i = 0; size < documentBytes; i++) {
+      Map<String, Object> span = new LinkedHashMap<>();
+      span.put("name", "span-" + i);
+      span.put("host", "host-" + (i % 7));
+      span.put("startedAt", offset + i * 10L);
+      span.put("durationMicros", offset + i % 97);
+      spans.add(span);
+      size += OBJECT_MAPPER.writeValueAsBytes(span).length + 1;
+    }
+    Map<String, Object> debugInfo = new LinkedHashMap<>();
+    debugInfo.put("requestId", "request-" + offset);
+    debugInfo.put("spans", spans);
+
+    Map<String, Object> response = new LinkedHashMap<>();
+    response.put("data", data);
+    response.put("debugInfo", debugInfo);
+    return response;
+  }
+}
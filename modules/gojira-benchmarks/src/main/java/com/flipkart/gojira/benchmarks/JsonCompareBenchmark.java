@@ -0,0 +1,158 @@
+/*
+ * Copyright 2020 Flipkart Internet, pvt ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.flipkart.gojira.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flipkart.compare.TestCompareException;
+import com.flipkart.compare.handlers.json.JsonTestCompareHandler;
+import com.flipkart.gojira.core.Mode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link JsonTestCompareHandler} comparing a recorded response with a response which is
+ * byte-identical, which has the same data with keys in another order and other formatting, or
+ * which has one value modified.
+ */
+@BenchmarkMode(org.openjdk.jmh.annotations.Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonCompareBenchmark {
+
+  /**
+   * How the actual response differs from the recorded one.
+   */
+  public enum Variant {
+    IDENTICAL,
+    REORDERED,
+    MODIFIED
+  }
+
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+  @Param({"10240", "102400", "1048576"})
+  private int documentBytes;
+
+  @Param({"IDENTICAL", "REORDERED", "MODIFIED"})
+  private Variant variant;
+
+  private JsonTestCompareHandler compareHandler;
+  private byte[] expected;
+  private byte[] actual;
+
+  /**
+   * Builds a response with a list of items of about {@code documentBytes}.
+   */
+  @Setup
+  public void setup() throws Exception {
+    // injects the diff ignore repository used by the compare handler.
+    BenchmarkSetup.install(Mode.NONE, 0.00d);
+    compareHandler = new JsonTestCompareHandler();
+
+    List<Map<String, Object>> items = new ArrayList<>();
+    Map<String, Object> response = new LinkedHashMap<>();
+    response.put("status", "OK");
+    response.put("items", items);
+    int size = 0;
+    for (int i = 0; size < documentBytes; i++) {
+      Map<String, Object> attributes = new LinkedHashMap<>();
+      attributes.put("color", "color-" + (i % 7));
+      attributes.put("size", i % 5);
+      attributes.put("available", i % 3 != 0);
+      Map<String, Object> item = new LinkedHashMap<>();
+      item.put("id", i);
+      item.put("name", "item-" + i);
+      item.put("price", 10.5 + i);
+      item.put("tags", Arrays.asList("tag-" + (i % 11), "tag-" + (i % 13)));
+      item.put("attributes", attributes);
+      item.put("description", null);
+      items.add(item);
+      size += OBJECT_MAPPER.writeValueAsBytes(item).length + 1;
+    }
+    expected = OBJECT_MAPPER.writeValueAsBytes(response);
+
+    switch (variant) {
+      case IDENTICAL:
+        actual = expected.clone();
+        break;
+      case REORDERED:
+        actual =
+            OBJECT_MAPPER.writerWithDefaultPrettyPrinter().writeValueAsBytes(reversed(response));
+        break;
+      default:
+        items.get(items.size() - 1).put("name", "modified");
+        actual = OBJECT_MAPPER.writeValueAsBytes(response);
+    }
+  }
+
+  /**
+   * Compares the responses, returning false if they have a diff.
+   */
+  @Benchmark
+  public boolean compare() {
+    try {
+      compareHandler.compare(expected, actual);
+      return true;
+    } catch (TestCompareException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Copies the value with keys of maps in reverse order.
+   */
+  @SuppressWarnings("unchecked")
+  private static Object reversed(Object value) {
+    if (value instanceof Map) {
+      List<Map.Entry<String, Object>> entries =
+          new ArrayList<>(((Map<String, Object>) value).entrySet());
+      Collections.reverse(entries);
+      Map<String, Object> reversed = new LinkedHashMap<>();
+      for (Map.Entry<String, Object> entry : entries) {
+        reversed.put(entry.getKey(), reversed(entry.getValue()));
+      }
+      return reversed;
+    }
+    if (value instanceof List) {
+      List<Object> reversed = new ArrayList<>();
+      for (Object element : (List<Object>) value) {
+        reversed.add(reversed(element));
+      }
+      return reversed;
+    }
+    return value;
+  }
+}
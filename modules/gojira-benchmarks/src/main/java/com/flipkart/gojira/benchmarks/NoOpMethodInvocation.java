@@ -0,0 +1,73 @@
+/*
+ * Copyright 2020 Flipkart Internet, pvt ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.flipkart.gojira.benchmarks;
+
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Method;
+import org.aopalliance.intercept.MethodInvocation;
+
+/**
+ * {@link MethodInvocation} of {@link #target(String)} which does no work, so that benchmarks
+ * measure only the cost added by interception.
+ */
+public class NoOpMethodInvocation implements MethodInvocation {
+
+  private static final Method TARGET;
+
+  static {
+    try {
+      TARGET = NoOpMethodInvocation.class.getMethod("target", String.class);
+    } catch (NoSuchMethodException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  private final Object[] arguments;
+
+  public NoOpMethodInvocation(String argument) {
+    this.arguments = new Object[] {argument};
+  }
+
+  public String target(String argument) {
+    return argument;
+  }
+
+  @Override
+  public Method getMethod() {
+    return TARGET;
+  }
+
+  @Override
+  public Object[] getArguments() {
+    return arguments;
+  }
+
+  @Override
+  public Object proceed() {
+    return target((String) arguments[0]);
+  }
+
+  @Override
+  public Object getThis() {
+    return this;
+  }
+
+  @Override
+  public AccessibleObject getStaticPart() {
+    return TARGET;
+  }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2020 Flipkart Internet, pvt ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.flipkart.gojira.benchmarks;
+
+import com.flipkart.gojira.core.HttpFilter;
+import com.flipkart.gojira.core.KafkaFilter;
+import com.flipkart.gojira.core.Mode;
+import com.flipkart.gojira.core.RmqFilter;
+import com.flipkart.gojira.core.aspects.ProfileOrTestAspect;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.FilterChain;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the latency added by Gojira to unprofiled traffic when the global mode is {@link
+ * Mode#NONE}. Every integration point is measured against a baseline which does the same
+ * simulated request work without Gojira, so the overhead is the difference between the pairs.
+ */
+@BenchmarkMode(org.openjdk.jmh.annotations.Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NoneModeBenchmark {
+
+  /**
+   * Simulated work per request in {@link Blackhole#consumeCPU(long)} tokens.
+   */
+  @Param({"0", "1000"})
+  private long workTokens;
+
+  private HttpFilter httpFilter;
+  private HttpServletRequest request;
+  private HttpServletResponse response;
+  private FilterChain chain;
+
+  private KafkaFilter kafkaFilter;
+  private RecordHeaders recordHeaders;
+
+  private RmqFilter rmqFilter;
+
+  private ProfileOrTestAspect aspect;
+  private ProceedingJoinPoint joinPoint;
+
+  /**
+   * Installs Gojira in {@link Mode#NONE} and creates stubs for the integration points.
+   */
+  @Setup
+  public void setup() {
+    BenchmarkSetup.install(Mode.NONE, 0.00d);
+    httpFilter = new HttpFilter();
+    request = stub(HttpServletRequest.class);
+    response = stub(HttpServletResponse.class);
+    chain = (req, resp) -> Blackhole.consumeCPU(workTokens);
+    kafkaFilter = new KafkaFilter();
+    recordHeaders = new RecordHeaders();
+    rmqFilter = new RmqFilter();
+    aspect = new ProfileOrTestAspect();
+    joinPoint =
+        (ProceedingJoinPoint)
+            Proxy.newProxyInstance(
+                ProceedingJoinPoint.class.getClassLoader(),
+                new Class[] {ProceedingJoinPoint.class},
+                (proxy, method, args) -> {
+                  if ("proceed".equals(method.getName())) {
+                    Blackhole.consumeCPU(workTokens);
+                  }
+                  return null;
+                });
+  }
+
+  @Benchmark
+  public void httpBaseline() throws Exception {
+    chain.doFilter(request, response);
+  }
+
+  @Benchmark
+  public void httpFilter() throws Exception {
+    httpFilter.doFilter(request, response, chain);
+  }
+
+  @Benchmark
+  public void messageBaseline() {
+    Blackhole.consumeCPU(workTokens);
+  }
+
+  /**
+   * Start and end of a kafka message around the simulated work.
+   */
+  @Benchmark
+  public void kafkaFilter() {
+    kafkaFilter.start("topic", null, null, recordHeaders);
+    Blackhole.consumeCPU(workTokens);
+    kafkaFilter.end(null);
+  }
+
+  /**
+   * Start and end of an RMQ message around the simulated work.
+   */
+  @Benchmark
+  public void rmqFilter() {
+    rmqFilter.start("exchange", null, null, null, false);
+    Blackhole.consumeCPU(workTokens);
+    rmqFilter.end(null);
+  }
+
+  @Benchmark
+  public Object aspectBaseline() throws Throwable {
+    return joinPoint.proceed();
+  }
+
+  @Benchmark
+  public Object aspect() throws Throwable {
+    return aspect.around(joinPoint);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> T stub(Class<T> clazz) {
+    return (T)
+        Proxy.newProxyInstance(
+            clazz.getClassLoader(), new Class[] {clazz}, (proxy, method, args) -> null);
+  }
+}
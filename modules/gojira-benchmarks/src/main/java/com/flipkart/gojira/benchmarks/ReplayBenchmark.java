@@ -0,0 +1,169 @@
+/*
+ * Copyright 2020 Flipkart Internet, pvt ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.flipkart.gojira.benchmarks;
+
+import com.flipkart.compare.diff.DiffType;
+import com.flipkart.gojira.core.CaptureBufferConfig;
+import com.flipkart.gojira.core.DefaultProfileOrTestHandler;
+import com.flipkart.gojira.core.Mode;
+import com.flipkart.gojira.core.ProfileOrTestMethodInterceptor;
+import com.flipkart.gojira.core.injectors.GuiceInjector;
+import com.flipkart.gojira.models.MethodData;
+import com.flipkart.gojira.models.MethodDataType;
+import com.flipkart.gojira.models.TestData;
+import com.flipkart.gojira.models.http.HttpTestRequestData;
+import com.flipkart.gojira.models.http.HttpTestResponseData;
+import com.flipkart.gojira.serde.SerdeHandlerRepository;
+import com.flipkart.gojira.serde.handlers.TestSerdeHandler;
+import com.flipkart.gojira.sinkstore.handlers.SinkHandler;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import org.aopalliance.intercept.MethodInvocation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures replaying a test in {@link Mode#TEST} which calls an intercepted method {@code
+ * invocations} times, with a different argument each time, in the reverse of the order in which
+ * the calls were recorded. Includes reading the recorded test and writing its result.
+ *
+ * <p>Invocations look up the recorded entries by argument fingerprint. With a diff ignore pattern
+ * configured, which matches no path in the arguments, they also check the paths of their argument
+ * against it.
+ */
+@BenchmarkMode(org.openjdk.jmh.annotations.Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReplayBenchmark {
+
+  private static final String TEST_ID = "replay-benchmark";
+
+  @Param({"1000"})
+  private int invocations;
+
+  @Param({"false", "true"})
+  private boolean diffIgnorePatterns;
+
+  @Param({"256"})
+  private int argumentLength;
+
+  private ProfileOrTestMethodInterceptor interceptor;
+  private MethodInvocation[] replayed;
+  private HttpTestRequestData requestData;
+  private HttpTestResponseData responseData;
+
+  /**
+   * Installs Gojira in {@link Mode#TEST} and stores a test recorded with {@code invocations} calls
+   * of {@link NoOpMethodInvocation#target(String)}.
+   */
+  @Setup
+  public void setup() throws Exception {
+    Map<String, List<String>> diffIgnoreMap = new HashMap<>();
+    if (diffIgnorePatterns) {
+      diffIgnoreMap.put(DiffType.MODIFY.name(), Collections.singletonList("^/unused$"));
+    }
+    BenchmarkSetup.install(
+        Mode.TEST, 100.00d, CaptureBufferConfig.builder().build(), diffIgnoreMap);
+    interceptor = new ProfileOrTestMethodInterceptor();
+
+    SerdeHandlerRepository serdeHandlerRepository =
+        GuiceInjector.getInjector().getInstance(SerdeHandlerRepository.class);
+    TestSerdeHandler serdeHandler = serdeHandlerRepository.getDefaultSerdeHandler();
+
+    char[] padding = new char[argumentLength];
+    Arrays.fill(padding, 'a');
+    replayed = new MethodInvocation[invocations];
+    ConcurrentSkipListMap<Long, ConcurrentHashMap<MethodDataType, List<MethodData>>> entries =
+        new ConcurrentSkipListMap<>();
+    for (int i = 0; i < invocations; i++) {
+      String argument = i + new String(padding);
+      replayed[invocations - 1 - i] = new NoOpMethodInvocation(argument);
+      byte[] data = serdeHandler.serialize(argument);
+      ConcurrentHashMap<MethodDataType, List<MethodData>> entry = new ConcurrentHashMap<>();
+      entry.put(
+          MethodDataType.ARGUMENT_BEFORE,
+          Collections.singletonList(
+              new MethodData(
+                  MethodDataType.ARGUMENT_BEFORE, String.class.getName(), data, 0)));
+      entry.put(
+          MethodDataType.RETURN,
+          Collections.singletonList(
+              new MethodData(MethodDataType.RETURN, String.class.getName(), data, 0)));
+      entries.put((long) i, entry);
+    }
+
+    requestData =
+        HttpTestRequestData.builder()
+            .setBody(new byte[0])
+            .setHeaders(new HashMap<>())
+            .setMethod("GET")
+            .setQueryParams("")
+            .setUri("/replay")
+            .build();
+    responseData =
+        HttpTestResponseData.builder()
+            .setBody("ok".getBytes(StandardCharsets.UTF_8))
+            .setHeaders(new HashMap<>())
+            .setStatusCode(200)
+            .build();
+
+    TestData<HttpTestRequestData, HttpTestResponseData, ?> testData = new TestData<>();
+    testData.setId(TEST_ID);
+    testData.setRequestData(requestData);
+    testData.setResponseData(responseData);
+    testData.setMethodDataMap(new ConcurrentHashMap<>());
+    testData.getMethodDataMap().put(replayed[0].getMethod().toGenericString(), entries);
+    GuiceInjector.getInjector()
+        .getInstance(SinkHandler.class)
+        .write(TEST_ID, serdeHandlerRepository.getTestDataSerdeHandler().serialize(testData));
+  }
+
+  /**
+   * Replays the recorded test.
+   */
+  @Benchmark
+  public void replay(Blackhole blackhole) throws Throwable {
+    DefaultProfileOrTestHandler.start(TEST_ID, requestData, Mode.TEST);
+    try {
+      for (MethodInvocation invocation : replayed) {
+        blackhole.consume(interceptor.invoke(invocation));
+      }
+    } finally {
+      DefaultProfileOrTestHandler.end(responseData);
+    }
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2020 Flipkart Internet, pvt ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.flipkart.gojira.benchmarks;
+
+import com.flipkart.gojira.core.Mode;
+import com.flipkart.gojira.core.ProfileOrTestMethodInterceptor;
+import java.util.concurrent.TimeUnit;
+import org.aopalliance.intercept.MethodInvocation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures throughput of {@link ProfileOrTestMethodInterceptor#invoke(MethodInvocation)} for
+ * requests which are not sampled in {@link Mode#PROFILE}, which is the common case in production.
+ * Every such call resolves the request mode, so throughput should scale with the number of
+ * threads.
+ *
+ * <p>Run {@link #main(String[])} to measure with 1 to 64 threads, or run the benchmarks jar with
+ * {@code -t <threads>}.
+ */
+@BenchmarkMode(org.openjdk.jmh.annotations.Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RequestModeBenchmark {
+
+  private ProfileOrTestMethodInterceptor interceptor;
+  private MethodInvocation invocation;
+
+  /**
+   * Installs Gojira in {@link Mode#PROFILE} with no requests sampled.
+   */
+  @Setup
+  public void setup() {
+    BenchmarkSetup.install(Mode.PROFILE, 0.00d);
+    interceptor = new ProfileOrTestMethodInterceptor();
+    invocation = new NoOpMethodInvocation("argument");
+  }
+
+  @Benchmark
+  public Object interceptUnsampledRequest() throws Throwable {
+    return interceptor.invoke(invocation);
+  }
+
+  /**
+   * Runs the benchmark with 1, 2, 4, ... 64 threads.
+   *
+   * @param args unused
+   * @throws RunnerException on failure to run the benchmark
+   */
+  public static void main(String[] args) throws RunnerException {
+    for (int threads = 1; threads <= 64; threads *= 2) {
+      new Runner(
+              new OptionsBuilder()
+                  .include(RequestModeBenchmark.class.getSimpleName())
+                  .threads(threads)
+                  .build())
+          .run();
+    }
+  }
+}
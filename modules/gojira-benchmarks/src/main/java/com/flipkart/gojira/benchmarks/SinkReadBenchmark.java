@@ -0,0 +1,145 @@
+/*
+ * Copyright 2020 Flipkart Internet, pvt ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.flipkart.gojira.benchmarks;
+
+import com.flipkart.gojira.sinkstore.file.FsyncPolicy;
+import com.flipkart.gojira.sinkstore.file.SegmentedLogConfig;
+import com.flipkart.gojira.sinkstore.file.SegmentedLogDataStoreHandler;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures replay reads of test data from {@link SegmentedLogDataStoreHandler}, in random and in
+ * written order, with sealed segments memory-mapped or read through their channel. Run with {@code
+ * -prof gc} to compare allocation rates.
+ */
+@BenchmarkMode(org.openjdk.jmh.annotations.Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SinkReadBenchmark {
+
+  private static final int RECORDS = 10000;
+  private static final int MAX_SEGMENT_BYTES = 4 * 1024 * 1024;
+
+  /**
+   * 0 reads every segment through its channel.
+   */
+  @Param({"0", "268435456"})
+  private long maxMappedBytes;
+
+  @Param({"2048"})
+  private int recordBytes;
+
+  private Path directory;
+  private SegmentedLogDataStoreHandler sink;
+  private String[] testIds;
+  private int next = 0;
+
+  /**
+   * Writes the records in batches and reopens the sink, so that all but the last segment are
+   * sealed.
+   */
+  @Setup
+  public void setup() throws Exception {
+    directory = Files.createTempDirectory("gojira-sink-benchmark");
+    testIds = new String[RECORDS];
+    byte[] record = new byte[recordBytes];
+    Arrays.fill(record, (byte) 'a');
+    try (SegmentedLogDataStoreHandler writer = open()) {
+      Map<String, byte[]> batch = new LinkedHashMap<>();
+      for (int i = 0; i < RECORDS; i++) {
+        testIds[i] = String.valueOf(System.nanoTime()) + i;
+        batch.put(testIds[i], record);
+        if (batch.size() == 100) {
+          writer.writeBatch(batch);
+          batch.clear();
+        }
+      }
+      writer.writeBatch(batch);
+    }
+    sink = open();
+  }
+
+  /**
+   * Closes the sink and deletes its files.
+   */
+  @TearDown
+  public void tearDown() throws Exception {
+    sink.close();
+    try (Stream<Path> files = Files.walk(directory)) {
+      files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+    }
+  }
+
+  @Benchmark
+  public byte randomRead() throws Exception {
+    return last(sink.readBuffer(testIds[ThreadLocalRandom.current().nextInt(RECORDS)]));
+  }
+
+  @Benchmark
+  public byte sequentialRead() throws Exception {
+    next = next == RECORDS - 1 ? 0 : next + 1;
+    return last(sink.readBuffer(testIds[next]));
+  }
+
+  /**
+   * Reads in random order through {@link SegmentedLogDataStoreHandler#read(String)}, which copies
+   * the record out of the mapping.
+   */
+  @Benchmark
+  public byte randomReadCopy() throws Exception {
+    byte[] value = sink.read(testIds[ThreadLocalRandom.current().nextInt(RECORDS)]);
+    return value[value.length - 1];
+  }
+
+  private SegmentedLogDataStoreHandler open() {
+    return new SegmentedLogDataStoreHandler(
+        SegmentedLogConfig.builder()
+            .setPath(directory.toString())
+            .setMaxSegmentBytes(MAX_SEGMENT_BYTES)
+            .setFsyncPolicy(FsyncPolicy.NEVER)
+            .setMaxMappedBytes(maxMappedBytes)
+            .build());
+  }
+
+  private static byte last(ByteBuffer value) {
+    return value.get(value.limit() - 1);
+  }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2020 Flipkart Internet, pvt ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.flipkart.gojira.benchmarks;
+
+import com.flipkart.gojira.models.MethodData;
+import com.flipkart.gojira.models.MethodDataType;
+import com.flipkart.gojira.models.TestData;
+import com.flipkart.gojira.models.http.HttpTestRequestData;
+import com.flipkart.gojira.models.http.HttpTestResponseData;
+import com.flipkart.gojira.serde.config.SerdeConfig;
+import com.flipkart.gojira.serde.config.TestDataFormat;
+import com.flipkart.gojira.serde.handlers.TestSerdeHandler;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures serializing and de-serializing a recorded {@link TestData} in each {@link
+ * TestDataFormat}. The encoded size of the recording is printed during setup. Run with {@code -prof
+ * gc} to compare allocation rates.
+ */
+@BenchmarkMode(org.openjdk.jmh.annotations.Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TestDataSerdeBenchmark {
+
+  @Param({"JSON", "BINARY"})
+  private TestDataFormat format;
+
+  @Param({"20"})
+  private int methods;
+
+  @Param({"512"})
+  private int methodDataBytes;
+
+  private TestSerdeHandler testDataSerdeHandler;
+  private TestData<HttpTestRequestData, HttpTestResponseData, ?> testData;
+  private byte[] encoded;
+  private String firstMethod;
+
+  /**
+   * Records an http call with {@code methods} intercepted methods, each called twice with two
+   * arguments and a return value.
+   */
+  @Setup
+  public void setup() throws Exception {
+    testDataSerdeHandler =
+        SerdeConfig.builder().setTestDataFormat(format).build().getTestDataSerdeHandler();
+    byte[] payload = new byte[methodDataBytes];
+    Arrays.fill(payload, (byte) 'a');
+    testData = new TestData<>();
+    testData.setRequestData(
+        HttpTestRequestData.builder()
+            .setBody(payload)
+            .setHeaders(Collections.singletonMap("Content-Type", "application/json"))
+            .setMethod("POST")
+            .setQueryParams("")
+            .setUri("/benchmark")
+            .build());
+    testData.setResponseData(
+        HttpTestResponseData.builder()
+            .setStatusCode(200)
+            .setHeaders(Collections.singletonMap("Content-Type", "application/json"))
+            .setBody(payload)
+            .build());
+    for (int i = 0; i < methods; i++) {
+      ConcurrentSkipListMap<Long, ConcurrentHashMap<MethodDataType, List<MethodData>>> entries =
+          new ConcurrentSkipListMap<>();
+      for (long key = 0; key < 2; key++) {
+        List<MethodData> arguments = new ArrayList<>();
+        arguments.add(
+            new MethodData(MethodDataType.ARGUMENT_BEFORE, "java.lang.String", payload, 0));
+        arguments.add(
+            new MethodData(MethodDataType.ARGUMENT_BEFORE, "java.lang.String", payload, 1));
+        ConcurrentHashMap<MethodDataType, List<MethodData>> entry = new ConcurrentHashMap<>();
+        entry.put(MethodDataType.ARGUMENT_BEFORE, arguments);
+        entry.put(
+            MethodDataType.RETURN,
+            Collections.singletonList(
+                new MethodData(MethodDataType.RETURN, "java.lang.String", payload, -1)));
+        entries.put(key, entry);
+      }
+      testData
+          .getMethodDataMap()
+          .put("public java.lang.String com.flipkart.Service.method" + i + "(java.lang.String)",
+              entries);
+    }
+    firstMethod = "public java.lang.String com.flipkart.Service.method0(java.lang.String)";
+    encoded = testDataSerdeHandler.serialize(testData);
+    System.out.println(format + " encoded test data bytes: " + encoded.length);
+  }
+
+  @Benchmark
+  public byte[] serialize() throws Exception {
+    return testDataSerdeHandler.serialize(testData);
+  }
+
+  /**
+   * Deserializes the recording and gets the data of all its methods.
+   */
+  @Benchmark
+  public Object deserialize() throws Exception {
+    return testDataSerdeHandler.deserialize(encoded, TestData.class).getMethodDataMap();
+  }
+
+  /**
+   * Deserializes the recording and gets the data of one method, like a replay which fails at the
+   * first method it calls.
+   */
+  @Benchmark
+  public Object deserializeOneMethod() throws Exception {
+    return testDataSerdeHandler.deserialize(encoded, TestData.class).getMethodData(firstMethod);
+  }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2020 Flipkart Internet, pvt ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.flipkart.compare.config;
+
+import com.flipkart.compare.handlers.json.JsonTestCompareHandler;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.Pattern;
+
+/**
+ * JsonCompareConfig holds config for {@link JsonTestCompareHandler}: the array paths whose
+ * elements are compared by position, how many candidates an unmatched element of any other array
+ * is diffed against, and whether large arrays and objects are compared in parallel.
+ */
+public class JsonCompareConfig {
+
+  /**
+   * Default number of candidates an unmatched array element is diffed against.
+   */
+  public static final int DEFAULT_ARRAY_MATCH_CANDIDATE_LIMIT = 16;
+
+  /**
+   * Default number of elements or fields from which arrays and objects are compared in parallel.
+   */
+  public static final int DEFAULT_PARALLEL_THRESHOLD = 1024;
+
+  /**
+   * Patterns of the paths of arrays whose elements are compared by position. Matched, case
+   * insensitive, against the path a diff of the array itself would have, for example
+   * <code>/, items, /</code>.
+   */
+  private List<Pattern> orderedArrayPatterns = Collections.emptyList();
+  /**
+   * Number of candidates an element of an array, which has no equal element in the other array,
+   * is diffed against to find the closest one.
+   */
+  private int arrayMatchCandidateLimit = DEFAULT_ARRAY_MATCH_CANDIDATE_LIMIT;
+  /**
+   * Pool in which large arrays and objects are compared, or null to compare all documents in the
+   * calling thread.
+   */
+  private ForkJoinPool forkJoinPool = null;
+  /**
+   * Number of elements of an array, or fields of an object, from which its comparison is split
+   * into tasks of {@link JsonCompareConfig#forkJoinPool}.
+   */
+  private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+
+  private JsonCompareConfig() {
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  public List<Pattern> getOrderedArrayPatterns() {
+    return orderedArrayPatterns;
+  }
+
+  public int getArrayMatchCandidateLimit() {
+    return arrayMatchCandidateLimit;
+  }
+
+  public ForkJoinPool getForkJoinPool() {
+    return forkJoinPool;
+  }
+
+  public int getParallelThreshold() {
+    return parallelThreshold;
+  }
+
+  /**
+   * Builder for {@link JsonCompareConfig}.
+   */
+  public static class Builder {
+
+    private JsonCompareConfig jsonCompareConfigToBuild;
+
+    private Builder() {
+      this.jsonCompareConfigToBuild = new JsonCompareConfig();
+    }
+
+    public JsonCompareConfig build() {
+      return this.jsonCompareConfigToBuild;
+    }
+
+    /**
+     * Sets the paths of arrays whose elements are compared by position, instead of being matched
+     * to equal or closest elements irrespective of position.
+     *
+     * @param orderedArrayPaths regular expressions of array paths, for example <code>/, items, /
+     *     </code> or <code>.*, history, /</code>
+     * @return this builder
+     */
+    public Builder setOrderedArrayPaths(List<String> orderedArrayPaths) {
+      List<Pattern> patterns = new ArrayList<>();
+      for (String orderedArrayPath : orderedArrayPaths) {
+        patterns.add(Pattern.compile(orderedArrayPath, Pattern.CASE_INSENSITIVE));
+      }
+      this.jsonCompareConfigToBuild.orderedArrayPatterns = patterns;
+      return this;
+    }
+
+    /**
+     * Sets the number of candidates an array element, which has no equal element in the other
+     * array, is diffed against to find the closest one.
+     *
+     * @param arrayMatchCandidateLimit number of candidates, greater than 0
+     * @return this builder
+     */
+    public Builder setArrayMatchCandidateLimit(int arrayMatchCandidateLimit) {
+      if (arrayMatchCandidateLimit <= 0) {
+        throw new IllegalArgumentException("arrayMatchCandidateLimit must be greater than 0.");
+      }
+      this.jsonCompareConfigToBuild.arrayMatchCandidateLimit = arrayMatchCandidateLimit;
+      return this;
+    }
+
+    /**
+     * Sets the pool in which documents are compared. Arrays and objects compared as trees, with at
+     * least parallelThreshold elements or fields, are split into tasks, whose diffs are merged in
+     * the order a comparison in the calling thread would find them.
+     *
+     * @param forkJoinPool pool to compare in, for example {@link ForkJoinPool#commonPool()}, or
+     *     null to compare in the calling thread
+     * @return this builder
+     */
+    public Builder setForkJoinPool(ForkJoinPool forkJoinPool) {
+      this.jsonCompareConfigToBuild.forkJoinPool = forkJoinPool;
+      return this;
+    }
+
+    /**
+     * Sets the number of elements of an array, or fields of an object, from which its comparison
+     * is split into tasks.
+     *
+     * @param parallelThreshold number of elements or fields, greater than 1
+     * @return this builder
+     */
+    public Builder setParallelThreshold(int parallelThreshold) {
+      if (parallelThreshold <= 1) {
+        throw new IllegalArgumentException("parallelThreshold must be greater than 1.");
+      }
+      this.jsonCompareConfigToBuild.parallelThreshold = parallelThreshold;
+      return this;
+    }
+  }
+}
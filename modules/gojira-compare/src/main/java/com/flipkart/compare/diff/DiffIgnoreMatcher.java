@@ -0,0 +1,236 @@
+/*
+ * Copyright 2020 Flipkart Internet, pvt ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.flipkart.compare.diff;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * DiffIgnoreMatcher matches {@link DiffDetail#getDiffPath()} values against the ignore patterns of
+ * a {@link DiffType}, without running each pattern over each path.
+ *
+ * <p>Diff paths are segments joined by <code>", "</code>, for example <code>/, items, (.*), price,
+ * /</code>. Patterns whose segments are each either plain text or <code>.*</code> or <code>(.*)
+ * </code> are compiled into a trie keyed by segment, in which a wildcard segment stands for one or
+ * more path segments, which is what the regular expression matches between two separators. A path
+ * is then matched in one walk over its segments. Other patterns are matched as regular expressions.
+ * Matching is case insensitive for ASCII characters, as with {@link Pattern#CASE_INSENSITIVE}.
+ */
+public final class DiffIgnoreMatcher {
+
+  private static final String SEPARATOR = ", ";
+  private static final String REGEX_CHARACTERS = "\\^$.|?*+()[]{}";
+
+  private final Node root = new Node(false);
+  private final List<Pattern> regexPatterns = new ArrayList<>();
+  private boolean hasSubtreePatterns;
+
+  private DiffIgnoreMatcher() {
+  }
+
+  /**
+   * Compiles the patterns into a matcher.
+   *
+   * @param patterns ignore patterns of a {@link DiffType}
+   * @return matcher of paths matching any of the patterns
+   */
+  public static DiffIgnoreMatcher compile(List<Pattern> patterns) {
+    DiffIgnoreMatcher matcher = new DiffIgnoreMatcher();
+    for (Pattern pattern : patterns) {
+      if (!matcher.addSegments(pattern)) {
+        matcher.regexPatterns.add(pattern);
+      }
+    }
+    return matcher;
+  }
+
+  /**
+   * Checks whether the path matches any of the patterns.
+   *
+   * @param diffPath path of a {@link DiffDetail}
+   * @return true if the path matches a pattern
+   */
+  public boolean matches(String diffPath) {
+    if (diffPath == null) {
+      return false;
+    }
+    for (Node node : walk(diffPath)) {
+      if (node.terminal) {
+        return true;
+      }
+    }
+    for (Pattern pattern : regexPatterns) {
+      if (pattern.matcher(diffPath).matches()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Checks whether all paths which extend the prefix by one or more segments match a pattern, that
+   * is whether any diff under the value at the prefix is matched. Only patterns compiled into the
+   * trie are considered.
+   *
+   * @param pathPrefix path of a value, for example <code>/, debugInfo</code>
+   * @return true if every path under the prefix matches a pattern
+   */
+  public boolean matchesAllUnder(String pathPrefix) {
+    if (!hasSubtreePatterns || pathPrefix == null) {
+      return false;
+    }
+    for (Node node : walk(pathPrefix)) {
+      if ((node.anySegments != null && node.anySegments.terminal)
+          || (node.repeats && node.terminal)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Checks whether any pattern compiled into the trie ends in a wildcard segment, without which
+   * {@link #matchesAllUnder(String)} is always false.
+   *
+   * @return true if some pattern matches all paths under some prefix
+   */
+  public boolean hasSubtreePatterns() {
+    return hasSubtreePatterns;
+  }
+
+  /**
+   * Walks the trie over the segments of the path, returning the nodes it ends at.
+   */
+  private List<Node> walk(String path) {
+    List<Node> nodes = new ArrayList<>();
+    List<Node> next = new ArrayList<>();
+    nodes.add(root);
+    int start = 0;
+    while (!nodes.isEmpty()) {
+      int end = path.indexOf(SEPARATOR, start);
+      String segment = path.substring(start, end == -1 ? path.length() : end);
+      next(nodes, toLowerCase(segment), next);
+      List<Node> previous = nodes;
+      nodes = next;
+      next = previous;
+      next.clear();
+      if (end == -1) {
+        break;
+      }
+      start = end + SEPARATOR.length();
+    }
+    return nodes;
+  }
+
+  private static void next(List<Node> nodes, String segment, List<Node> next) {
+    for (Node node : nodes) {
+      Node child = node.children.get(segment);
+      if (child != null && !next.contains(child)) {
+        next.add(child);
+      }
+      if (node.anySegments != null && !next.contains(node.anySegments)) {
+        next.add(node.anySegments);
+      }
+      if (node.repeats && !next.contains(node)) {
+        next.add(node);
+      }
+    }
+  }
+
+  /**
+   * Adds the segments of the pattern to the trie, unless the pattern is not case insensitive or is
+   * not made of plain text and wildcard segments.
+   */
+  private boolean addSegments(Pattern pattern) {
+    if (pattern.flags() != Pattern.CASE_INSENSITIVE) {
+      return false;
+    }
+    String[] segments = pattern.pattern().split(SEPARATOR, -1);
+    for (String segment : segments) {
+      if (!isWildcard(segment) && !isPlainText(segment)) {
+        return false;
+      }
+    }
+    Node node = root;
+    for (String segment : segments) {
+      if (isWildcard(segment)) {
+        if (node.anySegments == null) {
+          node.anySegments = new Node(true);
+        }
+        node = node.anySegments;
+      } else {
+        node = node.children.computeIfAbsent(toLowerCase(segment), k -> new Node(false));
+      }
+    }
+    node.terminal = true;
+    hasSubtreePatterns |= isWildcard(segments[segments.length - 1]);
+    return true;
+  }
+
+  private static boolean isWildcard(String segment) {
+    return ".*".equals(segment) || "(.*)".equals(segment);
+  }
+
+  private static boolean isPlainText(String segment) {
+    for (int i = 0; i < segment.length(); i++) {
+      char c = segment.charAt(i);
+      if (c > 0x7f || REGEX_CHARACTERS.indexOf(c) != -1) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Lower cases ASCII characters only, the ones {@link Pattern#CASE_INSENSITIVE} folds.
+   */
+  private static String toLowerCase(String segment) {
+    for (int i = 0; i < segment.length(); i++) {
+      char c = segment.charAt(i);
+      if (c >= 'A' && c <= 'Z') {
+        char[] chars = segment.toCharArray();
+        for (int j = i; j < chars.length; j++) {
+          if (chars[j] >= 'A' && chars[j] <= 'Z') {
+            chars[j] = (char) (chars[j] + ('a' - 'A'));
+          }
+        }
+        return new String(chars);
+      }
+    }
+    return segment;
+  }
+
+  /**
+   * Node of the trie. A node reached by a wildcard segment repeats, that is it also matches the
+   * segments following the first one it matched.
+   */
+  private static final class Node {
+
+    private final Map<String, Node> children = new HashMap<>();
+    private final boolean repeats;
+    private Node anySegments;
+    private boolean terminal;
+
+    private Node(boolean repeats) {
+      this.repeats = repeats;
+    }
+  }
+}
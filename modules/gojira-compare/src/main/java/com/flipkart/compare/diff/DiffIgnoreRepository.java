@@ -16,9 +16,11 @@
 
 package com.flipkart.compare.diff;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 /**
@@ -35,6 +37,13 @@ public abstract class DiffIgnoreRepository {
    */
   static final Map<DiffType, List<Pattern>> DIFF_IGNORE_PATTERNS = new HashMap<>();
 
+  /**
+   * This variable holds the patterns of {@link #getDiffIgnorePatterns()} compiled into a {@link
+   * DiffIgnoreMatcher} per {@link DiffDetail#getDiffType()}, with the patterns they were compiled
+   * from.
+   */
+  private final Map<DiffType, CompiledPatterns> compiledPatterns = new ConcurrentHashMap<>();
+
   /**
    * This method sets up {@link DiffIgnoreRepository#DIFF_IGNORE_PATTERNS}.
    *
@@ -51,4 +60,41 @@ public abstract class DiffIgnoreRepository {
    */
   public abstract Map<DiffType, List<Pattern>> getDiffIgnorePatterns();
 
+  /**
+   * Gets the matcher of paths to be ignored, compiled from the patterns of the diffType in {@link
+   * #getDiffIgnorePatterns()}. The matcher is cached, and compiled again once the patterns change.
+   *
+   * @param diffType type of the {@link DiffDetail}
+   * @return matcher compiled from the patterns of the diffType, or null if it has none
+   */
+  public DiffIgnoreMatcher getDiffIgnoreMatcher(DiffType diffType) {
+    Map<DiffType, List<Pattern>> diffIgnorePatterns = getDiffIgnorePatterns();
+    List<Pattern> patterns = diffIgnorePatterns == null ? null : diffIgnorePatterns.get(diffType);
+    if (patterns == null) {
+      compiledPatterns.remove(diffType);
+      return null;
+    }
+    CompiledPatterns compiled = compiledPatterns.get(diffType);
+    // Pattern does not override equals, so this finds patterns added, removed or replaced.
+    if (compiled == null || !compiled.patterns.equals(patterns)) {
+      compiled = new CompiledPatterns(patterns);
+      compiledPatterns.put(diffType, compiled);
+    }
+    return compiled.diffIgnoreMatcher;
+  }
+
+  /**
+   * A {@link DiffIgnoreMatcher} with a copy of the patterns it was compiled from.
+   */
+  private static final class CompiledPatterns {
+
+    private final List<Pattern> patterns;
+    private final DiffIgnoreMatcher diffIgnoreMatcher;
+
+    private CompiledPatterns(List<Pattern> patterns) {
+      this.patterns = new ArrayList<>(patterns);
+      this.diffIgnoreMatcher = DiffIgnoreMatcher.compile(this.patterns);
+    }
+  }
+
 }
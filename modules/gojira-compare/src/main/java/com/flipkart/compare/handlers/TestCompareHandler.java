@@ -20,11 +20,11 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.flipkart.compare.TestCompareException;
 import com.flipkart.compare.diff.DiffDetail;
+import com.flipkart.compare.diff.DiffIgnoreMatcher;
 import com.flipkart.compare.diff.DiffIgnoreRepository;
 import com.flipkart.compare.diff.DiffType;
 import com.google.inject.Inject;
 import java.util.List;
-import java.util.regex.Pattern;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -36,6 +36,7 @@ public abstract class TestCompareHandler {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(TestCompareHandler.class);
   private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+  private static final DiffType[] DIFF_TYPES = DiffType.values();
 
   /**
    * diffIgnoreRepository is used for ignoring generated {@link DiffDetail}.
@@ -89,53 +90,84 @@ public abstract class TestCompareHandler {
   protected abstract void doCompare(byte[] profiledData, byte[] testData)
       throws TestCompareException;
 
+  /**
+   * Returns a fingerprint of the data, such that data which {@link #compare(byte[], byte[])} finds
+   * no diff between have the same fingerprint, so that data can be looked up by what it compares
+   * equal to. Data with a fingerprint must not compare equal to data with a different one, so there
+   * is none for data under whose paths diffs could be ignored.
+   *
+   * <p>This implementation has no fingerprint for any data, extensions which can guarantee the
+   * above should override it.
+   *
+   * @param data data to be compared, not null
+   * @return fingerprint of the data, or null if it may compare equal to data of any fingerprint
+   */
+  public Long getFingerprint(byte[] data) {
+    return null;
+  }
+
   /**
    * Given a {@link DiffDetail}, this method used data from diffIgnoreRepository to check if it can
-   * be ignored.
+   * be ignored, by matching its path with the {@link DiffIgnoreMatcher} of its type.
    *
    * @param diffDetail {@link DiffDetail} generated by the specific implementation of {@link
    *     TestCompareHandler}
    * @return true if {@link DiffDetail} can be ignored
    */
   public final boolean canBeIgnored(DiffDetail diffDetail) {
-    String diffPathForIgnoreRule = diffDetail.getDiffPath();
-
-    if (diffDetail.getDiffType().equals(DiffType.ADD)
-        && diffIgnoreRepository.getDiffIgnorePatterns().containsKey(DiffType.ADD)) {
-      for (Pattern pattern : diffIgnoreRepository.getDiffIgnorePatterns().get(DiffType.ADD)) {
-        if (pattern.matcher(diffPathForIgnoreRule).matches()) {
-          return true;
-        }
-      }
-    }
+    DiffIgnoreMatcher diffIgnoreMatcher =
+        diffIgnoreRepository.getDiffIgnoreMatcher(diffDetail.getDiffType());
+    return diffIgnoreMatcher != null && diffIgnoreMatcher.matches(diffDetail.getDiffPath());
+  }
 
-    if (diffDetail.getDiffType().equals(DiffType.MOVE)
-        && diffIgnoreRepository.getDiffIgnorePatterns().containsKey(DiffType.MOVE)) {
-      for (Pattern pattern : diffIgnoreRepository.getDiffIgnorePatterns().get(DiffType.MOVE)) {
-        if (pattern.matcher(diffPathForIgnoreRule).matches()) {
-          return true;
-        }
+  /**
+   * Checks whether a {@link DiffDetail} at the path would be ignored if it had some {@link
+   * DiffType}.
+   *
+   * @param diffPath path of the diff
+   * @return true if diffs of any {@link DiffType} at the path can be ignored
+   */
+  public final boolean canIgnoreAny(String diffPath) {
+    for (DiffType diffType : DIFF_TYPES) {
+      DiffIgnoreMatcher diffIgnoreMatcher = diffIgnoreRepository.getDiffIgnoreMatcher(diffType);
+      if (diffIgnoreMatcher != null && diffIgnoreMatcher.matches(diffPath)) {
+        return true;
       }
     }
+    return false;
+  }
 
-    if (diffDetail.getDiffType().equals(DiffType.REMOVE)
-        && diffIgnoreRepository.getDiffIgnorePatterns().containsKey(DiffType.REMOVE)) {
-      for (Pattern pattern : diffIgnoreRepository.getDiffIgnorePatterns().get(DiffType.REMOVE)) {
-        if (pattern.matcher(diffPathForIgnoreRule).matches()) {
-          return true;
-        }
+  /**
+   * Checks whether there are ignore patterns of every {@link DiffType} which match all paths under
+   * some path, without which {@link #canIgnoreSubtree(String)} is always false.
+   *
+   * @return true if some subtree can be ignored
+   */
+  public final boolean canIgnoreSubtrees() {
+    for (DiffType diffType : DIFF_TYPES) {
+      DiffIgnoreMatcher diffIgnoreMatcher = diffIgnoreRepository.getDiffIgnoreMatcher(diffType);
+      if (diffIgnoreMatcher == null || !diffIgnoreMatcher.hasSubtreePatterns()) {
+        return false;
       }
     }
+    return true;
+  }
 
-    if (diffDetail.getDiffType().equals(DiffType.MODIFY)
-        && diffIgnoreRepository.getDiffIgnorePatterns().containsKey(DiffType.MODIFY)) {
-      for (Pattern pattern : diffIgnoreRepository.getDiffIgnorePatterns().get(DiffType.MODIFY)) {
-        if (pattern.matcher(diffPathForIgnoreRule).matches()) {
-          return true;
-        }
+  /**
+   * Checks whether every {@link DiffDetail} found under the value at the path would be ignored,
+   * whatever its type, so that the value need not be compared.
+   *
+   * @param diffKey path to the value, which paths of diffs found under it extend
+   * @return true if diffs of every {@link DiffType} under the path can be ignored
+   */
+  public final boolean canIgnoreSubtree(String diffKey) {
+    for (DiffType diffType : DIFF_TYPES) {
+      DiffIgnoreMatcher diffIgnoreMatcher = diffIgnoreRepository.getDiffIgnoreMatcher(diffType);
+      if (diffIgnoreMatcher == null || !diffIgnoreMatcher.matchesAllUnder(diffKey)) {
+        return false;
       }
     }
-    return false;
+    return true;
   }
 
   /**
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2020 Flipkart Internet, pvt ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.flipkart.compare.handlers.json;
+
+import static com.flipkart.compare.handlers.json.JsonTestCompareHandlerUtil.STRICT_JSON_FACTORY;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * JsonCanonicalHash hashes JSON documents by streaming them with a {@link JsonParser}, without
+ * building trees, so that {@link JsonTestCompareHandler} can skip the tree diff for documents it
+ * would find no diff between.
+ *
+ * <p>The hash does not depend on formatting or on the order of keys in objects, which the tree diff
+ * does not either. It depends on the order of elements in arrays and on the text of numbers, so
+ * documents which the tree diff finds equal may still hash differently, which only costs the tree
+ * diff.
+ */
+final class JsonCanonicalHash {
+
+  private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+  private static final long FNV_PRIME = 0x100000001b3L;
+  private static final long OBJECT = 0x9e3779b97f4a7c15L;
+  private static final long ARRAY = 0xbf58476d1ce4e5b9L;
+  private static final long FIELD = 0x94d049bb133111ebL;
+
+  private JsonCanonicalHash() {}
+
+  /**
+   * Checks if two documents, both an object or both an array, hash the same. Documents with any
+   * other root, and ones which can not be parsed, are never equal here.
+   *
+   * <p>Fields and arrays at paths which ignoredSubtree accepts are left out of the hash, so that
+   * documents which differ only under paths whose diffs would all be ignored hash the same.
+   *
+   * @param expected expected document
+   * @param actual actual document
+   * @param ignoredSubtree tests paths in the form of diff paths, or null to hash whole documents
+   * @return true if the documents hash the same
+   */
+  static boolean canonicallyEqual(
+      byte[] expected, byte[] actual, Predicate<String> ignoredSubtree) {
+    // parsers fail on duplicate keys, which the tree diff resolves to the last value, while the
+    // hash would account for all of them.
+    try (JsonParser expectedParser = STRICT_JSON_FACTORY.createParser(expected);
+        JsonParser actualParser = STRICT_JSON_FACTORY.createParser(actual)) {
+      JsonToken root = expectedParser.nextToken();
+      if ((root != JsonToken.START_OBJECT && root != JsonToken.START_ARRAY)
+          || root != actualParser.nextToken()) {
+        return false;
+      }
+      String path = ignoredSubtree == null ? null : "/";
+      return hash(expectedParser, path, ignoredSubtree)
+          == hash(actualParser, path, ignoredSubtree);
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Hashes the value starting at the current token of the parser, leaving the parser at its last
+   * token. Paths are only built if there is an ignoredSubtree to test them.
+   */
+  private static long hash(JsonParser parser, String path, Predicate<String> ignoredSubtree)
+      throws IOException {
+    JsonToken token = parser.currentToken();
+    if (token == null) {
+      throw new JsonParseException(parser, "unexpected end of input");
+    }
+    switch (token) {
+      case START_OBJECT:
+        // fields are summed, so that their order does not matter.
+        long fields = 0;
+        int fieldCount = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+          long name = hashText(parser, FIELD);
+          String fieldPath = path == null ? null : path + ", " + parser.getCurrentName();
+          parser.nextToken();
+          if (fieldPath != null && ignoredSubtree.test(fieldPath)) {
+            parser.skipChildren();
+            continue;
+          }
+          fields += mix(name ^ hash(parser, fieldPath, ignoredSubtree));
+          fieldCount++;
+        }
+        return mix((OBJECT + fieldCount) ^ mix(fields));
+      case START_ARRAY:
+        long elements = ARRAY;
+        String elementPath = path == null ? null : path + ", (.*)";
+        if (elementPath != null && ignoredSubtree.test(elementPath)) {
+          parser.skipChildren();
+          return elements;
+        }
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+          elements = mix((elements ^ hash(parser, elementPath, ignoredSubtree)) * FNV_PRIME);
+        }
+        return elements;
+      case VALUE_STRING:
+      case VALUE_NUMBER_INT:
+      case VALUE_NUMBER_FLOAT:
+        return hashText(parser, token.ordinal());
+      default:
+        return mix(token.ordinal());
+    }
+  }
+
+  /**
+   * Hashes a tree, consistently with {@link JsonNode#equals(Object)}: equal trees hash the same,
+   * whatever the order of fields in their objects.
+   *
+   * @param node tree to hash
+   * @return hash of the tree
+   */
+  static long hash(JsonNode node) {
+    switch (node.getNodeType()) {
+      case OBJECT:
+        long fields = 0;
+        Iterator<Map.Entry<String, JsonNode>> iterator = node.fields();
+        while (iterator.hasNext()) {
+          Map.Entry<String, JsonNode> field = iterator.next();
+          fields += mix(mix(FIELD ^ field.getKey().hashCode()) ^ hash(field.getValue()));
+        }
+        return mix((OBJECT + node.size()) ^ mix(fields));
+      case ARRAY:
+        long elements = ARRAY;
+        for (JsonNode element : node) {
+          elements = mix((elements ^ hash(element)) * FNV_PRIME);
+        }
+        return elements;
+      default:
+        return mix(((long) node.getNodeType().ordinal() << 32) ^ node.hashCode());
+    }
+  }
+
+  /**
+   * Hashes bytes as they are, for data which is not compared as a tree.
+   *
+   * @param data bytes to hash
+   * @return hash of the bytes
+   */
+  static long hash(byte[] data) {
+    long hash = FNV_OFFSET_BASIS;
+    for (byte b : data) {
+      hash = (hash ^ (b & 0xff)) * FNV_PRIME;
+    }
+    return mix(hash + data.length);
+  }
+
+  private static long hashText(JsonParser parser, long seed) throws IOException {
+    char[] text = parser.getTextCharacters();
+    int offset = parser.getTextOffset();
+    int length = parser.getTextLength();
+    long hash = FNV_OFFSET_BASIS ^ seed;
+    for (int i = offset; i < offset + length; i++) {
+      hash = (hash ^ text[i]) * FNV_PRIME;
+    }
+    return mix(hash + length);
+  }
+
+  /**
+   * Finalizer of MurmurHash3, so that every bit of the input affects every bit of the hash.
+   */
+  private static long mix(long hash) {
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ceb9fe1a85ec53L;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+}
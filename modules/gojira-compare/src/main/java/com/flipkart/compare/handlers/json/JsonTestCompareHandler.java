@@ -16,24 +16,42 @@
 
 package com.flipkart.compare.handlers.json;
 
-import static com.flipkart.compare.handlers.json.JsonTestCompareHandlerUtil.findStringInArray;
+import static com.flipkart.compare.handlers.json.JsonTestCompareHandlerUtil.STRICT_JSON_FACTORY;
 import static com.flipkart.compare.handlers.json.JsonTestCompareHandlerUtil.getObjectKeys;
 
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonParser.NumberType;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.NullNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 import com.flipkart.compare.TestCompareException;
+import com.flipkart.compare.config.JsonCompareConfig;
 import com.flipkart.compare.diff.DiffDetail;
 import com.flipkart.compare.diff.DiffType;
 import com.flipkart.compare.handlers.TestCompareHandler;
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -46,11 +64,36 @@ public class JsonTestCompareHandler extends TestCompareHandler {
   private static final Logger LOGGER = LoggerFactory.getLogger(JsonTestCompareHandler.class);
   private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
 
+  private static final int RANGES_PER_THREAD = 4;
+
+  private final JsonCompareConfig jsonCompareConfig;
+
+  public JsonTestCompareHandler() {
+    this(JsonCompareConfig.builder().build());
+  }
+
+  public JsonTestCompareHandler(JsonCompareConfig jsonCompareConfig) {
+    this.jsonCompareConfig = jsonCompareConfig;
+  }
+
   /**
    * This method de-serializes byte[] to {@link com.fasterxml.jackson.databind.JsonNode} Depending
    * on whether the object is an {@link ObjectNode} or {@link ArrayNode} or {@link Object} invokes
    * the respective overloaded method.
    *
+   * <p>Byte-identical data, and documents with the same {@link JsonCanonicalHash}, are taken to
+   * have no diffs without being de-serialized. Other documents with an object or array root are
+   * compared on their token streams, see {@link #compareStreams(byte[], byte[])}, which falls back
+   * to {@link JsonNode} trees for documents with duplicate keys or which can not be parsed.
+   *
+   * <p>If there is a {@link JsonCompareConfig#getForkJoinPool()}, large arrays and objects of the
+   * trees built are compared in parallel. Documents are compared on their token streams whether
+   * there is a pool or not, so that the pool does not change the diffs found.
+   *
+   * <p>Either way, fields and arrays at paths under which diffs of every {@link DiffType} are
+   * ignored, see {@link TestCompareHandler#canIgnoreSubtree(String)}, are skipped without being
+   * compared.
+   *
    * @param profiledData expected data in bytes
    * @param testData actual data in bytes
    * @throws TestCompareException when there is a diff
@@ -81,6 +124,19 @@ public class JsonTestCompareHandler extends TestCompareHandler {
         return;
       }
 
+      // identical documents, and ones which differ only in formatting or key order, have no diffs,
+      // which is the common case, so the trees are only built if their hashes differ.
+      if (Arrays.equals(profiledData, testData)
+          || JsonCanonicalHash.canonicallyEqual(
+              profiledData, testData, canIgnoreSubtrees() ? this::canIgnoreSubtree : null)) {
+        return;
+      }
+
+      // compare token streams, which builds trees only for arrays not matching in order.
+      if (compareStreams(profiledData, testData)) {
+        return;
+      }
+
       // de-serialize to JsonNode.
       JsonNode expectedNode = OBJECT_MAPPER.readTree(profiledData);
       JsonNode actualNode = OBJECT_MAPPER.readTree(testData);
@@ -141,147 +197,470 @@ public class JsonTestCompareHandler extends TestCompareHandler {
   }
 
   /**
-   * This method does ArrayNode to ArrayNode comparison.
+   * Returns {@link JsonCanonicalHash#hash(JsonNode)} of documents with an object or array root,
+   * which does not depend on formatting or the order of keys, and a hash of the bytes of other
+   * data, which {@link #doCompare(byte[], byte[])} compares byte by byte. There is no fingerprint
+   * if a diff at the path of any value in the data could be ignored, nor for extensions of this
+   * class, which may compare differently.
    *
-   * @param expectedArray expected data as ArrayNode
-   * @param actualArray actual data as ArrayNode
-   * @param diffs previously generated diffs before this invocation
-   * @param diffKey nested path for this current node TODO: Refactor this method.
+   * @param data data to be compared, not null
+   * @return fingerprint of the data, or null if it may compare equal to data of any fingerprint
    */
-  private void compute(
-      ArrayNode expectedArray, ArrayNode actualArray, List<DiffDetail> diffs, String diffKey) {
-    // Maintain 2 maps to identify ADD & REMOVE
-    Map<Integer, Integer> mappedExpectedToActual = new HashMap<>();
-    Map<Integer, Integer> mappedActualToExpected = new HashMap<>();
+  @Override
+  public Long getFingerprint(byte[] data) {
+    // data which can not be compared as trees have their diff at the root.
+    if (getClass() != JsonTestCompareHandler.class || canIgnoreAny("/")) {
+      return null;
+    }
+    JsonNode node;
+    try {
+      node = OBJECT_MAPPER.readTree(data);
+    } catch (IOException e) {
+      return JsonCanonicalHash.hash(data);
+    }
+    if (node == null || !(node.isObject() || node.isArray())) {
+      return JsonCanonicalHash.hash(data);
+    }
+    return canIgnoreAnyUnder(node, "/") ? null : JsonCanonicalHash.hash(node);
+  }
 
-    // Match all elements in expected elements in JSONArray
-    for (int i = 0; i < expectedArray.size(); i++) {
-      for (int j = 0; j < actualArray.size(); j++) {
-        // if this element in actualArray is already mapped to another element in expected, skip
-        if (mappedActualToExpected.containsKey(j)) {
-          continue;
+  /**
+   * Checks whether a diff at the path of the node, or of any value under it, could be ignored.
+   */
+  private boolean canIgnoreAnyUnder(JsonNode node, String diffKey) {
+    if (canIgnoreAny(diffKey + ", /")) {
+      return true;
+    }
+    if (node.isObject()) {
+      Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+      while (fields.hasNext()) {
+        Map.Entry<String, JsonNode> field = fields.next();
+        if (canIgnoreAnyUnder(field.getValue(), diffKey + ", " + field.getKey())) {
+          return true;
+        }
+      }
+    } else if (node.isArray()) {
+      for (JsonNode element : node) {
+        if (canIgnoreAnyUnder(element, diffKey + ", (.*)")) {
+          return true;
         }
+      }
+    }
+    return false;
+  }
 
-        Object expectedObject = expectedArray.get(i);
-        Object actualObject = actualArray.get(j);
+  /**
+   * Compares documents which both have an object or both an array root by walking their token
+   * streams in lockstep. Fields of actual objects which come before the expected field being
+   * compared are buffered until it is found. Array elements are compared pairwise while they match,
+   * which maps them the same way {@link #compute(ArrayNode, ArrayNode, List, String)} would, and
+   * the elements from the first pair which does not match on are read into {@link ArrayNode} and
+   * matched by it. The {@link DiffDetail} generated are the same as those of the tree comparison.
+   *
+   * @param profiledData expected data in bytes
+   * @param testData actual data in bytes
+   * @return false if the documents were not compared
+   * @throws TestCompareException when there is a diff
+   */
+  private boolean compareStreams(byte[] profiledData, byte[] testData)
+      throws TestCompareException {
+    List<DiffDetail> diffs = new ArrayList<>();
+    try (JsonParser expected = STRICT_JSON_FACTORY.createParser(profiledData);
+        JsonParser actual = STRICT_JSON_FACTORY.createParser(testData)) {
+      JsonToken root = expected.nextToken();
+      if ((root != JsonToken.START_OBJECT && root != JsonToken.START_ARRAY)
+          || root != actual.nextToken()) {
+        return false;
+      }
+      if (root == JsonToken.START_OBJECT) {
+        compareObjects(expected, actual, diffs, "/");
+      } else {
+        compareArrays(expected, actual, diffs, "/");
+      }
+    } catch (IOException e) {
+      LOGGER.trace("unable to compare token streams, comparing trees.", e);
+      return false;
+    }
 
-        // create temporary newDiffs array list to get initial match against any element in list
-        List<DiffDetail> newDiffs = new ArrayList<>();
-        compute(expectedObject, actualObject, newDiffs, diffKey + ", (.*)");
-        if (newDiffs.size() > 0) {
-          continue;
+    for (DiffDetail diffDetail : diffs) {
+      LOGGER.trace(
+          "diff type: " + diffDetail.getDiffType() + ", diff path: " + diffDetail.getDiffPath());
+    }
+    if (diffs.size() > 0) {
+      throw new TestCompareException(diffs);
+    }
+    return true;
+  }
+
+  /**
+   * Streaming counterpart of {@link #compute(Object, Object, List, String)}. Compares the values at
+   * the current tokens of the parsers, leaving them at the last token of the values.
+   */
+  private void compare(
+      JsonParser expected, JsonParser actual, List<DiffDetail> diffs, String diffKey)
+      throws IOException {
+    JsonToken expectedToken = expected.currentToken();
+    JsonToken actualToken = actual.currentToken();
+    if (expectedToken == JsonToken.START_OBJECT && actualToken == JsonToken.START_OBJECT) {
+      compareObjects(expected, actual, diffs, diffKey);
+    } else if (expectedToken == JsonToken.START_ARRAY && actualToken == JsonToken.START_ARRAY) {
+      compareArrays(expected, actual, diffs, diffKey);
+    } else if (!expectedToken.isScalarValue()
+        || !actualToken.isScalarValue()
+        || !scalarEquals(expected, actual)) {
+      addDiff(diffs, diffKey + ", /", readValue(expected), readValue(actual));
+    }
+  }
+
+  /**
+   * Streaming counterpart of {@link #compute(ObjectNode, ObjectNode, List, String)}. Expects the
+   * parsers at the start of the objects.
+   */
+  private void compareObjects(
+      JsonParser expected, JsonParser actual, List<DiffDetail> diffs, String diffKey)
+      throws IOException {
+    // fields of actual read before the expected field they are compared with, in actual order.
+    Map<String, TokenBuffer> bufferedFields = null;
+    boolean actualEnded = false;
+
+    while (expected.nextToken() == JsonToken.FIELD_NAME) {
+      String key = expected.getCurrentName();
+      String fieldKey = diffKey + ", " + key;
+      expected.nextToken();
+      // diffs of a field with an ignored path are ignored whether actual has the field or not.
+      if (canIgnoreSubtree(fieldKey)) {
+        expected.skipChildren();
+        continue;
+      }
+
+      TokenBuffer bufferedField = bufferedFields == null ? null : bufferedFields.remove(key);
+      if (bufferedField != null) {
+        try (JsonParser buffered = bufferedField.asParser()) {
+          buffered.nextToken();
+          compare(expected, buffered, diffs, fieldKey);
         }
+        continue;
+      }
 
-        // update mappedExpectedToActual and mappedActualToExpected
-        mappedExpectedToActual.put(i, j);
-        mappedActualToExpected.put(j, i);
-
-        // create a diff of type move if i does not match j
-        if (i != j) {
-          DiffDetail diff =
-              getDiffDetail(
-                  diffKey + ", (.*), /",
-                  getNullable(expectedObject),
-                  getNullable(actualObject),
-                  DiffType.MOVE);
-          if (diff != null) {
-            diffs.add(diff);
-          }
+      boolean found = false;
+      while (!actualEnded) {
+        if (actual.nextToken() != JsonToken.FIELD_NAME) {
+          actualEnded = true;
+          break;
         }
-        break;
+        String actualKey = actual.getCurrentName();
+        actual.nextToken();
+        if (actualKey.equals(key)) {
+          compare(expected, actual, diffs, fieldKey);
+          found = true;
+          break;
+        }
+        if (canIgnoreSubtree(diffKey + ", " + actualKey)) {
+          actual.skipChildren();
+          continue;
+        }
+        if (bufferedFields == null) {
+          bufferedFields = new LinkedHashMap<>();
+        }
+        bufferedFields.put(actualKey, buffer(actual));
+      }
+      if (!found) {
+        addDiff(diffs, fieldKey + ", /", readValue(expected), null);
       }
     }
 
-    List<Integer> notMappedExpectedObjectNodesIndexList = new ArrayList<>();
-    List<Integer> notMappedActualObjectNodesIndexList = new ArrayList<>();
-    Map<Integer, List<Integer>> notMappedExpectedToPotentialActualObjectNodesMapForDiffComp =
-        new HashMap<>();
-    for (int i = 0; i < expectedArray.size(); i++) {
-      if (!mappedExpectedToActual.containsKey(i) && (expectedArray.get(i).isObject())) {
-        notMappedExpectedObjectNodesIndexList.add(i);
-      }
-    }
-
-    for (int i = 0; i < actualArray.size(); i++) {
-      if (!mappedActualToExpected.containsKey(i) && (actualArray.get(i).isObject())) {
-        notMappedActualObjectNodesIndexList.add(i);
-      }
-    }
-
-    for (Integer notMappedExpectedObjectNodeIndex : notMappedExpectedObjectNodesIndexList) {
-      String[] expectedKeys =
-          JsonTestCompareHandlerUtil.getObjectKeys(
-              (ObjectNode) (expectedArray.get(notMappedExpectedObjectNodeIndex)));
-      for (Integer notMappedActualObjectNodeIndex : notMappedActualObjectNodesIndexList) {
-        String[] actualKeys =
-            JsonTestCompareHandlerUtil.getObjectKeys(
-                (ObjectNode) (actualArray.get(notMappedActualObjectNodeIndex)));
-        if (JsonTestCompareHandlerUtil.allExpectedKeysInActualKeys(expectedKeys, actualKeys)) {
-          if (notMappedExpectedToPotentialActualObjectNodesMapForDiffComp.containsKey(
-              notMappedExpectedObjectNodeIndex)) {
-            notMappedExpectedToPotentialActualObjectNodesMapForDiffComp
-                .get(notMappedExpectedObjectNodeIndex)
-                .add(notMappedActualObjectNodeIndex);
-          } else {
-            List<Integer> potentialActualNodeIndexList = new ArrayList<>();
-            potentialActualNodeIndexList.add(notMappedActualObjectNodeIndex);
-            notMappedExpectedToPotentialActualObjectNodesMapForDiffComp.put(
-                notMappedExpectedObjectNodeIndex, potentialActualNodeIndexList);
-          }
+    // fields of actual which are not in expected.
+    if (bufferedFields != null) {
+      for (Map.Entry<String, TokenBuffer> bufferedField : bufferedFields.entrySet()) {
+        try (JsonParser buffered = bufferedField.getValue().asParser()) {
+          buffered.nextToken();
+          addDiff(
+              diffs, diffKey + ", " + bufferedField.getKey() + ", /", null, readValue(buffered));
         }
       }
     }
-
-    for (int i = 0; i < expectedArray.size(); i++) {
-      if (mappedExpectedToActual.containsKey(i)) {
+    while (!actualEnded && actual.nextToken() == JsonToken.FIELD_NAME) {
+      String actualKey = actual.getCurrentName();
+      actual.nextToken();
+      if (canIgnoreSubtree(diffKey + ", " + actualKey)) {
+        actual.skipChildren();
         continue;
       }
+      addDiff(diffs, diffKey + ", " + actualKey + ", /", null, readValue(actual));
+    }
+  }
 
-      Map<Integer, List<DiffDetail>> mapOfAllDiffDetails = new HashMap<>();
-      for (int j = 0; j < actualArray.size(); j++) {
-        if (mappedActualToExpected.containsKey(j)) {
+  /**
+   * Streaming counterpart of {@link #compute(ArrayNode, ArrayNode, List, String)}. Expects the
+   * parsers at the start of the arrays.
+   */
+  private void compareArrays(
+      JsonParser expected, JsonParser actual, List<DiffDetail> diffs, String diffKey)
+      throws IOException {
+    if (canIgnoreSubtree(diffKey + ", (.*)")) {
+      expected.skipChildren();
+      actual.skipChildren();
+      return;
+    }
+    ArrayNode expectedRemaining = OBJECT_MAPPER.createArrayNode();
+    ArrayNode actualRemaining = OBJECT_MAPPER.createArrayNode();
+    JsonToken expectedToken;
+    JsonToken actualToken;
+    while (true) {
+      expectedToken = expected.nextToken();
+      actualToken = actual.nextToken();
+      if (expectedToken == JsonToken.END_ARRAY || actualToken == JsonToken.END_ARRAY) {
+        break;
+      }
+
+      if (expectedToken.isScalarValue() && actualToken.isScalarValue()) {
+        if (scalarEquals(expected, actual)) {
           continue;
         }
-
-        if (notMappedExpectedToPotentialActualObjectNodesMapForDiffComp.containsKey(i)
-            && !notMappedExpectedToPotentialActualObjectNodesMapForDiffComp.get(i).contains(j)) {
+        expectedRemaining.add(OBJECT_MAPPER.<JsonNode>readTree(expected));
+        actualRemaining.add(OBJECT_MAPPER.<JsonNode>readTree(actual));
+      } else {
+        TokenBuffer expectedElement = buffer(expected);
+        TokenBuffer actualElement = buffer(actual);
+        List<DiffDetail> elementDiffs = new ArrayList<>();
+        try (JsonParser expectedBuffered = expectedElement.asParser();
+            JsonParser actualBuffered = actualElement.asParser()) {
+          expectedBuffered.nextToken();
+          actualBuffered.nextToken();
+          compare(expectedBuffered, actualBuffered, elementDiffs, diffKey + ", (.*)");
+        }
+        if (elementDiffs.isEmpty()) {
           continue;
         }
+        expectedRemaining.add(readValue(expectedElement));
+        actualRemaining.add(readValue(actualElement));
+      }
+      expectedToken = expected.nextToken();
+      actualToken = actual.nextToken();
+      break;
+    }
 
-        Object actualObject = actualArray.get(j);
-        Object expectedObject = expectedArray.get(i);
+    // elements from the first pair which did not match on are matched irrespective of order.
+    readRemaining(expected, expectedToken, expectedRemaining);
+    readRemaining(actual, actualToken, actualRemaining);
+    if (expectedRemaining.size() > 0 || actualRemaining.size() > 0) {
+      compute(expectedRemaining, actualRemaining, diffs, diffKey);
+    }
+  }
 
-        List<DiffDetail> newDiffs = new ArrayList<>();
-        compute(expectedObject, actualObject, newDiffs, diffKey + ", (.*)");
-        if (newDiffs.size() > 0) {
-          mapOfAllDiffDetails.put(j, newDiffs);
-          continue;
+  /**
+   * Checks if scalar values at the current tokens of the parsers are equal as {@link JsonNode}.
+   */
+  private static boolean scalarEquals(JsonParser expected, JsonParser actual) throws IOException {
+    JsonToken token = expected.currentToken();
+    if (token != actual.currentToken()) {
+      return false;
+    }
+    switch (token) {
+      case VALUE_STRING:
+        return textEquals(expected, actual);
+      case VALUE_NUMBER_INT:
+      case VALUE_NUMBER_FLOAT:
+        NumberType numberType = expected.getNumberType();
+        if (numberType != actual.getNumberType()) {
+          return false;
+        }
+        if (numberType == NumberType.INT || numberType == NumberType.LONG) {
+          return expected.getLongValue() == actual.getLongValue();
+        }
+        if (numberType == NumberType.DOUBLE) {
+          return Double.compare(expected.getDoubleValue(), actual.getDoubleValue()) == 0;
         }
+        return OBJECT_MAPPER.readTree(expected).equals(OBJECT_MAPPER.readTree(actual));
+      case VALUE_TRUE:
+      case VALUE_FALSE:
+      case VALUE_NULL:
+        return true;
+      default:
+        return OBJECT_MAPPER.readTree(expected).equals(OBJECT_MAPPER.readTree(actual));
+    }
+  }
 
-        mappedExpectedToActual.put(i, j);
-        mappedActualToExpected.put(j, i);
+  private static boolean textEquals(JsonParser expected, JsonParser actual) throws IOException {
+    int length = expected.getTextLength();
+    if (length != actual.getTextLength()) {
+      return false;
+    }
+    char[] expectedText = expected.getTextCharacters();
+    int expectedOffset = expected.getTextOffset();
+    char[] actualText = actual.getTextCharacters();
+    int actualOffset = actual.getTextOffset();
+    for (int i = 0; i < length; i++) {
+      if (expectedText[expectedOffset + i] != actualText[actualOffset + i]) {
+        return false;
       }
+    }
+    return true;
+  }
 
-      if (mapOfAllDiffDetails.size() > 0) {
-        List<DiffDetail> minDiffDetail =
-            mapOfAllDiffDetails.entrySet().iterator().next().getValue();
-        Integer j = mapOfAllDiffDetails.entrySet().iterator().next().getKey();
-        for (Map.Entry<Integer, List<DiffDetail>> diffDetailsEntry :
-            mapOfAllDiffDetails.entrySet()) {
-          if (diffDetailsEntry.getValue().size() < minDiffDetail.size()) {
-            minDiffDetail = diffDetailsEntry.getValue();
-            j = diffDetailsEntry.getKey();
+  private void addDiff(List<DiffDetail> diffs, String diffKey, Object expected, Object actual) {
+    DiffDetail diffDetail =
+        getDiffDetail(diffKey, getNullable(expected), getNullable(actual), DiffType.MODIFY);
+    if (diffDetail != null) {
+      diffs.add(diffDetail);
+    }
+  }
+
+  /**
+   * Copies the value at the current token of the parser, leaving it at the last token of the
+   * value.
+   */
+  private static TokenBuffer buffer(JsonParser parser) throws IOException {
+    TokenBuffer buffer = new TokenBuffer(parser);
+    buffer.copyCurrentStructure(parser);
+    return buffer;
+  }
+
+  /**
+   * Reads the value at the current token of the parser, leaving it at the last token of the value.
+   */
+  private static JsonNode readValue(JsonParser parser) throws IOException {
+    return OBJECT_MAPPER.readTree(parser);
+  }
+
+  private static JsonNode readValue(TokenBuffer buffer) throws IOException {
+    try (JsonParser parser = buffer.asParser()) {
+      parser.nextToken();
+      return readValue(parser);
+    }
+  }
+
+  /**
+   * Reads the elements of an array from the current token of the parser to the end of the array.
+   */
+  private static void readRemaining(JsonParser parser, JsonToken token, ArrayNode remaining)
+      throws IOException {
+    while (token != JsonToken.END_ARRAY) {
+      if (token == null) {
+        throw new JsonParseException(parser, "unexpected end of input");
+      }
+      remaining.add(readValue(parser));
+      token = parser.nextToken();
+    }
+  }
+
+  /**
+   * This method does ArrayNode to ArrayNode comparison.
+   *
+   * <p>Elements of arrays matching {@link JsonCompareConfig#getOrderedArrayPatterns()} are compared
+   * by position. Elements of other arrays are first matched to equal elements, looked up by their
+   * hash, with a MOVE diff if the positions differ. Each remaining expected element is then diffed
+   * against at most {@link JsonCompareConfig#getArrayMatchCandidateLimit()} remaining actual
+   * elements, objects with the same keys first, and mapped to the one with the least diffs, with a
+   * MOVE diff if there are none and the positions differ. Elements left over are diffs of their
+   * own.
+   *
+   * <p>With a {@link JsonCompareConfig#getForkJoinPool()}, the hashes of elements of large arrays
+   * are computed in parallel, and so are the diffs of remaining expected elements against the
+   * candidates they have before any of them is mapped, which the mapping looks up.
+   *
+   * @param expectedArray expected data as ArrayNode
+   * @param actualArray actual data as ArrayNode
+   * @param diffs previously generated diffs before this invocation
+   * @param diffKey nested path for this current node
+   */
+  private void compute(
+      ArrayNode expectedArray, ArrayNode actualArray, List<DiffDetail> diffs, String diffKey) {
+    // diffs of elements, and of elements matched with others, are all under this path.
+    if (canIgnoreSubtree(diffKey + ", (.*)")) {
+      return;
+    }
+    if (isOrderedArray(diffKey)) {
+      computeOrdered(expectedArray, actualArray, diffs, diffKey);
+      return;
+    }
+
+    // Maintain 2 maps to identify ADD & REMOVE
+    int[] mappedExpectedToActual = new int[expectedArray.size()];
+    Arrays.fill(mappedExpectedToActual, -1);
+    boolean[] mappedActual = new boolean[actualArray.size()];
+
+    // match equal elements, each expected element to the first unmapped equal actual element.
+    if (!isParallel(expectedArray.size() + actualArray.size())
+        || !matchEqualElementsInParallel(
+            expectedArray, actualArray, mappedExpectedToActual, mappedActual)) {
+      matchEqualElements(expectedArray, actualArray, mappedExpectedToActual, mappedActual);
+    }
+    for (int i = 0; i < expectedArray.size(); i++) {
+      int j = mappedExpectedToActual[i];
+      if (j != -1) {
+        addMoveDiff(expectedArray, actualArray, i, j, diffs, diffKey);
+      }
+    }
+
+    // group unmapped actual elements, objects by their keys, to pick candidates from.
+    Set<Integer> unmappedActualIndexes = new LinkedHashSet<>();
+    Map<Set<String>, Set<Integer>> unmappedActualObjectIndexesByKeys = new HashMap<>();
+    for (int j = 0; j < actualArray.size(); j++) {
+      if (mappedActual[j]) {
+        continue;
+      }
+      unmappedActualIndexes.add(j);
+      JsonNode actualObject = actualArray.get(j);
+      if (actualObject.isObject()) {
+        unmappedActualObjectIndexesByKeys
+            .computeIfAbsent(getObjectKeySet(actualObject), k -> new LinkedHashSet<>())
+            .add(j);
+      }
+    }
+
+    // map each unmapped expected element to the candidate with the least diffs.
+    Map<Long, List<DiffDetail>> candidateDiffs =
+        computeCandidateDiffs(
+            expectedArray,
+            actualArray,
+            mappedExpectedToActual,
+            unmappedActualIndexes,
+            unmappedActualObjectIndexesByKeys,
+            diffKey);
+    for (int i = 0; i < expectedArray.size() && !unmappedActualIndexes.isEmpty(); i++) {
+      if (mappedExpectedToActual[i] != -1) {
+        continue;
+      }
+      JsonNode expectedObject = expectedArray.get(i);
+      int closestIndex = -1;
+      List<DiffDetail> closestDiffs = null;
+      for (int j :
+          getCandidates(
+              expectedObject, unmappedActualIndexes, unmappedActualObjectIndexesByKeys)) {
+        List<DiffDetail> newDiffs = candidateDiffs.get(getCandidateKey(i, j));
+        if (newDiffs == null) {
+          newDiffs = new ArrayList<>();
+          compute(expectedObject, actualArray.get(j), newDiffs, diffKey + ", (.*)");
+        }
+        if (closestDiffs == null || newDiffs.size() < closestDiffs.size()) {
+          closestIndex = j;
+          closestDiffs = newDiffs;
+          if (newDiffs.isEmpty()) {
+            break;
           }
         }
-        diffs.addAll(minDiffDetail);
-        mappedActualToExpected.put(j, i);
-        mappedExpectedToActual.put(i, j);
+      }
+      if (closestDiffs == null) {
+        continue;
+      }
+      diffs.addAll(closestDiffs);
+      // elements equal but for ignored diffs are moved as equal elements are.
+      if (closestDiffs.isEmpty()) {
+        addMoveDiff(expectedArray, actualArray, i, closestIndex, diffs, diffKey);
+      }
+      mappedExpectedToActual[i] = closestIndex;
+      mappedActual[closestIndex] = true;
+      unmappedActualIndexes.remove(closestIndex);
+      JsonNode actualObject = actualArray.get(closestIndex);
+      if (actualObject.isObject()) {
+        unmappedActualObjectIndexesByKeys.get(getObjectKeySet(actualObject)).remove(closestIndex);
       }
     }
 
     // all actual elements but not expected elements in JSONArray
     for (int j = 0; j < actualArray.size(); j++) {
-      if (mappedActualToExpected.containsKey(j)) {
+      if (mappedActual[j]) {
         continue;
       }
 
@@ -295,7 +674,7 @@ public class JsonTestCompareHandler extends TestCompareHandler {
 
     // all expected elements but not actual elements in JSONArray
     for (int i = 0; i < expectedArray.size(); i++) {
-      if (mappedExpectedToActual.containsKey(i)) {
+      if (mappedExpectedToActual[i] != -1) {
         continue;
       }
 
@@ -322,26 +701,25 @@ public class JsonTestCompareHandler extends TestCompareHandler {
     String[] expectedKeys = getObjectKeys(expectedObject);
     String[] actualKeys = getObjectKeys(actualObject);
 
-    // compare all expected objects in actual
-    if (expectedKeys.length > 0) {
-      for (String expectedKey : expectedKeys) {
-        compute(
-            expectedObject.get(expectedKey),
-            actualObject.has(expectedKey) ? actualObject.get(expectedKey) : null,
-            diffs,
-            diffKey + ", " + expectedKey);
-      }
-    }
-
-    // compare additional actual objects which are not present in expected
-    if (actualKeys.length > 0) {
-      for (String actualKey : actualKeys) {
-        // ignore expected objects which are already compared against actual objects
-        if (!findStringInArray(actualKey, expectedKeys)) {
-          compute(null, actualObject.get(actualKey), diffs, diffKey + ", " + actualKey);
-        }
-      }
+    if (isParallel(expectedKeys.length + actualKeys.length)) {
+      computeInRanges(
+          expectedKeys.length,
+          diffs,
+          (from, to, rangeDiffs) ->
+              computeExpectedFields(
+                  expectedObject, actualObject, expectedKeys, from, to, rangeDiffs, diffKey));
+      computeInRanges(
+          actualKeys.length,
+          diffs,
+          (from, to, rangeDiffs) ->
+              computeActualFields(
+                  expectedObject, actualObject, actualKeys, from, to, rangeDiffs, diffKey));
+      return;
     }
+    computeExpectedFields(
+        expectedObject, actualObject, expectedKeys, 0, expectedKeys.length, diffs, diffKey);
+    computeActualFields(
+        expectedObject, actualObject, actualKeys, 0, actualKeys.length, diffs, diffKey);
   }
 
   /**
@@ -389,10 +767,400 @@ public class JsonTestCompareHandler extends TestCompareHandler {
     // TODO: What if expected and actual are of different types?
   }
 
+  /**
+   * Picks the actual elements an unmapped expected element is diffed against, in the order of
+   * preference: for an object, unmapped objects with the same keys, then ones with more keys, and
+   * otherwise any unmapped element. An object is left unmapped if the actual objects with its keys
+   * were all mapped to other elements. At most {@link
+   * JsonCompareConfig#getArrayMatchCandidateLimit()} are picked.
+   */
+  private List<Integer> getCandidates(
+      JsonNode expectedObject,
+      Set<Integer> unmappedActualIndexes,
+      Map<Set<String>, Set<Integer>> unmappedActualObjectIndexesByKeys) {
+    int limit = jsonCompareConfig.getArrayMatchCandidateLimit();
+    List<Integer> candidates = new ArrayList<>();
+    if (expectedObject.isObject()) {
+      Set<String> expectedKeys = getObjectKeySet(expectedObject);
+      boolean hasKeys = false;
+      Set<Integer> sameKeys = unmappedActualObjectIndexesByKeys.get(expectedKeys);
+      if (sameKeys != null) {
+        hasKeys = true;
+        addCandidates(sameKeys, candidates, limit);
+      }
+      for (Map.Entry<Set<String>, Set<Integer>> entry :
+          unmappedActualObjectIndexesByKeys.entrySet()) {
+        if (candidates.size() >= limit) {
+          break;
+        }
+        if (entry.getKey().size() > expectedKeys.size()
+            && entry.getKey().containsAll(expectedKeys)) {
+          hasKeys = true;
+          addCandidates(entry.getValue(), candidates, limit);
+        }
+      }
+      if (hasKeys) {
+        return candidates;
+      }
+    }
+    addCandidates(unmappedActualIndexes, candidates, limit);
+    return candidates;
+  }
+
+  private static void addCandidates(Set<Integer> indexes, List<Integer> candidates, int limit) {
+    for (int index : indexes) {
+      if (candidates.size() >= limit) {
+        return;
+      }
+      candidates.add(index);
+    }
+  }
+
+  private static Set<String> getObjectKeySet(JsonNode objectNode) {
+    Set<String> keys = new HashSet<>();
+    objectNode.fieldNames().forEachRemaining(keys::add);
+    return keys;
+  }
+
+  private boolean isOrderedArray(String diffKey) {
+    List<Pattern> orderedArrayPatterns = jsonCompareConfig.getOrderedArrayPatterns();
+    if (orderedArrayPatterns.isEmpty()) {
+      return false;
+    }
+    String arrayPath = diffKey + ", /";
+    for (Pattern pattern : orderedArrayPatterns) {
+      if (pattern.matcher(arrayPath).matches()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Compares the elements of arrays by position. Elements past the end of the shorter array are
+   * diffs of their own.
+   */
+  private void computeOrdered(
+      ArrayNode expectedArray, ArrayNode actualArray, List<DiffDetail> diffs, String diffKey) {
+    int size = Math.max(expectedArray.size(), actualArray.size());
+    if (isParallel(size)) {
+      computeInRanges(
+          size,
+          diffs,
+          (from, to, rangeDiffs) ->
+              computeOrdered(expectedArray, actualArray, from, to, rangeDiffs, diffKey));
+      return;
+    }
+    computeOrdered(expectedArray, actualArray, 0, size, diffs, diffKey);
+  }
+
+  private void computeOrdered(
+      ArrayNode expectedArray,
+      ArrayNode actualArray,
+      int from,
+      int to,
+      List<DiffDetail> diffs,
+      String diffKey) {
+    for (int i = from; i < to; i++) {
+      JsonNode expectedObject = expectedArray.get(i);
+      JsonNode actualObject = actualArray.get(i);
+      if (expectedObject != null && actualObject != null) {
+        compute(expectedObject, actualObject, diffs, diffKey + ", (.*)");
+        continue;
+      }
+      DiffDetail diffDetail =
+          getDiffDetail(
+              diffKey + ", (.*), /",
+              getNullable(expectedObject),
+              getNullable(actualObject),
+              DiffType.MODIFY);
+      if (diffDetail != null) {
+        diffs.add(diffDetail);
+      }
+    }
+  }
+
+  /**
+   * Compares the fields of expected from index from, inclusive, to index to, exclusive, with the
+   * fields of actual with the same keys.
+   */
+  private void computeExpectedFields(
+      ObjectNode expectedObject,
+      ObjectNode actualObject,
+      String[] expectedKeys,
+      int from,
+      int to,
+      List<DiffDetail> diffs,
+      String diffKey) {
+    for (int i = from; i < to; i++) {
+      String expectedKey = expectedKeys[i];
+      if (canIgnoreSubtree(diffKey + ", " + expectedKey)) {
+        continue;
+      }
+      compute(
+          expectedObject.get(expectedKey),
+          actualObject.has(expectedKey) ? actualObject.get(expectedKey) : null,
+          diffs,
+          diffKey + ", " + expectedKey);
+    }
+  }
+
+  /**
+   * Adds diffs of the fields of actual from index from, inclusive, to index to, exclusive, which
+   * are not in expected.
+   */
+  private void computeActualFields(
+      ObjectNode expectedObject,
+      ObjectNode actualObject,
+      String[] actualKeys,
+      int from,
+      int to,
+      List<DiffDetail> diffs,
+      String diffKey) {
+    for (int i = from; i < to; i++) {
+      String actualKey = actualKeys[i];
+      // ignore expected objects which are already compared against actual objects
+      if (!expectedObject.has(actualKey) && !canIgnoreSubtree(diffKey + ", " + actualKey)) {
+        compute(null, actualObject.get(actualKey), diffs, diffKey + ", " + actualKey);
+      }
+    }
+  }
+
+  /**
+   * Creates a diff of type move if expected element i is mapped to actual element j at another
+   * position.
+   */
+  private void addMoveDiff(
+      ArrayNode expectedArray,
+      ArrayNode actualArray,
+      int i,
+      int j,
+      List<DiffDetail> diffs,
+      String diffKey) {
+    if (i == j) {
+      return;
+    }
+    DiffDetail diff =
+        getDiffDetail(
+            diffKey + ", (.*), /",
+            getNullable(expectedArray.get(i)),
+            getNullable(actualArray.get(j)),
+            DiffType.MOVE);
+    if (diff != null) {
+      diffs.add(diff);
+    }
+  }
+
+  /**
+   * Matches each expected element to the first unmapped actual element equal to it.
+   */
+  private static void matchEqualElements(
+      ArrayNode expectedArray,
+      ArrayNode actualArray,
+      int[] mappedExpectedToActual,
+      boolean[] mappedActual) {
+    Map<JsonNode, ArrayDeque<Integer>> actualIndexesByElement = new HashMap<>();
+    for (int j = 0; j < actualArray.size(); j++) {
+      actualIndexesByElement.computeIfAbsent(actualArray.get(j), k -> new ArrayDeque<>()).add(j);
+    }
+    for (int i = 0; i < expectedArray.size(); i++) {
+      ArrayDeque<Integer> actualIndexes = actualIndexesByElement.get(expectedArray.get(i));
+      if (actualIndexes == null || actualIndexes.isEmpty()) {
+        continue;
+      }
+      int j = actualIndexes.poll();
+      mappedExpectedToActual[i] = j;
+      mappedActual[j] = true;
+    }
+  }
+
+  /**
+   * Matches elements as {@link #matchEqualElements(ArrayNode, ArrayNode, int[], boolean[])} does,
+   * looking each expected element up among actual elements by a {@link JsonCanonicalHash} computed
+   * in parallel, and then checking in parallel that the elements matched are equal. If some are
+   * not, the lookup may have passed over an equal element, so nothing is matched and false is
+   * returned.
+   */
+  private boolean matchEqualElementsInParallel(
+      ArrayNode expectedArray,
+      ArrayNode actualArray,
+      int[] mappedExpectedToActual,
+      boolean[] mappedActual) {
+    long[] expectedHashes = hashElements(expectedArray);
+    long[] actualHashes = hashElements(actualArray);
+    Map<Long, ArrayDeque<Integer>> actualIndexesByHash = new HashMap<>();
+    for (int j = 0; j < actualArray.size(); j++) {
+      actualIndexesByHash.computeIfAbsent(actualHashes[j], k -> new ArrayDeque<>()).add(j);
+    }
+    int[] matched = new int[expectedArray.size()];
+    for (int i = 0; i < expectedArray.size(); i++) {
+      ArrayDeque<Integer> actualIndexes = actualIndexesByHash.get(expectedHashes[i]);
+      matched[i] = actualIndexes == null || actualIndexes.isEmpty() ? -1 : actualIndexes.poll();
+    }
+
+    AtomicBoolean allEqual = new AtomicBoolean(true);
+    runInRanges(
+        expectedArray.size(),
+        (range, from, to) -> {
+          for (int i = from; i < to && allEqual.get(); i++) {
+            if (matched[i] != -1 && !expectedArray.get(i).equals(actualArray.get(matched[i]))) {
+              allEqual.set(false);
+            }
+          }
+        });
+    if (!allEqual.get()) {
+      return false;
+    }
+    for (int i = 0; i < matched.length; i++) {
+      if (matched[i] != -1) {
+        mappedExpectedToActual[i] = matched[i];
+        mappedActual[matched[i]] = true;
+      }
+    }
+    return true;
+  }
+
+  private long[] hashElements(ArrayNode array) {
+    long[] hashes = new long[array.size()];
+    runInRanges(
+        array.size(),
+        (range, from, to) -> {
+          for (int i = from; i < to; i++) {
+            hashes[i] = JsonCanonicalHash.hash(array.get(i));
+          }
+        });
+    return hashes;
+  }
+
+  /**
+   * Diffs, in parallel, each unmapped expected element against the candidates it has before any of
+   * them is mapped, which are mostly the ones it has when it is mapped. Diffs nothing unless there
+   * are at least {@link JsonCompareConfig#getParallelThreshold()} unmapped expected elements.
+   *
+   * @return diffs by {@link #getCandidateKey(int, int)}
+   */
+  private Map<Long, List<DiffDetail>> computeCandidateDiffs(
+      ArrayNode expectedArray,
+      ArrayNode actualArray,
+      int[] mappedExpectedToActual,
+      Set<Integer> unmappedActualIndexes,
+      Map<Set<String>, Set<Integer>> unmappedActualObjectIndexesByKeys,
+      String diffKey) {
+    List<Integer> unmappedExpectedIndexes = new ArrayList<>();
+    for (int i = 0; i < mappedExpectedToActual.length; i++) {
+      if (mappedExpectedToActual[i] == -1) {
+        unmappedExpectedIndexes.add(i);
+      }
+    }
+    if (unmappedActualIndexes.isEmpty() || !isParallel(unmappedExpectedIndexes.size())) {
+      return Collections.emptyMap();
+    }
+
+    List<List<Integer>> candidates = new ArrayList<>();
+    for (int i : unmappedExpectedIndexes) {
+      candidates.add(
+          getCandidates(
+              expectedArray.get(i), unmappedActualIndexes, unmappedActualObjectIndexesByKeys));
+    }
+    Map<Long, List<DiffDetail>> candidateDiffs = new ConcurrentHashMap<>();
+    runInRanges(
+        unmappedExpectedIndexes.size(),
+        (range, from, to) -> {
+          for (int k = from; k < to; k++) {
+            int i = unmappedExpectedIndexes.get(k);
+            for (int j : candidates.get(k)) {
+              List<DiffDetail> newDiffs = new ArrayList<>();
+              compute(expectedArray.get(i), actualArray.get(j), newDiffs, diffKey + ", (.*)");
+              candidateDiffs.put(getCandidateKey(i, j), newDiffs);
+              if (newDiffs.isEmpty()) {
+                break;
+              }
+            }
+          }
+        });
+    return candidateDiffs;
+  }
+
+  private static long getCandidateKey(int expectedIndex, int actualIndex) {
+    return ((long) expectedIndex << 32) | actualIndex;
+  }
+
+  private boolean isParallel(int size) {
+    return jsonCompareConfig.getForkJoinPool() != null
+        && size >= jsonCompareConfig.getParallelThreshold();
+  }
+
+  /**
+   * Computes the diffs of each range of indexes in a task of its own, adding them to diffs in the
+   * order of the ranges, which is the order in which one task would have found them.
+   */
+  private void computeInRanges(int size, List<DiffDetail> diffs, DiffRangeTask diffRangeTask) {
+    List<List<DiffDetail>> rangeDiffs =
+        new ArrayList<>(Collections.<List<DiffDetail>>nCopies(getRangeCount(size), null));
+    runInRanges(
+        size,
+        (range, from, to) -> {
+          List<DiffDetail> newDiffs = new ArrayList<>();
+          diffRangeTask.compute(from, to, newDiffs);
+          rangeDiffs.set(range, newDiffs);
+        });
+    for (List<DiffDetail> newDiffs : rangeDiffs) {
+      diffs.addAll(newDiffs);
+    }
+  }
+
+  /**
+   * Splits indexes from 0 to size into ranges, a few for each thread of the {@link
+   * JsonCompareConfig#getForkJoinPool()}, and runs the task on each range in the pool, returning
+   * once it has run on all of them. Tasks run from a thread of the pool fork into it directly.
+   */
+  private void runInRanges(int size, IndexRangeTask indexRangeTask) {
+    ForkJoinPool forkJoinPool = jsonCompareConfig.getForkJoinPool();
+    int ranges = getRangeCount(size);
+    List<ForkJoinTask<?>> tasks = new ArrayList<>(ranges);
+    for (int range = 0; range < ranges; range++) {
+      int index = range;
+      int from = (int) ((long) size * range / ranges);
+      int to = (int) ((long) size * (range + 1) / ranges);
+      tasks.add(ForkJoinTask.adapt(() -> indexRangeTask.run(index, from, to)));
+    }
+    if (ForkJoinTask.getPool() == forkJoinPool) {
+      ForkJoinTask.invokeAll(tasks);
+    } else {
+      forkJoinPool.invoke(
+          ForkJoinTask.adapt(
+              () -> {
+                ForkJoinTask.invokeAll(tasks);
+              }));
+    }
+  }
+
+  private int getRangeCount(int size) {
+    return Math.min(size, jsonCompareConfig.getForkJoinPool().getParallelism() * RANGES_PER_THREAD);
+  }
+
   private Object getNullable(Object obj) {
     if (obj == null || obj instanceof NullNode) {
       return null;
     }
     return obj;
   }
+
+  /**
+   * Work on the indexes from, inclusive, to to, exclusive, of the range-th range of an array or of
+   * the keys of an object.
+   */
+  private interface IndexRangeTask {
+
+    void run(int range, int from, int to);
+  }
+
+  /**
+   * Computation of the diffs of the indexes from, inclusive, to to, exclusive, of an array or of
+   * the keys of an object.
+   */
+  private interface DiffRangeTask {
+
+    void compute(int from, int to, List<DiffDetail> diffs);
+  }
 }
@@ -16,6 +16,8 @@
 
 package com.flipkart.compare.handlers.json;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -27,6 +29,14 @@ import java.util.List;
  */
 public final class JsonTestCompareHandlerUtil {
 
+  /**
+   * Factory of parsers which fail on duplicate keys. Comparisons done on token streams fall back to
+   * {@link com.fasterxml.jackson.databind.JsonNode} trees for such documents, which resolve
+   * duplicate keys to the last value.
+   */
+  static final JsonFactory STRICT_JSON_FACTORY =
+      new JsonFactory().enable(JsonParser.Feature.STRICT_DUPLICATE_DETECTION);
+
   /**
    * Helper function to convert ObjectNode to String[].
    *
@@ -40,46 +50,4 @@ public final class JsonTestCompareHandlerUtil {
     }
     return Arrays.copyOf(keys.toArray(), keys.toArray().length, String[].class);
   }
-
-  /**
-   * Helper function which checks if all the elements in <code>expectedKeys</code> are present in
-   * <code>actualKeys</code>.
-   *
-   * @param expectedKeys string array of expected keys
-   * @param actualKeys string array of actual keys
-   * @return true if found else false
-   */
-  static boolean allExpectedKeysInActualKeys(String[] expectedKeys, String[] actualKeys) {
-    for (String expectedKey : expectedKeys) {
-      boolean found = false;
-      for (String actualKey : actualKeys) {
-        if (actualKey.equals(expectedKey)) {
-          found = true;
-          break;
-        }
-      }
-      if (!found) {
-        return false;
-      }
-    }
-    return true;
-  }
-
-  /**
-   * Helper function which checks if a input string to be found is present in <code>data</code>.
-   *
-   * @param find input string to be found is present in
-   * @param data data string array and returns
-   * @return true if found else false
-   */
-  static boolean findStringInArray(String find, String[] data) {
-    boolean keyFound = false;
-    for (String dataElement : data) {
-      if (find.equals(dataElement)) {
-        keyFound = true;
-        break;
-      }
-    }
-    return keyFound;
-  }
 }
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2020 Flipkart Internet, pvt ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.flipkart.gojira.core;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * AsyncCaptureConfig enables recording of method data intercepted in {@link Mode#PROFILE} on a
+ * bounded pool of worker threads instead of the request thread. This can be provided by the
+ * client application, if not provided asynchronous capture is disabled.
+ *
+ * <p>Values of immutable types are handed to the worker pool as is and serialized there. Values
+ * of any other type, be it an argument, the return value or the exception, may be mutated once
+ * the intercepted method returns, so they are snapshotted by serializing them on the request
+ * thread, and only hashing and recording is deferred. Client applications can add their own
+ * immutable value types by calling {@link Builder#setImmutableTypes(List)}.
+ *
+ * <p>When the pool and its queue are saturated, the request is marked {@link ProfileState#FAILED}
+ * instead of blocking the request thread.
+ */
+public class AsyncCaptureConfig {
+
+  private static final List<Class<?>> DEFAULT_IMMUTABLE_TYPES =
+      Arrays.asList(
+          String.class,
+          Boolean.class,
+          Byte.class,
+          Character.class,
+          Short.class,
+          Integer.class,
+          Long.class,
+          Float.class,
+          Double.class,
+          BigInteger.class,
+          BigDecimal.class,
+          UUID.class,
+          Duration.class,
+          Instant.class,
+          LocalDate.class,
+          LocalDateTime.class,
+          LocalTime.class,
+          OffsetDateTime.class,
+          ZonedDateTime.class);
+
+  private boolean enabled = false;
+
+  /**
+   * Number of worker threads serializing intercepted method data.
+   */
+  private int poolSize = 2;
+
+  /**
+   * Maximum number of captures waiting for a worker thread.
+   */
+  private int queueCapacity = 1000;
+
+  private Set<Class<?>> immutableTypes = new HashSet<>(DEFAULT_IMMUTABLE_TYPES);
+
+  private AsyncCaptureConfig() {}
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public int getPoolSize() {
+    return poolSize;
+  }
+
+  public int getQueueCapacity() {
+    return queueCapacity;
+  }
+
+  public Set<Class<?>> getImmutableTypes() {
+    return Collections.unmodifiableSet(immutableTypes);
+  }
+
+  public static class Builder {
+
+    private AsyncCaptureConfig asyncCaptureConfigToBuild;
+
+    private Builder() {
+      this.asyncCaptureConfigToBuild = new AsyncCaptureConfig();
+    }
+
+    public AsyncCaptureConfig build() {
+      return this.asyncCaptureConfigToBuild;
+    }
+
+    public Builder setEnabled(boolean enabled) {
+      this.asyncCaptureConfigToBuild.enabled = enabled;
+      return this;
+    }
+
+    /**
+     * Sets the number of worker threads.
+     *
+     * @param poolSize must be greater than 0
+     * @return builder
+     */
+    public Builder setPoolSize(int poolSize) {
+      if (poolSize <= 0) {
+        throw new IllegalArgumentException("poolSize must be greater than 0.");
+      }
+      this.asyncCaptureConfigToBuild.poolSize = poolSize;
+      return this;
+    }
+
+    /**
+     * Sets the number of captures that can wait for a worker thread.
+     *
+     * @param queueCapacity must be greater than 0
+     * @return builder
+     */
+    public Builder setQueueCapacity(int queueCapacity) {
+      if (queueCapacity <= 0) {
+        throw new IllegalArgumentException("queueCapacity must be greater than 0.");
+      }
+      this.asyncCaptureConfigToBuild.queueCapacity = queueCapacity;
+      return this;
+    }
+
+    /**
+     * Adds types whose instances cannot change once created, in addition to the defaults. Enums
+     * are always treated as immutable.
+     *
+     * @param immutableTypes cannot be null
+     * @return builder
+     */
+    public Builder setImmutableTypes(List<Class<?>> immutableTypes) {
+      if (immutableTypes == null) {
+        throw new IllegalArgumentException("immutableTypes cannot be null.");
+      }
+      this.asyncCaptureConfigToBuild.immutableTypes.addAll(immutableTypes);
+      return this;
+    }
+  }
+}
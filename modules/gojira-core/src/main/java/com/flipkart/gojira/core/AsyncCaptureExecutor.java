@@ -0,0 +1,126 @@
+/*
+ * Copyright 2020 Flipkart Internet, pvt ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.flipkart.gojira.core;
+
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounded pool of worker threads on which intercepted method data is serialized, hashed and
+ * recorded when {@link AsyncCaptureConfig} is enabled. Submission never blocks: when the pool and
+ * its queue are saturated, the capture is rejected and the caller is expected to fail the profile.
+ */
+public class AsyncCaptureExecutor {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(AsyncCaptureExecutor.class);
+
+  private static volatile AsyncCaptureExecutor instance = null;
+
+  private final ThreadPoolExecutor executor;
+  private final Set<Class<?>> immutableTypes;
+
+  private final AtomicLong submittedCount = new AtomicLong();
+  private final AtomicLong rejectedCount = new AtomicLong();
+
+  private AsyncCaptureExecutor(AsyncCaptureConfig asyncCaptureConfig) {
+    AtomicInteger threadCount = new AtomicInteger();
+    this.executor =
+        new ThreadPoolExecutor(
+            asyncCaptureConfig.getPoolSize(),
+            asyncCaptureConfig.getPoolSize(),
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(asyncCaptureConfig.getQueueCapacity()),
+            runnable -> {
+              Thread thread =
+                  new Thread(runnable, "gojira-async-capture-" + threadCount.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+    this.immutableTypes = asyncCaptureConfig.getImmutableTypes();
+  }
+
+  /**
+   * Returns the executor if asynchronous capture is enabled, else null.
+   *
+   * @return executor or null
+   */
+  public static AsyncCaptureExecutor getInstance() {
+    return instance;
+  }
+
+  /**
+   * Replaces the executor as per the config, shutting down the previous one after the captures it
+   * has already accepted complete.
+   */
+  static void configure(AsyncCaptureConfig asyncCaptureConfig) {
+    AsyncCaptureExecutor previous = instance;
+    instance =
+        asyncCaptureConfig != null && asyncCaptureConfig.isEnabled()
+            ? new AsyncCaptureExecutor(asyncCaptureConfig)
+            : null;
+    if (previous != null) {
+      previous.executor.shutdown();
+    }
+  }
+
+  /**
+   * Returns true if the value can be handed to another thread as is, because it cannot change
+   * once the intercepted method returns.
+   */
+  boolean isImmutable(Object value) {
+    return value == null || value instanceof Enum || immutableTypes.contains(value.getClass());
+  }
+
+  /**
+   * Submits the capture without blocking.
+   *
+   * @return false if the pool is saturated or shut down and the capture was not accepted
+   */
+  boolean submit(Runnable capture) {
+    try {
+      executor.execute(capture);
+      submittedCount.incrementAndGet();
+      return true;
+    } catch (RejectedExecutionException e) {
+      rejectedCount.incrementAndGet();
+      LOGGER.debug("async capture pool is saturated, rejecting capture.");
+      return false;
+    }
+  }
+
+  public long getSubmittedCount() {
+    return submittedCount.get();
+  }
+
+  public long getRejectedCount() {
+    return rejectedCount.get();
+  }
+
+  public int getQueuedCount() {
+    return executor.getQueue().size();
+  }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2020 Flipkart Internet, pvt ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.flipkart.gojira.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Growable byte buffer backed by arrays leased from a {@link CaptureBufferPool}. When it grows,
+ * the outgrown array is returned to the pool right away. Once released, the buffer is empty and
+ * stops accepting bytes, so that a late writer cannot write into an array already reused by
+ * another request.
+ *
+ * <p>Instances are not thread safe and are meant to be used by the request thread.
+ */
+final class CaptureBuffer {
+
+  private static final byte[] EMPTY = new byte[0];
+
+  private final CaptureBufferPool pool;
+
+  private byte[] buffer = EMPTY;
+  private int count = 0;
+  private boolean released = false;
+
+  CaptureBuffer(CaptureBufferPool pool) {
+    this.pool = pool;
+  }
+
+  int size() {
+    return count;
+  }
+
+  /**
+   * Grows the buffer to fit len more bytes, doubling but without exceeding maxCapacity.
+   *
+   * @return false if the buffer has been released
+   */
+  boolean ensureCapacity(int len, int maxCapacity) {
+    if (released) {
+      return false;
+    }
+    int required = count + len;
+    if (required > buffer.length) {
+      int doubled = buffer.length > maxCapacity / 2 ? maxCapacity : buffer.length * 2;
+      byte[] grown = pool.acquire(Math.max(required, doubled));
+      System.arraycopy(buffer, 0, grown, 0, count);
+      pool.release(buffer);
+      buffer = grown;
+    }
+    return true;
+  }
+
+  /**
+   * Appends a byte, the buffer must have capacity for it.
+   */
+  void write(int data) {
+    buffer[count++] = (byte) data;
+  }
+
+  /**
+   * Appends bytes, the buffer must have capacity for them.
+   */
+  void write(byte[] data, int off, int len) {
+    System.arraycopy(data, off, buffer, count, len);
+    count += len;
+  }
+
+  /**
+   * Reads the stream to its end into the buffer.
+   *
+   * @throws IOException if an input or output exception occurred
+   */
+  void readFrom(InputStream inputStream) throws IOException {
+    while (true) {
+      if (count == buffer.length && !ensureCapacity(1, Integer.MAX_VALUE)) {
+        throw new IllegalStateException("capture buffer has been released.");
+      }
+      int read = inputStream.read(buffer, count, buffer.length - count);
+      if (read < 0) {
+        return;
+      }
+      count += read;
+    }
+  }
+
+  /**
+   * Returns an exact-size copy of the captured bytes which is safe to use after release.
+   *
+   * @return captured bytes
+   */
+  byte[] toByteArray() {
+    return count == 0 ? EMPTY : Arrays.copyOf(buffer, count);
+  }
+
+  /**
+   * Discards the captured bytes and returns the array to the pool. The buffer can be reused.
+   */
+  void clear() {
+    pool.release(buffer);
+    buffer = EMPTY;
+    count = 0;
+  }
+
+  /**
+   * Discards the captured bytes and returns the array to the pool. Further writes are ignored.
+   */
+  void release() {
+    if (!released) {
+      released = true;
+      clear();
+    }
+  }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2020 Flipkart Internet, pvt ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.flipkart.gojira.core;
+
+/**
+ * CaptureBufferConfig sizes the {@link CaptureBufferPool} from which buffers capturing http
+ * request and response bodies are leased. This can be provided by the client application, if not
+ * provided defaults are used.
+ *
+ * <p>Buffers are pooled in power of two size classes between {@link #minBufferBytes} and {@link
+ * #maxBufferBytes}. Larger buffers are allocated for the request and left to garbage collection.
+ */
+public class CaptureBufferConfig {
+
+  private boolean enabled = true;
+
+  /**
+   * Size of the smallest buffer leased, rounded up to a power of two.
+   */
+  private int minBufferBytes = 1024;
+
+  /**
+   * Size of the largest buffer kept in the pool, rounded up to a power of two.
+   */
+  private int maxBufferBytes = 1024 * 1024;
+
+  /**
+   * Maximum number of bytes held by idle buffers across all size classes.
+   */
+  private long maxPooledBytes = 16L * 1024 * 1024;
+
+  private CaptureBufferConfig() {}
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public int getMinBufferBytes() {
+    return minBufferBytes;
+  }
+
+  public int getMaxBufferBytes() {
+    return maxBufferBytes;
+  }
+
+  public long getMaxPooledBytes() {
+    return maxPooledBytes;
+  }
+
+  public static class Builder {
+
+    private static final int MAX_BUFFER_BYTES = 1 << 30;
+
+    private CaptureBufferConfig captureBufferConfigToBuild;
+
+    private Builder() {
+      this.captureBufferConfigToBuild = new CaptureBufferConfig();
+    }
+
+    /**
+     * Builds the config after validating that the size classes are in order.
+     *
+     * @return config
+     */
+    public CaptureBufferConfig build() {
+      if (this.captureBufferConfigToBuild.minBufferBytes
+          > this.captureBufferConfigToBuild.maxBufferBytes) {
+        throw new IllegalArgumentException(
+            "minBufferBytes cannot be greater than maxBufferBytes.");
+      }
+      return this.captureBufferConfigToBuild;
+    }
+
+    /**
+     * If disabled, buffers are allocated for every request and never reused.
+     *
+     * @param enabled true to reuse buffers
+     * @return builder
+     */
+    public Builder setEnabled(boolean enabled) {
+      this.captureBufferConfigToBuild.enabled = enabled;
+      return this;
+    }
+
+    /**
+     * Sets the size of the smallest buffer.
+     *
+     * @param minBufferBytes must be between 1 and 2^30
+     * @return builder
+     */
+    public Builder setMinBufferBytes(int minBufferBytes) {
+      if (minBufferBytes <= 0 || minBufferBytes > MAX_BUFFER_BYTES) {
+        throw new IllegalArgumentException("minBufferBytes must be between 1 and 2^30.");
+      }
+      this.captureBufferConfigToBuild.minBufferBytes = minBufferBytes;
+      return this;
+    }
+
+    /**
+     * Sets the size of the largest pooled buffer.
+     *
+     * @param maxBufferBytes must be between 1 and 2^30
+     * @return builder
+     */
+    public Builder setMaxBufferBytes(int maxBufferBytes) {
+      if (maxBufferBytes <= 0 || maxBufferBytes > MAX_BUFFER_BYTES) {
+        throw new IllegalArgumentException("maxBufferBytes must be between 1 and 2^30.");
+      }
+      this.captureBufferConfigToBuild.maxBufferBytes = maxBufferBytes;
+      return this;
+    }
+
+    /**
+     * Sets the number of bytes idle buffers can hold.
+     *
+     * @param maxPooledBytes must be greater than or equal to 0
+     * @return builder
+     */
+    public Builder setMaxPooledBytes(long maxPooledBytes) {
+      if (maxPooledBytes < 0) {
+        throw new IllegalArgumentException("maxPooledBytes must be greater than or equal to 0.");
+      }
+      this.captureBufferConfigToBuild.maxPooledBytes = maxPooledBytes;
+      return this;
+    }
+  }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright 2020 Flipkart Internet, pvt ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.flipkart.gojira.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool of heap buffers in which http request and response bodies are captured, so that profiling
+ * does not allocate fresh buffers, and copies of them as they grow, for every request.
+ *
+ * <p>Buffers are leased as {@link CaptureBuffer}s on the request thread and are returned to the
+ * pool together when {@link DefaultProfileOrTestHandler#end(com.flipkart.gojira.models
+ * .TestResponseData)} is called, or else when {@link HttpFilter} is done with the request. Only an
+ * exact-size copy of the captured bytes outlives the request, as part of the recorded data.
+ *
+ * <p>Idle buffers are kept in power of two size classes, most recently returned first, and are
+ * bounded by {@link CaptureBufferConfig#getMaxPooledBytes()}. The allocation counters can be
+ * sampled periodically to derive the allocation rate of the capture path.
+ */
+public class CaptureBufferPool {
+
+  private static final ThreadLocal<List<CaptureBuffer>> LEASES =
+      ThreadLocal.withInitial(ArrayList::new);
+
+  private static volatile CaptureBufferPool instance =
+      new CaptureBufferPool(CaptureBufferConfig.builder().build());
+
+  private final boolean enabled;
+  private final int minBufferBytes;
+  private final int maxBufferBytes;
+  private final long maxPooledBytes;
+  private final ConcurrentLinkedDeque<byte[]>[] sizeClasses;
+
+  private final AtomicLong pooledBytes = new AtomicLong();
+  private final AtomicLong acquiredCount = new AtomicLong();
+  private final AtomicLong reusedCount = new AtomicLong();
+  private final AtomicLong allocatedCount = new AtomicLong();
+  private final AtomicLong allocatedBytes = new AtomicLong();
+
+  @SuppressWarnings("unchecked")
+  private CaptureBufferPool(CaptureBufferConfig captureBufferConfig) {
+    this.enabled = captureBufferConfig.isEnabled();
+    this.minBufferBytes = roundUp(captureBufferConfig.getMinBufferBytes());
+    this.maxBufferBytes = roundUp(captureBufferConfig.getMaxBufferBytes());
+    this.maxPooledBytes = captureBufferConfig.getMaxPooledBytes();
+    this.sizeClasses = new ConcurrentLinkedDeque[sizeClass(maxBufferBytes) + 1];
+    for (int i = 0; i < sizeClasses.length; i++) {
+      sizeClasses[i] = new ConcurrentLinkedDeque<>();
+    }
+  }
+
+  public static CaptureBufferPool getInstance() {
+    return instance;
+  }
+
+  /**
+   * Replaces the pool as per the config. Buffers leased from the previous pool are returned to it
+   * and are garbage collected along with it.
+   */
+  static void configure(CaptureBufferConfig captureBufferConfig) {
+    instance =
+        new CaptureBufferPool(
+            captureBufferConfig != null
+                ? captureBufferConfig
+                : CaptureBufferConfig.builder().build());
+  }
+
+  /**
+   * Leases an empty buffer to the current request. It is released by {@link #releaseLeases()} if
+   * not released earlier.
+   *
+   * @return empty buffer
+   */
+  static CaptureBuffer lease() {
+    CaptureBuffer captureBuffer = new CaptureBuffer(instance);
+    LEASES.get().add(captureBuffer);
+    return captureBuffer;
+  }
+
+  /**
+   * Creates an empty buffer which is not leased to the current request, for a caller which releases
+   * it itself before returning.
+   *
+   * @return empty buffer
+   */
+  static CaptureBuffer borrow() {
+    return new CaptureBuffer(instance);
+  }
+
+  /**
+   * Returns the number of buffers leased to the current request which are yet to be released by
+   * {@link #releaseLeases()}.
+   */
+  static int getLeaseCount() {
+    return LEASES.get().size();
+  }
+
+  /**
+   * Releases all buffers leased to the current request.
+   */
+  static void releaseLeases() {
+    List<CaptureBuffer> leases = LEASES.get();
+    if (leases.isEmpty()) {
+      return;
+    }
+    for (CaptureBuffer captureBuffer : leases) {
+      captureBuffer.release();
+    }
+    leases.clear();
+  }
+
+  /**
+   * Returns an idle buffer of the size class fitting the capacity, else allocates one. Capacities
+   * above the largest size class are allocated as is.
+   */
+  byte[] acquire(int minCapacity) {
+    acquiredCount.incrementAndGet();
+    int capacity = minCapacity > maxBufferBytes ? minCapacity : roundUp(minCapacity);
+    capacity = Math.max(capacity, minBufferBytes);
+    if (enabled && capacity <= maxBufferBytes) {
+      byte[] buffer = sizeClasses[sizeClass(capacity)].pollFirst();
+      if (buffer != null) {
+        pooledBytes.addAndGet(-buffer.length);
+        reusedCount.incrementAndGet();
+        return buffer;
+      }
+    }
+    allocatedCount.incrementAndGet();
+    allocatedBytes.addAndGet(capacity);
+    return new byte[capacity];
+  }
+
+  /**
+   * Returns the buffer to its size class, unless it does not belong to one or the pool is full.
+   */
+  void release(byte[] buffer) {
+    int length = buffer.length;
+    if (!enabled
+        || length < minBufferBytes
+        || length > maxBufferBytes
+        || Integer.bitCount(length) != 1) {
+      return;
+    }
+    if (pooledBytes.addAndGet(length) > maxPooledBytes) {
+      pooledBytes.addAndGet(-length);
+      return;
+    }
+    sizeClasses[sizeClass(length)].offerFirst(buffer);
+  }
+
+  private int sizeClass(int capacity) {
+    return Integer.numberOfTrailingZeros(capacity) - Integer.numberOfTrailingZeros(minBufferBytes);
+  }
+
+  private static int roundUp(int capacity) {
+    return capacity <= 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+  }
+
+  /**
+   * Returns the number of buffers handed out, including growth of leased buffers.
+   *
+   * @return acquired count
+   */
+  public long getAcquiredCount() {
+    return acquiredCount.get();
+  }
+
+  /**
+   * Returns the number of buffers handed out from the pool without allocation.
+   *
+   * @return reused count
+   */
+  public long getReusedCount() {
+    return reusedCount.get();
+  }
+
+  public long getAllocatedCount() {
+    return allocatedCount.get();
+  }
+
+  public long getAllocatedBytes() {
+    return allocatedBytes.get();
+  }
+
+  public long getPooledBytes() {
+    return pooledBytes.get();
+  }
+}
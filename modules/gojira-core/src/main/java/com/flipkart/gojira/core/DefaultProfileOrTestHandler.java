@@ -76,14 +76,25 @@ public class DefaultProfileOrTestHandler {
    *
    * <p>If mode is not registered, logs an error.
    *
+   * <p>Finally, calls {@link ProfileRepository#end()}, which clears the context from the thread
+   * local even if it was evicted or expired, when the request mode resolves to {@link Mode#NONE},
+   * or if the handler failed before ending it, and returns the buffers leased to capture this
+   * request to {@link CaptureBufferPool}.
+   *
    * @param responseData response data at the end of execution
    */
   public static void end(TestResponseData<? extends TestDataType> responseData) {
-    if (startTestHandlerHashMap.containsKey(ProfileRepository.getRequestMode())) {
-      startTestHandlerHashMap.get(ProfileRepository.getRequestMode()).end(responseData);
-      return;
+    try {
+      Mode requestMode = ProfileRepository.getRequestMode();
+      StartEndTestHandler startEndTestHandler = startTestHandlerHashMap.get(requestMode);
+      if (startEndTestHandler != null) {
+        startEndTestHandler.end(responseData);
+        return;
+      }
+      LOGGER.error("Processing logic not implemented for this mode: " + requestMode);
+    } finally {
+      ProfileRepository.end();
+      CaptureBufferPool.releaseLeases();
     }
-    LOGGER.error("Processing logic not implemented for this mode: "
-            + ProfileRepository.getRequestMode());
   }
 }
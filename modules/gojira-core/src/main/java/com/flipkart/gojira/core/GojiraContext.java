@@ -0,0 +1,154 @@
+/*
+ * Copyright 2020 Flipkart Internet, pvt ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.flipkart.gojira.core;
+
+import com.flipkart.gojira.models.ExecutionData;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Handle to the data of a single request-response scope in execution. It is resolved once when
+ * execution begins and is carried in a thread local by {@link ProfileRepository}, so that accessors
+ * on the hot path work on a direct reference instead of looking up the data by id.
+ *
+ * <p>The context can be passed explicitly to other threads participating in the same request by
+ * calling {@link ProfileRepository#setContext(GojiraContext)}. Once execution ends, or the data is
+ * evicted by {@link InFlightDataStore}, the context becomes inactive and is treated as absent.
+ */
+public final class GojiraContext {
+
+  private final String id;
+  private final ExecutionData executionData;
+
+  /**
+   * Bytes of recorded data charged against this context in {@link InFlightDataStore}.
+   */
+  private final AtomicLong bytes = new AtomicLong();
+
+  /**
+   * Admission order and time, assigned by {@link InFlightDataStore} before the context is
+   * published.
+   */
+  private long sequence;
+  private long beganAt;
+
+  private volatile boolean active;
+
+  /**
+   * Indexes of recorded entries by method, built on first replay of each method in {@link
+   * Mode#TEST}.
+   */
+  private final ConcurrentHashMap<String, RecordedArgumentIndex> recordedArgumentIndexes =
+      new ConcurrentHashMap<>();
+
+  /**
+   * Asynchronous captures still pending against this context, plus one held by the request itself
+   * until execution ends. Whoever brings the count to zero runs the completion registered at end.
+   */
+  private final AtomicInteger pendingCaptures = new AtomicInteger(1);
+  private final AtomicReference<Runnable> onCapturesComplete = new AtomicReference<>();
+
+  GojiraContext(String id, ExecutionData executionData) {
+    this.id = id;
+    this.executionData = executionData;
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  /**
+   * Returns true until execution ends or the context is evicted.
+   *
+   * @return true if active
+   */
+  public boolean isActive() {
+    return active;
+  }
+
+  ExecutionData getExecutionData() {
+    return executionData;
+  }
+
+  ConcurrentHashMap<String, RecordedArgumentIndex> getRecordedArgumentIndexes() {
+    return recordedArgumentIndexes;
+  }
+
+  AtomicLong getBytes() {
+    return bytes;
+  }
+
+  long getSequence() {
+    return sequence;
+  }
+
+  long getBeganAt() {
+    return beganAt;
+  }
+
+  void admit(long sequence, long beganAt) {
+    this.sequence = sequence;
+    this.beganAt = beganAt;
+    this.active = true;
+  }
+
+  void deactivate() {
+    this.active = false;
+  }
+
+  /**
+   * Registers a pending asynchronous capture. Fails once execution has ended and all captures have
+   * completed, since the recorded data has already been handed off by then.
+   *
+   * @return true if the capture was registered and {@link #releaseCapture()} must follow
+   */
+  boolean tryAcquireCapture() {
+    while (true) {
+      int pending = pendingCaptures.get();
+      if (pending == 0) {
+        return false;
+      }
+      if (pendingCaptures.compareAndSet(pending, pending + 1)) {
+        return true;
+      }
+    }
+  }
+
+  void releaseCapture() {
+    if (pendingCaptures.decrementAndGet() == 0) {
+      Runnable completion = onCapturesComplete.get();
+      if (completion != null) {
+        completion.run();
+      }
+    }
+  }
+
+  /**
+   * Releases the request's own hold on this context. The completion runs on the calling thread if
+   * no captures are pending, else on the thread completing the last one. Only the first call has
+   * any effect.
+   *
+   * @param completion action to run once all captures have completed
+   */
+  void complete(Runnable completion) {
+    if (onCapturesComplete.compareAndSet(null, completion)) {
+      releaseCapture();
+    }
+  }
+}
@@ -17,9 +17,9 @@
 package com.flipkart.gojira.core;
 
 import static com.flipkart.gojira.core.GlobalConstants.MODE_HEADER;
+import static com.flipkart.gojira.core.GlobalConstants.TEST_HEADER;
 
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Collections;
@@ -39,7 +39,6 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletRequestWrapper;
 import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpServletResponseWrapper;
-import org.apache.commons.io.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -76,6 +75,12 @@ public class HttpFilter implements Filter {
    * {@inheritDoc}
    *
    * <p>TODO: Add check for {@link HttpServletRequest}
+   *
+   * <p>If the request level {@link Mode} is {@link Mode#NONE}, the request is passed through to
+   * the chain without wrapping the request or response. Otherwise, buffers leased from {@link
+   * CaptureBufferPool} to capture the request are released once it is done, even if execution was
+   * not begun or ended.
+   *
    * @param request incoming request into a {@link CustomHttpServletRequestWrapper} and calls mode
    *     specific preFilter implementation. If {@link
    *     HttpFilterHandler#preFilter(CustomHttpServletRequestWrapper)} returns true, wraps the
@@ -93,32 +98,49 @@ public class HttpFilter implements Filter {
   @Override
   public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
       throws IOException, ServletException {
-    // Wrapping the ServletRequest to make the input stream N times readable
-    CustomHttpServletRequestWrapper requestWrapper =
-        new CustomHttpServletRequestWrapper((HttpServletRequest) request);
-
+    HttpServletRequest httpServletRequest = (HttpServletRequest) request;
     Mode requestMode = ProfileRepository
             .ModeHelper
-            .getRequestMode(requestWrapper.getHeader(MODE_HEADER));
-    if (FILTER_HANDLER_MAP.containsKey(requestMode)) {
-      if (FILTER_HANDLER_MAP.get(requestMode).preFilter(requestWrapper)) {
-        // Wrapping the ServletResponse to make the output stream readable
-        TestServletResponseWrapper testServletResponseWrapper =
-            new TestServletResponseWrapper((HttpServletResponse) response);
-        try {
-          FILTER_HANDLER_MAP
-              .get(ProfileRepository.getRequestMode())
-              .filter(requestWrapper, testServletResponseWrapper, chain);
-        } finally {
-          FILTER_HANDLER_MAP
-              .get(ProfileRepository.getRequestMode())
-              .postFilter(requestWrapper, testServletResponseWrapper, response);
+            .getRequestMode(httpServletRequest.getHeader(MODE_HEADER));
+    if (Mode.NONE.equals(requestMode)) {
+      // pass-through: nothing is recorded, so request and response are not wrapped.
+      NoneHttpFilterHandler.validateTestIdAbsent(httpServletRequest.getHeader(TEST_HEADER));
+      try {
+        chain.doFilter(request, response);
+      } finally {
+        ProfileRepository.end();
+      }
+      return;
+    }
+
+    try {
+      // Wrapping the ServletRequest to make the input stream N times readable
+      CustomHttpServletRequestWrapper requestWrapper =
+          new CustomHttpServletRequestWrapper(httpServletRequest);
+      if (FILTER_HANDLER_MAP.containsKey(requestMode)) {
+        if (FILTER_HANDLER_MAP.get(requestMode).preFilter(requestWrapper)) {
+          // request level mode is resolved once, after preFilter has begun execution.
+          Mode executionMode = ProfileRepository.getRequestMode();
+          // Wrapping the ServletResponse to make the output stream readable, the response is
+          // needed in full to compare or transform it, so only profiling caps the capture.
+          TestServletResponseWrapper testServletResponseWrapper =
+              new TestServletResponseWrapper(
+                  (HttpServletResponse) response, Mode.PROFILE.equals(executionMode));
+          HttpFilterHandler httpFilterHandler = FILTER_HANDLER_MAP.get(executionMode);
+          try {
+            httpFilterHandler.filter(requestWrapper, testServletResponseWrapper, chain);
+          } finally {
+            httpFilterHandler.postFilter(requestWrapper, testServletResponseWrapper, response);
+          }
         }
+      } else {
+        LOGGER.error(
+            "Processing logic not implemented for this mode: " + requestMode);
+        chain.doFilter(request, response);
       }
-    } else {
-      LOGGER.error(
-          "Processing logic not implemented for this mode: " + requestMode);
-      chain.doFilter(request, response);
+    } finally {
+      // execution may not have begun, or ended, so buffers leased to the request are released here.
+      CaptureBufferPool.releaseLeases();
     }
   }
 
@@ -126,24 +148,41 @@ public class HttpFilter implements Filter {
   public void destroy() {}
 
   /**
-   * Wrapper class for {@link HttpServletResponseWrapper} Uses {@link
-   * TestBufferedServletOutputStream} for keeping the response buffer.
+   * Wrapper class for {@link HttpServletResponseWrapper} Uses {@link TeeServletOutputStream} to
+   * stream the response through to the client while capturing it, up to {@link
+   * InFlightDataConfig#getMaxPayloadBytes()} if capped.
    */
   public class TestServletResponseWrapper extends HttpServletResponseWrapper {
 
-    private TestBufferedServletOutputStream bufferedServletOut =
-        new TestBufferedServletOutputStream();
-    private ServletOutputStream outputStream = null;
+    private final int maxPayloadBytes;
+    private final boolean truncateOversizedPayload;
+    private TeeServletOutputStream outputStream = null;
 
     /**
-     * Created with reference to the original {@link HttpServletResponse} so that response can be
-     * flushed into it's output stream.
+     * Created with reference to the original {@link HttpServletResponse} so that response is
+     * written through to it's output stream.
      *
      * @param servletResponse original http servlet response which was passed in the {@link
      *     FilterChain#doFilter(ServletRequest, ServletResponse)} method.
      */
     public TestServletResponseWrapper(HttpServletResponse servletResponse) {
+      this(servletResponse, true);
+    }
+
+    /**
+     * Created with reference to the original {@link HttpServletResponse}, capturing the response
+     * in full if not capped.
+     *
+     * @param servletResponse original http servlet response
+     * @param capped true if the capture is limited to {@link
+     *     InFlightDataConfig#getMaxPayloadBytes()} as per {@link OversizedPayloadPolicy}
+     */
+    TestServletResponseWrapper(HttpServletResponse servletResponse, boolean capped) {
       super(servletResponse);
+      InFlightDataConfig inFlightDataConfig = ProfileRepository.getInFlightDataConfig();
+      this.maxPayloadBytes = capped ? inFlightDataConfig.getMaxPayloadBytes() : Integer.MAX_VALUE;
+      this.truncateOversizedPayload =
+          OversizedPayloadPolicy.TRUNCATE.equals(inFlightDataConfig.getOversizedPayloadPolicy());
     }
 
     @Override
@@ -153,8 +192,8 @@ public class HttpFilter implements Filter {
     public void sendError(int sc) throws IOException {}
 
     /**
-     * Passes the reference of bufferedServletOut stream to outputStream if outputStream is not
-     * null.
+     * Wraps the output stream of the original response in a {@link TeeServletOutputStream} on
+     * first call.
      *
      * @return output stream
      * @throws IOException if an input or output exception occurred
@@ -162,13 +201,16 @@ public class HttpFilter implements Filter {
     @Override
     public ServletOutputStream getOutputStream() throws IOException {
       if (this.outputStream == null) {
-        this.outputStream = this.bufferedServletOut;
+        this.outputStream =
+            new TeeServletOutputStream(
+                super.getOutputStream(), maxPayloadBytes, truncateOversizedPayload);
       }
       return this.outputStream;
     }
 
     /**
-     * Calls {@link ServletOutputStream#flush()} on outputStream if not null.
+     * Calls {@link ServletOutputStream#flush()} on outputStream if not null, and flushes the
+     * original response.
      *
      * @throws IOException if an input or output exception occurred
      */
@@ -177,46 +219,116 @@ public class HttpFilter implements Filter {
       if (this.outputStream != null) {
         this.outputStream.flush();
       }
+      super.flushBuffer();
     }
 
     /**
-     * Helper method to return the byte[] from bufferedServletOut.
+     * Helper method to return the captured response body. The body has already been written to
+     * the original response.
      *
-     * @return the byte[] from bufferedServletOut.
+     * @return the captured byte[], truncated or empty if the body was oversized.
      */
     public byte[] getBuffer() {
-      return this.bufferedServletOut.getBuffer();
+      return this.outputStream == null ? new byte[0] : this.outputStream.getCaptured();
+    }
+
+    /**
+     * Returns true if the response body was larger than {@link
+     * InFlightDataConfig#getMaxPayloadBytes()}, in which case {@link #getBuffer()} is incomplete.
+     *
+     * @return true if the body was oversized
+     */
+    public boolean isPayloadOversized() {
+      return this.outputStream != null && this.outputStream.isOversized();
     }
   }
 
   /**
-   * Wrapper class for {@link ServletOutputStream}. Uses a {@link ByteArrayOutputStream} as the
-   * underlying {@link java.io.OutputStream}.
+   * Wrapper class for {@link ServletOutputStream} which writes through to the original output
+   * stream and keeps a copy of what is written in a {@link CaptureBuffer}, up to a limit. Beyond
+   * the limit, the copy is either truncated or dropped, so large responses don't double memory.
    */
-  private class TestBufferedServletOutputStream extends ServletOutputStream {
+  private static class TeeServletOutputStream extends ServletOutputStream {
+
+    private final ServletOutputStream delegate;
+    private final int maxCaptureBytes;
+    private final boolean truncate;
 
-    private ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    private final CaptureBuffer captured = CaptureBufferPool.lease();
+    private boolean oversized = false;
 
-    public void write(int data) {
-      this.bos.write(data);
+    TeeServletOutputStream(ServletOutputStream delegate, int maxCaptureBytes, boolean truncate) {
+      this.delegate = delegate;
+      this.maxCaptureBytes = maxCaptureBytes;
+      this.truncate = truncate;
     }
 
     @Override
-    public boolean isReady() {
-      return true;
+    public void write(int data) throws IOException {
+      this.delegate.write(data);
+      if (ensureCapacity(1) > 0) {
+        this.captured.write(data);
+      }
     }
 
     @Override
-    public void setWriteListener(WriteListener writeListener) {}
+    public void write(byte[] data, int off, int len) throws IOException {
+      this.delegate.write(data, off, len);
+      int capturable = ensureCapacity(len);
+      if (capturable > 0) {
+        this.captured.write(data, off, capturable);
+      }
+    }
 
     /**
-     * Helper method to get the stored byte array.
+     * Grows the capture buffer for the given number of bytes, within the limit.
      *
-     * @return byte[] from {@value bos} TODO: To be called only once. Need to do {@link
-     *     ByteArrayOutputStream#reset()} if it needs to be called multiple times.
+     * @return number of bytes which can be captured
      */
-    public byte[] getBuffer() {
-      return this.bos.toByteArray();
+    private int ensureCapacity(int len) {
+      if (this.oversized && !this.truncate) {
+        return 0;
+      }
+      int capturable = Math.min(len, this.maxCaptureBytes - this.captured.size());
+      if (capturable < len) {
+        this.oversized = true;
+        if (!this.truncate) {
+          this.captured.clear();
+          return 0;
+        }
+      }
+      if (capturable > 0 && !this.captured.ensureCapacity(capturable, this.maxCaptureBytes)) {
+        return 0;
+      }
+      return capturable;
+    }
+
+    @Override
+    public void flush() throws IOException {
+      this.delegate.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+      this.delegate.close();
+    }
+
+    @Override
+    public boolean isReady() {
+      return this.delegate.isReady();
+    }
+
+    @Override
+    public void setWriteListener(WriteListener writeListener) {
+      this.delegate.setWriteListener(writeListener);
+    }
+
+    byte[] getCaptured() {
+      return this.captured.toByteArray();
+    }
+
+    boolean isOversized() {
+      return this.oversized;
     }
   }
 
@@ -229,8 +341,8 @@ public class HttpFilter implements Filter {
     private final byte[] body;
 
     /**
-     * Calls {@link IOUtils#toByteArray(java.io.InputStream)} to get a copy of byte[] from the
-     * incoming request.
+     * Reads the incoming request into a {@link CaptureBuffer} borrowed from {@link
+     * CaptureBufferPool} and keeps an exact-size copy of it, returning the buffer right away.
      *
      * @param request original http request instance reference passed from {@link
      *     FilterChain#doFilter(ServletRequest, ServletResponse)}
@@ -238,13 +350,27 @@ public class HttpFilter implements Filter {
     public CustomHttpServletRequestWrapper(HttpServletRequest request) {
       super(request);
 
+      CaptureBuffer captureBuffer = CaptureBufferPool.borrow();
       try {
-        body = IOUtils.toByteArray(super.getInputStream());
+        captureBuffer.readFrom(super.getInputStream());
+        body = captureBuffer.toByteArray();
       } catch (IOException ex) {
         throw new RuntimeException("Unable to read the stream", ex);
+      } finally {
+        captureBuffer.release();
       }
     }
 
+    /**
+     * Returns the body read from the incoming request. The array is shared and must not be
+     * modified.
+     *
+     * @return body of the request
+     */
+    public byte[] getBody() {
+      return body;
+    }
+
     /**
      * {@inheritDoc}
      *
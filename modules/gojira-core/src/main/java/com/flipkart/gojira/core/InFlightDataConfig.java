@@ -0,0 +1,172 @@
+/*
+ * Copyright 2020 Flipkart Internet, pvt ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.flipkart.gojira.core;
+
+/**
+ * InFlightDataConfig holds the limits for data held in memory by {@link ProfileRepository} for
+ * requests which are being profiled or tested. This can be provided by the client application, if
+ * not provided defaults are used.
+ */
+public class InFlightDataConfig {
+
+  /**
+   * Maximum number of requests that can be in-flight at any point in time.
+   */
+  private int maxEntries = 10000;
+
+  /**
+   * Maximum number of bytes of recorded data that can be held in-flight across all requests.
+   */
+  private long maxBytes = 128L * 1024 * 1024;
+
+  /**
+   * Time after which an in-flight request whose end was never called is considered abandoned and
+   * is removed. A value less than or equal to 0 disables expiry.
+   */
+  private long entryTtlInMillis = 5L * 60 * 1000;
+
+  /**
+   * Policy to apply when the above limits are breached.
+   */
+  private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_NEW;
+
+  /**
+   * Maximum size of an http request or response body captured for a request. Larger payloads are
+   * handled as per {@link #oversizedPayloadPolicy}.
+   */
+  private int maxPayloadBytes = 8 * 1024 * 1024;
+
+  private OversizedPayloadPolicy oversizedPayloadPolicy = OversizedPayloadPolicy.SKIP;
+
+  private InFlightDataConfig() {}
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  public int getMaxEntries() {
+    return maxEntries;
+  }
+
+  public long getMaxBytes() {
+    return maxBytes;
+  }
+
+  public long getEntryTtlInMillis() {
+    return entryTtlInMillis;
+  }
+
+  public OverflowPolicy getOverflowPolicy() {
+    return overflowPolicy;
+  }
+
+  public int getMaxPayloadBytes() {
+    return maxPayloadBytes;
+  }
+
+  public OversizedPayloadPolicy getOversizedPayloadPolicy() {
+    return oversizedPayloadPolicy;
+  }
+
+  public static class Builder {
+
+    private InFlightDataConfig inFlightDataConfigToBuild;
+
+    private Builder() {
+      this.inFlightDataConfigToBuild = new InFlightDataConfig();
+    }
+
+    public InFlightDataConfig build() {
+      return this.inFlightDataConfigToBuild;
+    }
+
+    /**
+     * Sets the maximum number of in-flight requests.
+     *
+     * @param maxEntries must be greater than 0
+     * @return builder
+     */
+    public Builder setMaxEntries(int maxEntries) {
+      if (maxEntries <= 0) {
+        throw new IllegalArgumentException("maxEntries must be greater than 0.");
+      }
+      this.inFlightDataConfigToBuild.maxEntries = maxEntries;
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of bytes of recorded data held in-flight.
+     *
+     * @param maxBytes must be greater than 0
+     * @return builder
+     */
+    public Builder setMaxBytes(long maxBytes) {
+      if (maxBytes <= 0) {
+        throw new IllegalArgumentException("maxBytes must be greater than 0.");
+      }
+      this.inFlightDataConfigToBuild.maxBytes = maxBytes;
+      return this;
+    }
+
+    public Builder setEntryTtlInMillis(long entryTtlInMillis) {
+      this.inFlightDataConfigToBuild.entryTtlInMillis = entryTtlInMillis;
+      return this;
+    }
+
+    /**
+     * Sets the {@link OverflowPolicy}.
+     *
+     * @param overflowPolicy cannot be null
+     * @return builder
+     */
+    public Builder setOverflowPolicy(OverflowPolicy overflowPolicy) {
+      if (overflowPolicy == null) {
+        throw new IllegalArgumentException("overflowPolicy cannot be null.");
+      }
+      this.inFlightDataConfigToBuild.overflowPolicy = overflowPolicy;
+      return this;
+    }
+
+    /**
+     * Sets the maximum size of a captured http request or response body.
+     *
+     * @param maxPayloadBytes must be greater than 0
+     * @return builder
+     */
+    public Builder setMaxPayloadBytes(int maxPayloadBytes) {
+      if (maxPayloadBytes <= 0) {
+        throw new IllegalArgumentException("maxPayloadBytes must be greater than 0.");
+      }
+      this.inFlightDataConfigToBuild.maxPayloadBytes = maxPayloadBytes;
+      return this;
+    }
+
+    /**
+     * Sets the {@link OversizedPayloadPolicy}.
+     *
+     * @param oversizedPayloadPolicy cannot be null
+     * @return builder
+     */
+    public Builder setOversizedPayloadPolicy(OversizedPayloadPolicy oversizedPayloadPolicy) {
+      if (oversizedPayloadPolicy == null) {
+        throw new IllegalArgumentException("oversizedPayloadPolicy cannot be null.");
+      }
+      this.inFlightDataConfigToBuild.oversizedPayloadPolicy = oversizedPayloadPolicy;
+      return this;
+    }
+  }
+}
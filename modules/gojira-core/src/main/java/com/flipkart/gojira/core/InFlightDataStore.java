@@ -0,0 +1,249 @@
+/*
+ * Copyright 2020 Flipkart Internet, pvt ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.flipkart.gojira.core;
+
+import com.flipkart.gojira.models.ExecutionData;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Size and byte bounded store of {@link GojiraContext} for requests which are in-flight. Limits
+ * and the behaviour on breaching them are governed by {@link InFlightDataConfig}.
+ *
+ * <p>Entries are tracked in admission order so that the oldest entry can be evicted and abandoned
+ * entries, whose end was never called, can be expired without scanning the store.
+ */
+public class InFlightDataStore {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(InFlightDataStore.class);
+
+  /**
+   * Approximate bytes charged for every entry to account for the bookkeeping objects.
+   */
+  static final long ENTRY_OVERHEAD_BYTES = 512;
+
+  private final InFlightDataConfig inFlightDataConfig;
+  private final long entryTtlInNanos;
+
+  private final ConcurrentHashMap<String, GojiraContext> entries = new ConcurrentHashMap<>();
+  private final ConcurrentSkipListMap<Long, String> admissionOrder = new ConcurrentSkipListMap<>();
+  private final AtomicLong sequence = new AtomicLong();
+
+  private final AtomicInteger entryCount = new AtomicInteger();
+  private final AtomicLong byteCount = new AtomicLong();
+  private final AtomicLong evictedCount = new AtomicLong();
+  private final AtomicLong expiredCount = new AtomicLong();
+  private final AtomicLong rejectedCount = new AtomicLong();
+
+  InFlightDataStore(InFlightDataConfig inFlightDataConfig) {
+    this.inFlightDataConfig = inFlightDataConfig;
+    this.entryTtlInNanos = TimeUnit.MILLISECONDS.toNanos(inFlightDataConfig.getEntryTtlInMillis());
+  }
+
+  /**
+   * Result of {@link #begin(GojiraContext)}.
+   */
+  enum Admission {
+    ADMITTED,
+    DUPLICATE,
+    REJECTED
+  }
+
+  /**
+   * Admits the context against its id. Abandoned entries are expired first. If the store is full,
+   * {@link OverflowPolicy} decides whether the oldest entry is evicted or the new entry is
+   * rejected. An admitted context is marked active.
+   *
+   * @param context context of the request
+   * @return result of admission
+   */
+  Admission begin(GojiraContext context) {
+    long now = System.nanoTime();
+    expireAbandoned(now);
+    if (!reserve()) {
+      rejectedCount.incrementAndGet();
+      return Admission.REJECTED;
+    }
+    context.admit(sequence.incrementAndGet(), now);
+    if (entries.putIfAbsent(context.getId(), context) != null) {
+      context.deactivate();
+      entryCount.decrementAndGet();
+      byteCount.addAndGet(-ENTRY_OVERHEAD_BYTES);
+      return Admission.DUPLICATE;
+    }
+    admissionOrder.put(context.getSequence(), context.getId());
+    return Admission.ADMITTED;
+  }
+
+  GojiraContext get(String id) {
+    return entries.get(id);
+  }
+
+  /**
+   * Charges bytes of recorded data against the context. If the byte budget is breached and cannot
+   * be restored as per {@link OverflowPolicy}, the context is marked {@link ProfileState#FAILED}
+   * and its recorded data is released.
+   *
+   * @param context context of the request
+   * @param bytes number of bytes to charge
+   * @return true if the bytes could be accommodated
+   */
+  boolean charge(GojiraContext context, long bytes) {
+    if (!context.isActive()) {
+      return false;
+    }
+    context.getBytes().addAndGet(bytes);
+    if (byteCount.addAndGet(bytes) <= inFlightDataConfig.getMaxBytes()) {
+      return true;
+    }
+    if (OverflowPolicy.EVICT_OLDEST.equals(inFlightDataConfig.getOverflowPolicy())) {
+      while (byteCount.get() > inFlightDataConfig.getMaxBytes()) {
+        Map.Entry<Long, String> oldest = admissionOrder.firstEntry();
+        if (oldest == null || oldest.getKey() == context.getSequence()) {
+          break;
+        }
+        evict(oldest.getKey(), oldest.getValue(), evictedCount);
+      }
+      if (byteCount.get() <= inFlightDataConfig.getMaxBytes()) {
+        return true;
+      }
+    }
+    LOGGER.warn(
+        "in-flight data exceeded "
+            + inFlightDataConfig.getMaxBytes()
+            + " bytes, dropping recorded data against global request id: "
+            + context.getId());
+    rejectedCount.incrementAndGet();
+    shed(context);
+    return false;
+  }
+
+  /**
+   * Removes the context, marks it inactive and releases its bytes.
+   *
+   * @param context context of the request
+   * @return true if the context was removed
+   */
+  boolean end(GojiraContext context) {
+    if (!entries.remove(context.getId(), context)) {
+      return false;
+    }
+    admissionOrder.remove(context.getSequence(), context.getId());
+    release(context);
+    return true;
+  }
+
+  public int getEntryCount() {
+    return entryCount.get();
+  }
+
+  public long getByteCount() {
+    return byteCount.get();
+  }
+
+  public long getEvictedCount() {
+    return evictedCount.get();
+  }
+
+  public long getExpiredCount() {
+    return expiredCount.get();
+  }
+
+  public long getRejectedCount() {
+    return rejectedCount.get();
+  }
+
+  InFlightDataConfig getInFlightDataConfig() {
+    return inFlightDataConfig;
+  }
+
+  private boolean reserve() {
+    while (true) {
+      int current = entryCount.get();
+      if (current < inFlightDataConfig.getMaxEntries()
+          && byteCount.get() + ENTRY_OVERHEAD_BYTES <= inFlightDataConfig.getMaxBytes()) {
+        if (entryCount.compareAndSet(current, current + 1)) {
+          byteCount.addAndGet(ENTRY_OVERHEAD_BYTES);
+          return true;
+        }
+        continue;
+      }
+      if (!OverflowPolicy.EVICT_OLDEST.equals(inFlightDataConfig.getOverflowPolicy())) {
+        return false;
+      }
+      Map.Entry<Long, String> oldest = admissionOrder.firstEntry();
+      if (oldest == null) {
+        return false;
+      }
+      evict(oldest.getKey(), oldest.getValue(), evictedCount);
+    }
+  }
+
+  private void expireAbandoned(long now) {
+    if (entryTtlInNanos <= 0) {
+      return;
+    }
+    Map.Entry<Long, String> oldest;
+    while ((oldest = admissionOrder.firstEntry()) != null) {
+      GojiraContext context = entries.get(oldest.getValue());
+      if (context != null
+          && context.getSequence() == oldest.getKey()
+          && now - context.getBeganAt() < entryTtlInNanos) {
+        return;
+      }
+      evict(oldest.getKey(), oldest.getValue(), expiredCount);
+    }
+  }
+
+  private void evict(long sequence, String id, AtomicLong counter) {
+    if (!admissionOrder.remove(sequence, id)) {
+      return;
+    }
+    GojiraContext context = entries.get(id);
+    if (context == null || context.getSequence() != sequence || !entries.remove(id, context)) {
+      return;
+    }
+    counter.incrementAndGet();
+    LOGGER.warn("evicting in-flight data against global request id: " + id);
+    shed(context);
+    release(context);
+  }
+
+  /**
+   * Marks the context as failed and releases recorded data, retaining only the entry overhead.
+   */
+  private void shed(GojiraContext context) {
+    ExecutionData executionData = context.getExecutionData();
+    executionData.setProfileState(ProfileState.FAILED);
+    if (executionData.getTestData() != null) {
+      executionData.getTestData().clearMethodData();
+    }
+    byteCount.addAndGet(-context.getBytes().getAndSet(0));
+  }
+
+  private void release(GojiraContext context) {
+    context.deactivate();
+    entryCount.decrementAndGet();
+    byteCount.addAndGet(-(ENTRY_OVERHEAD_BYTES + context.getBytes().getAndSet(0)));
+  }
+}
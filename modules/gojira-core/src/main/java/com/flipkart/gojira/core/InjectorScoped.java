@@ -0,0 +1,71 @@
+/*
+ * Copyright 2020 Flipkart Internet, pvt ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.flipkart.gojira.core;
+
+import com.flipkart.gojira.core.injectors.GuiceInjector;
+import com.google.inject.Injector;
+import java.util.function.Function;
+
+/**
+ * Value built from the {@link Injector} assigned to {@link GuiceInjector}, and built again once
+ * another injector is assigned. Handlers held statically per {@link Mode} keep their dependencies
+ * in these, so that they do not hold on to those of an injector which has since been replaced.
+ *
+ * @param <T> type of the value
+ */
+final class InjectorScoped<T> {
+
+  private final Function<Injector, T> factory;
+  private volatile Scoped<T> scoped;
+
+  /**
+   * Creates the holder, which builds the value on first use.
+   *
+   * @param factory builds the value from an injector
+   */
+  InjectorScoped(Function<Injector, T> factory) {
+    this.factory = factory;
+  }
+
+  /**
+   * Gets the value built from the injector currently assigned, building it if the value was built
+   * from another injector.
+   *
+   * @return value
+   */
+  T get() {
+    Injector injector = GuiceInjector.getInjector();
+    Scoped<T> current = scoped;
+    if (current == null || current.injector != injector) {
+      current = new Scoped<>(injector, factory.apply(injector));
+      scoped = current;
+    }
+    return current.value;
+  }
+
+  private static final class Scoped<T> {
+
+    private final Injector injector;
+    private final T value;
+
+    private Scoped(Injector injector, T value) {
+      this.injector = injector;
+      this.value = value;
+    }
+  }
+}
@@ -17,12 +17,14 @@
 package com.flipkart.gojira.core;
 
 import static com.flipkart.gojira.core.GlobalConstants.MODE_HEADER;
+import static com.flipkart.gojira.core.GlobalConstants.TEST_HEADER;
 
 import com.flipkart.gojira.models.TestResponseData;
 import com.flipkart.gojira.models.kafka.KafkaTestResponseData;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import org.apache.kafka.common.header.Header;
 import org.apache.kafka.common.header.Headers;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -73,7 +75,8 @@ public class KafkaFilter {
    * Integrating application is required to call this method during the start of request-response
    * capture life-cycle. Failure to do so may result in not capturing the request-response data.
    *
-   * <p>This method invokes the {@link Mode} specific handler to process the incoming request.
+   * <p>This method invokes the {@link Mode} specific handler to process the incoming request. In
+   * {@link Mode#NONE}, it returns without copying headers.
    *
    * @param topicName kafka topic name
    * @param key key used for producing message to the topic
@@ -81,14 +84,35 @@ public class KafkaFilter {
    * @param recordHeaders headers used for producing message to the topic
    */
   public void start(String topicName, byte[] key, byte[] value, Headers recordHeaders) {
-    Map<String, byte[]> headersMap = getMapForRequestHeaders(recordHeaders);
-    byte[] id = headersMap.getOrDefault(MODE_HEADER, null);
-    Mode requestMode = ProfileRepository
-            .ModeHelper
-            .getRequestMode(id != null ? new String(id) : null);
-    FILTER_HANDLER_MAP
-        .getOrDefault(requestMode, new NoneKafkaFilterHandler())
-        .handle(topicName, key, value, headersMap);
+    Mode requestMode =
+        ProfileRepository.ModeHelper.isGlobalModeNone()
+            ? Mode.NONE
+            : ProfileRepository.ModeHelper.getRequestMode(getHeader(recordHeaders, MODE_HEADER));
+    if (Mode.NONE.equals(requestMode)) {
+      // pass-through: nothing is recorded, so headers are not copied.
+      NoneKafkaFilterHandler.validateTestIdAbsent(getHeader(recordHeaders, TEST_HEADER));
+      return;
+    }
+    KafkaFilterHandler kafkaFilterHandler = FILTER_HANDLER_MAP.get(requestMode);
+    if (kafkaFilterHandler == null) {
+      kafkaFilterHandler = FILTER_HANDLER_MAP.get(Mode.NONE);
+    }
+    kafkaFilterHandler.handle(topicName, key, value, getMapForRequestHeaders(recordHeaders));
+  }
+
+  /**
+   * Helper method to get the value of last header with the given key without copying headers.
+   *
+   * @param headers kafka headers
+   * @param key header key
+   * @return header value as string, null if absent
+   */
+  private static String getHeader(Headers headers, String key) {
+    if (headers == null) {
+      return null;
+    }
+    Header header = headers.lastHeader(key);
+    return header == null || header.value() == null ? null : new String(header.value());
   }
 
   /**
@@ -101,6 +125,10 @@ public class KafkaFilter {
    * @param bytes response data if any. In most cases this may be null
    */
   public void end(byte[] bytes) {
+    if (Mode.NONE.equals(ProfileRepository.getRequestMode())) {
+      ProfileRepository.end();
+      return;
+    }
     KafkaTestResponseData kafkaTestResponseData =
         KafkaTestResponseData.builder().setRespondData(bytes).build();
     DefaultProfileOrTestHandler.end(kafkaTestResponseData);
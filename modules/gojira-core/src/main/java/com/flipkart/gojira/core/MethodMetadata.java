@@ -0,0 +1,82 @@
+/*
+ * Copyright 2020 Flipkart Internet, pvt ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.flipkart.gojira.core;
+
+import com.flipkart.compare.handlers.TestCompareHandler;
+import com.flipkart.gojira.hash.TestHashHandler;
+import com.flipkart.gojira.serde.handlers.TestSerdeHandler;
+
+/**
+ * Identity and handlers of an intercepted method, resolved once by {@link MethodMetadataCache} so
+ * that intercepting an invocation does not build method id strings or scan annotations.
+ */
+final class MethodMetadata {
+
+  private final String methodId;
+  private final TestSerdeHandler[] argumentSerdeHandlers;
+  private final TestHashHandler[] argumentHashHandlers;
+  private final TestCompareHandler[] argumentCompareHandlers;
+  private final TestSerdeHandler returnSerdeHandler;
+
+  MethodMetadata(
+      String methodId,
+      TestSerdeHandler[] argumentSerdeHandlers,
+      TestHashHandler[] argumentHashHandlers,
+      TestCompareHandler[] argumentCompareHandlers,
+      TestSerdeHandler returnSerdeHandler) {
+    this.methodId = methodId;
+    this.argumentSerdeHandlers = argumentSerdeHandlers;
+    this.argumentHashHandlers = argumentHashHandlers;
+    this.argumentCompareHandlers = argumentCompareHandlers;
+    this.returnSerdeHandler = returnSerdeHandler;
+  }
+
+  /**
+   * Returns the generic string of the method, which identifies it in recorded data.
+   */
+  String getMethodId() {
+    return methodId;
+  }
+
+  int getArgumentCount() {
+    return argumentSerdeHandlers.length;
+  }
+
+  TestSerdeHandler getArgumentSerdeHandler(int position) {
+    return argumentSerdeHandlers[position];
+  }
+
+  /**
+   * Returns the hash handler for the argument, null if the argument is not to be hashed.
+   */
+  TestHashHandler getArgumentHashHandler(int position) {
+    return argumentHashHandlers[position];
+  }
+
+  /**
+   * Returns the compare handler for the argument, null if resolved without a compare handler
+   * repository.
+   */
+  TestCompareHandler getArgumentCompareHandler(int position) {
+    return argumentCompareHandlers[position];
+  }
+
+  TestSerdeHandler getReturnSerdeHandler() {
+    return returnSerdeHandler;
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2020 Flipkart Internet, pvt ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.flipkart.gojira.core;
+
+import com.flipkart.compare.handlers.TestCompareHandler;
+import com.flipkart.gojira.compare.GojiraCompareHandlerRepository;
+import com.flipkart.gojira.hash.HashHandlerUtil;
+import com.flipkart.gojira.hash.TestHashHandler;
+import com.flipkart.gojira.serde.SerdeHandlerRepository;
+import com.flipkart.gojira.serde.handlers.TestSerdeHandler;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import org.aopalliance.intercept.MethodInvocation;
+
+/**
+ * Cache of {@link MethodMetadata} per intercepted {@link Method}. Handlers are resolved through
+ * the given repositories on first invocation of a method, so the cache holds whatever those
+ * repositories hold. Each {@link MethodDataInterceptorHandler} owns a cache built from the
+ * repositories it uses.
+ */
+final class MethodMetadataCache {
+
+  private final ConcurrentHashMap<Method, MethodMetadata> methodMetadataMap =
+      new ConcurrentHashMap<>();
+
+  private final SerdeHandlerRepository serdeHandlerRepository;
+  private final GojiraCompareHandlerRepository gojiraCompareHandlerRepository;
+
+  /**
+   * Creates the cache.
+   *
+   * @param serdeHandlerRepository repository to resolve serde handlers from
+   * @param gojiraCompareHandlerRepository repository to resolve compare handlers from, may be null
+   *     if compare handlers are not required
+   */
+  MethodMetadataCache(
+      SerdeHandlerRepository serdeHandlerRepository,
+      GojiraCompareHandlerRepository gojiraCompareHandlerRepository) {
+    this.serdeHandlerRepository = serdeHandlerRepository;
+    this.gojiraCompareHandlerRepository = gojiraCompareHandlerRepository;
+  }
+
+  /**
+   * Gets the {@link MethodMetadata} of the invoked method, resolving it on first invocation.
+   *
+   * @param invocation intercepted method invocation
+   * @return metadata of the invoked method
+   * @throws Throwable if any of the handlers could not be resolved
+   */
+  MethodMetadata get(MethodInvocation invocation) throws Throwable {
+    Method method = invocation.getMethod();
+    MethodMetadata methodMetadata = methodMetadataMap.get(method);
+    if (methodMetadata == null) {
+      methodMetadata = resolve(invocation, method);
+      MethodMetadata concurrentMethodMetadata =
+          methodMetadataMap.putIfAbsent(method, methodMetadata);
+      if (concurrentMethodMetadata != null) {
+        methodMetadata = concurrentMethodMetadata;
+      }
+    }
+    return methodMetadata;
+  }
+
+  private MethodMetadata resolve(MethodInvocation invocation, Method method) throws Throwable {
+    int parameterCount = method.getParameterTypes().length;
+    TestSerdeHandler[] argumentSerdeHandlers = new TestSerdeHandler[parameterCount];
+    TestHashHandler[] argumentHashHandlers = new TestHashHandler[parameterCount];
+    TestCompareHandler[] argumentCompareHandlers = new TestCompareHandler[parameterCount];
+    for (int position = 0; position < parameterCount; position++) {
+      argumentSerdeHandlers[position] =
+          serdeHandlerRepository.getOrUpdateAndGetOrDefaultMethodArgumentDataSerdeHandler(
+              invocation, position);
+      argumentHashHandlers[position] = HashHandlerUtil.getHashHandler(invocation, position);
+      if (gojiraCompareHandlerRepository != null) {
+        argumentCompareHandlers[position] =
+            gojiraCompareHandlerRepository
+                .getOrUpdateAndGetOrDefaultMethodArgumentDataCompareHandler(invocation, position);
+      }
+    }
+    return new MethodMetadata(
+        method.toGenericString(),
+        argumentSerdeHandlers,
+        argumentHashHandlers,
+        argumentCompareHandlers,
+        serdeHandlerRepository.getOrUpdateAndGetOrDefaultReturnDataSerdeHandler(invocation));
+  }
+}
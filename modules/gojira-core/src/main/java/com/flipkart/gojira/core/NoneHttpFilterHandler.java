@@ -42,7 +42,18 @@ public class NoneHttpFilterHandler extends HttpFilterHandler {
    */
   @Override
   public boolean preFilter(HttpFilter.CustomHttpServletRequestWrapper request) {
-    String id = super.getTestId(request);
+    validateTestIdAbsent(super.getTestId(request));
+    // TODO: Check if this needs to be done.
+    DefaultProfileOrTestHandler.start(null, null, Mode.NONE);
+    return true;
+  }
+
+  /**
+   * Throws an exception if test-id is present, since the service is running in {@link Mode#NONE}.
+   *
+   * @param id value of test-header, null if absent
+   */
+  static void validateTestIdAbsent(String id) {
     if (id != null) {
       LOGGER.error(
           "Header with name: "
@@ -55,18 +66,14 @@ public class NoneHttpFilterHandler extends HttpFilterHandler {
               + " present. But service is running in "
               + " NONE mode.");
     }
-    // TODO: Check if this needs to be done.
-    DefaultProfileOrTestHandler.start(null, null, Mode.NONE);
-    return true;
   }
 
   /**
    * {@inheritDoc}
    *
-   * <p>Calls {@link DefaultProfileOrTestHandler#end(TestResponseData)} as per {@link Mode} needs
-   * and calls {@link javax.servlet.ServletOutputStream#write(byte[])} of {@link
-   * javax.servlet.http.HttpServletResponse} by getting byte[] from {@link
-   * HttpFilter.TestServletResponseWrapper}
+   * <p>Calls {@link DefaultProfileOrTestHandler#end(TestResponseData)} as per {@link Mode} needs.
+   * The response body has already been streamed to {@link javax.servlet.http.HttpServletResponse}
+   * by {@link HttpFilter.TestServletResponseWrapper}.
    *
    * @param request wrapped original http request as a {@link
    *     HttpFilter.CustomHttpServletRequestWrapper} object
@@ -82,8 +89,6 @@ public class NoneHttpFilterHandler extends HttpFilterHandler {
       HttpFilter.TestServletResponseWrapper respWrapper,
       ServletResponse response)
       throws IOException {
-    byte[] outputBuffer = respWrapper.getBuffer();
-    response.getOutputStream().write(outputBuffer);
     // TODO: Check if this needs to be done.
     DefaultProfileOrTestHandler.end(null);
   }
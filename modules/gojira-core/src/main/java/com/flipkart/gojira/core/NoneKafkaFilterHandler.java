@@ -38,7 +38,15 @@ public class NoneKafkaFilterHandler extends KafkaFilterHandler {
       byte[] key,
       byte[] value,
       Map<String, byte[]> headersMap) {
-    String id = getTestId(headersMap);
+    validateTestIdAbsent(getTestId(headersMap));
+  }
+
+  /**
+   * Throws an exception if test-id is present, since the service is running in {@link Mode#NONE}.
+   *
+   * @param id value of test-header, null if absent
+   */
+  static void validateTestIdAbsent(String id) {
     if (id != null) {
       LOGGER.error(
           "Header with name: "
@@ -35,7 +35,15 @@ public class NoneRmqFilterHandler extends RmqFilterHandler {
       byte[] value,
       AMQP.BasicProperties basicProperties,
       boolean mandatory) {
-    String id = getTestId(basicProperties);
+    validateTestIdAbsent(getTestId(basicProperties));
+  }
+
+  /**
+   * Throws an exception if test-id is present, since the service is running in {@link Mode#NONE}.
+   *
+   * @param id value of test-header, null if absent
+   */
+  static void validateTestIdAbsent(String id) {
     if (id != null) {
       LOGGER.error(
           "Header with name: "
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2020 Flipkart Internet, pvt ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.flipkart.gojira.core;
+
+/**
+ * Policy applied by {@link InFlightDataStore} when a new request cannot be admitted or an
+ * in-flight request grows beyond the configured limits of {@link InFlightDataConfig}.
+ */
+public enum OverflowPolicy {
+  /**
+   * New requests are not profiled or tested while the store is full. In-flight requests which
+   * grow beyond the byte budget are marked {@link ProfileState#FAILED} and their recorded data is
+   * released.
+   */
+  DROP_NEW,
+  /**
+   * Oldest in-flight requests are evicted to make room. Evicted requests are marked {@link
+   * ProfileState#FAILED} and their recorded data is released.
+   */
+  EVICT_OLDEST
+}
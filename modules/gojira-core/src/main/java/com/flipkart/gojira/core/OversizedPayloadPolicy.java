@@ -0,0 +1,39 @@
+/*
+ * Copyright 2020 Flipkart Internet, pvt ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.flipkart.gojira.core;
+
+/**
+ * Policy applied by {@link HttpFilter} when a captured http body is larger than {@link
+ * InFlightDataConfig#getMaxPayloadBytes()}. Request bodies are needed in full to replay the
+ * request later, so requests with oversized bodies are never profiled, irrespective of the policy.
+ *
+ * <p>The limit applies only in {@link Mode#PROFILE}, responses are captured in full in other modes
+ * since they are compared or transformed.
+ */
+public enum OversizedPayloadPolicy {
+  /**
+   * The request is not profiled: it is marked {@link ProfileState#FAILED} and nothing is recorded
+   * for it.
+   */
+  SKIP,
+  /**
+   * Only the first {@link InFlightDataConfig#getMaxPayloadBytes()} bytes of the response body are
+   * recorded. Such a recording fails comparison in {@link Mode#TEST} against the full response.
+   */
+  TRUNCATE
+}
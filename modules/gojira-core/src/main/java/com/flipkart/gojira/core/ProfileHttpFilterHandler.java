@@ -29,7 +29,6 @@ import java.util.Map;
 import javax.servlet.FilterChain;
 import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
-import org.apache.commons.io.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -66,11 +65,12 @@ public class ProfileHttpFilterHandler extends HttpFilterHandler {
    * <p>Checks if URI is whitelisted by calling {@link HttpFilterHandler#isWhitelistedUrl(String,
    * String)}
    *
-   * <p>If whitelisted, makes a copy of {@link
-   * HttpFilter.CustomHttpServletRequestWrapper#getInputStream()}. On error, marks {@link
-   * ExecutionData#getProfileState()} as {@link ProfileState#FAILED} and returns true enable {@link
-   * HttpFilter} to call {@link javax.servlet.FilterChain#doFilter(ServletRequest,
-   * ServletResponse)}.
+   * <p>If whitelisted, gets the body buffered by {@link
+   * HttpFilter.CustomHttpServletRequestWrapper#getBody()}. If the body is larger than {@link
+   * InFlightDataConfig#getMaxPayloadBytes()}, the request is not profiled, since a partial body
+   * cannot be replayed. On error, marks {@link ExecutionData#getProfileState()} as {@link
+   * ProfileState#FAILED} and returns true enable {@link HttpFilter} to call {@link
+   * javax.servlet.FilterChain#doFilter(ServletRequest, ServletResponse)}.
    *
    * <p>If successful, adds the required HTTP parameters for executing a call later and adds them to
    * {@link HttpTestRequestData}.
@@ -96,11 +96,9 @@ public class ProfileHttpFilterHandler extends HttpFilterHandler {
               + " PROFILE mode.");
     }
     if (isWhitelistedUrl(request.getRequestURI(), request.getMethod())) {
-      byte[] body;
-      try {
-        body = IOUtils.toByteArray(request.getInputStream());
-      } catch (IOException ex) {
-        LOGGER.warn("Unable to read the stream", ex);
+      byte[] body = request.getBody();
+      if (body.length > ProfileRepository.getInFlightDataConfig().getMaxPayloadBytes()) {
+        LOGGER.trace("request body is larger than max payload bytes, ignoring profiling.");
         return true;
       }
       try {
@@ -125,13 +123,15 @@ public class ProfileHttpFilterHandler extends HttpFilterHandler {
   }
 
   /**
-   * Calls {@link DefaultProfileOrTestHandler#end(TestResponseData)} as per {@link Mode} needs and
-   * calls {@link javax.servlet.ServletOutputStream#write(byte[])} of {@link
-   * javax.servlet.http.HttpServletResponse} by getting byte[] from {@link
-   * HttpFilter.TestServletResponseWrapper}
+   * Calls {@link DefaultProfileOrTestHandler#end(TestResponseData)} as per {@link Mode} needs with
+   * the response body captured by {@link HttpFilter.TestServletResponseWrapper}, which has already
+   * been streamed to {@link javax.servlet.http.HttpServletResponse}.
    *
    * <p>If URL is whitelisted, adds the HTTP response data needed for comparison later during
-   * execution and adds them to {@link HttpTestResponseData}.
+   * execution and adds them to {@link HttpTestResponseData}. If the response body was larger than
+   * {@link InFlightDataConfig#getMaxPayloadBytes()}, it is either recorded truncated or profiling
+   * is skipped by marking {@link ExecutionData#getProfileState()} as {@link ProfileState#FAILED},
+   * as per {@link OversizedPayloadPolicy}.
    *
    * <p>On failure, marks {@link ExecutionData#getProfileState()} as {@link ProfileState#FAILED}
    *
@@ -152,10 +152,14 @@ public class ProfileHttpFilterHandler extends HttpFilterHandler {
       ServletResponse response)
       throws IOException {
     byte[] outputBuffer = respWrapper.getBuffer();
-    response.getOutputStream().write(outputBuffer);
     HttpTestResponseData responseData = null;
     try {
-      if (isWhitelistedUrl(request.getRequestURI(), request.getMethod())) {
+      if (respWrapper.isPayloadOversized()
+          && OversizedPayloadPolicy.SKIP.equals(
+              ProfileRepository.getInFlightDataConfig().getOversizedPayloadPolicy())) {
+        LOGGER.trace("response body is larger than max payload bytes, ignoring profiling.");
+        ProfileRepository.setProfileState(ProfileState.FAILED);
+      } else if (isWhitelistedUrl(request.getRequestURI(), request.getMethod())) {
         responseData =
             HttpTestResponseData.builder()
                 .setBody(outputBuffer)
@@ -16,7 +16,6 @@
 
 package com.flipkart.gojira.core;
 
-import com.flipkart.gojira.core.injectors.GuiceInjector;
 import com.flipkart.gojira.hash.HashHandlerUtil;
 import com.flipkart.gojira.hash.TestHashHandler;
 import com.flipkart.gojira.models.ExecutionData;
@@ -42,8 +41,15 @@ public class ProfileMethodDataInterceptorHandler implements MethodDataIntercepto
   private static final Logger LOGGER =
       LoggerFactory.getLogger(ProfileOrTestMethodInterceptor.class);
 
-  private SerdeHandlerRepository serdeHandlerRepository =
-      GuiceInjector.getInjector().getInstance(SerdeHandlerRepository.class);
+  private final InjectorScoped<SerdeHandlerRepository> serdeHandlerRepository =
+      new InjectorScoped<>(injector -> injector.getInstance(SerdeHandlerRepository.class));
+
+  private final InjectorScoped<MethodMetadataCache> methodMetadataCache =
+      new InjectorScoped<>(
+          injector ->
+              new MethodMetadataCache(
+                  injector.getInstance(SerdeHandlerRepository.class),
+                  null));
 
   public ProfileMethodDataInterceptorHandler() {}
 
@@ -56,9 +62,14 @@ public class ProfileMethodDataInterceptorHandler implements MethodDataIntercepto
    * and calls {@link MethodInvocation#proceed()} if not already done and returns the object
    * returned by the invocation.
    *
-   * <p>Gets {@link ProfileRepository#getGlobalPerRequestID()}.
+   * <p>Resolves {@link GojiraContext} once by calling {@link ProfileRepository#getContext()} and
+   * uses it for all further access to request-response scope data.
+   *
+   * <p>Gets {@link GojiraContext#getId()}.
    *
-   * <p>Gets {@link Method#toGenericString()} of ()} of {@link MethodInvocation#getMethod()}.
+   * <p>Gets {@link MethodMetadata} of {@link MethodInvocation#getMethod()} from {@link
+   * MethodMetadataCache}, which holds {@link Method#toGenericString()} and the handlers referred
+   * below, resolved on first invocation of the method.
    *
    * <p>Instantiates a map of {@link ConcurrentHashMap} with key as {@link MethodDataType} and value
    * as {@link ArrayList} of {@link MethodData}.
@@ -85,41 +96,55 @@ public class ProfileMethodDataInterceptorHandler implements MethodDataIntercepto
    * <p>Then if an exception was thrown by the method being called, the same is thrown, else the
    * object is retuned.
    *
+   * <p>If {@link AsyncCaptureConfig} is enabled, only a snapshot of the method data is taken on
+   * the request thread, and hashing and recording is instead done on {@link
+   * AsyncCaptureExecutor}. Refer {@link #handleAsync(MethodInvocation, GojiraContext,
+   * MethodMetadata, String, AsyncCaptureExecutor)}.
+   *
    * @param invocation intercepted method invocation
    * @return object passed along by the called method to the calling method
    * @throws Throwable for any exception by the called method
    */
   @Override
   public Object handle(MethodInvocation invocation) throws Throwable {
+    GojiraContext context = ProfileRepository.getContext();
     try {
-      if (!ProfileRepository.getProfileState().equals(ProfileState.INITIATED)) {
+      if (!ProfileRepository.getProfileState(context).equals(ProfileState.INITIATED)) {
         return invocation.proceed();
       }
     } catch (Exception e) {
       LOGGER.warn("Error getting profile state in ProfileMethodDataInterceptorHandler. ", e);
-      ProfileRepository.setProfileState(ProfileState.FAILED);
+      ProfileRepository.setProfileState(context, ProfileState.FAILED);
       return invocation.proceed();
     }
     String methodGenericString = null;
     String globalPerRequestId = null;
 
     try {
-      globalPerRequestId = ProfileRepository.getGlobalPerRequestID();
+      globalPerRequestId = context.getId();
     } catch (Exception e) {
       LOGGER.warn("error getting globalPerRequestId.", e);
-      ProfileRepository.setProfileState(ProfileState.FAILED);
+      ProfileRepository.setProfileState(context, ProfileState.FAILED);
       return invocation.proceed();
     }
 
+    MethodMetadata methodMetadata;
     try {
-      methodGenericString = invocation.getMethod().toGenericString();
+      methodMetadata = methodMetadataCache.get().get(invocation);
+      methodGenericString = methodMetadata.getMethodId();
     } catch (Exception e) {
       LOGGER.warn(
           "error getting methodGenericString." + " globalPerRequestId: " + globalPerRequestId, e);
-      ProfileRepository.setProfileState(ProfileState.FAILED);
+      ProfileRepository.setProfileState(context, ProfileState.FAILED);
       return invocation.proceed();
     }
 
+    AsyncCaptureExecutor asyncCaptureExecutor = AsyncCaptureExecutor.getInstance();
+    if (asyncCaptureExecutor != null) {
+      return handleAsync(
+          invocation, context, methodMetadata, globalPerRequestId, asyncCaptureExecutor);
+    }
+
     Object invocationReturnData = null;
     Exception invocationException = null;
 
@@ -131,7 +156,7 @@ public class ProfileMethodDataInterceptorHandler implements MethodDataIntercepto
         List<MethodData> argumentBeforeList = new ArrayList<>();
         for (Object arg : invocation.getArguments()) {
           index++;
-          TestHashHandler hashHandler = HashHandlerUtil.getHashHandler(invocation, index);
+          TestHashHandler hashHandler = methodMetadata.getArgumentHashHandler(index);
           MethodData methodData =
               new MethodData(
                   MethodDataType.ARGUMENT_BEFORE,
@@ -139,15 +164,9 @@ public class ProfileMethodDataInterceptorHandler implements MethodDataIntercepto
                   arg == null
                       ? null
                       : hashHandler == null
-                          ? serdeHandlerRepository
-                              .getOrUpdateAndGetOrDefaultMethodArgumentDataSerdeHandler(
-                                  invocation, index)
-                              .serialize(arg)
+                          ? methodMetadata.getArgumentSerdeHandler(index).serialize(arg)
                           : hashHandler.hash(
-                              serdeHandlerRepository
-                                  .getOrUpdateAndGetOrDefaultMethodArgumentDataSerdeHandler(
-                                      invocation, index)
-                                  .serialize(arg)),
+                              methodMetadata.getArgumentSerdeHandler(index).serialize(arg)),
                   index);
           argumentBeforeList.add(methodData);
         }
@@ -162,7 +181,7 @@ public class ProfileMethodDataInterceptorHandler implements MethodDataIntercepto
                 + " globalPerRequestId: "
                 + globalPerRequestId,
             e);
-        ProfileRepository.setProfileState(ProfileState.FAILED);
+        ProfileRepository.setProfileState(context, ProfileState.FAILED);
         return invocation.proceed();
       }
     }
@@ -182,7 +201,7 @@ public class ProfileMethodDataInterceptorHandler implements MethodDataIntercepto
         List<MethodData> argumentAfterList = new ArrayList<>();
         for (Object arg : invocation.getArguments()) {
           index++;
-          TestHashHandler hashHandler = HashHandlerUtil.getHashHandler(invocation, index);
+          TestHashHandler hashHandler = methodMetadata.getArgumentHashHandler(index);
           MethodData methodData =
               new MethodData(
                   MethodDataType.ARGUMENT_AFTER,
@@ -190,15 +209,9 @@ public class ProfileMethodDataInterceptorHandler implements MethodDataIntercepto
                   arg == null
                       ? null
                       : hashHandler == null
-                          ? serdeHandlerRepository
-                              .getOrUpdateAndGetOrDefaultMethodArgumentDataSerdeHandler(
-                                  invocation, index)
-                              .serialize(arg)
+                          ? methodMetadata.getArgumentSerdeHandler(index).serialize(arg)
                           : hashHandler.hash(
-                              serdeHandlerRepository
-                                  .getOrUpdateAndGetOrDefaultMethodArgumentDataSerdeHandler(
-                                      invocation, index)
-                                  .serialize(arg)),
+                              methodMetadata.getArgumentSerdeHandler(index).serialize(arg)),
                   index);
           argumentAfterList.add(methodData);
         }
@@ -212,7 +225,7 @@ public class ProfileMethodDataInterceptorHandler implements MethodDataIntercepto
                 + " globalPerRequestId: "
                 + globalPerRequestId,
             e);
-        ProfileRepository.setProfileState(ProfileState.FAILED);
+        ProfileRepository.setProfileState(context, ProfileState.FAILED);
       }
 
       {
@@ -226,9 +239,7 @@ public class ProfileMethodDataInterceptorHandler implements MethodDataIntercepto
                     invocationReturnData == null ? null : invocationReturnData.getClass().getName(),
                     invocationReturnData == null
                         ? null
-                        : serdeHandlerRepository
-                            .getOrUpdateAndGetOrDefaultReturnDataSerdeHandler(invocation)
-                            .serialize(invocationReturnData),
+                        : methodMetadata.getReturnSerdeHandler().serialize(invocationReturnData),
                     0));
             methodDataMap.put(MethodDataType.RETURN, returnDataList);
           } catch (Exception e) {
@@ -238,7 +249,7 @@ public class ProfileMethodDataInterceptorHandler implements MethodDataIntercepto
                     + " globalPerRequestId: "
                     + globalPerRequestId,
                 e);
-            ProfileRepository.setProfileState(ProfileState.FAILED);
+            ProfileRepository.setProfileState(context, ProfileState.FAILED);
           }
         } else {
           try {
@@ -246,7 +257,7 @@ public class ProfileMethodDataInterceptorHandler implements MethodDataIntercepto
                 new MethodData(
                     MethodDataType.EXCEPTION,
                     invocationException.getClass().getName(),
-                    serdeHandlerRepository
+                    serdeHandlerRepository.get()
                         .getExceptionDataSerdeHandler(
                             methodGenericString, invocationException.getClass().getName())
                         .serialize(invocationException),
@@ -259,20 +270,140 @@ public class ProfileMethodDataInterceptorHandler implements MethodDataIntercepto
                     + " globalPerRequestId: "
                     + globalPerRequestId,
                 e);
-            ProfileRepository.setProfileState(ProfileState.FAILED);
+            ProfileRepository.setProfileState(context, ProfileState.FAILED);
           }
         }
       }
 
       try {
-        ProfileRepository.addInterceptedData(methodGenericString, methodDataMap);
+        ProfileRepository.addInterceptedData(context, methodGenericString, methodDataMap);
       } catch (Exception e) {
         LOGGER.warn(
             "error adding intercepted data against method : "
                 + methodGenericString
                 + " globalPerRequestId: "
                 + globalPerRequestId);
-        ProfileRepository.setProfileState(ProfileState.FAILED);
+        ProfileRepository.setProfileState(context, ProfileState.FAILED);
+      }
+    } catch (Exception e) {
+      LOGGER.warn(
+          "error profiling data, method: "
+              + methodGenericString
+              + " globalPerRequestId: "
+              + globalPerRequestId,
+          e);
+      ProfileRepository.setProfileState(context, ProfileState.FAILED);
+    }
+
+    if (invocationException != null) {
+      throw invocationException;
+    }
+    return invocationReturnData;
+  }
+
+  /**
+   * Same as {@link #handle(MethodInvocation)}, except that only a snapshot of the method data is
+   * taken on the request thread, since arguments, the return value and the exception may all be
+   * mutated by the caller once the method returns. Values which {@link
+   * AsyncCaptureExecutor#isImmutable(Object)} are kept as is, to be serialized on {@link
+   * AsyncCaptureExecutor}, others are serialized right away. Hashing and recording, which charges
+   * the data against {@link InFlightDataConfig}, is submitted to {@link AsyncCaptureExecutor}, with
+   * the recording order fixed on the request thread.
+   *
+   * <p>If the capture is rejected because the pool is saturated, marks {@link
+   * ExecutionData#getProfileState()} as {@link ProfileState#FAILED} instead of waiting.
+   */
+  private Object handleAsync(
+      MethodInvocation invocation,
+      GojiraContext context,
+      MethodMetadata methodMetadata,
+      String globalPerRequestId,
+      AsyncCaptureExecutor asyncCaptureExecutor)
+      throws Throwable {
+    String methodGenericString = methodMetadata.getMethodId();
+    Object[] argumentsBefore;
+    try {
+      argumentsBefore = snapshotArguments(invocation, methodMetadata, asyncCaptureExecutor);
+    } catch (Exception e) {
+      // on failure, mark failed and proceed with method invocation
+      LOGGER.warn(
+          "error profiling argument data before method execution, method: "
+              + methodGenericString
+              + " globalPerRequestId: "
+              + globalPerRequestId,
+          e);
+      ProfileRepository.setProfileState(context, ProfileState.FAILED);
+      return invocation.proceed();
+    }
+
+    Object invocationReturnData = null;
+    Exception invocationException = null;
+    try {
+      invocationReturnData = invocation.proceed();
+    } catch (Exception e) {
+      invocationException = e;
+    }
+
+    try {
+      long key = System.nanoTime();
+      Object[] argumentsAfter = snapshotArguments(invocation, methodMetadata, asyncCaptureExecutor);
+      Exception exception = invocationException;
+      MethodDataType resultType =
+          exception == null ? MethodDataType.RETURN : MethodDataType.EXCEPTION;
+      TestSerdeHandler resultSerdeHandler =
+          exception == null
+              ? methodMetadata.getReturnSerdeHandler()
+              : serdeHandlerRepository.get().getExceptionDataSerdeHandler(
+                  methodGenericString, exception.getClass().getName());
+      Object result =
+          snapshot(
+              exception == null ? invocationReturnData : exception,
+              asyncCaptureExecutor,
+              resultSerdeHandler);
+      // if the request has already ended and its data handed off, there is nothing to record.
+      if (context.tryAcquireCapture()) {
+        boolean submitted =
+            asyncCaptureExecutor.submit(
+                () -> {
+                  try {
+                    ConcurrentHashMap<MethodDataType, List<MethodData>> methodDataMap =
+                        new ConcurrentHashMap<>();
+                    methodDataMap.put(
+                        MethodDataType.ARGUMENT_BEFORE,
+                        toArgumentMethodData(
+                            MethodDataType.ARGUMENT_BEFORE, methodMetadata, argumentsBefore));
+                    methodDataMap.put(
+                        MethodDataType.ARGUMENT_AFTER,
+                        toArgumentMethodData(
+                            MethodDataType.ARGUMENT_AFTER, methodMetadata, argumentsAfter));
+                    List<MethodData> resultList = new ArrayList<>();
+                    // TODO: Take care of hashing for return object.
+                    resultList.add(
+                        toMethodData(resultType, result, 0, resultSerdeHandler));
+                    methodDataMap.put(resultType, resultList);
+                    ProfileRepository.addInterceptedData(
+                        context, methodGenericString, methodDataMap, key);
+                  } catch (Throwable e) {
+                    LOGGER.warn(
+                        "error profiling data asynchronously, method: "
+                            + methodGenericString
+                            + " globalPerRequestId: "
+                            + globalPerRequestId,
+                        e);
+                    ProfileRepository.setProfileState(context, ProfileState.FAILED);
+                  } finally {
+                    context.releaseCapture();
+                  }
+                });
+        if (!submitted) {
+          LOGGER.warn(
+              "async capture pool is saturated, failing profile. method: "
+                  + methodGenericString
+                  + " globalPerRequestId: "
+                  + globalPerRequestId);
+          ProfileRepository.setProfileState(context, ProfileState.FAILED);
+          context.releaseCapture();
+        }
       }
     } catch (Exception e) {
       LOGGER.warn(
@@ -281,7 +412,7 @@ public class ProfileMethodDataInterceptorHandler implements MethodDataIntercepto
               + " globalPerRequestId: "
               + globalPerRequestId,
           e);
-      ProfileRepository.setProfileState(ProfileState.FAILED);
+      ProfileRepository.setProfileState(context, ProfileState.FAILED);
     }
 
     if (invocationException != null) {
@@ -289,4 +420,91 @@ public class ProfileMethodDataInterceptorHandler implements MethodDataIntercepto
     }
     return invocationReturnData;
   }
+
+  private Object[] snapshotArguments(
+      MethodInvocation invocation,
+      MethodMetadata methodMetadata,
+      AsyncCaptureExecutor asyncCaptureExecutor)
+      throws Throwable {
+    Object[] arguments = invocation.getArguments();
+    Object[] snapshots = new Object[arguments.length];
+    for (int index = 0; index < arguments.length; index++) {
+      snapshots[index] =
+          snapshot(
+              arguments[index],
+              asyncCaptureExecutor,
+              methodMetadata.getArgumentSerdeHandler(index));
+    }
+    return snapshots;
+  }
+
+  private Object snapshot(
+      Object value,
+      AsyncCaptureExecutor asyncCaptureExecutor,
+      TestSerdeHandler serdeHandler)
+      throws Throwable {
+    if (asyncCaptureExecutor.isImmutable(value)) {
+      return value;
+    }
+    return new SerializedValue(value.getClass().getName(), serdeHandler.serialize(value));
+  }
+
+  private List<MethodData> toArgumentMethodData(
+      MethodDataType methodDataType, MethodMetadata methodMetadata, Object[] snapshots)
+      throws Throwable {
+    List<MethodData> argumentList = new ArrayList<>(snapshots.length);
+    for (int index = 0; index < snapshots.length; index++) {
+      MethodData methodData =
+          toMethodData(
+              methodDataType,
+              snapshots[index],
+              index,
+              methodMetadata.getArgumentSerdeHandler(index));
+      TestHashHandler hashHandler = methodMetadata.getArgumentHashHandler(index);
+      if (hashHandler != null && methodData.getData() != null) {
+        methodData =
+            new MethodData(
+                methodDataType,
+                methodData.getClassName(),
+                hashHandler.hash(methodData.getData()),
+                index);
+      }
+      argumentList.add(methodData);
+    }
+    return argumentList;
+  }
+
+  private MethodData toMethodData(
+      MethodDataType methodDataType,
+      Object snapshot,
+      int position,
+      TestSerdeHandler serdeHandler)
+      throws Throwable {
+    if (snapshot == null) {
+      return new MethodData(methodDataType, null, null, position);
+    }
+    if (snapshot instanceof SerializedValue) {
+      SerializedValue serializedValue = (SerializedValue) snapshot;
+      return new MethodData(
+          methodDataType, serializedValue.className, serializedValue.data, position);
+    }
+    return new MethodData(
+        methodDataType,
+        snapshot.getClass().getName(),
+        serdeHandler.serialize(snapshot),
+        position);
+  }
+
+  /**
+   * Snapshot of a mutable value taken on the request thread.
+   */
+  private static final class SerializedValue {
+    private final String className;
+    private final byte[] data;
+
+    private SerializedValue(String className, byte[] data) {
+      this.className = className;
+      this.data = data;
+    }
+  }
 }
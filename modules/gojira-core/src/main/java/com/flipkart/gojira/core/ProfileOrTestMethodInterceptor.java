@@ -27,14 +27,14 @@ import org.slf4j.LoggerFactory;
 /**
  * This class implements {@link MethodInterceptor} to be used when binding with guice or any other
  * library that enables method interception. It contains all the method interceptor handlers per
- * {@link Mode}.
+ * {@link Mode}, which are shared by all instances so that their per method caches are too.
  */
 public class ProfileOrTestMethodInterceptor implements MethodInterceptor {
 
   private static final Logger LOGGER =
       LoggerFactory.getLogger(ProfileOrTestMethodInterceptor.class);
 
-  private Map<Mode, MethodDataInterceptorHandler> modeMethodDataInterceptorHandlerMap =
+  private static final Map<Mode, MethodDataInterceptorHandler> MODE_HANDLER_MAP =
       Collections.unmodifiableMap(
           new HashMap<Mode, MethodDataInterceptorHandler>() {
             {
@@ -56,10 +56,10 @@ public class ProfileOrTestMethodInterceptor implements MethodInterceptor {
    */
   @Override
   public Object invoke(MethodInvocation invocation) throws Throwable {
-    if (modeMethodDataInterceptorHandlerMap.containsKey(ProfileRepository.getRequestMode())) {
-      return modeMethodDataInterceptorHandlerMap
-          .get(ProfileRepository.getRequestMode())
-          .handle(invocation);
+    MethodDataInterceptorHandler methodDataInterceptorHandler =
+        MODE_HANDLER_MAP.get(ProfileRepository.getRequestMode());
+    if (methodDataInterceptorHandler != null) {
+      return methodDataInterceptorHandler.handle(invocation);
     }
 
     return invocation.proceed();
@@ -16,6 +16,8 @@
 
 package com.flipkart.gojira.core;
 
+import com.flipkart.compare.diff.DiffIgnoreMatcher;
+import com.flipkart.gojira.models.EncodedMethodData;
 import com.flipkart.gojira.models.ExecutionData;
 import com.flipkart.gojira.models.MethodData;
 import com.flipkart.gojira.models.MethodDataType;
@@ -24,14 +26,18 @@ import com.flipkart.gojira.models.TestDataType;
 import com.flipkart.gojira.models.TestRequestData;
 import com.flipkart.gojira.models.TestResponseData;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * This class currently acts as coordinator of execution in various {@link Mode}. It also holds a
- * reference to the thread local variable which specific request-response scope data and state.
+ * reference to the thread local {@link GojiraContext} which holds request-response scope data and
+ * state.
  *
  * <p>TODO: Refactor this class. Split responsibility for temp data storage during execution,
  * co-ordination etc...
@@ -43,43 +49,73 @@ public class ProfileRepository<
 
   private static final Logger LOGGER = LoggerFactory.getLogger(ProfileRepository.class);
   private static final String DEFAULT_GLOBAL_PER_REQUEST_ID = "GLOBAL_PER_REQUEST_ID";
-  private static final InheritableThreadLocal<String> GLOBAL_PER_REQUEST_ID =
-      new InheritableThreadLocal<String>() {
-        /**
-         * {@inheritDoc}
-         *
-         * @see ThreadLocal#initialValue()
-         */
-        @Override
-        protected String initialValue() {
-          return DEFAULT_GLOBAL_PER_REQUEST_ID;
-        }
-      };
+  private static final InheritableThreadLocal<GojiraContext> GOJIRA_CONTEXT =
+      new InheritableThreadLocal<>();
   private static ProfileSetting globalProfileSetting = new ProfileSetting();
 
-  // TODO: Wrap below map in a size restricted collection for memory protection
-  private static ConcurrentHashMap<String, ExecutionData> globalProfiledDataMap =
-      new ConcurrentHashMap<>();
+  /**
+   * Approximate bytes charged for every {@link MethodData} in addition to its serialized data.
+   */
+  private static final long METHOD_DATA_OVERHEAD_BYTES = 64;
+
+  private static volatile InFlightDataStore inFlightDataStore =
+      new InFlightDataStore(InFlightDataConfig.builder().build());
 
+  /**
+   * Returns the id of the {@link GojiraContext} in current thread local, or a default value if
+   * none is set.
+   *
+   * @return global per request id
+   */
   public static String getGlobalPerRequestID() {
-    return GLOBAL_PER_REQUEST_ID.get();
+    GojiraContext context = GOJIRA_CONTEXT.get();
+    return context == null ? DEFAULT_GLOBAL_PER_REQUEST_ID : context.getId();
   }
 
   /**
-   * Sets {@link #GLOBAL_PER_REQUEST_ID}.
+   * Resolves the {@link GojiraContext} against the id and sets it in current thread local. If no
+   * in-flight data is found against the id, an inactive context carrying just the id is set.
+   *
+   * <p>Prefer {@link #setContext(GojiraContext)} when the context is at hand, which avoids the
+   * lookup.
    *
    * @param globalPerRequestID to set as thread local.
    */
   public static void setGlobalPerRequestID(String globalPerRequestID) {
     if (globalPerRequestID != null) {
-      GLOBAL_PER_REQUEST_ID.set(globalPerRequestID);
+      GojiraContext context = inFlightDataStore.get(globalPerRequestID);
+      GOJIRA_CONTEXT.set(
+          context != null ? context : new GojiraContext(globalPerRequestID, new ExecutionData()));
     } else {
       LOGGER.error("globalPerRequestId cannot be null.");
     }
   }
 
   public static void clearGlobalPerRequestID() {
-    GLOBAL_PER_REQUEST_ID.remove();
+    GOJIRA_CONTEXT.remove();
+  }
+
+  /**
+   * Returns the {@link GojiraContext} in current thread local, which can be passed to other
+   * threads participating in the same request-response scope.
+   *
+   * @return context, null if none is set
+   */
+  public static GojiraContext getContext() {
+    return GOJIRA_CONTEXT.get();
+  }
+
+  /**
+   * Sets the {@link GojiraContext} in current thread local.
+   *
+   * @param context to set as thread local.
+   */
+  public static void setContext(GojiraContext context) {
+    if (context != null) {
+      GOJIRA_CONTEXT.set(context);
+    } else {
+      LOGGER.error("context cannot be null.");
+    }
   }
 
   /**
@@ -88,19 +124,31 @@ public class ProfileRepository<
    * @param testDataId numeric string to be set as testId
    */
   public static void setTestDataId(String testDataId) {
-    if (globalProfiledDataMap.containsKey(GLOBAL_PER_REQUEST_ID.get())) {
-      globalProfiledDataMap.get(GLOBAL_PER_REQUEST_ID.get()).getTestData().setId(testDataId);
+    ExecutionData executionData = getActiveExecutionData(GOJIRA_CONTEXT.get());
+    if (executionData != null) {
+      executionData.getTestData().setId(testDataId);
     } else {
       LOGGER.error(
           "Trying to set test data id against global request id: "
-              + GLOBAL_PER_REQUEST_ID.get()
+              + getGlobalPerRequestID()
               + " which is either null or the default value.");
     }
   }
 
-  static synchronized Mode getRequestMode() {
-    if (globalProfiledDataMap.containsKey(GLOBAL_PER_REQUEST_ID.get())) {
-      return globalProfiledDataMap.get(GLOBAL_PER_REQUEST_ID.get()).getExecutionMode();
+  /**
+   * Returns the request level {@link Mode} held by the {@link GojiraContext} in current thread
+   * local, or {@link Mode#NONE} if there is no active context. This does not take any lock.
+   *
+   * @return request mode
+   */
+  static Mode getRequestMode() {
+    return getRequestMode(GOJIRA_CONTEXT.get());
+  }
+
+  static Mode getRequestMode(GojiraContext context) {
+    ExecutionData executionData = getActiveExecutionData(context);
+    if (executionData != null) {
+      return executionData.getExecutionMode();
     } else {
       return Mode.NONE;
     }
@@ -114,10 +162,43 @@ public class ProfileRepository<
     return globalProfileSetting;
   }
 
-  static void begin(String globalPerRequestId) {
+  /**
+   * Replaces the {@link InFlightDataStore} with one governed by the given config. Meant to be
+   * called during setup, before any request begins.
+   *
+   * @param inFlightDataConfig limits for in-flight data
+   */
+  static void setInFlightDataConfig(InFlightDataConfig inFlightDataConfig) {
+    inFlightDataStore = new InFlightDataStore(inFlightDataConfig);
+  }
+
+  static InFlightDataConfig getInFlightDataConfig() {
+    return inFlightDataStore.getInFlightDataConfig();
+  }
+
+  /**
+   * Returns the store holding in-flight data, which exposes live counters of entries, bytes,
+   * evictions, expirations and rejections.
+   *
+   * @return in-flight data store
+   */
+  public static InFlightDataStore getInFlightDataStore() {
+    return inFlightDataStore;
+  }
+
+  /**
+   * Begins execution against the id by admitting a new {@link GojiraContext} in {@link
+   * InFlightDataStore} and setting it in current thread local. If the request cannot be admitted
+   * as per {@link InFlightDataConfig}, the request is not profiled or tested.
+   *
+   * @param globalPerRequestId id of the request
+   * @return true if execution has begun, false if the request was not admitted
+   */
+  static boolean begin(String globalPerRequestId) {
     if (globalPerRequestId != null) {
-      GLOBAL_PER_REQUEST_ID.set(globalPerRequestId);
-      if (globalProfiledDataMap.putIfAbsent(globalPerRequestId, new ExecutionData()) != null) {
+      GojiraContext context = new GojiraContext(globalPerRequestId, new ExecutionData());
+      InFlightDataStore.Admission admission = inFlightDataStore.begin(context);
+      if (InFlightDataStore.Admission.DUPLICATE.equals(admission)) {
         LOGGER.error(
             "Error beginning profiling/testing since"
                 + globalPerRequestId
@@ -127,27 +208,64 @@ public class ProfileRepository<
                 + globalPerRequestId
                 + " is already present in the map.");
       }
-      ProfileRepository.setProfileState(ProfileState.INITIATED);
+      if (InFlightDataStore.Admission.REJECTED.equals(admission)) {
+        LOGGER.debug(
+            "in-flight data store is full, not beginning profiling/testing for id: "
+                + globalPerRequestId);
+        return false;
+      }
+      GOJIRA_CONTEXT.set(context);
+      context.getExecutionData().setProfileState(ProfileState.INITIATED);
+      return true;
     } else {
       LOGGER.error("globalPerRequestId cannot be null.");
     }
+    return false;
   }
 
   static void end() {
-    if (globalProfiledDataMap.containsKey(GLOBAL_PER_REQUEST_ID.get())) {
-      globalProfiledDataMap.remove(GLOBAL_PER_REQUEST_ID.get());
+    end(null);
+  }
+
+  /**
+   * Ends execution on the current thread. The in-flight data is released, and the given action
+   * run, only once all asynchronous captures against the context have completed, which may happen
+   * later on a capture thread.
+   *
+   * @param onCapturesComplete action to run against the context before it is released, may be null
+   */
+  static void end(Consumer<GojiraContext> onCapturesComplete) {
+    GojiraContext context = GOJIRA_CONTEXT.get();
+    if (context != null) {
       clearGlobalPerRequestID();
+      InFlightDataStore store = inFlightDataStore;
+      context.complete(
+          () -> {
+            try {
+              if (onCapturesComplete != null) {
+                onCapturesComplete.accept(context);
+              }
+            } finally {
+              store.end(context);
+            }
+          });
     }
   }
 
   static <T extends TestDataType>
       TestData<TestRequestData<T>, TestResponseData<T>, T> getTestData() {
-    if (globalProfiledDataMap.containsKey(GLOBAL_PER_REQUEST_ID.get())) {
-      return globalProfiledDataMap.get(GLOBAL_PER_REQUEST_ID.get()).getTestData();
+    return getTestData(GOJIRA_CONTEXT.get());
+  }
+
+  static <T extends TestDataType>
+      TestData<TestRequestData<T>, TestResponseData<T>, T> getTestData(GojiraContext context) {
+    ExecutionData executionData = getActiveExecutionData(context);
+    if (executionData != null) {
+      return executionData.getTestData();
     } else {
       LOGGER.error(
           "Trying to get test data against global request id: "
-              + GLOBAL_PER_REQUEST_ID.get()
+              + (context == null ? DEFAULT_GLOBAL_PER_REQUEST_ID : context.getId())
               + " which is not found.");
     }
     return null;
@@ -155,76 +273,177 @@ public class ProfileRepository<
 
   static <T extends TestDataType> void setTestData(
       TestData<TestRequestData<T>, TestResponseData<T>, T> testData) {
-    if (globalProfiledDataMap.containsKey(GLOBAL_PER_REQUEST_ID.get())) {
-      globalProfiledDataMap.get(GLOBAL_PER_REQUEST_ID.get()).setTestData(testData);
+    GojiraContext context = GOJIRA_CONTEXT.get();
+    ExecutionData executionData = getActiveExecutionData(context);
+    if (executionData != null) {
+      executionData.setTestData(testData);
+      if (testData != null) {
+        long bytes = 0;
+        if (!testData.getEncodedMethodData().isEmpty()) {
+          // methods which are decoded on demand are charged by their encoded size.
+          for (EncodedMethodData encodedMethodData : testData.getEncodedMethodData().values()) {
+            bytes += encodedMethodData.getEncodedBytes();
+          }
+        } else if (testData.getMethodDataMap() != null) {
+          for (ConcurrentSkipListMap<Long, ConcurrentHashMap<MethodDataType, List<MethodData>>>
+              data : testData.getMethodDataMap().values()) {
+            for (ConcurrentHashMap<MethodDataType, List<MethodData>> methodDataMap :
+                data.values()) {
+              bytes += estimateBytes(methodDataMap);
+            }
+          }
+        }
+        inFlightDataStore.charge(context, bytes);
+      }
     } else {
       LOGGER.error(
           "Trying to set test data against global request id: "
-              + GLOBAL_PER_REQUEST_ID.get()
+              + getGlobalPerRequestID()
               + " which is either null or the default value.");
     }
   }
 
   static ProfileState getProfileState() {
-    if (globalProfiledDataMap.containsKey(GLOBAL_PER_REQUEST_ID.get())) {
-      return globalProfiledDataMap.get(GLOBAL_PER_REQUEST_ID.get()).getProfileState();
+    return getProfileState(GOJIRA_CONTEXT.get());
+  }
+
+  static ProfileState getProfileState(GojiraContext context) {
+    ExecutionData executionData = getActiveExecutionData(context);
+    if (executionData != null) {
+      return executionData.getProfileState();
     } else {
       LOGGER.error(
           "Trying to get request profile state against global request id: "
-              + GLOBAL_PER_REQUEST_ID.get()
+              + (context == null ? DEFAULT_GLOBAL_PER_REQUEST_ID : context.getId())
               + " which is not found.");
     }
     return ProfileState.NONE;
   }
 
   static void setProfileState(ProfileState profileState) {
-    if (globalProfiledDataMap.containsKey(GLOBAL_PER_REQUEST_ID.get())) {
-      globalProfiledDataMap.get(GLOBAL_PER_REQUEST_ID.get()).setProfileState(profileState);
+    setProfileState(GOJIRA_CONTEXT.get(), profileState);
+  }
+
+  static void setProfileState(GojiraContext context, ProfileState profileState) {
+    ExecutionData executionData = getActiveExecutionData(context);
+    if (executionData != null) {
+      executionData.setProfileState(profileState);
     } else {
       LOGGER.error(
           "Trying to set profile state against global request id: "
-              + GLOBAL_PER_REQUEST_ID.get()
+              + (context == null ? DEFAULT_GLOBAL_PER_REQUEST_ID : context.getId())
+              + " which is not found.");
+    }
+  }
+
+  /**
+   * Records the failure of an intercepted method against the current execution, unless a method
+   * has failed already.
+   *
+   * @param failedMethod generic name of the method
+   * @param failureMessage reason the method failed
+   */
+  static void setMethodFailure(String failedMethod, String failureMessage) {
+    ExecutionData executionData = getActiveExecutionData(GOJIRA_CONTEXT.get());
+    if (executionData != null) {
+      executionData.setMethodFailure(failedMethod, failureMessage);
+    } else {
+      LOGGER.error(
+          "Trying to set method failure against global request id: "
+              + getGlobalPerRequestID()
               + " which is not found.");
     }
   }
 
+  static String getFailedMethod() {
+    ExecutionData executionData = getActiveExecutionData(GOJIRA_CONTEXT.get());
+    return executionData != null ? executionData.getFailedMethod() : null;
+  }
+
+  static String getFailureMessage() {
+    ExecutionData executionData = getActiveExecutionData(GOJIRA_CONTEXT.get());
+    return executionData != null ? executionData.getFailureMessage() : null;
+  }
+
+  /**
+   * Returns the index of the recorded entries of a method, building it on first call in the
+   * current execution and again once the ignore patterns change.
+   *
+   * @param methodMetadata metadata of the method, with the compare handlers of its arguments
+   * @param perMethodAllEntries recorded entries of the method
+   * @param diffIgnoreMatchers matchers of the current ignore patterns, by diff type
+   * @return index of the entries, null if no execution is in progress
+   */
+  static RecordedArgumentIndex getRecordedArgumentIndex(
+      MethodMetadata methodMetadata,
+      ConcurrentSkipListMap<Long, ConcurrentHashMap<MethodDataType, List<MethodData>>>
+          perMethodAllEntries,
+      List<DiffIgnoreMatcher> diffIgnoreMatchers) {
+    GojiraContext context = GOJIRA_CONTEXT.get();
+    if (getActiveExecutionData(context) == null) {
+      return null;
+    }
+    RecordedArgumentIndex recordedArgumentIndex =
+        context.getRecordedArgumentIndexes().get(methodMetadata.getMethodId());
+    if (recordedArgumentIndex != null && recordedArgumentIndex.isBuiltWith(diffIgnoreMatchers)) {
+      return recordedArgumentIndex;
+    }
+    return context
+        .getRecordedArgumentIndexes()
+        .compute(
+            methodMetadata.getMethodId(),
+            (key, index) ->
+                index != null && index.isBuiltWith(diffIgnoreMatchers)
+                    ? index
+                    : RecordedArgumentIndex.build(
+                        perMethodAllEntries, methodMetadata, diffIgnoreMatchers));
+  }
+
+  /**
+   * Returns the time since the current execution began.
+   *
+   * @return elapsed time in milliseconds, 0 if no execution is in progress
+   */
+  static long getElapsedMillis() {
+    GojiraContext context = GOJIRA_CONTEXT.get();
+    if (context == null || !context.isActive()) {
+      return 0L;
+    }
+    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - context.getBeganAt());
+  }
+
   static void setRequestData(TestRequestData<? extends TestDataType> requestData) {
-    if (globalProfiledDataMap.containsKey(GLOBAL_PER_REQUEST_ID.get())) {
-      globalProfiledDataMap
-          .get(GLOBAL_PER_REQUEST_ID.get())
-          .getTestData()
-          .setRequestData(requestData);
+    ExecutionData executionData = getActiveExecutionData(GOJIRA_CONTEXT.get());
+    if (executionData != null) {
+      executionData.getTestData().setRequestData(requestData);
     } else {
       LOGGER.error(
           "Trying to set request data against global request id: "
-              + GLOBAL_PER_REQUEST_ID.get()
+              + getGlobalPerRequestID()
               + " which is not found.");
     }
   }
 
   static void setRequestMode(Mode requestMode) {
-    if (globalProfiledDataMap.containsKey(GLOBAL_PER_REQUEST_ID.get())) {
-      globalProfiledDataMap
-              .get(GLOBAL_PER_REQUEST_ID.get())
-              .setExecutionMode(requestMode);
+    ExecutionData executionData = getActiveExecutionData(GOJIRA_CONTEXT.get());
+    if (executionData != null) {
+      executionData.setExecutionMode(requestMode);
     } else {
       LOGGER.error(
               "Trying to set request execution mode against global request id: "
-                      + GLOBAL_PER_REQUEST_ID.get()
+                      + getGlobalPerRequestID()
                       + " which is not found.");
     }
   }
 
   static void setResponseData(TestResponseData<? extends TestDataType> responseData) {
-    if (globalProfiledDataMap.containsKey(GLOBAL_PER_REQUEST_ID.get())) {
-      globalProfiledDataMap
-          .get(GLOBAL_PER_REQUEST_ID.get())
-          .getTestData()
-          .setResponseData(responseData);
+    ExecutionData executionData = getActiveExecutionData(GOJIRA_CONTEXT.get());
+    if (executionData != null) {
+      executionData.getTestData().setResponseData(responseData);
     } else {
       LOGGER.error(
           "Trying to set response data against global request id: "
-              + GLOBAL_PER_REQUEST_ID.get()
+              + getGlobalPerRequestID()
               + " which is not found.");
     }
   }
@@ -232,21 +451,41 @@ public class ProfileRepository<
   static void addInterceptedData(
       String uniqueMethodIdentifier,
       ConcurrentHashMap<MethodDataType, List<MethodData>> methodDataMap) {
-    if (globalProfiledDataMap.containsKey(GLOBAL_PER_REQUEST_ID.get())) {
+    addInterceptedData(GOJIRA_CONTEXT.get(), uniqueMethodIdentifier, methodDataMap);
+  }
+
+  static void addInterceptedData(
+      GojiraContext context,
+      String uniqueMethodIdentifier,
+      ConcurrentHashMap<MethodDataType, List<MethodData>> methodDataMap) {
+    addInterceptedData(context, uniqueMethodIdentifier, methodDataMap, System.nanoTime());
+  }
+
+  /**
+   * Adds intercepted data against the method, ordered by the given key among other invocations of
+   * the same method. Asynchronous captures take the key on the request thread, so that the order
+   * of recording is the order of invocation.
+   */
+  static void addInterceptedData(
+      GojiraContext context,
+      String uniqueMethodIdentifier,
+      ConcurrentHashMap<MethodDataType, List<MethodData>> methodDataMap,
+      long key) {
+    ExecutionData executionData = getActiveExecutionData(context);
+    if (executionData != null) {
+      if (!inFlightDataStore.charge(context, estimateBytes(methodDataMap))) {
+        return;
+      }
       ConcurrentHashMap<
               String,
               ConcurrentSkipListMap<Long, ConcurrentHashMap<MethodDataType, List<MethodData>>>>
-          recordedMethodDataMap =
-              globalProfiledDataMap
-                  .get(GLOBAL_PER_REQUEST_ID.get())
-                  .getTestData()
-                  .getMethodDataMap();
+          recordedMethodDataMap = executionData.getTestData().getMethodDataMap();
       ConcurrentSkipListMap<Long, ConcurrentHashMap<MethodDataType, List<MethodData>>> data =
           recordedMethodDataMap.get(uniqueMethodIdentifier);
       if (data == null) {
         data = new ConcurrentSkipListMap<>();
         // concurrent skip list map has entries sorted in ascending order.
-        data.put(System.nanoTime(), methodDataMap);
+        data.put(key, methodDataMap);
         ConcurrentSkipListMap<Long, ConcurrentHashMap<MethodDataType, List<MethodData>>>
             concurrentCheckData = recordedMethodDataMap.putIfAbsent(uniqueMethodIdentifier, data);
         if (concurrentCheckData != null) {
@@ -254,7 +493,7 @@ public class ProfileRepository<
           // try 3 times to ensure that concurrency is handled fine.
           Object prevData = null;
           for (int i = 0; i < 3; i++) {
-            prevData = data.putIfAbsent(System.nanoTime(), methodDataMap);
+            prevData = data.putIfAbsent(key + i, methodDataMap);
             if (prevData == null) {
               break;
             }
@@ -263,9 +502,9 @@ public class ProfileRepository<
           if (prevData != null) {
             LOGGER.warn(
                 "Trying to add method intercepted data against global request id: "
-                    + GLOBAL_PER_REQUEST_ID.get()
+                    + context.getId()
                     + " failed.");
-            ProfileRepository.setProfileState(ProfileState.FAILED);
+            executionData.setProfileState(ProfileState.FAILED);
             return;
           }
           // nothing gets removed from the app, so no need to worry about repetitive checks
@@ -275,7 +514,7 @@ public class ProfileRepository<
         // try 3 times to ensure that concurrency is handled fine.
         Object prevData = null;
         for (int i = 0; i < 3; i++) {
-          prevData = data.putIfAbsent(System.nanoTime(), methodDataMap);
+          prevData = data.putIfAbsent(key + i, methodDataMap);
           if (prevData == null) {
             break;
           }
@@ -284,9 +523,9 @@ public class ProfileRepository<
         if (prevData != null) {
           LOGGER.warn(
               "Trying to add method intercepted data against global request id: "
-                  + GLOBAL_PER_REQUEST_ID.get()
+                  + context.getId()
                   + " failed.");
-          ProfileRepository.setProfileState(ProfileState.FAILED);
+          executionData.setProfileState(ProfileState.FAILED);
           return;
         }
         recordedMethodDataMap.put(uniqueMethodIdentifier, data);
@@ -294,12 +533,39 @@ public class ProfileRepository<
     } else {
       LOGGER.warn(
           "Trying to add method intercepted data against global request id: "
-              + GLOBAL_PER_REQUEST_ID.get()
+              + (context == null ? DEFAULT_GLOBAL_PER_REQUEST_ID : context.getId())
               + " which is not found.");
     }
   }
 
+  private static long estimateBytes(Map<MethodDataType, List<MethodData>> methodDataMap) {
+    long bytes = 0;
+    for (List<MethodData> methodDataList : methodDataMap.values()) {
+      for (MethodData methodData : methodDataList) {
+        bytes += METHOD_DATA_OVERHEAD_BYTES;
+        if (methodData.getData() != null) {
+          bytes += methodData.getData().length;
+        }
+      }
+    }
+    return bytes;
+  }
+
+  private static ExecutionData getActiveExecutionData(GojiraContext context) {
+    return context != null && context.isActive() ? context.getExecutionData() : null;
+  }
+
   public static class ModeHelper {
+    /**
+     * Returns true if the global mode is {@link Mode#NONE}, in which case the request level mode is
+     * {@link Mode#NONE} irrespective of the Gojira header.
+     *
+     * @return true if global mode is {@link Mode#NONE}
+     */
+    static boolean isGlobalModeNone() {
+      return Mode.NONE.equals(ProfileRepository.getGlobalProfileSetting().getMode());
+    }
+
     /**
      * Takes string input and returns appropriate Gojira Execution Mode.
      *
@@ -307,7 +573,8 @@ public class ProfileRepository<
      * @return gojira mode
      */
     public static Mode getRequestMode(String requestMode) {
-      if (Mode.DYNAMIC.equals(ProfileRepository.getGlobalProfileSetting().getMode())) {
+      Mode globalMode = ProfileRepository.getGlobalProfileSetting().getMode();
+      if (Mode.DYNAMIC.equals(globalMode)) {
         try {
           if (null == requestMode
                   || requestMode.isEmpty()
@@ -320,7 +587,7 @@ public class ProfileRepository<
           return Mode.NONE;
         }
       } else {
-        return ProfileRepository.getGlobalProfileSetting().getMode();
+        return globalMode;
       }
     }
   }
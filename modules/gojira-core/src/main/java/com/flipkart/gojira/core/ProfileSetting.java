@@ -23,8 +23,10 @@ public class ProfileSetting {
 
   /**
    * Mode to indicate whether recording should be done or execution needs to be done etc...
+   *
+   * <p>Volatile since it is written once during setup and read without locking on every request.
    */
-  private Mode mode = Mode.NONE;
+  private volatile Mode mode = Mode.NONE;
 
   public Mode getMode() {
     return mode;
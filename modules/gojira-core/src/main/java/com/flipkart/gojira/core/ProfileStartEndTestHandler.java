@@ -38,10 +38,11 @@ public class ProfileStartEndTestHandler<T extends TestDataType> implements Start
 
   /**
    * Checks if the request falls in the sampling bucket. If yes, it calls {@link
-   * ProfileRepository#begin(String)} to start profiling, adds the {@link TestRequestData} to
-   * {@link TestData} by calling {@link ProfileRepository#setRequestData(TestRequestData)}
-   * and adds the {@link Mode} to {@link ExecutionData#getExecutionMode()} by
-   * calling the {@link ProfileRepository#setRequestMode(Mode)}
+   * ProfileRepository#begin(String)} to start profiling. If the request is not admitted as per
+   * {@link InFlightDataConfig}, profiling is skipped. Otherwise it adds the {@link
+   * TestRequestData} to {@link TestData} by calling {@link
+   * ProfileRepository#setRequestData(TestRequestData)} and adds the {@link Mode} to {@link
+   * ExecutionData#getExecutionMode()} by calling the {@link ProfileRepository#setRequestMode(Mode)}
    * In case of any failure, marks the {@link ExecutionData#getProfileState()} as
    * {@link ProfileState#FAILED} to avoid further recording of data.
    *
@@ -54,7 +55,10 @@ public class ProfileStartEndTestHandler<T extends TestDataType> implements Start
     try {
       if (fallsInSamplingBucket()) {
         // add request data to thread-local.
-        ProfileRepository.begin(id);
+        if (!ProfileRepository.begin(id)) {
+          LOGGER.trace("in-flight data store is full, ignoring profiling for this request");
+          return;
+        }
         ProfileRepository.setRequestData(requestData);
         ProfileRepository.setRequestMode(Mode.PROFILE);
         LOGGER.debug("Profiling initiated for id: " + ProfileRepository.getTestData().getId());
@@ -73,6 +77,10 @@ public class ProfileStartEndTestHandler<T extends TestDataType> implements Start
    * {@link ProfileRepository#setResponseData(TestResponseData)} and sends it to {@link
    * TestQueuedSender}.
    *
+   * <p>With {@link AsyncCaptureConfig} enabled, method data may still be in the middle of being
+   * serialized, so sending is deferred until all captures against the request have completed and
+   * is skipped if any of them marked the profile {@link ProfileState#FAILED}.
+   *
    * <p>In case of any exception, we just log.
    *
    * <p>In the finally block, {@link ProfileRepository#end()} is called.
@@ -82,33 +90,43 @@ public class ProfileStartEndTestHandler<T extends TestDataType> implements Start
    */
   @Override
   public void end(TestResponseData<T> responseData) {
+    TestQueuedSender testQueuedSender = null;
     try {
-      TestQueuedSender testQueuedSender =
-          GuiceInjector.getInjector().getInstance(TestQueuedSender.class);
+      testQueuedSender = GuiceInjector.getInjector().getInstance(TestQueuedSender.class);
       if (ProfileState.INITIATED.equals(ProfileRepository.getProfileState())
           && testQueuedSender != null) {
-        try {
-          LOGGER.debug("Profiling complete for id : " + ProfileRepository.getTestData().getId());
-          ProfileRepository.setResponseData(responseData);
-          TestData<TestRequestData<T>, TestResponseData<T>, T> testData =
-              ProfileRepository.getTestData();
-          if (testData != null) {
-            LOGGER.trace(
-                "Profiling complete for id : "
-                    + ProfileRepository.getTestData().getId()
-                    + " sending to queuedSender.");
-            testQueuedSender.send(testData);
-          }
-        } catch (Exception e) {
-          LOGGER.warn(
-              "error writing test profile data to datastore"
-                  + " global_request_per_id: "
-                  + ProfileRepository.getGlobalPerRequestID(),
-              e);
-        }
+        LOGGER.debug("Profiling complete for id : " + ProfileRepository.getTestData().getId());
+        ProfileRepository.setResponseData(responseData);
       }
+    } catch (Exception e) {
+      LOGGER.warn(
+          "error setting test profile response data."
+              + " global_request_per_id: "
+              + ProfileRepository.getGlobalPerRequestID(),
+          e);
     } finally {
-      ProfileRepository.end();
+      TestQueuedSender sender = testQueuedSender;
+      ProfileRepository.end(sender == null ? null : context -> send(context, sender));
+    }
+  }
+
+  private void send(GojiraContext context, TestQueuedSender testQueuedSender) {
+    try {
+      if (ProfileState.INITIATED.equals(ProfileRepository.getProfileState(context))) {
+        TestData<TestRequestData<T>, TestResponseData<T>, T> testData =
+            ProfileRepository.getTestData(context);
+        if (testData != null) {
+          LOGGER.trace(
+              "Profiling complete for id : " + context.getId() + " sending to queuedSender.");
+          testQueuedSender.send(testData);
+        }
+      }
+    } catch (Exception e) {
+      LOGGER.warn(
+          "error writing test profile data to datastore"
+              + " global_request_per_id: "
+              + context.getId(),
+          e);
     }
   }
 
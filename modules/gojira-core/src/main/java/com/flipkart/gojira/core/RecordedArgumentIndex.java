@@ -0,0 +1,211 @@
+/*
+ * Copyright 2020 Flipkart Internet, pvt ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.flipkart.gojira.core;
+
+import com.flipkart.compare.diff.DiffIgnoreMatcher;
+import com.flipkart.compare.handlers.TestCompareHandler;
+import com.flipkart.gojira.models.MethodData;
+import com.flipkart.gojira.models.MethodDataType;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Index of the recorded entries of a method by a fingerprint of their {@link
+ * MethodDataType#ARGUMENT_BEFORE} data, so that {@link TestMethodDataInterceptorHandler} finds the
+ * entry recorded with the same arguments without comparing against every entry of the method.
+ *
+ * <p>The fingerprint combines the {@link TestCompareHandler#getFingerprint(byte[])} of each
+ * argument, so that arguments which the compare handlers find no diff between have equal
+ * fingerprints, whatever the order of keys in them. The converse does not hold, so candidates
+ * still need to be compared. Entries for which some argument has no fingerprint, because its
+ * compare handler can not provide one or because diffs in it could be ignored, may match arguments
+ * of any fingerprint and are kept apart. So are entries which are not valid, which replaying
+ * fails on. The first entry which matches an invocation is then either among the entries with its
+ * fingerprint or among those kept apart.
+ */
+final class RecordedArgumentIndex {
+
+  private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+  private static final long FNV_PRIME = 0x100000001b3L;
+  private static final Queue<Long> NO_ENTRY_KEYS = new ConcurrentLinkedQueue<>();
+
+  /**
+   * Keys of recorded entries by fingerprint, in ascending order. Keys of entries which have been
+   * removed from the recorded data are dropped lazily.
+   */
+  private final Map<Long, Queue<Long>> entryKeysByFingerprint;
+
+  /**
+   * Keys of recorded entries without a fingerprint, in ascending order, dropped lazily as well.
+   */
+  private final Queue<Long> unindexedEntryKeys;
+
+  /**
+   * Matchers of the ignore patterns the fingerprints were computed with, by {@link
+   * com.flipkart.compare.diff.DiffType}.
+   */
+  private final List<DiffIgnoreMatcher> diffIgnoreMatchers;
+
+  private RecordedArgumentIndex(
+      Map<Long, Queue<Long>> entryKeysByFingerprint,
+      Queue<Long> unindexedEntryKeys,
+      List<DiffIgnoreMatcher> diffIgnoreMatchers) {
+    this.entryKeysByFingerprint = entryKeysByFingerprint;
+    this.unindexedEntryKeys = unindexedEntryKeys;
+    this.diffIgnoreMatchers = diffIgnoreMatchers;
+  }
+
+  /**
+   * Indexes the recorded entries of a method.
+   *
+   * @param perMethodAllEntries recorded entries of the method
+   * @param methodMetadata metadata of the method, with the compare handlers of its arguments
+   * @param diffIgnoreMatchers matchers of the current ignore patterns, by diff type
+   * @return index of the entries
+   */
+  static RecordedArgumentIndex build(
+      ConcurrentSkipListMap<Long, ConcurrentHashMap<MethodDataType, List<MethodData>>>
+          perMethodAllEntries,
+      MethodMetadata methodMetadata,
+      List<DiffIgnoreMatcher> diffIgnoreMatchers) {
+    Map<Long, Queue<Long>> entryKeysByFingerprint = new HashMap<>();
+    Queue<Long> unindexedEntryKeys = new ConcurrentLinkedQueue<>();
+    for (Map.Entry<Long, ConcurrentHashMap<MethodDataType, List<MethodData>>> entry :
+        perMethodAllEntries.entrySet()) {
+      Long fingerprint = fingerprint(entry.getValue(), methodMetadata);
+      if (fingerprint == null) {
+        unindexedEntryKeys.add(entry.getKey());
+      } else {
+        entryKeysByFingerprint
+            .computeIfAbsent(fingerprint, key -> new ConcurrentLinkedQueue<>())
+            .add(entry.getKey());
+      }
+    }
+    return new RecordedArgumentIndex(
+        entryKeysByFingerprint, unindexedEntryKeys, diffIgnoreMatchers);
+  }
+
+  /**
+   * Checks whether the index was built with the current ignore patterns, which decide the entries
+   * that have fingerprints.
+   *
+   * @param diffIgnoreMatchers matchers of the current ignore patterns, by diff type
+   * @return true if the index can be used
+   */
+  boolean isBuiltWith(List<DiffIgnoreMatcher> diffIgnoreMatchers) {
+    // matchers are compiled again when their patterns change, and compared by identity.
+    return this.diffIgnoreMatchers.equals(diffIgnoreMatchers);
+  }
+
+  /**
+   * Returns keys of the recorded entries with the fingerprint, in ascending order. The keys may
+   * include entries which have been removed already.
+   *
+   * @param fingerprint fingerprint of the arguments of an invocation
+   * @return keys of candidate entries
+   */
+  Queue<Long> getEntryKeys(long fingerprint) {
+    Queue<Long> entryKeys = entryKeysByFingerprint.get(fingerprint);
+    return entryKeys == null ? NO_ENTRY_KEYS : entryKeys;
+  }
+
+  /**
+   * Returns keys of the recorded entries without a fingerprint, which are candidates for every
+   * invocation, in ascending order. The keys may include entries which have been removed already.
+   *
+   * @return keys of entries without a fingerprint
+   */
+  Queue<Long> getUnindexedEntryKeys() {
+    return unindexedEntryKeys;
+  }
+
+  /**
+   * Computes the fingerprint of the arguments of an invocation.
+   *
+   * @param arguments serialized, and hashed if required, arguments by position, null elements for
+   *     null arguments
+   * @param methodMetadata metadata of the method, with the compare handlers of its arguments
+   * @return fingerprint, or null if some argument has none
+   */
+  static Long fingerprint(byte[][] arguments, MethodMetadata methodMetadata) {
+    long fingerprint = FNV_OFFSET_BASIS;
+    for (int position = 0; position < arguments.length; position++) {
+      Long argumentFingerprint = fingerprint(position, arguments[position], methodMetadata);
+      if (argumentFingerprint == null) {
+        return null;
+      }
+      fingerprint = mix(mix(fingerprint, position), argumentFingerprint);
+    }
+    return fingerprint;
+  }
+
+  /**
+   * Computes the fingerprint of a recorded entry, null if some argument has none or the entry is
+   * not valid.
+   */
+  private static Long fingerprint(
+      Map<MethodDataType, List<MethodData>> entry, MethodMetadata methodMetadata) {
+    List<MethodData> argumentsBefore = entry.get(MethodDataType.ARGUMENT_BEFORE);
+    if ((!hasResult(entry, MethodDataType.RETURN) && !hasResult(entry, MethodDataType.EXCEPTION))
+        || argumentsBefore == null
+        || argumentsBefore.contains(null)) {
+      return null;
+    }
+    long fingerprint = FNV_OFFSET_BASIS;
+    for (MethodData methodData : argumentsBefore) {
+      if (methodData.getPosition() < 0
+          || methodData.getPosition() >= methodMetadata.getArgumentCount()) {
+        return null;
+      }
+      Long argumentFingerprint =
+          fingerprint(methodData.getPosition(), methodData.getData(), methodMetadata);
+      if (argumentFingerprint == null) {
+        return null;
+      }
+      fingerprint = mix(mix(fingerprint, methodData.getPosition()), argumentFingerprint);
+    }
+    return fingerprint;
+  }
+
+  private static Long fingerprint(int position, byte[] data, MethodMetadata methodMetadata) {
+    if (data == null) {
+      // null arguments only match null arguments, whatever the ignore patterns.
+      return -1L;
+    }
+    TestCompareHandler compareHandler = methodMetadata.getArgumentCompareHandler(position);
+    return compareHandler == null ? null : compareHandler.getFingerprint(data);
+  }
+
+  private static boolean hasResult(
+      Map<MethodDataType, List<MethodData>> entry, MethodDataType methodDataType) {
+    List<MethodData> result = entry.get(methodDataType);
+    return result != null && !result.isEmpty();
+  }
+
+  private static long mix(long fingerprint, long value) {
+    for (int shift = 0; shift < 64; shift += 8) {
+      fingerprint = (fingerprint ^ ((value >>> shift) & 0xff)) * FNV_PRIME;
+    }
+    return fingerprint;
+  }
+}
@@ -17,11 +17,13 @@
 package com.flipkart.gojira.core;
 
 import static com.flipkart.gojira.core.GlobalConstants.MODE_HEADER;
+import static com.flipkart.gojira.core.GlobalConstants.TEST_HEADER;
 
 import com.flipkart.gojira.models.TestResponseData;
 import com.flipkart.gojira.models.rmq.RmqTestResponseData;
 import com.rabbitmq.client.AMQP;
 import com.rabbitmq.client.LongString;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -56,7 +58,8 @@ public class RmqFilter {
    * Integrating application is required to call this method during the start of request-response
    * capture life-cycle. Failure to do so may result in not capturing the request-response data.
    *
-   * <p>This method invokes the {@link Mode} specific handler to process the incoming request.
+   * <p>This method invokes the {@link Mode} specific handler to process the incoming request. If
+   * the global mode is {@link Mode#NONE}, it returns without looking up the mode header.
    *
    * @param exchangeName rmq exchange name
    * @param routingKey key used for producing message to the exchange
@@ -72,10 +75,17 @@ public class RmqFilter {
       AMQP.BasicProperties basicProperties,
       boolean mandatory) {
 
+    if (ProfileRepository.ModeHelper.isGlobalModeNone()) {
+      // pass-through: nothing is recorded, so the mode header is not looked up.
+      NoneRmqFilterHandler.validateTestIdAbsent(getHeader(basicProperties, TEST_HEADER));
+      return;
+    }
     Mode requestMode = ProfileRepository.ModeHelper.getRequestMode(getModeHeader(basicProperties));
-    FILTER_HANDLER_MAP
-        .getOrDefault(requestMode, new NoneRmqFilterHandler())
-        .handle(exchangeName, routingKey, data, basicProperties, mandatory);
+    RmqFilterHandler rmqFilterHandler = FILTER_HANDLER_MAP.get(requestMode);
+    if (rmqFilterHandler == null) {
+      rmqFilterHandler = FILTER_HANDLER_MAP.get(Mode.NONE);
+    }
+    rmqFilterHandler.handle(exchangeName, routingKey, data, basicProperties, mandatory);
   }
 
   /**
@@ -88,6 +98,10 @@ public class RmqFilter {
    * @param bytes response data if any. In most cases this may be null
    */
   public void end(byte[] bytes) {
+    if (Mode.NONE.equals(ProfileRepository.getRequestMode())) {
+      ProfileRepository.end();
+      return;
+    }
     RmqTestResponseData rmqTestResponseData =
         RmqTestResponseData.builder().setRespondData(bytes).build();
     DefaultProfileOrTestHandler.end(rmqTestResponseData);
@@ -122,4 +136,22 @@ public class RmqFilter {
     }
     return null;
   }
+
+  /**
+   * Helper method to get a header value without logging when headers are absent.
+   *
+   * @param basicProperties rmq basic properties which contains headers
+   * @param key header key
+   * @return header value as string, null if absent
+   */
+  private static String getHeader(AMQP.BasicProperties basicProperties, String key) {
+    if (basicProperties == null || basicProperties.getHeaders() == null) {
+      return null;
+    }
+    Object value = basicProperties.getHeaders().get(key);
+    if (value instanceof LongString) {
+      return new String(((LongString) value).getBytes(), StandardCharsets.UTF_8);
+    }
+    return null;
+  }
 }
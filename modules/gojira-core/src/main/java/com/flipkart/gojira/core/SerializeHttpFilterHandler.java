@@ -58,10 +58,9 @@ public class SerializeHttpFilterHandler extends HttpFilterHandler {
   }
 
   /**
-   * Calls {@link DefaultProfileOrTestHandler#end(TestResponseData)} as per {@link Mode} needs and
-   * calls {@link javax.servlet.ServletOutputStream#write(byte[])} of {@link
-   * javax.servlet.http.HttpServletResponse} by getting byte[] from {@link
-   * HttpFilter.TestServletResponseWrapper}.
+   * Calls {@link DefaultProfileOrTestHandler#end(TestResponseData)} as per {@link Mode} needs.
+   * The response body has already been streamed to {@link javax.servlet.http.HttpServletResponse}
+   * by {@link HttpFilter.TestServletResponseWrapper}.
    *
    * <p>If URL is whitelisted, finishes execution by calling {@link
    * DefaultProfileOrTestHandler#end(TestResponseData)}
@@ -80,8 +79,6 @@ public class SerializeHttpFilterHandler extends HttpFilterHandler {
       HttpFilter.TestServletResponseWrapper respWrapper,
       ServletResponse response)
       throws IOException {
-    byte[] outputBuffer = respWrapper.getBuffer();
-    response.getOutputStream().write(outputBuffer);
     if (isWhitelistedUrl(request.getRequestURI(), request.getMethod())) {
       DefaultProfileOrTestHandler.end(null);
     }
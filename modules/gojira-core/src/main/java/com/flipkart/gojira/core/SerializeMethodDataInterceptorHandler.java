@@ -16,7 +16,6 @@
 
 package com.flipkart.gojira.core;
 
-import com.flipkart.gojira.core.injectors.GuiceInjector;
 import com.flipkart.gojira.execute.TestExecutionException;
 import com.flipkart.gojira.models.ExecutionData;
 import com.flipkart.gojira.models.MethodData;
@@ -41,8 +40,15 @@ public class SerializeMethodDataInterceptorHandler implements MethodDataIntercep
   private static final Logger LOGGER =
       LoggerFactory.getLogger(SerializeMethodDataInterceptorHandler.class);
 
-  private SerdeHandlerRepository serdeHandlerRepository =
-      GuiceInjector.getInjector().getInstance(SerdeHandlerRepository.class);
+  private final InjectorScoped<SerdeHandlerRepository> serdeHandlerRepository =
+      new InjectorScoped<>(injector -> injector.getInstance(SerdeHandlerRepository.class));
+
+  private final InjectorScoped<MethodMetadataCache> methodMetadataCache =
+      new InjectorScoped<>(
+          injector ->
+              new MethodMetadataCache(
+                  injector.getInstance(SerdeHandlerRepository.class),
+                  null));
 
   public SerializeMethodDataInterceptorHandler() {}
 
@@ -69,12 +75,11 @@ public class SerializeMethodDataInterceptorHandler implements MethodDataIntercep
     String globalPerRequestId = null;
 
     globalPerRequestId = ProfileRepository.getGlobalPerRequestID();
-    genericMethodName = invocation.getMethod().toGenericString();
+    MethodMetadata methodMetadata = methodMetadataCache.get().get(invocation);
+    genericMethodName = methodMetadata.getMethodId();
 
     ConcurrentSkipListMap<Long, ConcurrentHashMap<MethodDataType, List<MethodData>>>
-        perMethodAllEntries =
-            ((ConcurrentSkipListMap<Long, ConcurrentHashMap<MethodDataType, List<MethodData>>>)
-                ProfileRepository.getTestData().getMethodDataMap().get(genericMethodName));
+        perMethodAllEntries = ProfileRepository.getTestData().getMethodData(genericMethodName);
     for (Map.Entry<Long, ConcurrentHashMap<MethodDataType, List<MethodData>>> perMethodEntry :
         perMethodAllEntries.entrySet()) {
       Map<MethodDataType, List<MethodData>> methodDataMap = perMethodEntry.getValue();
@@ -90,8 +95,7 @@ public class SerializeMethodDataInterceptorHandler implements MethodDataIntercep
                   "deserializeToInstance starting for "
                       + Class.forName(
                           methodDataMap.get(MethodDataType.ARGUMENT_AFTER).get(0).getClassName()));
-              serdeHandlerRepository
-                  .getOrUpdateAndGetOrDefaultMethodArgumentDataSerdeHandler(invocation, index)
+              methodMetadata.getArgumentSerdeHandler(index)
                   .deserializeToInstance(methodData.getData(), invocation.getArguments()[index]);
             } catch (Exception e) {
               LOGGER.error(
@@ -120,7 +124,7 @@ public class SerializeMethodDataInterceptorHandler implements MethodDataIntercep
               "deserialization starting for "
                   + Class.forName(
                       methodDataMap.get(MethodDataType.EXCEPTION).get(0).getClassName()));
-          serdeHandlerRepository
+          serdeHandlerRepository.get()
               .getExceptionDataSerdeHandler(
                   genericMethodName,
                   methodDataMap.get(MethodDataType.EXCEPTION).get(0).getClassName())
@@ -151,8 +155,7 @@ public class SerializeMethodDataInterceptorHandler implements MethodDataIntercep
           LOGGER.info(
               "deserialization starting for "
                   + Class.forName(methodDataMap.get(MethodDataType.RETURN).get(0).getClassName()));
-          serdeHandlerRepository
-              .getOrUpdateAndGetOrDefaultReturnDataSerdeHandler(invocation)
+          methodMetadata.getReturnSerdeHandler()
               .deserialize(
                   methodDataMap.get(MethodDataType.RETURN).get(0).getData(),
                   Class.forName(methodDataMap.get(MethodDataType.RETURN).get(0).getClassName()));
@@ -16,7 +16,6 @@
 
 package com.flipkart.gojira.core;
 
-import com.flipkart.gojira.core.injectors.GuiceInjector;
 import com.flipkart.gojira.models.ExecutionData;
 import com.flipkart.gojira.models.TestData;
 import com.flipkart.gojira.models.TestDataType;
@@ -40,20 +39,21 @@ public class SerializeStartEndTestHandler<T extends TestDataType>
   /**
    * sinkHandler for persisting test-data.
    */
-  private SinkHandler sinkHandler = GuiceInjector.getInjector().getInstance(SinkHandler.class);
+  private final InjectorScoped<SinkHandler> sinkHandler =
+      new InjectorScoped<>(injector -> injector.getInstance(SinkHandler.class));
   /**
    * serdeHandlerRepository to get serializer for test-data.
    */
-  private SerdeHandlerRepository serdeHandlerRepository =
-      GuiceInjector.getInjector().getInstance(SerdeHandlerRepository.class);
+  private final InjectorScoped<SerdeHandlerRepository> serdeHandlerRepository =
+      new InjectorScoped<>(injector -> injector.getInstance(SerdeHandlerRepository.class));
 
   public SerializeStartEndTestHandler() {}
 
   /**
    * If is is null or empty, throws a {@link RuntimeException}.
    *
-   * <p>Reads the test data using {@link SinkHandler#read(String)} and deserializes using {@link
-   * SerdeHandlerRepository#getTestDataSerdeHandler()} instance.
+   * <p>Reads the test data using {@link SinkHandler#readBuffer(String)} and deserializes using
+   * {@link SerdeHandlerRepository#getTestDataSerdeHandler()} instance.
    *
    * <p>If testData is null, throws a {@link RuntimeException}
    *
@@ -76,14 +76,16 @@ public class SerializeStartEndTestHandler<T extends TestDataType>
 
     try {
       TestData<TestRequestData<T>, TestResponseData<T>, T> testData =
-          serdeHandlerRepository
+          serdeHandlerRepository.get()
               .getTestDataSerdeHandler()
-              .deserialize(sinkHandler.read(id), TestData.class);
+              .deserialize(sinkHandler.get().readBuffer(id), TestData.class);
       if (testData == null) {
         // TODO: Check if well-defined exception can be thrown.
         throw new RuntimeException("no data available against mentioned test id: " + id);
       }
-      ProfileRepository.begin(id);
+      if (!ProfileRepository.begin(id)) {
+        throw new RuntimeException("in-flight data store is full, unable to begin test id: " + id);
+      }
       ProfileRepository.setTestData(testData);
       ProfileRepository.setRequestMode(Mode.SERIALIZE);
     } catch (Exception e) {
@@ -54,6 +54,12 @@ public class SetupModule extends AbstractModule {
 
   private TestQueuedSenderConfig testQueuedSenderConfig;
 
+  private InFlightDataConfig inFlightDataConfig;
+
+  private AsyncCaptureConfig asyncCaptureConfig;
+
+  private CaptureBufferConfig captureBufferConfig;
+
   /**
    * The basic module that initializes basic configuration of Gojira.
    *
@@ -85,6 +91,98 @@ public class SetupModule extends AbstractModule {
     this.gojiraComparisonConfig = gojiraComparisonConfig;
     this.dataStoreConfig = dataStoreConfig;
     this.testQueuedSenderConfig = testQueuedSenderConfig;
+    this.inFlightDataConfig = InFlightDataConfig.builder().build();
+    this.asyncCaptureConfig = AsyncCaptureConfig.builder().build();
+    this.captureBufferConfig = CaptureBufferConfig.builder().build();
+  }
+
+  /**
+   * Same as {@link #SetupModule(Mode, RequestSamplingConfig, SerdeConfig, GojiraComparisonConfig,
+   * DataStoreConfig, TestQueuedSenderConfig)} with limits for data held in memory for in-flight
+   * requests.
+   *
+   * @param inFlightDataConfig Limits on the number of in-flight requests, the bytes of recorded
+   *     data held for them, expiry of abandoned requests and the {@link OverflowPolicy}.
+   */
+  public SetupModule(
+      Mode mode,
+      RequestSamplingConfig requestSamplingConfig,
+      SerdeConfig serdeConfig,
+      GojiraComparisonConfig gojiraComparisonConfig,
+      DataStoreConfig dataStoreConfig,
+      TestQueuedSenderConfig testQueuedSenderConfig,
+      InFlightDataConfig inFlightDataConfig) {
+    this(
+        mode,
+        requestSamplingConfig,
+        serdeConfig,
+        gojiraComparisonConfig,
+        dataStoreConfig,
+        testQueuedSenderConfig);
+    if (inFlightDataConfig != null) {
+      this.inFlightDataConfig = inFlightDataConfig;
+    }
+  }
+
+  /**
+   * Same as {@link #SetupModule(Mode, RequestSamplingConfig, SerdeConfig, GojiraComparisonConfig,
+   * DataStoreConfig, TestQueuedSenderConfig, InFlightDataConfig)} with serialization of method
+   * data intercepted in {@link Mode#PROFILE} moved off the request thread.
+   *
+   * @param asyncCaptureConfig Enables asynchronous capture and sizes the worker pool serializing
+   *     intercepted method data.
+   */
+  public SetupModule(
+      Mode mode,
+      RequestSamplingConfig requestSamplingConfig,
+      SerdeConfig serdeConfig,
+      GojiraComparisonConfig gojiraComparisonConfig,
+      DataStoreConfig dataStoreConfig,
+      TestQueuedSenderConfig testQueuedSenderConfig,
+      InFlightDataConfig inFlightDataConfig,
+      AsyncCaptureConfig asyncCaptureConfig) {
+    this(
+        mode,
+        requestSamplingConfig,
+        serdeConfig,
+        gojiraComparisonConfig,
+        dataStoreConfig,
+        testQueuedSenderConfig,
+        inFlightDataConfig);
+    if (asyncCaptureConfig != null) {
+      this.asyncCaptureConfig = asyncCaptureConfig;
+    }
+  }
+
+  /**
+   * Same as {@link #SetupModule(Mode, RequestSamplingConfig, SerdeConfig, GojiraComparisonConfig,
+   * DataStoreConfig, TestQueuedSenderConfig, InFlightDataConfig, AsyncCaptureConfig)} with sizing
+   * of the pool of buffers in which http request and response bodies are captured.
+   *
+   * @param captureBufferConfig Size classes and retained bytes of {@link CaptureBufferPool}.
+   */
+  public SetupModule(
+      Mode mode,
+      RequestSamplingConfig requestSamplingConfig,
+      SerdeConfig serdeConfig,
+      GojiraComparisonConfig gojiraComparisonConfig,
+      DataStoreConfig dataStoreConfig,
+      TestQueuedSenderConfig testQueuedSenderConfig,
+      InFlightDataConfig inFlightDataConfig,
+      AsyncCaptureConfig asyncCaptureConfig,
+      CaptureBufferConfig captureBufferConfig) {
+    this(
+        mode,
+        requestSamplingConfig,
+        serdeConfig,
+        gojiraComparisonConfig,
+        dataStoreConfig,
+        testQueuedSenderConfig,
+        inFlightDataConfig,
+        asyncCaptureConfig);
+    if (captureBufferConfig != null) {
+      this.captureBufferConfig = captureBufferConfig;
+    }
   }
 
   protected void configure() {
@@ -94,6 +192,9 @@ public class SetupModule extends AbstractModule {
      *       required for running gojira should be stored in a place other than production data.
      */
     ProfileRepository.setMode(mode);
+    ProfileRepository.setInFlightDataConfig(inFlightDataConfig);
+    AsyncCaptureExecutor.configure(asyncCaptureConfig);
+    CaptureBufferPool.configure(captureBufferConfig);
     Injector injector =
         Guice.createInjector(
             new AbstractModule() {
@@ -47,10 +47,9 @@ public class TestHttpFilterHandler extends HttpFilterHandler {
   }
 
   /**
-   * Calls {@link DefaultProfileOrTestHandler#end(TestResponseData)} as per {@link Mode} needs and
-   * calls {@link javax.servlet.ServletOutputStream#write(byte[])} of {@link
-   * javax.servlet.http.HttpServletResponse} by getting byte[] from {@link
-   * HttpFilter.TestServletResponseWrapper}.
+   * Calls {@link DefaultProfileOrTestHandler#end(TestResponseData)} as per {@link Mode} needs with
+   * the response body captured by {@link HttpFilter.TestServletResponseWrapper}, which has already
+   * been streamed to {@link javax.servlet.http.HttpServletResponse}.
    *
    * <p>If whitelisted, adds HTTP response data required for comparing to {@link
    * HttpTestResponseData}. On error, marks {@link ExecutionData#profileState} as {@link
@@ -74,7 +73,6 @@ public class TestHttpFilterHandler extends HttpFilterHandler {
       ServletResponse response)
       throws IOException {
     byte[] outputBuffer = respWrapper.getBuffer();
-    response.getOutputStream().write(outputBuffer);
     if (isWhitelistedUrl(request.getRequestURI(), request.getMethod())) {
       HttpTestResponseData responseData = null;
       try {
@@ -17,20 +17,27 @@
 package com.flipkart.gojira.core;
 
 import com.flipkart.compare.TestCompareException;
+import com.flipkart.compare.diff.DiffIgnoreMatcher;
+import com.flipkart.compare.diff.DiffIgnoreRepository;
+import com.flipkart.compare.diff.DiffType;
 import com.flipkart.compare.handlers.TestCompareHandler;
 import com.flipkart.gojira.compare.GojiraCompareHandlerRepository;
-import com.flipkart.gojira.core.injectors.GuiceInjector;
 import com.flipkart.gojira.execute.TestExecutionException;
 import com.flipkart.gojira.hash.HashHandlerUtil;
+import com.flipkart.gojira.hash.TestHashException;
 import com.flipkart.gojira.hash.TestHashHandler;
 import com.flipkart.gojira.models.ExecutionData;
 import com.flipkart.gojira.models.MethodData;
 import com.flipkart.gojira.models.MethodDataType;
 import com.flipkart.gojira.serde.SerdeHandlerRepository;
+import com.flipkart.gojira.serde.TestSerdeException;
 import com.flipkart.gojira.serde.handlers.TestSerdeHandler;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentSkipListMap;
 import org.aopalliance.intercept.MethodInvocation;
@@ -44,11 +51,21 @@ public class TestMethodDataInterceptorHandler implements MethodDataInterceptorHa
 
   private static final Logger LOGGER =
       LoggerFactory.getLogger(TestMethodDataInterceptorHandler.class);
+  private static final DiffType[] DIFF_TYPES = DiffType.values();
 
-  private GojiraCompareHandlerRepository gojiraCompareHandlerRepository =
-      GuiceInjector.getInjector().getInstance(GojiraCompareHandlerRepository.class);
-  private SerdeHandlerRepository serdeHandlerRepository =
-      GuiceInjector.getInjector().getInstance(SerdeHandlerRepository.class);
+  private final InjectorScoped<GojiraCompareHandlerRepository> gojiraCompareHandlerRepository =
+      new InjectorScoped<>(injector -> injector.getInstance(GojiraCompareHandlerRepository.class));
+  private final InjectorScoped<SerdeHandlerRepository> serdeHandlerRepository =
+      new InjectorScoped<>(injector -> injector.getInstance(SerdeHandlerRepository.class));
+  private final InjectorScoped<DiffIgnoreRepository> diffIgnoreRepository =
+      new InjectorScoped<>(injector -> injector.getInstance(DiffIgnoreRepository.class));
+
+  private final InjectorScoped<MethodMetadataCache> methodMetadataCache =
+      new InjectorScoped<>(
+          injector ->
+              new MethodMetadataCache(
+                  injector.getInstance(SerdeHandlerRepository.class),
+                  injector.getInstance(GojiraCompareHandlerRepository.class)));
 
   public TestMethodDataInterceptorHandler() {}
 
@@ -59,6 +76,8 @@ public class TestMethodDataInterceptorHandler implements MethodDataInterceptorHa
    * <p>Gets the {@link ProfileRepository#getGlobalPerRequestID()}, {@link Method#toGenericString()}
    * of {@link MethodInvocation#getMethod()} to get data corresponding to this specific method. On
    * error when getting the data or if data is null, {@link TestExecutionException} is thrown.
+   * {@link Method#toGenericString()} and the handlers referred below are read from {@link
+   * MethodMetadata}, resolved on first invocation of the method by {@link MethodMetadataCache}.
    *
    * <p>During {@link Mode#PROFILE} mode, it is possible that multiple invocations of the same
    * method are called. It is also possible that they are called by different threads. So, to get
@@ -76,14 +95,22 @@ public class TestMethodDataInterceptorHandler implements MethodDataInterceptorHa
    * TestHashHandler#hash(byte[])} using {@link HashHandlerUtil#getHashHandler(MethodInvocation,
    * int)} instance and then serializing by calling {@link TestSerdeHandler#serialize(Object)} using
    * {@link SerdeHandlerRepository
-   * #getOrUpdateAndGetOrDefaultMethodArgumentDataSerdeHandler(MethodInvocation, int)} instance. If
-   * de-serialization fails, an {@link TestExecutionException} is thrown. If comparison fails, we
-   * try matching with the next entry in {@link ConcurrentSkipListMap}. If none of them match, we
-   * throw {@link TestCompareException}. If there is a match, then we attempt to remove it from
-   * {@link ConcurrentSkipListMap} in a thread-safe manner. If we are able to remove, we proceed.
-   * Else we try matching with another entry, this could happen in a rare case, where all
-   * attributes, for all arguments, being compared, the way they are compared, results in multiple
-   * matches.
+   * #getOrUpdateAndGetOrDefaultMethodArgumentDataSerdeHandler(MethodInvocation, int)} instance.
+   * Each argument is serialized at most once per invocation, on first comparison, and reused for
+   * every entry. If de-serialization fails, an {@link TestExecutionException} is thrown. If
+   * comparison fails, we try matching with the next entry in {@link ConcurrentSkipListMap}. If
+   * none of them match, we throw {@link TestCompareException}. If there is a match, then we
+   * attempt to remove it from {@link ConcurrentSkipListMap} in a thread-safe manner. If we are able
+   * to remove, we proceed. Else we try matching with another entry, this could happen in a rare
+   * case, where all attributes, for all arguments, being compared, the way they are compared,
+   * results in multiple matches.
+   *
+   * <p>If every argument has a {@link TestCompareHandler#getFingerprint(byte[])}, which it does not
+   * if its compare handler can not provide one or a {@link DiffIgnoreRepository} pattern matches
+   * the path of a value in it, only the entries recorded with the same fingerprint and those
+   * recorded without one are compared, in the same order, looked up in the {@link
+   * RecordedArgumentIndex} of the method. That finds the same entry as comparing all of them would.
+   * Only if none of them match are all the entries compared as above.
    *
    * <p>Once we have a found a matching entry for the method, we then deserialize to instance the
    * data recorded in {@link MethodDataType#ARGUMENT_AFTER} by calling {@link
@@ -103,6 +130,10 @@ public class TestMethodDataInterceptorHandler implements MethodDataInterceptorHa
    * SerdeHandlerRepository#getOrUpdateAndGetOrDefaultReturnDataSerdeHandler} instance. If
    * deserialization fails we throw {@link TestExecutionException} and return it.
    *
+   * <p>The first {@link TestExecutionException} or {@link TestCompareException} of the test is
+   * recorded against the method by {@link ProfileRepository#setMethodFailure(String, String)}, to
+   * be written with the result of the test.
+   *
    * @param invocation intercepted method invocation
    * @return object passed along by the called method to the calling method
    * @throws Throwable for any exception by the called method or {@link TestExecutionException} or
@@ -110,6 +141,15 @@ public class TestMethodDataInterceptorHandler implements MethodDataInterceptorHa
    */
   @Override
   public Object handle(MethodInvocation invocation) throws Throwable {
+    try {
+      return replay(invocation);
+    } catch (TestExecutionException | TestCompareException e) {
+      ProfileRepository.setMethodFailure(invocation.getMethod().toGenericString(), e.getMessage());
+      throw e;
+    }
+  }
+
+  private Object replay(MethodInvocation invocation) throws Throwable {
     if (!ProfileRepository.getProfileState().equals(ProfileState.INITIATED)) {
       throw new TestExecutionException("Test was not initiated.");
     }
@@ -124,8 +164,10 @@ public class TestMethodDataInterceptorHandler implements MethodDataInterceptorHa
       throw new TestExecutionException("error getting globalPerRequestId.", e);
     }
 
+    MethodMetadata methodMetadata;
     try {
-      genericMethodName = invocation.getMethod().toGenericString();
+      methodMetadata = methodMetadataCache.get().get(invocation);
+      genericMethodName = methodMetadata.getMethodId();
     } catch (Exception e) {
       LOGGER.error(
           "error getting methodGenericString."
@@ -150,20 +192,7 @@ public class TestMethodDataInterceptorHandler implements MethodDataInterceptorHa
               + globalPerRequestId);
     }
 
-    if (ProfileRepository.getTestData().getMethodDataMap() == null) {
-      LOGGER.error(
-          "test data method data map null. method: "
-              + genericMethodName
-              + " globalPerRequestId: "
-              + globalPerRequestId);
-      throw new TestExecutionException(
-          "test data method data map null. method: "
-              + genericMethodName
-              + " globalPerRequestId: "
-              + globalPerRequestId);
-    }
-
-    if (ProfileRepository.getTestData().getMethodDataMap().get(genericMethodName) == null) {
+    if (ProfileRepository.getTestData().getMethodData(genericMethodName) == null) {
       LOGGER.error(
           "test data method data map for method null. method: "
               + genericMethodName
@@ -177,115 +206,55 @@ public class TestMethodDataInterceptorHandler implements MethodDataInterceptorHa
     }
 
     ConcurrentSkipListMap<Long, ConcurrentHashMap<MethodDataType, List<MethodData>>>
-        perMethodAllEntries =
-            ((ConcurrentSkipListMap<Long, ConcurrentHashMap<MethodDataType, List<MethodData>>>)
-                ProfileRepository.getTestData().getMethodDataMap().get(genericMethodName));
+        perMethodAllEntries = ProfileRepository.getTestData().getMethodData(genericMethodName);
 
     // first compare argument before
     Map<MethodDataType, List<MethodData>> methodDataMap = null;
+    SerializedArguments serializedArguments =
+        new SerializedArguments(invocation.getArguments(), methodMetadata);
 
-    for (Map.Entry<Long, ConcurrentHashMap<MethodDataType, List<MethodData>>> perMethodEntry :
-        perMethodAllEntries.entrySet()) {
-      // validation for every entry in the queue
-      Long perMethodEntryKey = perMethodEntry.getKey();
-      Map<MethodDataType, List<MethodData>> perMethodEntryValue = perMethodEntry.getValue();
-      if (perMethodEntryValue == null || perMethodEntryValue.isEmpty()) {
-        LOGGER.error(
-            "methodDataMap null or empty, error running test. "
-                + "method: "
-                + genericMethodName
-                + " globalPerRequestId: "
-                + globalPerRequestId);
-        throw new TestExecutionException(
-            "methodDataMap null or empty, error running test. "
-                + "method: "
-                + genericMethodName
-                + " globalPerRequestId: "
-                + globalPerRequestId);
-      }
-
-      if (!(perMethodEntryValue.containsKey(MethodDataType.EXCEPTION)
-              && !perMethodEntryValue.get(MethodDataType.EXCEPTION).isEmpty())
-          && !(perMethodEntryValue.containsKey(MethodDataType.RETURN)
-              && !perMethodEntryValue.get(MethodDataType.RETURN).isEmpty())) {
-        LOGGER.error(
-            "both return and exception data not present in methodDataMap, error running test. "
-                + "method: "
-                + genericMethodName
-                + " globalPerRequestId: "
-                + globalPerRequestId);
-        throw new TestExecutionException(
-            "both return and exception data not present in methodDataMap, error running test. "
-                + "method: "
-                + genericMethodName
-                + " globalPerRequestId: "
-                + globalPerRequestId);
+    // the index finds the same entry as comparing against every entry in order would, so it is
+    // used whenever the arguments have a fingerprint.
+    List<DiffIgnoreMatcher> diffIgnoreMatchers = getDiffIgnoreMatchers();
+    RecordedArgumentIndex recordedArgumentIndex =
+        ProfileRepository.getRecordedArgumentIndex(
+            methodMetadata, perMethodAllEntries, diffIgnoreMatchers);
+    if (recordedArgumentIndex != null) {
+      Long fingerprint =
+          RecordedArgumentIndex.fingerprint(serializedArguments.getAll(), methodMetadata);
+      if (fingerprint != null) {
+        methodDataMap =
+            findIndexedEntry(
+                invocation,
+                serializedArguments,
+                methodMetadata,
+                perMethodAllEntries,
+                recordedArgumentIndex,
+                fingerprint,
+                genericMethodName,
+                globalPerRequestId);
       }
+    }
 
-      try {
-        for (MethodData methodData : perMethodEntryValue.get(MethodDataType.ARGUMENT_BEFORE)) {
-          if (methodData == null) {
-            LOGGER.error(
-                "methodData before argument null, error running test. "
-                    + "method: "
-                    + genericMethodName
-                    + " globalPerRequestId: "
-                    + globalPerRequestId);
-            throw new TestExecutionException(
-                "methodData before argument null, error running test. "
-                    + "method: "
-                    + genericMethodName
-                    + " globalPerRequestId: "
-                    + globalPerRequestId);
-          }
-
-          if (methodData.getData() == null
-              && invocation.getArguments()[methodData.getPosition()] == null) {
+    if (methodDataMap == null) {
+      for (Map.Entry<Long, ConcurrentHashMap<MethodDataType, List<MethodData>>> perMethodEntry :
+          perMethodAllEntries.entrySet()) {
+        Long perMethodEntryKey = perMethodEntry.getKey();
+        Map<MethodDataType, List<MethodData>> perMethodEntryValue = perMethodEntry.getValue();
+        if (matchesEntry(
+            perMethodEntryValue,
+            invocation,
+            serializedArguments,
+            methodMetadata,
+            genericMethodName,
+            globalPerRequestId)) {
+          methodDataMap = perMethodEntryValue;
+          Object concurrentCheckValue = perMethodAllEntries.remove(perMethodEntryKey);
+          if (concurrentCheckValue == null) {
             continue;
           }
-
-          if (methodData.getData() == null
-              || invocation.getArguments()[methodData.getPosition()] == null) {
-            LOGGER.error(
-                "error comparing during test: comparison failed "
-                    + "method: "
-                    + genericMethodName
-                    + " globalPerRequestId: "
-                    + globalPerRequestId);
-            throw new TestCompareException(
-                "error comparing during test: comparison failed "
-                    + "method: "
-                    + genericMethodName
-                    + " globalPerRequestId: "
-                    + globalPerRequestId);
-          }
-
-          TestHashHandler hashHandler =
-              HashHandlerUtil.getHashHandler(invocation, methodData.getPosition());
-
-          gojiraCompareHandlerRepository
-              .getOrUpdateAndGetOrDefaultMethodArgumentDataCompareHandler(
-                  invocation, methodData.getPosition())
-              .compare(
-                  methodData.getData(),
-                  hashHandler == null
-                      ? serdeHandlerRepository
-                          .getOrUpdateAndGetOrDefaultMethodArgumentDataSerdeHandler(
-                              invocation, methodData.getPosition())
-                          .serialize(invocation.getArguments()[methodData.getPosition()])
-                      : hashHandler.hash(
-                          serdeHandlerRepository
-                              .getOrUpdateAndGetOrDefaultMethodArgumentDataSerdeHandler(
-                                  invocation, methodData.getPosition())
-                              .serialize(invocation.getArguments()[methodData.getPosition()])));
+          break;
         }
-        methodDataMap = perMethodEntryValue;
-        Object concurrentCheckValue = perMethodAllEntries.remove(perMethodEntryKey);
-        if (concurrentCheckValue == null) {
-          continue;
-        }
-        break;
-      } catch (TestCompareException e) {
         LOGGER.warn(
             "recorded method argument list does not match with current method arguments. "
                 + "trying with another set of recorded argument against the method. "
@@ -293,8 +262,8 @@ public class TestMethodDataInterceptorHandler implements MethodDataInterceptorHa
                 + genericMethodName
                 + " globalPerRequestId: "
                 + globalPerRequestId);
+        // TODO: catch deserialization exception here and throw TestExecutionException.
       }
-      // TODO: catch deserialization exception here and throw TestExecutionException.
     }
 
     if (methodDataMap == null) {
@@ -350,9 +319,7 @@ public class TestMethodDataInterceptorHandler implements MethodDataInterceptorHa
         if (methodData.getData() == null) {
           invocation.getArguments()[index] = null;
         } else {
-          serdeHandlerRepository
-              .getOrUpdateAndGetOrDefaultMethodArgumentDataSerdeHandler(
-                  invocation, methodData.getPosition())
+          methodMetadata.getArgumentSerdeHandler(methodData.getPosition())
               .deserializeToInstance(methodData.getData(), invocation.getArguments()[index]);
           // TODO: Throw TestExecutionException if deserialization fails.
         }
@@ -382,7 +349,7 @@ public class TestMethodDataInterceptorHandler implements MethodDataInterceptorHa
       }
       LOGGER.info("Throwing exception that was captured while profiling.");
       throw (Throwable)
-          serdeHandlerRepository
+          serdeHandlerRepository.get()
               .getExceptionDataSerdeHandler(
                   genericMethodName,
                   methodDataMap.get(MethodDataType.EXCEPTION).get(0).getClassName())
@@ -414,8 +381,7 @@ public class TestMethodDataInterceptorHandler implements MethodDataInterceptorHa
       LOGGER.info("returning successfully from TestMethodDataInterceptorHandler.");
       return methodDataMap.get(MethodDataType.RETURN).get(0).getData() == null
           ? null
-          : serdeHandlerRepository
-              .getOrUpdateAndGetOrDefaultReturnDataSerdeHandler(invocation)
+          : methodMetadata.getReturnSerdeHandler()
               .deserialize(
                   methodDataMap.get(MethodDataType.RETURN).get(0).getData(),
                   Class.forName(methodDataMap.get(MethodDataType.RETURN).get(0).getClassName()));
@@ -426,4 +392,217 @@ public class TestMethodDataInterceptorHandler implements MethodDataInterceptorHa
     // TODO: throw an exception here. check what happens if return is void.
     return null;
   }
+
+  /**
+   * Returns the first entry, in the order they were recorded in, which matches and could be
+   * removed, out of those recorded with the fingerprint of the invocation and those without a
+   * fingerprint. Null if there is none.
+   */
+  private static Map<MethodDataType, List<MethodData>> findIndexedEntry(
+      MethodInvocation invocation,
+      SerializedArguments serializedArguments,
+      MethodMetadata methodMetadata,
+      ConcurrentSkipListMap<Long, ConcurrentHashMap<MethodDataType, List<MethodData>>>
+          perMethodAllEntries,
+      RecordedArgumentIndex recordedArgumentIndex,
+      long fingerprint,
+      String genericMethodName,
+      String globalPerRequestId)
+      throws Exception {
+    Queue<Long> indexedKeys = recordedArgumentIndex.getEntryKeys(fingerprint);
+    Queue<Long> unindexedKeys = recordedArgumentIndex.getUnindexedEntryKeys();
+    Iterator<Long> indexed = indexedKeys.iterator();
+    Iterator<Long> unindexed = unindexedKeys.iterator();
+    Long nextIndexed = indexed.hasNext() ? indexed.next() : null;
+    Long nextUnindexed = unindexed.hasNext() ? unindexed.next() : null;
+    while (nextIndexed != null || nextUnindexed != null) {
+      Long entryKey;
+      Queue<Long> entryKeys;
+      if (nextUnindexed == null || (nextIndexed != null && nextIndexed < nextUnindexed)) {
+        entryKey = nextIndexed;
+        entryKeys = indexedKeys;
+        nextIndexed = indexed.hasNext() ? indexed.next() : null;
+      } else {
+        entryKey = nextUnindexed;
+        entryKeys = unindexedKeys;
+        nextUnindexed = unindexed.hasNext() ? unindexed.next() : null;
+      }
+
+      ConcurrentHashMap<MethodDataType, List<MethodData>> entry = perMethodAllEntries.get(entryKey);
+      if (entry == null) {
+        // replayed already, by another invocation or by a scan.
+        entryKeys.remove(entryKey);
+        continue;
+      }
+      if (matchesEntry(
+              entry,
+              invocation,
+              serializedArguments,
+              methodMetadata,
+              genericMethodName,
+              globalPerRequestId)
+          && perMethodAllEntries.remove(entryKey) != null) {
+        entryKeys.remove(entryKey);
+        return entry;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Validates a recorded entry and compares its argument data with the arguments of the
+   * invocation.
+   *
+   * @return true if every argument matches
+   * @throws TestExecutionException if the entry is not valid
+   */
+  private static boolean matchesEntry(
+      Map<MethodDataType, List<MethodData>> perMethodEntryValue,
+      MethodInvocation invocation,
+      SerializedArguments serializedArguments,
+      MethodMetadata methodMetadata,
+      String genericMethodName,
+      String globalPerRequestId)
+      throws Exception {
+    validateEntry(perMethodEntryValue, genericMethodName, globalPerRequestId);
+    try {
+      for (MethodData methodData : perMethodEntryValue.get(MethodDataType.ARGUMENT_BEFORE)) {
+        if (methodData == null) {
+          LOGGER.error(
+              "methodData before argument null, error running test. "
+                  + "method: "
+                  + genericMethodName
+                  + " globalPerRequestId: "
+                  + globalPerRequestId);
+          throw new TestExecutionException(
+              "methodData before argument null, error running test. "
+                  + "method: "
+                  + genericMethodName
+                  + " globalPerRequestId: "
+                  + globalPerRequestId);
+        }
+
+        if (methodData.getData() == null
+            && invocation.getArguments()[methodData.getPosition()] == null) {
+          continue;
+        }
+
+        if (methodData.getData() == null
+            || invocation.getArguments()[methodData.getPosition()] == null) {
+          LOGGER.error(
+              "error comparing during test: comparison failed "
+                  + "method: "
+                  + genericMethodName
+                  + " globalPerRequestId: "
+                  + globalPerRequestId);
+          return false;
+        }
+
+        methodMetadata.getArgumentCompareHandler(methodData.getPosition())
+            .compare(methodData.getData(), serializedArguments.get(methodData.getPosition()));
+      }
+      return true;
+    } catch (TestCompareException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Returns the matchers of the current ignore patterns by {@link DiffType}, which decide the
+   * recorded entries that have a fingerprint.
+   */
+  private List<DiffIgnoreMatcher> getDiffIgnoreMatchers() {
+    List<DiffIgnoreMatcher> diffIgnoreMatchers = new ArrayList<>(DIFF_TYPES.length);
+    for (DiffType diffType : DIFF_TYPES) {
+      diffIgnoreMatchers.add(diffIgnoreRepository.get().getDiffIgnoreMatcher(diffType));
+    }
+    return diffIgnoreMatchers;
+  }
+
+  /**
+   * Validates a recorded entry of the method, which must have return or exception data.
+   */
+  private static void validateEntry(
+      Map<MethodDataType, List<MethodData>> perMethodEntryValue,
+      String genericMethodName,
+      String globalPerRequestId)
+      throws TestExecutionException {
+    if (perMethodEntryValue == null || perMethodEntryValue.isEmpty()) {
+      LOGGER.error(
+          "methodDataMap null or empty, error running test. "
+              + "method: "
+              + genericMethodName
+              + " globalPerRequestId: "
+              + globalPerRequestId);
+      throw new TestExecutionException(
+          "methodDataMap null or empty, error running test. "
+              + "method: "
+              + genericMethodName
+              + " globalPerRequestId: "
+              + globalPerRequestId);
+    }
+
+    if (!(perMethodEntryValue.containsKey(MethodDataType.EXCEPTION)
+            && !perMethodEntryValue.get(MethodDataType.EXCEPTION).isEmpty())
+        && !(perMethodEntryValue.containsKey(MethodDataType.RETURN)
+            && !perMethodEntryValue.get(MethodDataType.RETURN).isEmpty())) {
+      LOGGER.error(
+          "both return and exception data not present in methodDataMap, error running test. "
+              + "method: "
+              + genericMethodName
+              + " globalPerRequestId: "
+              + globalPerRequestId);
+      throw new TestExecutionException(
+          "both return and exception data not present in methodDataMap, error running test. "
+              + "method: "
+              + genericMethodName
+              + " globalPerRequestId: "
+              + globalPerRequestId);
+    }
+  }
+
+  /**
+   * Arguments of an invocation, serialized, and hashed if required, on first use, so that each
+   * argument is serialized at most once however many recorded entries it is compared against.
+   */
+  private static final class SerializedArguments {
+
+    private final Object[] arguments;
+    private final MethodMetadata methodMetadata;
+    private final byte[][] serialized;
+    private final boolean[] resolved;
+
+    private SerializedArguments(Object[] arguments, MethodMetadata methodMetadata) {
+      this.arguments = arguments;
+      this.methodMetadata = methodMetadata;
+      this.serialized = new byte[arguments.length][];
+      this.resolved = new boolean[arguments.length];
+    }
+
+    /**
+     * Returns the serialized argument, null if the argument is null.
+     */
+    private byte[] get(int position) throws TestSerdeException, TestHashException {
+      if (!resolved[position]) {
+        if (arguments[position] != null) {
+          TestHashHandler hashHandler = methodMetadata.getArgumentHashHandler(position);
+          byte[] data =
+              methodMetadata.getArgumentSerdeHandler(position).serialize(arguments[position]);
+          serialized[position] = hashHandler == null ? data : hashHandler.hash(data);
+        }
+        resolved[position] = true;
+      }
+      return serialized[position];
+    }
+
+    /**
+     * Returns all arguments serialized, by position.
+     */
+    private byte[][] getAll() throws TestSerdeException, TestHashException {
+      for (int position = 0; position < serialized.length; position++) {
+        get(position);
+      }
+      return serialized;
+    }
+  }
 }
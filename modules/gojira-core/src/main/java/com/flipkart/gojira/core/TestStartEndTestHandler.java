@@ -23,8 +23,9 @@ import static com.flipkart.gojira.core.GlobalConstants.RESULT_SUCCESS;
 import static com.flipkart.gojira.core.GlobalConstants.UNKNOWN_FAILED;
 
 import com.flipkart.compare.TestCompareException;
+import com.flipkart.compare.diff.DiffDetail;
 import com.flipkart.gojira.compare.GojiraCompareHandlerRepository;
-import com.flipkart.gojira.core.injectors.GuiceInjector;
+import com.flipkart.gojira.models.EncodedMethodData;
 import com.flipkart.gojira.models.ExecutionData;
 import com.flipkart.gojira.models.MethodData;
 import com.flipkart.gojira.models.MethodDataType;
@@ -32,9 +33,14 @@ import com.flipkart.gojira.models.TestData;
 import com.flipkart.gojira.models.TestDataType;
 import com.flipkart.gojira.models.TestRequestData;
 import com.flipkart.gojira.models.TestResponseData;
+import com.flipkart.gojira.models.TestResult;
+import com.flipkart.gojira.models.http.HttpTestRequestData;
+import com.flipkart.gojira.models.kafka.KafkaTestRequestData;
+import com.flipkart.gojira.models.rmq.RmqTestRequestData;
 import com.flipkart.gojira.serde.SerdeHandlerRepository;
 import com.flipkart.gojira.sinkstore.SinkException;
 import com.flipkart.gojira.sinkstore.handlers.SinkHandler;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentSkipListMap;
@@ -53,24 +59,25 @@ public class TestStartEndTestHandler<T extends TestDataType> implements StartEnd
   /**
    * compareHandlerRepository for comparing {@link TestResponseData}.
    */
-  private GojiraCompareHandlerRepository gojiraCompareHandlerRepository =
-      GuiceInjector.getInjector().getInstance(GojiraCompareHandlerRepository.class);
+  private final InjectorScoped<GojiraCompareHandlerRepository> gojiraCompareHandlerRepository =
+      new InjectorScoped<>(injector -> injector.getInstance(GojiraCompareHandlerRepository.class));
   /**
    * serdeHandlerRepository for de-serializing {@link TestData} and serializing {@link
    * TestResponseData}.
    */
-  private SerdeHandlerRepository serdeHandlerRepository =
-      GuiceInjector.getInjector().getInstance(SerdeHandlerRepository.class);
+  private final InjectorScoped<SerdeHandlerRepository> serdeHandlerRepository =
+      new InjectorScoped<>(injector -> injector.getInstance(SerdeHandlerRepository.class));
   /**
    * sinkHandler for reading {@link TestData} and storing results of test execution.
    */
-  private SinkHandler sinkHandler = GuiceInjector.getInjector().getInstance(SinkHandler.class);
+  private final InjectorScoped<SinkHandler> sinkHandler =
+      new InjectorScoped<>(injector -> injector.getInstance(SinkHandler.class));
 
   /**
    * If id is null or empty, throws a {@link RuntimeException}
    *
-   * <p>Reads the test data using {@link SinkHandler#read(String)} and deserializes using {@link
-   * SerdeHandlerRepository#getTestDataSerdeHandler()} instance.
+   * <p>Reads the test data using {@link SinkHandler#readBuffer(String)} and deserializes using
+   * {@link SerdeHandlerRepository#getTestDataSerdeHandler()} instance.
    *
    * <p>If testData is null, throws a {@link RuntimeException}
    *
@@ -83,7 +90,7 @@ public class TestStartEndTestHandler<T extends TestDataType> implements StartEnd
    * <p>In case of any exception, marks {@link ExecutionData#getProfileState()} as {@link
    * ProfileState#FAILED} and stores result as {@value GlobalConstants#READ_FAILURE}.
    *
-   * <p>In case {@link SinkHandler#writeResults(String, String)} throws {@link SinkException},
+   * <p>In case {@link SinkHandler#writeTestResult(TestResult)} throws {@link SinkException},
    * simply logs and throws a {@link RuntimeException}
    *
    * @param id this is the id, which will be used for synchronizing testing across multiple threads
@@ -98,20 +105,28 @@ public class TestStartEndTestHandler<T extends TestDataType> implements StartEnd
 
     try {
       TestData<TestRequestData<T>, TestResponseData<T>, T> testData =
-          serdeHandlerRepository
+          serdeHandlerRepository.get()
               .getTestDataSerdeHandler()
-              .deserialize(sinkHandler.read(id), TestData.class);
+              .deserialize(sinkHandler.get().readBuffer(id), TestData.class);
       if (testData == null) {
         throw new RuntimeException("no data available against mentioned test id: " + id);
       }
-      ProfileRepository.begin(id);
+      if (!ProfileRepository.begin(id)) {
+        throw new RuntimeException("in-flight data store is full, unable to begin test id: " + id);
+      }
       ProfileRepository.setTestData(testData);
       ProfileRepository.setRequestMode(Mode.TEST);
     } catch (Exception e) {
       ProfileRepository.setProfileState(ProfileState.FAILED);
       LOGGER.error("unable to fetch data against test id: " + id);
       try {
-        sinkHandler.writeResults(id, READ_FAILURE);
+        sinkHandler.get().writeTestResult(
+            TestResult.builder()
+                .setTestId(id)
+                .setStatus(READ_FAILURE)
+                .setFailureMessage(e.getMessage())
+                .setEndedAt(System.currentTimeMillis())
+                .build());
       } catch (SinkException se) {
         LOGGER.error(
             String.format(
@@ -129,14 +144,15 @@ public class TestStartEndTestHandler<T extends TestDataType> implements StartEnd
    * using {@link GojiraCompareHandlerRepository#getResponseDataCompareHandler()}
    * instance after serializing using {@link SerdeHandlerRepository#getReqRespDataSerdeHandler()}.
    *
-   * <p>Based on the result of comparison, {@link SinkHandler#writeResults(String, String)} is
-   * called.
+   * <p>Based on the result of comparison, a {@link TestResult} is written by calling {@link
+   * SinkHandler#writeTestResult(TestResult)}.
    *
-   * <p>If comparison is successful, {@value GlobalConstants#READ_FAILURE} is written. On comparison
-   * failure, {@value GlobalConstants#COMPARE_FAILED} is written. On unknown exception, {@value
-   * GlobalConstants#UNKNOWN_FAILED} is written.
+   * <p>If comparison is successful, {@value GlobalConstants#RESULT_SUCCESS} is written. On
+   * comparison failure, {@value GlobalConstants#COMPARE_FAILED} is written along with the paths
+   * which differed. On unknown exception, {@value GlobalConstants#UNKNOWN_FAILED} is written. The
+   * result carries the first intercepted method which failed, if any, and the time the test took.
    *
-   * <p>If {@link SinkHandler#writeResults(String, String)} fails, {@link RuntimeException} is
+   * <p>If {@link SinkHandler#writeTestResult(TestResult)} fails, {@link RuntimeException} is
    * thrown.
    *
    * <p>In the finally block, {@link ProfileRepository#end()} is caled.
@@ -149,37 +165,46 @@ public class TestStartEndTestHandler<T extends TestDataType> implements StartEnd
     try {
       String id = ProfileRepository.getTestData().getId();
       if (!ProfileState.NONE.equals(ProfileRepository.getProfileState())) {
+        TestResult.Builder testResult = TestResult.builder().setTestId(id);
+        String failureMessage = ProfileRepository.getFailureMessage();
         try {
-          gojiraCompareHandlerRepository
+          gojiraCompareHandlerRepository.get()
               .getResponseDataCompareHandler()
               .compare(
-                  serdeHandlerRepository
+                  serdeHandlerRepository.get()
                       .getReqRespDataSerdeHandler()
                       .serialize(ProfileRepository.getTestData().getResponseData()),
-                  serdeHandlerRepository.getReqRespDataSerdeHandler().serialize(responseData));
+                  serdeHandlerRepository
+                      .get()
+                      .getReqRespDataSerdeHandler()
+                      .serialize(responseData));
           // method data map must be empty at the end of the test.
           // if it is non empty it indicates some failure due to which we were not able to consume
           // stored method data for some annotated methods.
           if (isMethodDataMapEmpty()) {
-            sinkHandler.writeResults(id, RESULT_SUCCESS);
+            testResult.setStatus(RESULT_SUCCESS);
             LOGGER.info("RESULT_SUCCESS for " + id);
           } else {
-            sinkHandler.writeResults(id, NON_EMPTY_METHOD_DATA_MAP);
+            testResult.setStatus(NON_EMPTY_METHOD_DATA_MAP);
             LOGGER.error("NON_EMPTY_METHOD_DATA_MAP for " + id);
           }
         } catch (TestCompareException e) {
           LOGGER.error("test compare exception.", e);
-          sinkHandler.writeResults(id, COMPARE_FAILED);
-          // Solve this to pass stack trace in payload
-          //                sinkHandler.writeResults(id,COMPARE_FAILED + delim + e + delim+
-          // stackTraceToString(e));
+          testResult.setStatus(COMPARE_FAILED).setDiffPaths(getDiffPaths(e));
+          failureMessage = failureMessage != null ? failureMessage : e.getMessage();
         } catch (Exception e) {
-          sinkHandler.writeResults(id, UNKNOWN_FAILED);
-          // Solve this to pass stack trace in payload
-          //                sinkHandler.writeResults(id,UNKNOWN_FAILED + delim + e + delim +
-          // stackTraceToString(e));
+          testResult.setStatus(UNKNOWN_FAILED);
+          failureMessage = failureMessage != null ? failureMessage : e.toString();
           LOGGER.error("test unknown failed exception.", e);
         }
+        sinkHandler.get().writeTestResult(
+            testResult
+                .setUri(getUri(ProfileRepository.getTestData().getRequestData()))
+                .setFailedMethod(ProfileRepository.getFailedMethod())
+                .setFailureMessage(failureMessage)
+                .setEndedAt(System.currentTimeMillis())
+                .setDurationInMillis(ProfileRepository.getElapsedMillis())
+                .build());
       }
     } catch (SinkException e) {
       LOGGER.error("error while saving the result", e);
@@ -194,6 +219,14 @@ public class TestStartEndTestHandler<T extends TestDataType> implements StartEnd
    * Method for checking MethodDataMap empty after test execution.
    */
   public boolean isMethodDataMapEmpty() {
+    // a method which was never called is still encoded, and has not been consumed if recorded
+    // with entries.
+    for (EncodedMethodData encodedMethodData :
+        ProfileRepository.getTestData().getEncodedMethodData().values()) {
+      if (encodedMethodData.getEntryCount() > 0) {
+        return false;
+      }
+    }
     ConcurrentHashMap<
             String,
             ConcurrentSkipListMap<Long, ConcurrentHashMap<MethodDataType, List<MethodData>>>>
@@ -205,4 +238,31 @@ public class TestStartEndTestHandler<T extends TestDataType> implements StartEnd
     }
     return true;
   }
+
+  private static List<String> getDiffPaths(TestCompareException e) {
+    List<String> diffPaths = new ArrayList<>();
+    if (e.getDiffs() != null) {
+      for (DiffDetail diffDetail : e.getDiffs()) {
+        diffPaths.add(diffDetail.getDiffPath());
+      }
+    }
+    return diffPaths;
+  }
+
+  /**
+   * Returns what results are grouped by for a request: the uri of http requests, the topic of
+   * kafka messages and the exchange of rmq messages.
+   */
+  private static String getUri(TestRequestData<?> requestData) {
+    if (requestData instanceof HttpTestRequestData) {
+      return ((HttpTestRequestData) requestData).getUri();
+    }
+    if (requestData instanceof KafkaTestRequestData) {
+      return ((KafkaTestRequestData) requestData).getTopicName();
+    }
+    if (requestData instanceof RmqTestRequestData) {
+      return ((RmqTestRequestData) requestData).getExchangeName();
+    }
+    return null;
+  }
 }
@@ -11,7 +11,6 @@ import java.util.Map;
 import javax.servlet.FilterChain;
 import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
-import org.apache.commons.io.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -44,8 +43,8 @@ public class TransformHttpFilterHandler extends HttpFilterHandler {
    * <p>Checks if URI is whitelisted by calling {@link HttpFilterHandler#isWhitelistedUrl(String,
    * String)}
    *
-   * <p>If whitelisted, makes a copy of {@link
-   * HttpFilter.CustomHttpServletRequestWrapper#getInputStream()}. On error, marks {@link
+   * <p>If whitelisted, gets the body buffered by {@link
+   * HttpFilter.CustomHttpServletRequestWrapper#getBody()}. On error, marks {@link
    * ExecutionData#getProfileState()} as {@link ProfileState#FAILED} and returns true enable {@link
    * HttpFilter} to call {@link javax.servlet.FilterChain#doFilter(ServletRequest,
    * ServletResponse)}.
@@ -68,13 +67,7 @@ public class TransformHttpFilterHandler extends HttpFilterHandler {
     }
 
     if (isWhitelistedUrl(request.getRequestURI(), request.getMethod())) {
-      byte[] body;
-      try {
-        body = IOUtils.toByteArray(request.getInputStream());
-      } catch (IOException ex) {
-        LOGGER.error("Unable to read the stream", ex);
-        return true;
-      }
+      byte[] body = request.getBody();
       try {
         HttpTestRequestData requestData =
             HttpTestRequestData.builder()
@@ -97,10 +90,9 @@ public class TransformHttpFilterHandler extends HttpFilterHandler {
   }
 
   /**
-   * Calls {@link DefaultProfileOrTestHandler#end(TestResponseData)} as per {@link Mode} needs and
-   * calls {@link javax.servlet.ServletOutputStream#write(byte[])} of {@link
-   * javax.servlet.http.HttpServletResponse} by getting byte[] from {@link
-   * HttpFilter.TestServletResponseWrapper}
+   * Calls {@link DefaultProfileOrTestHandler#end(TestResponseData)} as per {@link Mode} needs with
+   * the response body captured by {@link HttpFilter.TestServletResponseWrapper}, which has already
+   * been streamed to {@link javax.servlet.http.HttpServletResponse}.
    *
    * <p>If URL is whitelisted, adds the HTTP response data needed for comparison later during
    * execution and adds them to {@link HttpTestResponseData}.
@@ -124,7 +116,6 @@ public class TransformHttpFilterHandler extends HttpFilterHandler {
       ServletResponse response)
       throws IOException {
     byte[] outputBuffer = respWrapper.getBuffer();
-    response.getOutputStream().write(outputBuffer);
     HttpTestResponseData responseData = null;
     try {
       if (isWhitelistedUrl(request.getRequestURI(), request.getMethod())) {
@@ -4,7 +4,6 @@ import com.flipkart.compare.TestCompareException;
 import com.flipkart.compare.handlers.TestCompareHandler;
 import com.flipkart.gojira.compare.GojiraCompareHandlerRepository;
 import com.flipkart.gojira.core.annotations.ProfileOrTest;
-import com.flipkart.gojira.core.injectors.GuiceInjector;
 import com.flipkart.gojira.execute.TestExecutionException;
 import com.flipkart.gojira.execute.TranssformExecutionException;
 import com.flipkart.gojira.hash.HashHandlerUtil;
@@ -30,11 +29,18 @@ public class TransformMethodDataInterceptorHandler implements MethodDataIntercep
   private static final Logger LOGGER =
       LoggerFactory.getLogger(TransformMethodDataInterceptorHandler.class);
 
-  private GojiraCompareHandlerRepository gojiraCompareHandlerRepository =
-      GuiceInjector.getInjector().getInstance(GojiraCompareHandlerRepository.class);
+  private final InjectorScoped<GojiraCompareHandlerRepository> gojiraCompareHandlerRepository =
+      new InjectorScoped<>(injector -> injector.getInstance(GojiraCompareHandlerRepository.class));
 
-  private SerdeHandlerRepository serdeHandlerRepository =
-      GuiceInjector.getInjector().getInstance(SerdeHandlerRepository.class);
+  private final InjectorScoped<SerdeHandlerRepository> serdeHandlerRepository =
+      new InjectorScoped<>(injector -> injector.getInstance(SerdeHandlerRepository.class));
+
+  private final InjectorScoped<MethodMetadataCache> methodMetadataCache =
+      new InjectorScoped<>(
+          injector ->
+              new MethodMetadataCache(
+                  injector.getInstance(SerdeHandlerRepository.class),
+                  injector.getInstance(GojiraCompareHandlerRepository.class)));
 
   public TransformMethodDataInterceptorHandler() {}
 
@@ -44,11 +50,12 @@ public class TransformMethodDataInterceptorHandler implements MethodDataIntercep
    * <p>Gets the {@link ProfileRepository#getGlobalPerRequestID()}, {@link Method#toGenericString()}
    * of {@link MethodInvocation#getMethod()} to get data corresponding to this specific method. On
    * error when getting the data or if data is null, {@link TestExecutionException} is thrown.
+   * {@link Method#toGenericString()} and the handlers referred below are read from {@link
+   * MethodMetadata}, resolved on first invocation of the method by {@link MethodMetadataCache}.
    *
-   * <p>Gets the {@link Map#get(Object)} }} of {@link TestData#getMethodDataMap()}, of {@link
-   * ProfileRepository#getTestData()} ()}
-   * to get data corresponding to this specific method.
-   * if data is null, {@link TestExecutionException} is thrown.
+   * <p>Gets {@link TestData#getMethodData(String)} of {@link ProfileRepository#getTestData()},
+   * which decodes the recorded data of this specific method on first use. If data is null, {@link
+   * TestExecutionException} is thrown.
    *
    * <p>During {@link Mode#PROFILE} mode, it is possible that multiple invocations of the same
    * method are called. It is also possible that they are called by different threads. So, to get
@@ -114,8 +121,10 @@ public class TransformMethodDataInterceptorHandler implements MethodDataIntercep
       throw new TestExecutionException("error getting globalPerRequestId.", e);
     }
 
+    MethodMetadata methodMetadata;
     try {
-      genericMethodName = invocation.getMethod().toGenericString();
+      methodMetadata = methodMetadataCache.get().get(invocation);
+      genericMethodName = methodMetadata.getMethodId();
     } catch (Exception e) {
       LOGGER.error(
           "error getting methodGenericString." + " globalPerRequestId: " + globalPerRequestId, e);
@@ -136,20 +145,7 @@ public class TransformMethodDataInterceptorHandler implements MethodDataIntercep
               + globalPerRequestId);
     }
 
-    if (ProfileRepository.getTestData().getMethodDataMap() == null) {
-      LOGGER.error(
-          "test data method data map null. method: "
-              + genericMethodName
-              + " globalPerRequestId: "
-              + globalPerRequestId);
-      throw new TestExecutionException(
-          "test data method data map null. method: "
-              + genericMethodName
-              + " globalPerRequestId: "
-              + globalPerRequestId);
-    }
-
-    if (ProfileRepository.getTestData().getMethodDataMap().get(genericMethodName) == null) {
+    if (ProfileRepository.getTestData().getMethodData(genericMethodName) == null) {
       LOGGER.error(
           "test data method data map for method null. method: "
               + genericMethodName
@@ -163,9 +159,7 @@ public class TransformMethodDataInterceptorHandler implements MethodDataIntercep
     }
 
     ConcurrentSkipListMap<Long, ConcurrentHashMap<MethodDataType, List<MethodData>>>
-        perMethodAllEntries =
-            ((ConcurrentSkipListMap<Long, ConcurrentHashMap<MethodDataType, List<MethodData>>>)
-                ProfileRepository.getTestData().getMethodDataMap().get(genericMethodName));
+        perMethodAllEntries = ProfileRepository.getTestData().getMethodData(genericMethodName);
 
     ConcurrentHashMap<MethodDataType, List<MethodData>> methodDataMap = null;
 
@@ -315,9 +309,7 @@ public class TransformMethodDataInterceptorHandler implements MethodDataIntercep
         if (methodData.getData() == null) {
           invocation.getArguments()[index] = null;
         } else {
-          serdeHandlerRepository
-              .getOrUpdateAndGetOrDefaultMethodArgumentDataSerdeHandler(
-                  invocation, methodData.getPosition())
+          methodMetadata.getArgumentSerdeHandler(methodData.getPosition())
               .deserializeToInstance(methodData.getData(), invocation.getArguments()[index]);
           // TODO: Throw TestExecutionException if deserialization fails.
         }
@@ -347,7 +339,7 @@ public class TransformMethodDataInterceptorHandler implements MethodDataIntercep
       }
       LOGGER.info("Throwing exception that was captured while profiling.");
       throw (Throwable)
-          serdeHandlerRepository
+          serdeHandlerRepository.get()
               .getExceptionDataSerdeHandler(
                   genericMethodName,
                   methodDataMap.get(MethodDataType.EXCEPTION).get(0).getClassName())
@@ -379,8 +371,7 @@ public class TransformMethodDataInterceptorHandler implements MethodDataIntercep
       final Object originalObject =
           methodDataMap.get(MethodDataType.RETURN).get(0).getData() == null
               ? null
-              : serdeHandlerRepository
-                  .getOrUpdateAndGetOrDefaultReturnDataSerdeHandler(invocation)
+              : methodMetadata.getReturnSerdeHandler()
                   .deserialize(
                       methodDataMap.get(MethodDataType.RETURN).get(0).getData(),
                       Class.forName(
@@ -426,7 +417,7 @@ public class TransformMethodDataInterceptorHandler implements MethodDataIntercep
           List<MethodData> argumenAfterList = new ArrayList<>();
           for (Object arg : invocation.getArguments()) {
             index++;
-            TestHashHandler hashHandler = HashHandlerUtil.getHashHandler(invocation, index);
+            TestHashHandler hashHandler = methodMetadata.getArgumentHashHandler(index);
             MethodData methodData =
                 new MethodData(
                     MethodDataType.ARGUMENT_AFTER,
@@ -434,15 +425,9 @@ public class TransformMethodDataInterceptorHandler implements MethodDataIntercep
                     arg == null
                         ? null
                         : hashHandler == null
-                            ? serdeHandlerRepository
-                                .getOrUpdateAndGetOrDefaultMethodArgumentDataSerdeHandler(
-                                    invocation, index)
-                                .serialize(arg)
+                            ? methodMetadata.getArgumentSerdeHandler(index).serialize(arg)
                             : hashHandler.hash(
-                                serdeHandlerRepository
-                                    .getOrUpdateAndGetOrDefaultMethodArgumentDataSerdeHandler(
-                                        invocation, index)
-                                    .serialize(arg)),
+                                methodMetadata.getArgumentSerdeHandler(index).serialize(arg)),
                     index);
             argumenAfterList.add(methodData);
           }
@@ -466,8 +451,7 @@ public class TransformMethodDataInterceptorHandler implements MethodDataIntercep
                   transformedObject == null ? null : transformedObject.getClass().getName(),
                   transformedObject == null
                       ? null
-                      : serdeHandlerRepository
-                          .getOrUpdateAndGetOrDefaultReturnDataSerdeHandler(invocation)
+                      : methodMetadata.getReturnSerdeHandler()
                           .serialize(transformedObject),
                   0));
           methodDataMap.put(MethodDataType.RETURN, returnDataList);
@@ -477,7 +461,7 @@ public class TransformMethodDataInterceptorHandler implements MethodDataIntercep
               new MethodData(
                   MethodDataType.EXCEPTION,
                   invocationException.getClass().getName(),
-                  serdeHandlerRepository
+                  serdeHandlerRepository.get()
                       .getExceptionDataSerdeHandler(
                           genericMethodName, invocationException.getClass().getName())
                       .serialize(invocationException),
@@ -16,18 +16,19 @@ import org.slf4j.LoggerFactory;
 public class TransformStartEndTestHandler<T extends TestDataType>
     implements StartEndTestHandler<T> {
   private static final Logger LOGGER = LoggerFactory.getLogger(TransformStartEndTestHandler.class);
-  private SerdeHandlerRepository serdeHandlerRepository =
-      GuiceInjector.getInjector().getInstance(SerdeHandlerRepository.class);
+  private final InjectorScoped<SerdeHandlerRepository> serdeHandlerRepository =
+      new InjectorScoped<>(injector -> injector.getInstance(SerdeHandlerRepository.class));
   /**
    * sinkHandler for reading {@link TestData} and storing results of test execution.
    */
-  private SinkHandler sinkHandler = GuiceInjector.getInjector().getInstance(SinkHandler.class);
+  private final InjectorScoped<SinkHandler> sinkHandler =
+      new InjectorScoped<>(injector -> injector.getInstance(SinkHandler.class));
 
   /**
    * If id is null or empty, throws a {@link RuntimeException}
    *
-   * <p>Reads the test data using {@link SinkHandler#read(String)} and deserializes using {@link
-   * SerdeHandlerRepository#getTestDataSerdeHandler()} instance.
+   * <p>Reads the test data using {@link SinkHandler#readBuffer(String)} and deserializes using
+   * {@link SerdeHandlerRepository#getTestDataSerdeHandler()} instance.
    *
    * <p>If testData is null, throws a {@link RuntimeException}
    *
@@ -53,15 +54,17 @@ public class TransformStartEndTestHandler<T extends TestDataType>
     }
     try {
       TestData<TestRequestData<T>, TestResponseData<T>, T> testData =
-          serdeHandlerRepository
+          serdeHandlerRepository.get()
               .getTestDataSerdeHandler()
-              .deserialize(sinkHandler.read(id), TestData.class);
+              .deserialize(sinkHandler.get().readBuffer(id), TestData.class);
       if (testData == null) {
         throw new RuntimeException("no data available against mentioned test id: " + id);
       }
 
       // add request data to thread-local.
-      ProfileRepository.begin(id);
+      if (!ProfileRepository.begin(id)) {
+        throw new RuntimeException("in-flight data store is full, unable to begin test id: " + id);
+      }
       ProfileRepository.setTestData(testData);
       ProfileRepository.setRequestData(requestData);
       ProfileRepository.setRequestMode(Mode.TRANSFORM);
@@ -36,6 +36,17 @@ public abstract class AopAllianceAdapter {
    */
   protected abstract MethodInterceptor getMethodInterceptor();
 
+  /**
+   * Return true if the join point can proceed without calling the interceptor, in which case no
+   * {@link MethodInvocationClosure} is created. Subclasses can override this to provide a fast
+   * path.
+   *
+   * @return true to skip interception, defaults to false
+   */
+  protected boolean isPassThrough() {
+    return false;
+  }
+
   @Pointcut
   protected abstract void targetJoinPoint();
 
@@ -48,6 +59,9 @@ public abstract class AopAllianceAdapter {
    */
   @Around("targetJoinPoint() && methodExecution()")
   public Object around(ProceedingJoinPoint thisJoinPoint) throws Throwable {
+    if (isPassThrough()) {
+      return thisJoinPoint.proceed();
+    }
     MethodInvocationClosure mic =
         new MethodInvocationClosure(thisJoinPoint) {
           public Object execute() throws Throwable {
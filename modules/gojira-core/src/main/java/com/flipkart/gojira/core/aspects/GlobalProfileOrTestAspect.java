@@ -18,7 +18,9 @@
 
 package com.flipkart.gojira.core.aspects;
 
+import com.flipkart.gojira.core.GojiraContext;
 import com.flipkart.gojira.core.ProfileOrTestMethodInterceptor;
+import com.flipkart.gojira.core.ProfileRepository;
 import org.aopalliance.intercept.MethodInterceptor;
 import org.aspectj.lang.annotation.Aspect;
 
@@ -29,8 +31,20 @@ import org.aspectj.lang.annotation.Aspect;
 @Aspect
 public abstract class GlobalProfileOrTestAspect extends AopAllianceAdapter {
 
+  private static final MethodInterceptor METHOD_INTERCEPTOR = new ProfileOrTestMethodInterceptor();
+
+  /**
+   * Passes through when there is no active {@link GojiraContext}, since the request level mode is
+   * then {@link com.flipkart.gojira.core.Mode#NONE}.
+   */
+  @Override
+  protected boolean isPassThrough() {
+    GojiraContext context = ProfileRepository.getContext();
+    return context == null || !context.isActive();
+  }
+
   @Override
   protected MethodInterceptor getMethodInterceptor() {
-    return new ProfileOrTestMethodInterceptor();
+    return METHOD_INTERCEPTOR;
   }
 }
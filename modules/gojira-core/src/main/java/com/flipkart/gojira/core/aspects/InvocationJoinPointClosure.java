@@ -19,6 +19,7 @@
 package com.flipkart.gojira.core.aspects;
 
 import java.lang.reflect.AccessibleObject;
+import java.util.concurrent.ConcurrentHashMap;
 import org.aopalliance.intercept.Invocation;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.reflect.CodeSignature;
@@ -26,12 +27,31 @@ import org.aspectj.lang.reflect.MethodSignature;
 
 public abstract class InvocationJoinPointClosure extends JoinPointClosure implements Invocation {
 
+  /**
+   * Members resolved per {@link JoinPoint.StaticPart}, which AspectJ creates once per advised join
+   * point, so that reflection runs only on the first execution of a join point.
+   */
+  private static final ConcurrentHashMap<JoinPoint.StaticPart, AccessibleObject> STATIC_PARTS =
+      new ConcurrentHashMap<>();
+
   public InvocationJoinPointClosure(JoinPoint jp) {
     super(jp);
   }
 
   @Override
   public AccessibleObject getStaticPart() {
+    JoinPoint.StaticPart staticPart = jp.getStaticPart();
+    AccessibleObject ret = STATIC_PARTS.get(staticPart);
+    if (ret == null) {
+      ret = resolveStaticPart();
+      if (ret != null) {
+        STATIC_PARTS.putIfAbsent(staticPart, ret);
+      }
+    }
+    return ret;
+  }
+
+  private AccessibleObject resolveStaticPart() {
     CodeSignature codeSignature = (CodeSignature) jp.getSignature();
     Class clazz = codeSignature.getDeclaringType();
     AccessibleObject ret = null;
@@ -16,7 +16,9 @@
 
 package com.flipkart.gojira.core.aspects;
 
+import com.flipkart.gojira.core.GojiraContext;
 import com.flipkart.gojira.core.ProfileOrTestMethodInterceptor;
+import com.flipkart.gojira.core.ProfileRepository;
 import org.aopalliance.intercept.MethodInterceptor;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
@@ -27,9 +29,21 @@ import org.aspectj.lang.annotation.Pointcut;
 @Aspect
 public class ProfileOrTestAspect extends AopAllianceAdapter {
 
+  private static final MethodInterceptor METHOD_INTERCEPTOR = new ProfileOrTestMethodInterceptor();
+
+  /**
+   * Passes through when there is no active {@link GojiraContext}, since the request level mode is
+   * then {@link com.flipkart.gojira.core.Mode#NONE}.
+   */
+  @Override
+  protected boolean isPassThrough() {
+    GojiraContext context = ProfileRepository.getContext();
+    return context == null || !context.isActive();
+  }
+
   @Override
   protected MethodInterceptor getMethodInterceptor() {
-    return new ProfileOrTestMethodInterceptor();
+    return METHOD_INTERCEPTOR;
   }
 
   @Override
@@ -28,6 +28,10 @@ import com.flipkart.gojira.sinkstore.SinkException;
 import com.flipkart.gojira.sinkstore.handlers.SinkHandler;
 import com.google.inject.Key;
 import com.google.inject.name.Names;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -36,6 +40,11 @@ public class IdBasedTestExecutor<T extends TestDataType> {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(IdBasedTestExecutor.class);
 
+  /**
+   * Maximum number of test ids whose data is read in one call to {@link SinkHandler#readBatch}.
+   */
+  private static final int READ_BATCH_SIZE = 100;
+
   private SinkHandler sinkHandler = GuiceInjector.getInjector().getInstance(SinkHandler.class);
   private TestSerdeHandler testDataSerdeHandler =
       GuiceInjector.getInjector()
@@ -64,4 +73,34 @@ public class IdBasedTestExecutor<T extends TestDataType> {
         .getInstance(Key.get(TestExecutor.class, Names.named(testData.getRequestData().getType())))
         .execute(testData, clientId);
   }
+
+  /**
+   * Same as {@link #execute(String, String)} for many test ids, whose data is read in chunks of
+   * {@value #READ_BATCH_SIZE} ids by calling {@link SinkHandler#readBatch(List)}, so that only one
+   * chunk is held in memory at a time. Tests are executed in the order of testIds, a test id which
+   * is repeated is executed as many times, and execution stops at the first failure.
+   *
+   * @param testIds testIds against which we need to initiate execution.
+   * @param clientId clientId is the identifier which can be used to know which system to hit.
+   * @throws TestExecutionException if we are not able to initiate the execution
+   * @throws SinkException if we are not able to read data from {@link SinkHandler} implementation
+   * @throws TestSerdeException if we are not able to deserialize read data to
+   *     {@link TestData}
+   */
+  public void execute(List<String> testIds, String clientId)
+      throws TestExecutionException, SinkException, TestSerdeException {
+    for (int from = 0; from < testIds.size(); from += READ_BATCH_SIZE) {
+      List<String> chunk = testIds.subList(from, Math.min(from + READ_BATCH_SIZE, testIds.size()));
+      Map<String, byte[]> chunkData =
+          sinkHandler.readBatch(new ArrayList<>(new LinkedHashSet<>(chunk)));
+      for (String testId : chunk) {
+        TestData<TestRequestData<T>, TestResponseData<T>, T> testData =
+            testDataSerdeHandler.deserialize(chunkData.get(testId), TestData.class);
+        GuiceInjector.getInjector()
+            .getInstance(
+                Key.get(TestExecutor.class, Names.named(testData.getRequestData().getType())))
+            .execute(testData, clientId);
+      }
+    }
+  }
 }
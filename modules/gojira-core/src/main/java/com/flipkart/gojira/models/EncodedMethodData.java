@@ -0,0 +1,69 @@
+/*
+ * Copyright 2020 Flipkart Internet, pvt ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.flipkart.gojira.models;
+
+import com.flipkart.gojira.serde.TestSerdeException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Recorded entries of a method, kept encoded by the serde handler which read the {@link TestData}
+ * until they are asked for, see {@link TestData#getMethodData(String)}.
+ */
+public final class EncodedMethodData {
+
+  private final ByteBuffer bytes;
+  private final int entryCount;
+  private final Decoder decoder;
+
+  /**
+   * Creates encoded method data.
+   *
+   * @param bytes encoded entries, which must not be modified afterwards
+   * @param entryCount number of entries encoded
+   * @param decoder decoder of the entries
+   */
+  public EncodedMethodData(ByteBuffer bytes, int entryCount, Decoder decoder) {
+    this.bytes = bytes;
+    this.entryCount = entryCount;
+    this.decoder = decoder;
+  }
+
+  public int getEntryCount() {
+    return entryCount;
+  }
+
+  public int getEncodedBytes() {
+    return bytes.remaining();
+  }
+
+  ConcurrentSkipListMap<Long, ConcurrentHashMap<MethodDataType, List<MethodData>>> decode()
+      throws TestSerdeException {
+    return decoder.decode(bytes.duplicate());
+  }
+
+  /**
+   * Decodes the entries of a method.
+   */
+  public interface Decoder {
+
+    ConcurrentSkipListMap<Long, ConcurrentHashMap<MethodDataType, List<MethodData>>> decode(
+        ByteBuffer bytes) throws TestSerdeException;
+  }
+}
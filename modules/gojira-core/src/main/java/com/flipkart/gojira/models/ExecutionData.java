@@ -41,6 +41,13 @@ public class ExecutionData<T extends TestDataType> {
    */
   private ProfileState profileState = ProfileState.NONE;
 
+  /**
+   * Generic name of the first intercepted method which failed in {@link Mode#TEST}, and the reason
+   * it failed.
+   */
+  private String failedMethod;
+  private String failureMessage;
+
   public TestData<TestRequestData<T>, TestResponseData<T>, T> getTestData() {
     return testData;
   }
@@ -57,6 +64,27 @@ public class ExecutionData<T extends TestDataType> {
     this.profileState = profileState;
   }
 
+  public synchronized String getFailedMethod() {
+    return failedMethod;
+  }
+
+  public synchronized String getFailureMessage() {
+    return failureMessage;
+  }
+
+  /**
+   * Records the failure of an intercepted method, unless a method has failed already.
+   *
+   * @param failedMethod generic name of the method
+   * @param failureMessage reason the method failed
+   */
+  public synchronized void setMethodFailure(String failedMethod, String failureMessage) {
+    if (this.failedMethod == null) {
+      this.failedMethod = failedMethod;
+      this.failureMessage = failureMessage;
+    }
+  }
+
   public Mode getExecutionMode() {
     return executionMode;
   }
@@ -16,9 +16,13 @@
 
 package com.flipkart.gojira.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.flipkart.gojira.core.Mode;
+import com.flipkart.gojira.serde.TestSerdeException;
 import java.lang.reflect.Method;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentSkipListMap;
 
@@ -53,6 +57,13 @@ public class TestData<
           String, ConcurrentSkipListMap<Long, ConcurrentHashMap<MethodDataType, List<MethodData>>>>
       methodDataMap = new ConcurrentHashMap<>();
 
+  /**
+   * Recorded entries of methods which are still encoded, by {@link Method#toGenericString()}. They
+   * are moved to {@link #methodDataMap} once decoded. Null unless test data was read by a serde
+   * handler which decodes methods on demand.
+   */
+  private volatile ConcurrentHashMap<String, EncodedMethodData> encodedMethodDataMap = null;
+
   /**
    * Request data which is captured for initiating execution in different {@link Mode}.
    */
@@ -72,18 +83,92 @@ public class TestData<
     this.id = id;
   }
 
+  /**
+   * Returns recorded data of all methods, decoding methods which are still encoded first. During
+   * replay, use {@link #getMethodData(String)} to decode only the methods which are called.
+   *
+   * @return recorded data per method
+   */
   public ConcurrentHashMap<
           String, ConcurrentSkipListMap<Long, ConcurrentHashMap<MethodDataType, List<MethodData>>>>
       getMethodDataMap() {
+    ConcurrentHashMap<String, EncodedMethodData> encodedMethodDataMap = this.encodedMethodDataMap;
+    if (encodedMethodDataMap != null) {
+      for (String method : encodedMethodDataMap.keySet()) {
+        decode(encodedMethodDataMap, method);
+      }
+    }
     return methodDataMap;
   }
 
+  /**
+   * Sets recorded data of all methods, dropping methods which are still encoded.
+   *
+   * @param methodDataMap recorded data per method
+   */
   public void setMethodDataMap(
       ConcurrentHashMap<
               String,
               ConcurrentSkipListMap<Long, ConcurrentHashMap<MethodDataType, List<MethodData>>>>
           methodDataMap) {
     this.methodDataMap = methodDataMap;
+    this.encodedMethodDataMap = null;
+  }
+
+  /**
+   * Returns recorded data of a method, decoding it first if it is still encoded.
+   *
+   * @param method {@link Method#toGenericString()} of the method
+   * @return recorded data of the method, null if the method was not recorded
+   * @throws IllegalStateException if the recorded data can not be decoded
+   */
+  public ConcurrentSkipListMap<Long, ConcurrentHashMap<MethodDataType, List<MethodData>>>
+      getMethodData(String method) {
+    ConcurrentHashMap<String, EncodedMethodData> encodedMethodDataMap = this.encodedMethodDataMap;
+    if (encodedMethodDataMap != null) {
+      decode(encodedMethodDataMap, method);
+    }
+    return methodDataMap == null ? null : methodDataMap.get(method);
+  }
+
+  /**
+   * Returns recorded data of methods which are not decoded yet.
+   *
+   * @return encoded method data by method, not to be modified
+   */
+  @JsonIgnore
+  public Map<String, EncodedMethodData> getEncodedMethodData() {
+    ConcurrentHashMap<String, EncodedMethodData> encodedMethodDataMap = this.encodedMethodDataMap;
+    return encodedMethodDataMap == null
+        ? Collections.emptyMap()
+        : Collections.unmodifiableMap(encodedMethodDataMap);
+  }
+
+  /**
+   * Adds recorded data of a method which is decoded when it is first asked for.
+   *
+   * @param method {@link Method#toGenericString()} of the method
+   * @param encodedMethodData encoded recorded data of the method
+   */
+  public synchronized void putEncodedMethodData(
+      String method, EncodedMethodData encodedMethodData) {
+    if (encodedMethodDataMap == null) {
+      encodedMethodDataMap = new ConcurrentHashMap<>();
+    }
+    encodedMethodDataMap.put(method, encodedMethodData);
+  }
+
+  /**
+   * Drops recorded data of all methods without decoding it.
+   */
+  public void clearMethodData() {
+    ConcurrentHashMap<String, EncodedMethodData> encodedMethodDataMap = this.encodedMethodDataMap;
+    if (encodedMethodDataMap != null) {
+      encodedMethodDataMap.clear();
+    }
+    if (methodDataMap != null) {
+      methodDataMap.clear();
+    }
   }
 
   public InputDataT getRequestData() {
@@ -101,4 +186,22 @@ public class TestData<
   public void setResponseData(OutputDataT responseData) {
     this.responseData = responseData;
   }
+
+  /**
+   * Moves a method from the encoded map to {@link #methodDataMap}. Callers asking for the same
+   * method wait for it to be decoded once.
+   */
+  private void decode(
+      ConcurrentHashMap<String, EncodedMethodData> encodedMethodDataMap, String method) {
+    encodedMethodDataMap.computeIfPresent(
+        method,
+        (key, encodedMethodData) -> {
+          try {
+            methodDataMap.putIfAbsent(key, encodedMethodData.decode());
+          } catch (TestSerdeException e) {
+            throw new IllegalStateException("unable to decode recorded data of method: " + key, e);
+          }
+          return null;
+        });
+  }
 }
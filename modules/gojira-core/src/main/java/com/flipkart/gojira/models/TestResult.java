@@ -0,0 +1,232 @@
+/*
+ * Copyright 2020 Flipkart Internet, pvt ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.flipkart.gojira.models;
+
+import com.flipkart.gojira.core.GlobalConstants;
+import com.flipkart.gojira.core.Mode;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Result of executing a single test in {@link Mode#TEST}, as stored by the sink. Apart from the
+ * status, it carries what is needed to group failures: the request the test was for, the paths
+ * which differed when the response was compared and the first intercepted method whose recorded
+ * data could not be matched.
+ */
+public class TestResult {
+
+  private String testId;
+
+  /**
+   * One of the result statuses in {@link GlobalConstants}, {@link GlobalConstants#RESULT_SUCCESS}
+   * if the test passed.
+   */
+  private String status;
+
+  /**
+   * Uri of http requests, topic of kafka messages and exchange of rmq messages. Null if the test
+   * data could not be read.
+   */
+  private String uri;
+
+  /**
+   * Paths of the response which differed from the recorded response.
+   */
+  private List<String> diffPaths = Collections.emptyList();
+
+  /**
+   * Generic name of the first intercepted method which failed, and the reason it failed.
+   */
+  private String failedMethod;
+  private String failureMessage;
+
+  /**
+   * Wall clock time at which the test ended, and time taken by the test from its start.
+   */
+  private long endedAt;
+  private long durationInMillis;
+
+  private TestResult() {}
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  public String getTestId() {
+    return testId;
+  }
+
+  public String getStatus() {
+    return status;
+  }
+
+  public String getUri() {
+    return uri;
+  }
+
+  public List<String> getDiffPaths() {
+    return diffPaths;
+  }
+
+  public String getFailedMethod() {
+    return failedMethod;
+  }
+
+  public String getFailureMessage() {
+    return failureMessage;
+  }
+
+  public long getEndedAt() {
+    return endedAt;
+  }
+
+  public long getDurationInMillis() {
+    return durationInMillis;
+  }
+
+  public boolean isSuccess() {
+    return GlobalConstants.RESULT_SUCCESS.equals(status);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+
+    TestResult that = (TestResult) o;
+
+    return endedAt == that.endedAt
+        && durationInMillis == that.durationInMillis
+        && Objects.equals(testId, that.testId)
+        && Objects.equals(status, that.status)
+        && Objects.equals(uri, that.uri)
+        && Objects.equals(diffPaths, that.diffPaths)
+        && Objects.equals(failedMethod, that.failedMethod)
+        && Objects.equals(failureMessage, that.failureMessage);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(
+        testId, status, uri, diffPaths, failedMethod, failureMessage, endedAt, durationInMillis);
+  }
+
+  @Override
+  public String toString() {
+    return "TestResult{"
+        + "testId='"
+        + testId
+        + '\''
+        + ", status='"
+        + status
+        + '\''
+        + ", uri='"
+        + uri
+        + '\''
+        + ", diffPaths="
+        + diffPaths
+        + ", failedMethod='"
+        + failedMethod
+        + '\''
+        + ", failureMessage='"
+        + failureMessage
+        + '\''
+        + ", endedAt="
+        + endedAt
+        + ", durationInMillis="
+        + durationInMillis
+        + '}';
+  }
+
+  public static class Builder {
+
+    private TestResult testResultToBuild;
+
+    private Builder() {
+      this.testResultToBuild = new TestResult();
+    }
+
+    /**
+     * Builds the result after validating that the test id and status are set.
+     *
+     * @return result
+     */
+    public TestResult build() {
+      if (this.testResultToBuild.testId == null) {
+        throw new IllegalArgumentException("testId cannot be null.");
+      }
+      if (this.testResultToBuild.status == null) {
+        throw new IllegalArgumentException("status cannot be null.");
+      }
+      return this.testResultToBuild;
+    }
+
+    public Builder setTestId(String testId) {
+      this.testResultToBuild.testId = testId;
+      return this;
+    }
+
+    public Builder setStatus(String status) {
+      this.testResultToBuild.status = status;
+      return this;
+    }
+
+    public Builder setUri(String uri) {
+      this.testResultToBuild.uri = uri;
+      return this;
+    }
+
+    /**
+     * Sets the paths which differed.
+     *
+     * @param diffPaths cannot be null
+     * @return builder
+     */
+    public Builder setDiffPaths(List<String> diffPaths) {
+      if (diffPaths == null) {
+        throw new IllegalArgumentException("diffPaths cannot be null.");
+      }
+      this.testResultToBuild.diffPaths = Collections.unmodifiableList(diffPaths);
+      return this;
+    }
+
+    public Builder setFailedMethod(String failedMethod) {
+      this.testResultToBuild.failedMethod = failedMethod;
+      return this;
+    }
+
+    public Builder setFailureMessage(String failureMessage) {
+      this.testResultToBuild.failureMessage = failureMessage;
+      return this;
+    }
+
+    public Builder setEndedAt(long endedAt) {
+      this.testResultToBuild.endedAt = endedAt;
+      return this;
+    }
+
+    public Builder setDurationInMillis(long durationInMillis) {
+      this.testResultToBuild.durationInMillis = durationInMillis;
+      return this;
+    }
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2020 Flipkart Internet, pvt ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.flipkart.gojira.queuedsender;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Entry of the BigQueue used by {@link TestQueuedSenderImpl}. The id and enqueue time of the test
+ * data are framed ahead of its serialized form, so that the queue can be drained to {@link
+ * com.flipkart.gojira.sinkstore.handlers.SinkHandler} without deserializing it.
+ *
+ * <p>The frame is the magic, enqueue time in millis, id length, id in UTF-8 and the serialized
+ * test data. Entries without the magic were enqueued by earlier versions and hold only the
+ * serialized test data.
+ */
+final class QueuedMessage {
+
+  private static final int MAGIC = 0x474A5131;
+  private static final int HEADER_BYTES = Integer.BYTES + Long.BYTES + Integer.BYTES;
+
+  private final String id;
+  private final long enqueuedAt;
+  private final byte[] testData;
+
+  QueuedMessage(String id, long enqueuedAt, byte[] testData) {
+    this.id = id;
+    this.enqueuedAt = enqueuedAt;
+    this.testData = testData;
+  }
+
+  String getId() {
+    return id;
+  }
+
+  /**
+   * Returns the time in millis at which the entry was enqueued, or -1 if it is not known.
+   */
+  long getEnqueuedAt() {
+    return enqueuedAt;
+  }
+
+  byte[] getTestData() {
+    return testData;
+  }
+
+  static byte[] encode(String id, long enqueuedAt, byte[] testData) {
+    byte[] idBytes = id.getBytes(StandardCharsets.UTF_8);
+    return ByteBuffer.allocate(HEADER_BYTES + idBytes.length + testData.length)
+        .putInt(MAGIC)
+        .putLong(enqueuedAt)
+        .putInt(idBytes.length)
+        .put(idBytes)
+        .put(testData)
+        .array();
+  }
+
+  /**
+   * Decodes an entry framed by {@link #encode(String, long, byte[])}.
+   *
+   * @return decoded entry, or null if the entry was not framed
+   */
+  static QueuedMessage decode(byte[] entry) {
+    if (entry.length < HEADER_BYTES) {
+      return null;
+    }
+    ByteBuffer buffer = ByteBuffer.wrap(entry);
+    if (buffer.getInt() != MAGIC) {
+      return null;
+    }
+    long enqueuedAt = buffer.getLong();
+    int idLength = buffer.getInt();
+    if (idLength < 0 || idLength > buffer.remaining()) {
+      return null;
+    }
+    String id = new String(entry, HEADER_BYTES, idLength, StandardCharsets.UTF_8);
+    byte[] testData = Arrays.copyOfRange(entry, HEADER_BYTES + idLength, entry.length);
+    return new QueuedMessage(id, enqueuedAt, testData);
+  }
+}
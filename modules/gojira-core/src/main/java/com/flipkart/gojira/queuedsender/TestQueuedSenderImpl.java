@@ -31,15 +31,31 @@ import java.nio.file.Paths;
 import java.nio.file.attribute.FileAttribute;
 import java.nio.file.attribute.PosixFilePermission;
 import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Implementation for {@link TestQueuedSender}.
+ *
+ * <p>Test data is enqueued along with its id, see {@link QueuedMessage}. The queue is drained in
+ * batches of {@link com.flipkart.gojira.queuedsender.config.TestQueuedSenderConfig
+ * #getDrainBatchSize()} records, which are written by {@link SinkHandler#writeBatch(Map)} on a
+ * pool of {@link
+ * com.flipkart.gojira.queuedsender.config.TestQueuedSenderConfig#getSinkWriterThreads()} threads.
+ * At most one batch per writer is dequeued ahead of being written.
  */
 public class TestQueuedSenderImpl extends TestQueuedSender {
 
@@ -47,6 +63,13 @@ public class TestQueuedSenderImpl extends TestQueuedSender {
       LoggerFactory.getLogger(TestQueuedSenderImpl.class.getSimpleName());
   private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2);
   private IBigQueue messageQueue;
+  private ExecutorService sinkWriters;
+  private Semaphore sinkWriterPermits;
+
+  private final AtomicLong writtenRecordCount = new AtomicLong();
+  private final AtomicLong writtenByteCount = new AtomicLong();
+  private final AtomicLong failedRecordCount = new AtomicLong();
+  private volatile long queueLagInMillis = 0L;
 
   @Override
   public void setup() throws Exception {
@@ -55,7 +78,19 @@ public class TestQueuedSenderImpl extends TestQueuedSender {
     Files.createDirectories(Paths.get(testQueuedSenderConfig.getPath()), attr);
     this.messageQueue = new BigQueueImpl(testQueuedSenderConfig.getPath(), "gojira-messages");
 
-    MessageSenderThread messageSenderThread = new MessageSenderThread(messageQueue);
+    AtomicInteger threadCount = new AtomicInteger();
+    this.sinkWriters =
+        Executors.newFixedThreadPool(
+            testQueuedSenderConfig.getSinkWriterThreads(),
+            runnable -> {
+              Thread thread =
+                  new Thread(runnable, "gojira-sink-writer-" + threadCount.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+    this.sinkWriterPermits = new Semaphore(testQueuedSenderConfig.getSinkWriterThreads());
+
+    MessageSenderThread messageSenderThread = new MessageSenderThread();
     scheduler.scheduleWithFixedDelay(
         messageSenderThread, 10, testQueuedSenderConfig.getQueuePurgeInterval(), TimeUnit.SECONDS);
     scheduler.scheduleAtFixedRate(
@@ -65,11 +100,24 @@ public class TestQueuedSenderImpl extends TestQueuedSender {
         TimeUnit.SECONDS);
   }
 
+  /**
+   * Waits for the queue to be drained and for the batches dequeued from it to be written before
+   * shutting down.
+   *
+   * @throws Exception if interrupted while waiting.
+   */
   @Override
   public void shutdown() throws Exception {
     while (!messageQueue.isEmpty()) {
       Thread.sleep(1000);
     }
+    this.scheduler.shutdown();
+    this.scheduler.awaitTermination(1, TimeUnit.MINUTES);
+    int sinkWriterThreads = testQueuedSenderConfig.getSinkWriterThreads();
+    if (!this.sinkWriterPermits.tryAcquire(sinkWriterThreads, 1, TimeUnit.MINUTES)) {
+      LOGGER.error("Timed out waiting for batches to be written to DataStore.");
+    }
+    this.sinkWriters.shutdownNow();
     this.scheduler.shutdownNow();
   }
 
@@ -79,10 +127,13 @@ public class TestQueuedSenderImpl extends TestQueuedSender {
     if (messageQueue.size() < testQueuedSenderConfig.getQueueSize()) {
       LOGGER.trace("TestData with id: " + testData.getId() + " enqueued.");
       messageQueue.enqueue(
-          GuiceInjector.getInjector()
-              .getInstance(SerdeHandlerRepository.class)
-              .getTestDataSerdeHandler()
-              .serialize(testData));
+          QueuedMessage.encode(
+              testData.getId(),
+              System.currentTimeMillis(),
+              GuiceInjector.getInjector()
+                  .getInstance(SerdeHandlerRepository.class)
+                  .getTestDataSerdeHandler()
+                  .serialize(testData)));
     } else {
       LOGGER.error(
           "messageQueue size greater than "
@@ -92,36 +143,174 @@ public class TestQueuedSenderImpl extends TestQueuedSender {
     }
   }
 
-  private static final class MessageSenderThread implements Runnable {
+  public long getWrittenRecordCount() {
+    return writtenRecordCount.get();
+  }
 
-    private IBigQueue messageQueue;
+  public long getWrittenByteCount() {
+    return writtenByteCount.get();
+  }
 
-    public MessageSenderThread(IBigQueue messageQueue) {
-      this.messageQueue = messageQueue;
-    }
+  /**
+   * Returns the number of records which were dequeued but could not be decoded or written.
+   *
+   * @return failed record count
+   */
+  public long getFailedRecordCount() {
+    return failedRecordCount.get();
+  }
+
+  /**
+   * Returns the time the most recently drained record spent in the queue.
+   *
+   * @return lag in millis
+   */
+  public long getQueueLagInMillis() {
+    return queueLagInMillis;
+  }
+
+  public long getQueueSize() {
+    return messageQueue.size();
+  }
+
+  private final class MessageSenderThread implements Runnable {
 
     @Override
     public void run() {
       try {
+        long startTime = System.nanoTime();
+        long drainedRecords = 0;
+        long drainedBytes = 0;
+        SinkHandler sinkHandler = GuiceInjector.getInjector().getInstance(SinkHandler.class);
         while (!messageQueue.isEmpty()) {
           LOGGER.debug("There are messages in the hyperion message queue. Sender invoked.");
-          byte[] data = messageQueue.dequeue();
-          if (null == data) {
+          List<QueuedMessage> batch = dequeueBatch();
+          if (batch.isEmpty()) {
             break;
           }
-          TestData<TestRequestData<TestDataType>, TestResponseData<TestDataType>, TestDataType>
-              testData =
-                  GuiceInjector.getInjector()
-                      .getInstance(SerdeHandlerRepository.class)
-                      .getTestDataSerdeHandler()
-                      .deserialize(data, TestData.class);
-          LOGGER.debug("TestData with id: " + testData.getId() + " send for DataStore write.");
-          GuiceInjector.getInjector().getInstance(SinkHandler.class).write(testData.getId(), data);
+          for (QueuedMessage queuedMessage : batch) {
+            drainedBytes += queuedMessage.getTestData().length;
+          }
+          drainedRecords += batch.size();
+          dispatch(sinkHandler, batch);
         }
+        if (drainedRecords > 0) {
+          double seconds = Math.max(System.nanoTime() - startTime, 1L) / 1e9;
+          LOGGER.debug(
+              String.format(
+                  "Drained %d records, %d bytes at %.1f records/s, %.1f bytes/s. Lag: %d ms",
+                  drainedRecords,
+                  drainedBytes,
+                  drainedRecords / seconds,
+                  drainedBytes / seconds,
+                  queueLagInMillis));
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
       } catch (Exception e) {
         LOGGER.error("Could not send message: " + e.getMessage());
       }
     }
+
+    private List<QueuedMessage> dequeueBatch() throws IOException {
+      int drainBatchSize = testQueuedSenderConfig.getDrainBatchSize();
+      List<QueuedMessage> batch = new ArrayList<>(drainBatchSize);
+      while (batch.size() < drainBatchSize) {
+        byte[] data = messageQueue.dequeue();
+        if (null == data) {
+          break;
+        }
+        QueuedMessage queuedMessage = decode(data);
+        if (queuedMessage != null) {
+          batch.add(queuedMessage);
+        }
+      }
+      return batch;
+    }
+
+    /**
+     * Reads the id framed with the test data. Entries enqueued by earlier versions are
+     * deserialized to read it.
+     */
+    private QueuedMessage decode(byte[] data) {
+      QueuedMessage queuedMessage = QueuedMessage.decode(data);
+      if (queuedMessage != null) {
+        if (queuedMessage.getEnqueuedAt() >= 0) {
+          queueLagInMillis = System.currentTimeMillis() - queuedMessage.getEnqueuedAt();
+        }
+        return queuedMessage;
+      }
+      try {
+        TestData<TestRequestData<TestDataType>, TestResponseData<TestDataType>, TestDataType>
+            testData =
+                GuiceInjector.getInjector()
+                    .getInstance(SerdeHandlerRepository.class)
+                    .getTestDataSerdeHandler()
+                    .deserialize(data, TestData.class);
+        return new QueuedMessage(testData.getId(), -1L, data);
+      } catch (Exception e) {
+        failedRecordCount.incrementAndGet();
+        LOGGER.error("Could not read TestData id from message: " + e.getMessage());
+        return null;
+      }
+    }
+
+    /**
+     * Hands the batch to a sink writer, waiting for one to be free.
+     */
+    private void dispatch(SinkHandler sinkHandler, List<QueuedMessage> batch)
+        throws InterruptedException {
+      sinkWriterPermits.acquire();
+      try {
+        sinkWriters.execute(
+            () -> {
+              try {
+                write(sinkHandler, batch);
+              } finally {
+                sinkWriterPermits.release();
+              }
+            });
+      } catch (RejectedExecutionException e) {
+        sinkWriterPermits.release();
+        throw e;
+      }
+    }
+
+    /**
+     * Writes the batch by calling {@link SinkHandler#writeBatch(Map)}. If that fails, falls back
+     * to writing record by record so that one bad record does not fail the rest.
+     */
+    private void write(SinkHandler sinkHandler, List<QueuedMessage> batch) {
+      Map<String, byte[]> testData = new LinkedHashMap<>();
+      long bytes = 0;
+      for (QueuedMessage queuedMessage : batch) {
+        testData.put(queuedMessage.getId(), queuedMessage.getTestData());
+        bytes += queuedMessage.getTestData().length;
+      }
+      try {
+        LOGGER.debug("Batch of " + testData.size() + " TestData send for DataStore write.");
+        sinkHandler.writeBatch(testData);
+        writtenRecordCount.addAndGet(testData.size());
+        writtenByteCount.addAndGet(bytes);
+        return;
+      } catch (Exception e) {
+        LOGGER.warn("Could not write batch to DataStore, writing records one by one.", e);
+      }
+      for (Map.Entry<String, byte[]> entry : testData.entrySet()) {
+        try {
+          sinkHandler.write(entry.getKey(), entry.getValue());
+          writtenRecordCount.incrementAndGet();
+          writtenByteCount.addAndGet(entry.getValue().length);
+        } catch (Exception e) {
+          failedRecordCount.incrementAndGet();
+          LOGGER.error(
+              "Could not write TestData with id: "
+                  + entry.getKey()
+                  + " to DataStore: "
+                  + e.getMessage());
+        }
+      }
+    }
   }
 
   private static final class TestQueueCleaner implements Runnable {
@@ -43,6 +43,17 @@ public class TestQueuedSenderConfig {
    */
   private int queuePurgeInterval = 30;
 
+  /**
+   * Maximum number of records dequeued from BigQueue and handed to a sink writer at a time.
+   */
+  private int drainBatchSize = 100;
+
+  /**
+   * Number of threads writing batches to {@link
+   * com.flipkart.gojira.sinkstore.handlers.SinkHandler} in parallel.
+   */
+  private int sinkWriterThreads = 2;
+
   private TestQueuedSenderConfig() {}
 
   public static Builder builder() {
@@ -61,6 +72,14 @@ public class TestQueuedSenderConfig {
     return queuePurgeInterval;
   }
 
+  public int getDrainBatchSize() {
+    return drainBatchSize;
+  }
+
+  public int getSinkWriterThreads() {
+    return sinkWriterThreads;
+  }
+
   public static class Builder {
 
     private TestQueuedSenderConfig testQueuedSenderConfigToBuild;
@@ -87,5 +106,33 @@ public class TestQueuedSenderConfig {
       this.testQueuedSenderConfigToBuild.queuePurgeInterval = queuePurgeInterval;
       return this;
     }
+
+    /**
+     * Sets the number of records handed to a sink writer at a time.
+     *
+     * @param drainBatchSize must be greater than 0
+     * @return builder
+     */
+    public Builder setDrainBatchSize(int drainBatchSize) {
+      if (drainBatchSize <= 0) {
+        throw new IllegalArgumentException("drainBatchSize must be greater than 0.");
+      }
+      this.testQueuedSenderConfigToBuild.drainBatchSize = drainBatchSize;
+      return this;
+    }
+
+    /**
+     * Sets the number of threads writing to the sink in parallel.
+     *
+     * @param sinkWriterThreads must be greater than 0
+     * @return builder
+     */
+    public Builder setSinkWriterThreads(int sinkWriterThreads) {
+      if (sinkWriterThreads <= 0) {
+        throw new IllegalArgumentException("sinkWriterThreads must be greater than 0.");
+      }
+      this.testQueuedSenderConfigToBuild.sinkWriterThreads = sinkWriterThreads;
+      return this;
+    }
   }
 }
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2020 Flipkart Internet, pvt ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.flipkart.gojira.serde.config;
+
+/**
+ * Codecs with which serialized test data can be compressed, see {@link CompressionConfig}.
+ */
+public enum CompressionCodec {
+  /**
+   * Test data is stored as serialized.
+   */
+  NONE((byte) 0),
+  /**
+   * {@link java.util.zip.Deflater}, pure Java. Supports a preset dictionary.
+   */
+  DEFLATE((byte) 1),
+  /**
+   * LZ4 block compression, faster than {@link #DEFLATE} at a lower ratio.
+   */
+  LZ4((byte) 2);
+
+  private final byte id;
+
+  CompressionCodec(byte id) {
+    this.id = id;
+  }
+
+  /**
+   * Returns the id with which records compressed by the codec are tagged.
+   *
+   * @return id
+   */
+  public byte getId() {
+    return id;
+  }
+
+  /**
+   * Returns the codec tagged with the id.
+   *
+   * @param id id of a codec
+   * @return codec, or null if no codec has the id
+   */
+  public static CompressionCodec fromId(byte id) {
+    for (CompressionCodec codec : values()) {
+      if (codec.id == id) {
+        return codec;
+      }
+    }
+    return null;
+  }
+}
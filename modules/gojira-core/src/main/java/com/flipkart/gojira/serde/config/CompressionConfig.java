@@ -0,0 +1,148 @@
+/*
+ * Copyright 2020 Flipkart Internet, pvt ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.flipkart.gojira.serde.config;
+
+import java.util.zip.Deflater;
+
+/**
+ * CompressionConfig holds the configuration for compressing serialized test data before it is
+ * queued and stored. Records are decompressed when read, whichever codec they were compressed with.
+ */
+public class CompressionConfig {
+
+  private CompressionCodec codec = CompressionCodec.LZ4;
+
+  /**
+   * Compression level. For {@link CompressionCodec#DEFLATE} from 0 to 9, for {@link
+   * CompressionCodec#LZ4} from 1 to 17, in which case the slower high compression mode is used. -1
+   * uses the default of the codec.
+   */
+  private int level = -1;
+
+  /**
+   * Preset dictionary for {@link CompressionCodec#DEFLATE}, like a typical serialized record. It
+   * improves the ratio for small and repetitive records, and is needed to read records compressed
+   * with it.
+   */
+  private byte[] dictionary = null;
+
+  /**
+   * Records smaller than this are stored uncompressed.
+   */
+  private int minCompressBytes = 512;
+
+  private CompressionConfig() {}
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  public CompressionCodec getCodec() {
+    return codec;
+  }
+
+  public int getLevel() {
+    return level;
+  }
+
+  public byte[] getDictionary() {
+    return dictionary;
+  }
+
+  public int getMinCompressBytes() {
+    return minCompressBytes;
+  }
+
+  public static class Builder {
+
+    private CompressionConfig compressionConfigToBuild;
+
+    private Builder() {
+      this.compressionConfigToBuild = new CompressionConfig();
+    }
+
+    /**
+     * Builds the config after validating the level and dictionary against the codec.
+     *
+     * @return config
+     */
+    public CompressionConfig build() {
+      CompressionCodec codec = this.compressionConfigToBuild.codec;
+      int level = this.compressionConfigToBuild.level;
+      if (CompressionCodec.DEFLATE.equals(codec)
+          && level != -1
+          && (level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION)) {
+        throw new IllegalArgumentException("level must be -1 or from 0 to 9 for DEFLATE.");
+      }
+      if (CompressionCodec.LZ4.equals(codec) && level != -1 && (level < 1 || level > 17)) {
+        throw new IllegalArgumentException("level must be -1 or from 1 to 17 for LZ4.");
+      }
+      if (this.compressionConfigToBuild.dictionary != null
+          && !CompressionCodec.DEFLATE.equals(codec)) {
+        throw new IllegalArgumentException("dictionary is only supported by DEFLATE.");
+      }
+      return this.compressionConfigToBuild;
+    }
+
+    /**
+     * Sets the codec with which records are compressed.
+     *
+     * @param codec cannot be null
+     * @return builder
+     */
+    public Builder setCodec(CompressionCodec codec) {
+      if (codec == null) {
+        throw new IllegalArgumentException("codec cannot be null.");
+      }
+      this.compressionConfigToBuild.codec = codec;
+      return this;
+    }
+
+    public Builder setLevel(int level) {
+      this.compressionConfigToBuild.level = level;
+      return this;
+    }
+
+    /**
+     * Sets the preset dictionary for {@link CompressionCodec#DEFLATE}.
+     *
+     * @param dictionary cannot be empty
+     * @return builder
+     */
+    public Builder setDictionary(byte[] dictionary) {
+      if (dictionary != null && dictionary.length == 0) {
+        throw new IllegalArgumentException("dictionary cannot be empty.");
+      }
+      this.compressionConfigToBuild.dictionary = dictionary;
+      return this;
+    }
+
+    /**
+     * Sets the size below which records are stored uncompressed.
+     *
+     * @param minCompressBytes cannot be negative
+     * @return builder
+     */
+    public Builder setMinCompressBytes(int minCompressBytes) {
+      if (minCompressBytes < 0) {
+        throw new IllegalArgumentException("minCompressBytes cannot be negative.");
+      }
+      this.compressionConfigToBuild.minCompressBytes = minCompressBytes;
+      return this;
+    }
+  }
+}
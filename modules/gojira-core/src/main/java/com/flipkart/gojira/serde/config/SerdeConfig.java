@@ -20,6 +20,8 @@ import com.flipkart.gojira.models.TestData;
 import com.flipkart.gojira.models.TestRequestData;
 import com.flipkart.gojira.models.TestResponseData;
 import com.flipkart.gojira.serde.handlers.TestSerdeHandler;
+import com.flipkart.gojira.serde.handlers.binary.BinaryTestDataSerdeHandler;
+import com.flipkart.gojira.serde.handlers.compression.CompressingTestSerdeHandler;
 import com.flipkart.gojira.serde.handlers.json.JsonDefaultTestSerdeHandler;
 
 /**
@@ -47,6 +49,12 @@ public class SerdeConfig {
    */
   private TestSerdeHandler testDataSerdeHandler = new JsonDefaultTestSerdeHandler();
 
+  /**
+   * Compression applied to serialized {@link TestData} before it is queued and stored. Test data is
+   * not compressed unless this is set.
+   */
+  private CompressionConfig testDataCompressionConfig = null;
+
   private SerdeConfig() {}
 
   public static Builder builder() {
@@ -65,6 +73,10 @@ public class SerdeConfig {
     return testDataSerdeHandler;
   }
 
+  public CompressionConfig getTestDataCompressionConfig() {
+    return testDataCompressionConfig;
+  }
+
   public static class Builder {
 
     private SerdeConfig serdeConfigToBuild;
@@ -73,7 +85,21 @@ public class SerdeConfig {
       this.serdeConfigToBuild = new SerdeConfig();
     }
 
+    /**
+     * Builds the config, wrapping the {@link TestData} handler in a {@link
+     * CompressingTestSerdeHandler} if compression is configured.
+     *
+     * @return config
+     */
     public SerdeConfig build() {
+      CompressionConfig compressionConfig = this.serdeConfigToBuild.testDataCompressionConfig;
+      TestSerdeHandler testDataSerdeHandler = this.serdeConfigToBuild.testDataSerdeHandler;
+      if (compressionConfig != null
+          && !CompressionCodec.NONE.equals(compressionConfig.getCodec())
+          && !(testDataSerdeHandler instanceof CompressingTestSerdeHandler)) {
+        this.serdeConfigToBuild.testDataSerdeHandler =
+            new CompressingTestSerdeHandler(testDataSerdeHandler, compressionConfig);
+      }
       return this.serdeConfigToBuild;
     }
 
@@ -93,5 +119,31 @@ public class SerdeConfig {
       this.serdeConfigToBuild.testDataSerdeHandler = testSerdeHandler;
       return this;
     }
+
+    /**
+     * Sets the format in which {@link TestData} is queued and stored, {@link TestDataFormat#JSON}
+     * by default.
+     */
+    public Builder setTestDataFormat(TestDataFormat testDataFormat) {
+      if (testDataFormat == null) {
+        throw new IllegalArgumentException("testDataFormat cannot be null.");
+      }
+      switch (testDataFormat) {
+        case BINARY:
+          return setTestDataSerdeHandler(new BinaryTestDataSerdeHandler());
+        case JSON:
+        default:
+          return setTestDataSerdeHandler(new JsonDefaultTestSerdeHandler());
+      }
+    }
+
+    /**
+     * Sets the compression applied to serialized {@link TestData}. Records stored uncompressed, or
+     * with another codec, can still be read.
+     */
+    public Builder setTestDataCompression(CompressionConfig compressionConfig) {
+      this.serdeConfigToBuild.testDataCompressionConfig = compressionConfig;
+      return this;
+    }
   }
 }
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2020 Flipkart Internet, pvt ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.flipkart.gojira.serde.config;
+
+import com.flipkart.gojira.models.TestData;
+
+/**
+ * Formats in which {@link TestData} is queued and stored.
+ */
+public enum TestDataFormat {
+  /**
+   * JSON, as written by {@link
+   * com.flipkart.gojira.serde.handlers.json.JsonDefaultTestSerdeHandler}.
+   */
+  JSON,
+  /**
+   * Length-prefixed binary, as written by {@link
+   * com.flipkart.gojira.serde.handlers.binary.BinaryTestDataSerdeHandler}. Recordings stored as
+   * JSON can still be read.
+   */
+  BINARY
+}
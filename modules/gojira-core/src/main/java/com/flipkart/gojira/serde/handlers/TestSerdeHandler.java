@@ -17,6 +17,7 @@
 package com.flipkart.gojira.serde.handlers;
 
 import com.flipkart.gojira.serde.TestSerdeException;
+import java.nio.ByteBuffer;
 
 /**
  * Interface for defining serialization and deserialization handlers.
@@ -44,6 +45,28 @@ public interface TestSerdeHandler {
    */
   <T> T deserialize(byte[] bytes, Class<T> clazz) throws TestSerdeException;
 
+  /**
+   * This method will be used to deserialize the remaining bytes of a buffer to Java Object of given
+   * class type. Copies the bytes unless the buffer wraps exactly a byte[], implementations which
+   * can read the buffer directly should override this.
+   *
+   * @param buffer buffer positioned at the serialized bytes, its position is not changed
+   * @param clazz class to de-serialize
+   * @return de-serialized object
+   * @throws TestSerdeException if de-serialization fails
+   */
+  default <T> T deserialize(ByteBuffer buffer, Class<T> clazz) throws TestSerdeException {
+    if (buffer.hasArray()
+        && buffer.arrayOffset() == 0
+        && buffer.position() == 0
+        && buffer.remaining() == buffer.array().length) {
+      return deserialize(buffer.array(), clazz);
+    }
+    byte[] bytes = new byte[buffer.remaining()];
+    buffer.duplicate().get(bytes);
+    return deserialize(bytes, clazz);
+  }
+
   /**
    * This method will be used to deserialize byte[] to Java Object of given TypeParameter.
    *
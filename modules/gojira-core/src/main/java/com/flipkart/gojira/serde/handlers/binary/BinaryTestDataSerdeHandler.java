@@ -0,0 +1,78 @@
+/*
+ * Copyright 2020 Flipkart Internet, pvt ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.flipkart.gojira.serde.handlers.binary;
+
+import com.flipkart.gojira.models.TestData;
+import com.flipkart.gojira.serde.TestSerdeException;
+import com.flipkart.gojira.serde.handlers.TestSerdeHandler;
+import com.flipkart.gojira.serde.handlers.TypeParameter;
+import com.flipkart.gojira.serde.handlers.json.JsonDefaultTestSerdeHandler;
+import java.nio.ByteBuffer;
+
+/**
+ * Implementation of {@link TestSerdeHandler} which serializes {@link TestData} in a compact binary
+ * format, keeping method data and payloads as raw bytes instead of base64 encoded JSON strings.
+ *
+ * <p>Any other object, and any {@link TestData} which was not written in the binary format, like
+ * recordings stored as JSON before the format was switched, is handled by the fallback handler.
+ */
+public class BinaryTestDataSerdeHandler implements TestSerdeHandler {
+
+  private final TestSerdeHandler fallbackSerdeHandler;
+  private final TestDataCodec codec;
+
+  public BinaryTestDataSerdeHandler() {
+    this(new JsonDefaultTestSerdeHandler());
+  }
+
+  public BinaryTestDataSerdeHandler(TestSerdeHandler fallbackSerdeHandler) {
+    this.fallbackSerdeHandler = fallbackSerdeHandler;
+    this.codec = new TestDataCodec(fallbackSerdeHandler);
+  }
+
+  @Override
+  public <T> byte[] serialize(T obj) throws TestSerdeException {
+    if (obj instanceof TestData) {
+      return codec.encode((TestData<?, ?, ?>) obj);
+    }
+    return fallbackSerdeHandler.serialize(obj);
+  }
+
+  @Override
+  public <T> T deserialize(byte[] bytes, Class<T> clazz) throws TestSerdeException {
+    return deserialize(ByteBuffer.wrap(bytes), clazz);
+  }
+
+  @Override
+  public <T> T deserialize(ByteBuffer buffer, Class<T> clazz) throws TestSerdeException {
+    if (TestData.class.equals(clazz) && TestDataCodec.isEncoded(buffer)) {
+      return clazz.cast(codec.decode(buffer));
+    }
+    return fallbackSerdeHandler.deserialize(buffer, clazz);
+  }
+
+  @Override
+  public <T> T deserialize(byte[] bytes, TypeParameter<T> typeParameter)
+      throws TestSerdeException {
+    return fallbackSerdeHandler.deserialize(bytes, typeParameter);
+  }
+
+  @Override
+  public <T> void deserializeToInstance(byte[] bytes, T obj) throws TestSerdeException {
+    fallbackSerdeHandler.deserializeToInstance(bytes, obj);
+  }
+}
@@ -0,0 +1,535 @@
+/*
+ * Copyright 2020 Flipkart Internet, pvt ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.flipkart.gojira.serde.handlers.binary;
+
+import com.flipkart.gojira.models.EncodedMethodData;
+import com.flipkart.gojira.models.MethodData;
+import com.flipkart.gojira.models.MethodDataType;
+import com.flipkart.gojira.models.TestData;
+import com.flipkart.gojira.models.TestRequestData;
+import com.flipkart.gojira.models.TestResponseData;
+import com.flipkart.gojira.models.http.HttpTestRequestData;
+import com.flipkart.gojira.models.http.HttpTestResponseData;
+import com.flipkart.gojira.models.kafka.KafkaTestRequestData;
+import com.flipkart.gojira.models.kafka.KafkaTestResponseData;
+import com.flipkart.gojira.models.rmq.RmqTestResponseData;
+import com.flipkart.gojira.serde.TestSerdeException;
+import com.flipkart.gojira.serde.handlers.TestSerdeHandler;
+import java.nio.Buffer;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Length-prefixed binary encoding of {@link TestData}.
+ *
+ * <p>A record starts with {@link #MAGIC} followed by the format version, then the id, the request
+ * data, the response data and the method data map. Request and response data are led by a tag
+ * naming their type; http and kafka data, and rmq responses, are encoded field by field, other
+ * types are embedded as encoded by the fallback handler. The method data map is encoded as nested
+ * counts and entries, with the data of every {@link MethodData} kept as raw bytes. The entries of
+ * each method are prefixed with their length, so that they can be decoded on demand during replay.
+ *
+ * <p>Integers are big-endian. Strings are written as the length of their UTF-8 bytes followed by
+ * the bytes, byte arrays as their length followed by the bytes; a length of -1 stands for null.
+ */
+final class TestDataCodec {
+
+  /**
+   * Leading bytes of a binary record, "GJT". A JSON record can not start with them.
+   */
+  static final byte[] MAGIC = {0x47, 0x4A, 0x54};
+
+  private static final byte VERSION = 2;
+
+  /**
+   * Version without the length of the entries of each method, which are then decoded in full.
+   */
+  private static final byte VERSION_EAGER = 1;
+
+  private static final byte TAG_NULL = 0;
+  private static final byte TAG_HTTP = 1;
+  private static final byte TAG_KAFKA = 2;
+  private static final byte TAG_RMQ = 3;
+  private static final byte TAG_FALLBACK = 127;
+
+  /**
+   * Codes of {@link MethodDataType} by position, fixed for the format version.
+   */
+  private static final MethodDataType[] METHOD_DATA_TYPES = {
+    MethodDataType.ARGUMENT_BEFORE,
+    MethodDataType.RETURN,
+    MethodDataType.EXCEPTION,
+    MethodDataType.ARGUMENT_AFTER
+  };
+
+  private static final Map<MethodDataType, Byte> METHOD_DATA_TYPE_CODES =
+      new EnumMap<>(MethodDataType.class);
+
+  static {
+    for (byte code = 0; code < METHOD_DATA_TYPES.length; code++) {
+      METHOD_DATA_TYPE_CODES.put(METHOD_DATA_TYPES[code], code);
+    }
+  }
+
+  private final TestSerdeHandler fallbackSerdeHandler;
+
+  TestDataCodec(TestSerdeHandler fallbackSerdeHandler) {
+    this.fallbackSerdeHandler = fallbackSerdeHandler;
+  }
+
+  static boolean isEncoded(ByteBuffer buffer) {
+    if (buffer.remaining() < MAGIC.length) {
+      return false;
+    }
+    for (int i = 0; i < MAGIC.length; i++) {
+      if (buffer.get(buffer.position() + i) != MAGIC[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  byte[] encode(TestData<?, ?, ?> testData) throws TestSerdeException {
+    Output output = new Output(estimateBytes(testData));
+    for (byte magic : MAGIC) {
+      output.writeByte(magic);
+    }
+    output.writeByte(VERSION);
+    output.writeString(testData.getId());
+    writeRequestData(output, testData.getRequestData());
+    writeResponseData(output, testData.getResponseData());
+
+    Map<String, ConcurrentSkipListMap<Long, ConcurrentHashMap<MethodDataType, List<MethodData>>>>
+        methodDataMap = testData.getMethodDataMap();
+    output.writeInt(methodDataMap.size());
+    for (Map.Entry<
+            String,
+            ConcurrentSkipListMap<Long, ConcurrentHashMap<MethodDataType, List<MethodData>>>>
+        method : methodDataMap.entrySet()) {
+      output.writeString(method.getKey());
+      int lengthOffset = output.reserveInt();
+      output.writeInt(method.getValue().size());
+      for (Map.Entry<Long, ConcurrentHashMap<MethodDataType, List<MethodData>>> entry :
+          method.getValue().entrySet()) {
+        output.writeLong(entry.getKey());
+        output.writeInt(entry.getValue().size());
+        for (Map.Entry<MethodDataType, List<MethodData>> methodData :
+            entry.getValue().entrySet()) {
+          output.writeByte(METHOD_DATA_TYPE_CODES.get(methodData.getKey()));
+          output.writeInt(methodData.getValue().size());
+          for (MethodData data : methodData.getValue()) {
+            output.writeByte(METHOD_DATA_TYPE_CODES.get(data.getDataType()));
+            output.writeString(data.getClassName());
+            output.writeBytes(data.getData());
+            output.writeInt(data.getPosition());
+          }
+        }
+      }
+      output.writeLength(lengthOffset);
+    }
+    return output.toByteArray();
+  }
+
+  /**
+   * Decodes the id, request and response data. Entries of each method are kept encoded in the
+   * returned {@link TestData} until they are asked for, except in records of version 1, which are
+   * decoded in full.
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  TestData decode(ByteBuffer buffer) throws TestSerdeException {
+    ByteBuffer input = buffer.duplicate();
+    try {
+      if (!isEncoded(input)) {
+        throw new TestSerdeException("not a binary encoded test data record.");
+      }
+      if (!input.hasArray()) {
+        // entries are decoded after the buffer may have been released, like an unmapped segment.
+        ByteBuffer copy = ByteBuffer.allocate(input.remaining());
+        copy.put(input);
+        input = copy;
+        ((Buffer) input).flip();
+      }
+      skip(input, MAGIC.length);
+      byte version = input.get();
+      if (version != VERSION && version != VERSION_EAGER) {
+        throw new TestSerdeException("unknown binary test data version: " + version);
+      }
+      TestData testData = new TestData();
+      testData.setId(readString(input));
+      testData.setRequestData(readRequestData(input));
+      testData.setResponseData(readResponseData(input));
+
+      int methodCount = input.getInt();
+      testData.setMethodDataMap(new ConcurrentHashMap<>(capacity(methodCount)));
+      for (int i = 0; i < methodCount; i++) {
+        String method = readString(input);
+        if (version == VERSION_EAGER) {
+          testData.getMethodDataMap().put(method, decodeEntries(input));
+          continue;
+        }
+        int length = input.getInt();
+        if (length < Integer.BYTES || length > input.remaining()) {
+          throw new TestSerdeException("corrupt length of method entries: " + length);
+        }
+        ByteBuffer entries = input.slice();
+        ((Buffer) entries).limit(length);
+        skip(input, length);
+        testData.putEncodedMethodData(
+            method,
+            new EncodedMethodData(entries, entries.getInt(0), TestDataCodec::decodeEntries));
+      }
+      return testData;
+    } catch (BufferUnderflowException | IllegalArgumentException e) {
+      throw new TestSerdeException("truncated or corrupt binary test data.", e);
+    }
+  }
+
+  /**
+   * Decodes the entries of a method.
+   */
+  private static ConcurrentSkipListMap<Long, ConcurrentHashMap<MethodDataType, List<MethodData>>>
+      decodeEntries(ByteBuffer input) throws TestSerdeException {
+    try {
+      int entryCount = input.getInt();
+      ConcurrentSkipListMap<Long, ConcurrentHashMap<MethodDataType, List<MethodData>>> entries =
+          new ConcurrentSkipListMap<>();
+      for (int j = 0; j < entryCount; j++) {
+        long key = input.getLong();
+        int typeCount = input.getInt();
+        ConcurrentHashMap<MethodDataType, List<MethodData>> entry =
+            new ConcurrentHashMap<>(capacity(typeCount));
+        for (int k = 0; k < typeCount; k++) {
+          MethodDataType methodDataType = readMethodDataType(input);
+          int dataCount = input.getInt();
+          List<MethodData> dataList = new ArrayList<>(dataCount);
+          for (int l = 0; l < dataCount; l++) {
+            MethodDataType dataType = readMethodDataType(input);
+            dataList.add(
+                new MethodData(dataType, readString(input), readBytes(input), input.getInt()));
+          }
+          entry.put(methodDataType, dataList);
+        }
+        entries.put(key, entry);
+      }
+      return entries;
+    } catch (BufferUnderflowException | IllegalArgumentException e) {
+      throw new TestSerdeException("truncated or corrupt binary method data.", e);
+    }
+  }
+
+  private void writeRequestData(Output output, TestRequestData<?> requestData)
+      throws TestSerdeException {
+    if (requestData == null) {
+      output.writeByte(TAG_NULL);
+    } else if (requestData instanceof HttpTestRequestData) {
+      HttpTestRequestData httpRequestData = (HttpTestRequestData) requestData;
+      output.writeByte(TAG_HTTP);
+      output.writeBytes(httpRequestData.getBody());
+      writeStringMap(output, httpRequestData.getHeaders());
+      output.writeString(httpRequestData.getQueryParams());
+      output.writeString(httpRequestData.getUri());
+      output.writeString(httpRequestData.getMethod());
+    } else if (requestData instanceof KafkaTestRequestData) {
+      KafkaTestRequestData kafkaRequestData = (KafkaTestRequestData) requestData;
+      output.writeByte(TAG_KAFKA);
+      output.writeString(kafkaRequestData.getTopicName());
+      output.writeBytes(kafkaRequestData.getKey());
+      output.writeBytes(kafkaRequestData.getValue());
+      Map<String, byte[]> headers = kafkaRequestData.getHeaders();
+      output.writeInt(headers == null ? -1 : headers.size());
+      if (headers != null) {
+        for (Map.Entry<String, byte[]> header : headers.entrySet()) {
+          output.writeString(header.getKey());
+          output.writeBytes(header.getValue());
+        }
+      }
+    } else {
+      output.writeByte(TAG_FALLBACK);
+      output.writeBytes(fallbackSerdeHandler.serialize(requestData));
+    }
+  }
+
+  private TestRequestData<?> readRequestData(ByteBuffer input) throws TestSerdeException {
+    byte tag = input.get();
+    switch (tag) {
+      case TAG_NULL:
+        return null;
+      case TAG_HTTP:
+        return HttpTestRequestData.builder()
+            .setBody(readBytes(input))
+            .setHeaders(readStringMap(input))
+            .setQueryParams(readString(input))
+            .setUri(readString(input))
+            .setMethod(readString(input))
+            .build();
+      case TAG_KAFKA:
+        KafkaTestRequestData.Builder builder =
+            KafkaTestRequestData.builder()
+                .setTopicName(readString(input))
+                .setKey(readBytes(input))
+                .setValue(readBytes(input));
+        int headerCount = input.getInt();
+        if (headerCount >= 0) {
+          Map<String, byte[]> headers = new HashMap<>(capacity(headerCount));
+          for (int i = 0; i < headerCount; i++) {
+            headers.put(readString(input), readBytes(input));
+          }
+          builder.setHeaders(headers);
+        }
+        return builder.build();
+      case TAG_FALLBACK:
+        return fallbackSerdeHandler.deserialize(readBytes(input), TestRequestData.class);
+      default:
+        throw new TestSerdeException("unknown request data tag: " + tag);
+    }
+  }
+
+  private void writeResponseData(Output output, TestResponseData<?> responseData)
+      throws TestSerdeException {
+    if (responseData == null) {
+      output.writeByte(TAG_NULL);
+    } else if (responseData instanceof HttpTestResponseData) {
+      HttpTestResponseData httpResponseData = (HttpTestResponseData) responseData;
+      output.writeByte(TAG_HTTP);
+      output.writeInt(httpResponseData.getStatusCode());
+      writeStringMap(output, httpResponseData.getHeaders());
+      output.writeBytes(httpResponseData.getBody());
+    } else if (responseData instanceof KafkaTestResponseData) {
+      output.writeByte(TAG_KAFKA);
+      output.writeBytes(((KafkaTestResponseData) responseData).getRespondData());
+    } else if (responseData instanceof RmqTestResponseData) {
+      output.writeByte(TAG_RMQ);
+      output.writeBytes(((RmqTestResponseData) responseData).getRespondData());
+    } else {
+      output.writeByte(TAG_FALLBACK);
+      output.writeBytes(fallbackSerdeHandler.serialize(responseData));
+    }
+  }
+
+  private TestResponseData<?> readResponseData(ByteBuffer input) throws TestSerdeException {
+    byte tag = input.get();
+    switch (tag) {
+      case TAG_NULL:
+        return null;
+      case TAG_HTTP:
+        return HttpTestResponseData.builder()
+            .setStatusCode(input.getInt())
+            .setHeaders(readStringMap(input))
+            .setBody(readBytes(input))
+            .build();
+      case TAG_KAFKA:
+        return KafkaTestResponseData.builder().setRespondData(readBytes(input)).build();
+      case TAG_RMQ:
+        return RmqTestResponseData.builder().setRespondData(readBytes(input)).build();
+      case TAG_FALLBACK:
+        return fallbackSerdeHandler.deserialize(readBytes(input), TestResponseData.class);
+      default:
+        throw new TestSerdeException("unknown response data tag: " + tag);
+    }
+  }
+
+  private static void writeStringMap(Output output, Map<String, String> map) {
+    output.writeInt(map == null ? -1 : map.size());
+    if (map != null) {
+      for (Map.Entry<String, String> entry : map.entrySet()) {
+        output.writeString(entry.getKey());
+        output.writeString(entry.getValue());
+      }
+    }
+  }
+
+  private static Map<String, String> readStringMap(ByteBuffer input) {
+    int size = input.getInt();
+    if (size < 0) {
+      return null;
+    }
+    Map<String, String> map = new HashMap<>(capacity(size));
+    for (int i = 0; i < size; i++) {
+      map.put(readString(input), readString(input));
+    }
+    return map;
+  }
+
+  private static MethodDataType readMethodDataType(ByteBuffer input) throws TestSerdeException {
+    byte code = input.get();
+    if (code < 0 || code >= METHOD_DATA_TYPES.length) {
+      throw new TestSerdeException("unknown method data type code: " + code);
+    }
+    return METHOD_DATA_TYPES[code];
+  }
+
+  private static String readString(ByteBuffer input) {
+    int length = input.getInt();
+    if (length < 0) {
+      return null;
+    }
+    if (input.hasArray()) {
+      String value =
+          new String(
+              input.array(), input.arrayOffset() + input.position(), length,
+              StandardCharsets.UTF_8);
+      skip(input, length);
+      return value;
+    }
+    byte[] bytes = new byte[length];
+    input.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static byte[] readBytes(ByteBuffer input) {
+    int length = input.getInt();
+    if (length < 0) {
+      return null;
+    }
+    byte[] bytes = new byte[length];
+    input.get(bytes);
+    return bytes;
+  }
+
+  private static void skip(ByteBuffer input, int length) {
+    if (length > input.remaining()) {
+      throw new BufferUnderflowException();
+    }
+    // through Buffer, since ByteBuffer only overrides position from Java 9.
+    ((Buffer) input).position(input.position() + length);
+  }
+
+  private static int capacity(int size) {
+    if (size < 0) {
+      throw new IllegalArgumentException("negative count: " + size);
+    }
+    return Math.max(4, (int) (size / 0.75f) + 1);
+  }
+
+  /**
+   * Payload bytes of the test data plus a rough allowance for the framing and names.
+   */
+  private static int estimateBytes(TestData<?, ?, ?> testData) {
+    long bytes = 256;
+    if (testData.getRequestData() instanceof HttpTestRequestData) {
+      bytes += length(((HttpTestRequestData) testData.getRequestData()).getBody());
+    } else if (testData.getRequestData() instanceof KafkaTestRequestData) {
+      bytes += length(((KafkaTestRequestData) testData.getRequestData()).getValue());
+    }
+    if (testData.getResponseData() instanceof HttpTestResponseData) {
+      bytes += length(((HttpTestResponseData) testData.getResponseData()).getBody());
+    }
+    for (ConcurrentSkipListMap<Long, ConcurrentHashMap<MethodDataType, List<MethodData>>> entries :
+        testData.getMethodDataMap().values()) {
+      bytes += 128;
+      for (ConcurrentHashMap<MethodDataType, List<MethodData>> entry : entries.values()) {
+        for (List<MethodData> dataList : entry.values()) {
+          for (MethodData data : dataList) {
+            bytes += 64 + length(data.getData());
+          }
+        }
+      }
+    }
+    return (int) Math.min(bytes, Integer.MAX_VALUE - 8);
+  }
+
+  private static int length(byte[] bytes) {
+    return bytes == null ? 0 : bytes.length;
+  }
+
+  /**
+   * Growable big-endian output over a byte array, without the locking of {@link
+   * java.io.ByteArrayOutputStream}.
+   */
+  private static final class Output {
+
+    private byte[] buffer;
+    private int count = 0;
+
+    private Output(int capacity) {
+      this.buffer = new byte[capacity];
+    }
+
+    private void writeByte(int value) {
+      ensureCapacity(1);
+      buffer[count++] = (byte) value;
+    }
+
+    private void writeInt(int value) {
+      ensureCapacity(Integer.BYTES);
+      buffer[count++] = (byte) (value >>> 24);
+      buffer[count++] = (byte) (value >>> 16);
+      buffer[count++] = (byte) (value >>> 8);
+      buffer[count++] = (byte) value;
+    }
+
+    private void writeLong(long value) {
+      writeInt((int) (value >>> 32));
+      writeInt((int) value);
+    }
+
+    private void writeBytes(byte[] value) {
+      if (value == null) {
+        writeInt(-1);
+        return;
+      }
+      writeInt(value.length);
+      ensureCapacity(value.length);
+      System.arraycopy(value, 0, buffer, count, value.length);
+      count += value.length;
+    }
+
+    /**
+     * Leaves room for a length written later by {@link #writeLength(int)}.
+     *
+     * @return offset of the length
+     */
+    private int reserveInt() {
+      writeInt(0);
+      return count - Integer.BYTES;
+    }
+
+    /**
+     * Writes the number of bytes written after the length reserved at the offset.
+     */
+    private void writeLength(int offset) {
+      int length = count - offset - Integer.BYTES;
+      buffer[offset] = (byte) (length >>> 24);
+      buffer[offset + 1] = (byte) (length >>> 16);
+      buffer[offset + 2] = (byte) (length >>> 8);
+      buffer[offset + 3] = (byte) length;
+    }
+
+    private void writeString(String value) {
+      writeBytes(value == null ? null : value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void ensureCapacity(int length) {
+      if (count + length > buffer.length) {
+        buffer = Arrays.copyOf(buffer, Math.max(buffer.length << 1, count + length));
+      }
+    }
+
+    private byte[] toByteArray() {
+      return count == buffer.length ? buffer : Arrays.copyOf(buffer, count);
+    }
+  }
+}
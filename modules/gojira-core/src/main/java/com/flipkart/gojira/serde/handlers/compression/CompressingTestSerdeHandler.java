@@ -0,0 +1,323 @@
+/*
+ * Copyright 2020 Flipkart Internet, pvt ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.flipkart.gojira.serde.handlers.compression;
+
+import com.flipkart.gojira.serde.TestSerdeException;
+import com.flipkart.gojira.serde.config.CompressionCodec;
+import com.flipkart.gojira.serde.config.CompressionConfig;
+import com.flipkart.gojira.serde.handlers.TestSerdeHandler;
+import com.flipkart.gojira.serde.handlers.TypeParameter;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.Adler32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Exception;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+
+/**
+ * Implementation of {@link TestSerdeHandler} which compresses the bytes serialized by another
+ * handler as per {@link CompressionConfig}, and decompresses them before they are de-serialized.
+ *
+ * <p>A compressed record starts with {@link #MAGIC}, followed by the id of the {@link
+ * CompressionCodec}, the uncompressed length as a big-endian int and the compressed bytes. Records
+ * smaller than {@link CompressionConfig#getMinCompressBytes()}, or which do not get smaller, are
+ * stored as serialized. Records without the header, like those stored before compression was
+ * enabled, are handed to the other handler as they are.
+ *
+ * <p>Keeps counters of the bytes before and after compression and of the time spent compressing
+ * and decompressing.
+ */
+public class CompressingTestSerdeHandler implements TestSerdeHandler {
+
+  /**
+   * Leading bytes of a compressed record. Neither JSON nor binary test data starts with 0.
+   */
+  static final byte[] MAGIC = {0x00, 0x47, 0x5A};
+
+  private static final int HEADER_BYTES = MAGIC.length + 1 + Integer.BYTES;
+
+  private final TestSerdeHandler testSerdeHandler;
+  private final CompressionConfig compressionConfig;
+  /**
+   * Adler-32 of the dictionary, compared as int since {@link Inflater#getAdler()} sign-extends it
+   * on some JDKs.
+   */
+  private final int dictionaryAdler;
+
+  private final ThreadLocal<Deflater> deflater;
+  private final ThreadLocal<Inflater> inflater = ThreadLocal.withInitial(Inflater::new);
+  private final LZ4Compressor lz4Compressor;
+  private final LZ4FastDecompressor lz4Decompressor;
+
+  private final LongAdder compressedRecordCount = new LongAdder();
+  private final LongAdder uncompressedRecordCount = new LongAdder();
+  private final LongAdder serializedByteCount = new LongAdder();
+  private final LongAdder storedByteCount = new LongAdder();
+  private final LongAdder compressNanos = new LongAdder();
+  private final LongAdder decompressedRecordCount = new LongAdder();
+  private final LongAdder decompressNanos = new LongAdder();
+
+  /**
+   * Creates a handler which compresses what the given handler serializes.
+   *
+   * @param testSerdeHandler handler which serializes and de-serializes the uncompressed bytes
+   * @param compressionConfig codec and its settings with which records are compressed
+   */
+  public CompressingTestSerdeHandler(
+      TestSerdeHandler testSerdeHandler, CompressionConfig compressionConfig) {
+    this.testSerdeHandler = testSerdeHandler;
+    this.compressionConfig = compressionConfig;
+    byte[] dictionary = compressionConfig.getDictionary();
+    if (dictionary != null) {
+      Adler32 adler32 = new Adler32();
+      adler32.update(dictionary, 0, dictionary.length);
+      this.dictionaryAdler = (int) adler32.getValue();
+    } else {
+      this.dictionaryAdler = 0;
+    }
+    this.deflater = ThreadLocal.withInitial(() -> new Deflater(compressionConfig.getLevel()));
+    LZ4Factory lz4Factory = LZ4Factory.fastestInstance();
+    this.lz4Compressor =
+        CompressionCodec.LZ4.equals(compressionConfig.getCodec())
+                && compressionConfig.getLevel() > 0
+            ? lz4Factory.highCompressor(compressionConfig.getLevel())
+            : lz4Factory.fastCompressor();
+    this.lz4Decompressor = lz4Factory.fastDecompressor();
+  }
+
+  @Override
+  public <T> byte[] serialize(T obj) throws TestSerdeException {
+    byte[] serialized = testSerdeHandler.serialize(obj);
+    if (serialized == null) {
+      return null;
+    }
+    byte[] stored = serialized;
+    if (serialized.length >= compressionConfig.getMinCompressBytes()
+        && !CompressionCodec.NONE.equals(compressionConfig.getCodec())) {
+      long startTime = System.nanoTime();
+      byte[] compressed = compress(serialized);
+      compressNanos.add(System.nanoTime() - startTime);
+      if (compressed != null) {
+        stored = compressed;
+      }
+    }
+    (stored == serialized ? uncompressedRecordCount : compressedRecordCount).increment();
+    serializedByteCount.add(serialized.length);
+    storedByteCount.add(stored.length);
+    return stored;
+  }
+
+  @Override
+  public <T> T deserialize(byte[] bytes, Class<T> clazz) throws TestSerdeException {
+    return testSerdeHandler.deserialize(decompress(bytes), clazz);
+  }
+
+  @Override
+  public <T> T deserialize(ByteBuffer buffer, Class<T> clazz) throws TestSerdeException {
+    if (!isCompressed(buffer)) {
+      return testSerdeHandler.deserialize(buffer, clazz);
+    }
+    return testSerdeHandler.deserialize(decompress(buffer), clazz);
+  }
+
+  @Override
+  public <T> T deserialize(byte[] bytes, TypeParameter<T> typeParameter)
+      throws TestSerdeException {
+    return testSerdeHandler.deserialize(decompress(bytes), typeParameter);
+  }
+
+  @Override
+  public <T> void deserializeToInstance(byte[] bytes, T obj) throws TestSerdeException {
+    testSerdeHandler.deserializeToInstance(decompress(bytes), obj);
+  }
+
+  public long getCompressedRecordCount() {
+    return compressedRecordCount.sum();
+  }
+
+  /**
+   * Returns the number of records stored uncompressed, for being smaller than {@link
+   * CompressionConfig#getMinCompressBytes()} or not getting smaller.
+   *
+   * @return uncompressed record count
+   */
+  public long getUncompressedRecordCount() {
+    return uncompressedRecordCount.sum();
+  }
+
+  public long getSerializedByteCount() {
+    return serializedByteCount.sum();
+  }
+
+  public long getStoredByteCount() {
+    return storedByteCount.sum();
+  }
+
+  /**
+   * Returns serialized bytes over stored bytes for all records serialized so far.
+   *
+   * @return compression ratio, 1 if nothing was serialized
+   */
+  public double getCompressionRatio() {
+    long storedBytes = storedByteCount.sum();
+    return storedBytes == 0 ? 1d : (double) serializedByteCount.sum() / storedBytes;
+  }
+
+  public long getCompressNanos() {
+    return compressNanos.sum();
+  }
+
+  public long getDecompressedRecordCount() {
+    return decompressedRecordCount.sum();
+  }
+
+  public long getDecompressNanos() {
+    return decompressNanos.sum();
+  }
+
+  /**
+   * Compresses into an array no larger than the serialized bytes.
+   *
+   * @return compressed record with its header, or null if it would not be smaller
+   */
+  private byte[] compress(byte[] serialized) {
+    int maxCompressedBytes = serialized.length - HEADER_BYTES - 1;
+    if (maxCompressedBytes <= 0) {
+      return null;
+    }
+    byte[] compressed = new byte[HEADER_BYTES + maxCompressedBytes];
+    int compressedBytes;
+    if (CompressionCodec.DEFLATE.equals(compressionConfig.getCodec())) {
+      Deflater deflater = this.deflater.get();
+      deflater.reset();
+      if (compressionConfig.getDictionary() != null) {
+        deflater.setDictionary(compressionConfig.getDictionary());
+      }
+      deflater.setInput(serialized);
+      deflater.finish();
+      compressedBytes = deflater.deflate(compressed, HEADER_BYTES, maxCompressedBytes);
+      if (!deflater.finished()) {
+        return null;
+      }
+    } else {
+      try {
+        compressedBytes =
+            lz4Compressor.compress(
+                serialized, 0, serialized.length, compressed, HEADER_BYTES, maxCompressedBytes);
+      } catch (LZ4Exception e) {
+        return null;
+      }
+    }
+    System.arraycopy(MAGIC, 0, compressed, 0, MAGIC.length);
+    compressed[MAGIC.length] = compressionConfig.getCodec().getId();
+    ByteBuffer.wrap(compressed, MAGIC.length + 1, Integer.BYTES).putInt(serialized.length);
+    return Arrays.copyOf(compressed, HEADER_BYTES + compressedBytes);
+  }
+
+  private byte[] decompress(byte[] bytes) throws TestSerdeException {
+    if (bytes == null || !isCompressed(ByteBuffer.wrap(bytes))) {
+      return bytes;
+    }
+    return decompress(ByteBuffer.wrap(bytes));
+  }
+
+  private byte[] decompress(ByteBuffer buffer) throws TestSerdeException {
+    long startTime = System.nanoTime();
+    int position = buffer.position();
+    byte codecId = buffer.get(position + MAGIC.length);
+    CompressionCodec codec = CompressionCodec.fromId(codecId);
+    int uncompressedBytes = buffer.getInt(position + MAGIC.length + 1);
+    if (uncompressedBytes < 0) {
+      throw new TestSerdeException("corrupt compressed record, length: " + uncompressedBytes);
+    }
+    byte[] uncompressed = new byte[uncompressedBytes];
+    if (CompressionCodec.DEFLATE.equals(codec)) {
+      inflate(buffer, uncompressed);
+    } else if (CompressionCodec.LZ4.equals(codec)) {
+      try {
+        int compressedBytes =
+            lz4Decompressor.decompress(
+                buffer, position + HEADER_BYTES, ByteBuffer.wrap(uncompressed), 0,
+                uncompressedBytes);
+        if (compressedBytes != buffer.remaining() - HEADER_BYTES) {
+          throw new TestSerdeException("corrupt LZ4 compressed record.");
+        }
+      } catch (LZ4Exception e) {
+        throw new TestSerdeException("corrupt LZ4 compressed record.", e);
+      }
+    } else {
+      throw new TestSerdeException("unknown compression codec id: " + codecId);
+    }
+    decompressNanos.add(System.nanoTime() - startTime);
+    decompressedRecordCount.increment();
+    return uncompressed;
+  }
+
+  private void inflate(ByteBuffer buffer, byte[] uncompressed) throws TestSerdeException {
+    Inflater inflater = this.inflater.get();
+    inflater.reset();
+    int compressedBytes = buffer.remaining() - HEADER_BYTES;
+    if (buffer.hasArray()) {
+      inflater.setInput(
+          buffer.array(), buffer.arrayOffset() + buffer.position() + HEADER_BYTES, compressedBytes);
+    } else {
+      byte[] compressed = new byte[compressedBytes];
+      ByteBuffer source = buffer.duplicate();
+      ((Buffer) source).position(source.position() + HEADER_BYTES);
+      source.get(compressed);
+      inflater.setInput(compressed);
+    }
+    try {
+      int inflatedBytes = 0;
+      while (inflatedBytes < uncompressed.length) {
+        int inflated =
+            inflater.inflate(uncompressed, inflatedBytes, uncompressed.length - inflatedBytes);
+        if (inflated == 0 && inflater.needsDictionary()) {
+          if (compressionConfig.getDictionary() == null
+              || (int) inflater.getAdler() != dictionaryAdler) {
+            throw new TestSerdeException(
+                "record was compressed with a dictionary which is not configured.");
+          }
+          inflater.setDictionary(compressionConfig.getDictionary());
+        } else if (inflated == 0 && (inflater.finished() || inflater.needsInput())) {
+          throw new TestSerdeException("truncated or corrupt DEFLATE compressed record.");
+        }
+        inflatedBytes += inflated;
+      }
+    } catch (DataFormatException e) {
+      throw new TestSerdeException("corrupt DEFLATE compressed record.", e);
+    }
+  }
+
+  private static boolean isCompressed(ByteBuffer buffer) {
+    if (buffer.remaining() < HEADER_BYTES) {
+      return false;
+    }
+    for (int i = 0; i < MAGIC.length; i++) {
+      if (buffer.get(buffer.position() + i) != MAGIC[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
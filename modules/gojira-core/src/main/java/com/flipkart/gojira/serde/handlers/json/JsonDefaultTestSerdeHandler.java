@@ -24,10 +24,12 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.jsontype.impl.StdSubtypeResolver;
 import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
 import com.flipkart.gojira.serde.TestSerdeException;
 import com.flipkart.gojira.serde.handlers.TestSerdeHandler;
 import com.flipkart.gojira.serde.handlers.TypeParameter;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -84,6 +86,29 @@ public class JsonDefaultTestSerdeHandler implements TestSerdeHandler {
     }
   }
 
+  /**
+   * Parses directly from the buffer, which may be a slice of a memory-mapped file.
+   *
+   * @param buffer buffer positioned at the serialized bytes, its position is not changed
+   * @param clazz class to de-serialize
+   * @return de-serialized object
+   * @throws TestSerdeException if de-serialization fails
+   */
+  @Override
+  public <T> T deserialize(ByteBuffer buffer, Class<T> clazz) throws TestSerdeException {
+    try {
+      if (buffer.hasArray()) {
+        return mapper.readValue(
+            buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining(), clazz);
+      }
+      return mapper.readValue(new ByteBufferBackedInputStream(buffer.duplicate()), clazz);
+    } catch (IOException e) {
+      LOGGER.trace("error de-serializing data. class: " + clazz.toGenericString(), e);
+      throw new TestSerdeException(
+          "error de-serializing data. class: " + clazz.toGenericString(), e);
+    }
+  }
+
   @Override
   public <T> T deserialize(byte[] bytes, TypeParameter<T> typeParameter) throws TestSerdeException {
     try {
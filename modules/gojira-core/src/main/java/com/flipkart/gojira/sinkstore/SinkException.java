@@ -21,4 +21,17 @@ import com.flipkart.gojira.sinkstore.handlers.SinkHandler;
 /**
  * Exception thrown in case of any {@link SinkHandler} operation.
  */
-public class SinkException extends Exception {}
+public class SinkException extends Exception {
+
+  public SinkException() {
+    super();
+  }
+
+  public SinkException(String message) {
+    super(message);
+  }
+
+  public SinkException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
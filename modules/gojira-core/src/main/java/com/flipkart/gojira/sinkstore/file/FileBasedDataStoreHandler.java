@@ -24,8 +24,13 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 
 /**
- * Sample implementation of {@link SinkHandler}.
+ * Sample implementation of {@link SinkHandler}. Every record and result overwrites the same file,
+ * and reads return it regardless of id, so it holds a single record at a time. Results can not be
+ * read back, since the file may hold test data instead.
+ *
+ * @deprecated use {@link SegmentedLogDataStoreHandler}, which keeps every record.
  */
+@Deprecated
 public class FileBasedDataStoreHandler extends SinkHandler {
 
   /**
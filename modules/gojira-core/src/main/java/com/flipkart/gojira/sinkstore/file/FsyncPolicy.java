@@ -0,0 +1,38 @@
+/*
+ * Copyright 2020 Flipkart Internet, pvt ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.flipkart.gojira.sinkstore.file;
+
+/**
+ * Policy for forcing writes of {@link SegmentedLogDataStoreHandler} to disk.
+ */
+public enum FsyncPolicy {
+  /**
+   * Forces every write, or batch of writes, to disk before returning.
+   */
+  ALWAYS,
+  /**
+   * Forces writes to disk periodically, every {@link
+   * SegmentedLogConfig#getFsyncIntervalInMillis()}.
+   */
+  INTERVAL,
+  /**
+   * Leaves writes to the operating system, and only forces them when a segment is rolled or the
+   * sink is closed.
+   */
+  NEVER
+}
@@ -0,0 +1,650 @@
+/*
+ * Copyright 2020 Flipkart Internet, pvt ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.flipkart.gojira.sinkstore.file;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Append-only log of records keyed by id, split into numbered segment files. The latest record of
+ * every id is located through an in-memory index of id to segment, offset and length.
+ *
+ * <p>A record is laid out as a CRC32 checksum, the id length, the value length, the id in UTF-8
+ * and the value. Once a segment reaches {@link SegmentedLogConfig#getMaxSegmentBytes()}, it is
+ * sealed and a hint file holding its index entries is written next to it, so that on restart
+ * sealed segments are indexed from their hints and only the last segment is scanned. A torn
+ * record at the end of the last segment is truncated.
+ *
+ * <p>Writes are serialized on the log, reads do not take its lock. Sealed segments never change, so
+ * they are memory-mapped on first read and values are served as slices of the mapping. At most
+ * {@link SegmentedLogConfig#getMaxMappedBytes()} of segments are kept mapped, the segment not read
+ * since it was last passed over is dropped first. The segment being written, and segments which do
+ * not fit the window, are read with positional reads on their channel. The JVM releases a mapping
+ * once the log and every slice of it have dropped it.
+ *
+ * <p>Records which are overwritten become garbage, and sealed segments whose live bytes fall below
+ * {@link SegmentedLogConfig#getCompactionLiveRatio()} are compacted by appending their live
+ * records again and deleting the segment.
+ */
+final class SegmentedLog implements Closeable {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SegmentedLog.class);
+
+  private static final String SEGMENT_SUFFIX = ".log";
+  private static final String HINT_SUFFIX = ".hint";
+
+  /**
+   * Checksum, id length and value length.
+   */
+  private static final int HEADER_BYTES = 3 * Integer.BYTES;
+
+  private final Path directory;
+  private final int maxSegmentBytes;
+  private final FsyncPolicy fsyncPolicy;
+  private final double compactionLiveRatio;
+  private final long maxMappedBytes;
+
+  private final Map<String, Location> index = new ConcurrentHashMap<>();
+  private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+
+  /**
+   * Segment being written, and index entries of its records to be written as its hint file.
+   */
+  private Segment activeSegment;
+  private final ByteArrayOutputStream activeHints = new ByteArrayOutputStream();
+  private boolean compacting = false;
+  private volatile boolean closed = false;
+
+  /**
+   * Mapped segments, in the order in which they are considered for dropping, and their total size.
+   * Both are guarded by the deque.
+   */
+  private final ArrayDeque<Segment> mappedSegments = new ArrayDeque<>();
+  private long mappedBytes = 0;
+
+  SegmentedLog(Path directory, SegmentedLogConfig segmentedLogConfig) throws IOException {
+    this.directory = directory;
+    this.maxSegmentBytes = segmentedLogConfig.getMaxSegmentBytes();
+    this.fsyncPolicy = segmentedLogConfig.getFsyncPolicy();
+    this.compactionLiveRatio = segmentedLogConfig.getCompactionLiveRatio();
+    this.maxMappedBytes = segmentedLogConfig.getMaxMappedBytes();
+
+    Files.createDirectories(directory);
+    List<Long> segmentIds;
+    try (Stream<Path> files = Files.list(directory)) {
+      segmentIds =
+          files
+              .map(file -> file.getFileName().toString())
+              .filter(name -> name.endsWith(SEGMENT_SUFFIX))
+              .map(name -> name.substring(0, name.length() - SEGMENT_SUFFIX.length()))
+              .map(Long::parseLong)
+              .sorted()
+              .collect(Collectors.toList());
+    }
+    for (int i = 0; i < segmentIds.size(); i++) {
+      Segment segment = openSegment(segmentIds.get(i));
+      boolean last = i == segmentIds.size() - 1;
+      if (last) {
+        activeSegment = segment;
+        Files.deleteIfExists(hintPath(segment.id));
+        scan(segment, true);
+      } else {
+        if (!Files.exists(hintPath(segment.id)) || !loadHints(segment)) {
+          scan(segment, false);
+        }
+        segment.sealed = true;
+      }
+    }
+    if (activeSegment == null) {
+      activeSegment = openSegment(1L);
+    }
+    activeSegment.channel.position(activeSegment.size);
+    LOGGER.info(
+        "Opened log at " + directory + " with " + index.size() + " records in "
+            + segments.size() + " segments.");
+  }
+
+  /**
+   * Returns the latest value written for the id.
+   *
+   * @return value, or null if nothing was written for the id
+   * @throws IOException if the value could not be read
+   */
+  byte[] read(String id) throws IOException {
+    ByteBuffer value = readBuffer(id);
+    if (value == null) {
+      return null;
+    }
+    if (value.hasArray() && value.arrayOffset() == 0 && value.remaining() == value.array().length) {
+      return value.array();
+    }
+    byte[] bytes = new byte[value.remaining()];
+    value.get(bytes);
+    return bytes;
+  }
+
+  /**
+   * Returns the latest value written for the id without copying it, if its segment is mapped.
+   *
+   * @return read-only view of the value, or null if nothing was written for the id
+   * @throws IOException if the value could not be read
+   */
+  ByteBuffer readBuffer(String id) throws IOException {
+    for (int attempt = 0; attempt < 3; attempt++) {
+      Location location = index.get(id);
+      if (location == null) {
+        return null;
+      }
+      Segment segment = segments.get(location.segmentId);
+      if (segment == null) {
+        // the segment was compacted after the lookup, the id has a new location.
+        continue;
+      }
+      try {
+        ByteBuffer mapped = map(segment);
+        if (mapped == null) {
+          return ByteBuffer.wrap(segment.read(location.valuePosition(), location.valueLength));
+        }
+        ByteBuffer value = mapped.duplicate();
+        // through Buffer, since ByteBuffer only overrides these from Java 9.
+        ((Buffer) value).position((int) location.valuePosition());
+        ((Buffer) value).limit((int) location.valuePosition() + location.valueLength);
+        return value.slice();
+      } catch (ClosedChannelException e) {
+        if (closed) {
+          throw e;
+        }
+        reopen(segment);
+      }
+    }
+    throw new IOException("record with id: " + id + " could not be read from " + directory);
+  }
+
+  /**
+   * Appends the records, in order, in as few writes as possible. A record overwrites any earlier
+   * record with the same id.
+   *
+   * @throws IOException if the records could not be written, some of them may have been written
+   */
+  synchronized void append(Map<String, byte[]> records) throws IOException {
+    if (closed) {
+      throw new ClosedChannelException();
+    }
+    List<ByteBuffer> buffers = new ArrayList<>(records.size());
+    Map<String, Location> locations = new LinkedHashMap<>();
+    int pendingBytes = 0;
+    for (Map.Entry<String, byte[]> record : records.entrySet()) {
+      byte[] id = record.getKey().getBytes(StandardCharsets.UTF_8);
+      byte[] value = record.getValue();
+      int recordLength = HEADER_BYTES + id.length + value.length;
+      int position = activeSegment.size + pendingBytes;
+      if (position > 0 && (long) position + recordLength > maxSegmentBytes) {
+        writePending(buffers, locations, pendingBytes);
+        buffers.clear();
+        locations.clear();
+        pendingBytes = 0;
+        roll();
+        // compaction on roll may have appended to the new segment.
+        position = activeSegment.size;
+      }
+      buffers.add(encode(id, value));
+      locations.put(
+          record.getKey(), new Location(activeSegment.id, position, id.length, value.length));
+      pendingBytes += recordLength;
+    }
+    writePending(buffers, locations, pendingBytes);
+    if (FsyncPolicy.ALWAYS.equals(fsyncPolicy)) {
+      activeSegment.channel.force(false);
+    }
+  }
+
+  /**
+   * Forces the segment being written to disk.
+   *
+   * @throws IOException if the segment could not be forced
+   */
+  synchronized void sync() throws IOException {
+    if (!closed) {
+      activeSegment.channel.force(false);
+    }
+  }
+
+  /**
+   * Compacts sealed segments whose ratio of live bytes is below the configured ratio.
+   *
+   * @throws IOException if a segment could not be compacted
+   */
+  synchronized void compact() throws IOException {
+    if (closed || compacting || compactionLiveRatio <= 0) {
+      return;
+    }
+    compacting = true;
+    try {
+      for (Segment segment : new ArrayList<>(segments.values())) {
+        if (segment == activeSegment || segment.liveBytes >= compactionLiveRatio * segment.size) {
+          continue;
+        }
+        Map<String, byte[]> live = new LinkedHashMap<>();
+        for (Map.Entry<String, Location> entry : index.entrySet()) {
+          Location location = entry.getValue();
+          if (location.segmentId == segment.id) {
+            live.put(
+                entry.getKey(), segment.read(location.valuePosition(), location.valueLength));
+          }
+        }
+        append(live);
+        activeSegment.channel.force(false);
+        segments.remove(segment.id);
+        unmap(segment);
+        segment.channel.close();
+        Files.deleteIfExists(hintPath(segment.id));
+        Files.deleteIfExists(segmentPath(segment.id));
+        LOGGER.info(
+            "Compacted segment " + segment.id + " of " + directory + ", moved " + live.size()
+                + " live records.");
+      }
+    } finally {
+      compacting = false;
+    }
+  }
+
+  int size() {
+    return index.size();
+  }
+
+  /**
+   * Returns the ids written to the log, as a live view.
+   *
+   * @return ids
+   */
+  Set<String> ids() {
+    return Collections.unmodifiableSet(index.keySet());
+  }
+
+  int segmentCount() {
+    return segments.size();
+  }
+
+  long mappedBytes() {
+    synchronized (mappedSegments) {
+      return mappedBytes;
+    }
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    activeSegment.channel.force(false);
+    for (Segment segment : segments.values()) {
+      unmap(segment);
+      segment.channel.close();
+    }
+  }
+
+  private void writePending(List<ByteBuffer> buffers, Map<String, Location> locations, int bytes)
+      throws IOException {
+    if (buffers.isEmpty()) {
+      return;
+    }
+    ByteBuffer[] pending = buffers.toArray(new ByteBuffer[0]);
+    long remaining = bytes;
+    while (remaining > 0) {
+      remaining -= activeSegment.channel.write(pending);
+    }
+    activeSegment.size += bytes;
+    for (Map.Entry<String, Location> location : locations.entrySet()) {
+      index(location.getKey(), location.getValue(), true);
+    }
+  }
+
+  /**
+   * Seals the segment being written by forcing it and writing its hint file, and starts the next
+   * one. Compacts sealed segments, unless already compacting.
+   */
+  private void roll() throws IOException {
+    Segment sealed = activeSegment;
+    sealed.channel.force(false);
+    Path tempHints = directory.resolve(sealed.id + HINT_SUFFIX + ".tmp");
+    try (FileChannel channel =
+        FileChannel.open(
+            tempHints,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE)) {
+      ByteBuffer hints = ByteBuffer.wrap(activeHints.toByteArray());
+      while (hints.hasRemaining()) {
+        channel.write(hints);
+      }
+      channel.force(true);
+    }
+    Files.move(
+        tempHints,
+        hintPath(sealed.id),
+        StandardCopyOption.ATOMIC_MOVE,
+        StandardCopyOption.REPLACE_EXISTING);
+    activeHints.reset();
+    sealed.sealed = true;
+    activeSegment = openSegment(sealed.id + 1);
+    compact();
+  }
+
+  /**
+   * Points the id to its new location, accounting the bytes of the previous location as garbage.
+   */
+  private void index(String id, Location location, boolean active) {
+    Location previous = index.put(id, location);
+    segments.get(location.segmentId).liveBytes += location.recordLength();
+    if (previous != null) {
+      Segment segment = segments.get(previous.segmentId);
+      if (segment != null) {
+        segment.liveBytes -= previous.recordLength();
+      }
+    }
+    if (active) {
+      byte[] idBytes = id.getBytes(StandardCharsets.UTF_8);
+      DataOutputStream hints = new DataOutputStream(activeHints);
+      try {
+        hints.writeInt(idBytes.length);
+        hints.write(idBytes);
+        hints.writeInt(location.offset);
+        hints.writeInt(location.valueLength);
+      } catch (IOException e) {
+        throw new IllegalStateException("unable to write hint to memory.", e);
+      }
+    }
+  }
+
+  /**
+   * Indexes a sealed segment from its hint file.
+   *
+   * @return false if the hint file could not be read, in which case the segment has to be scanned
+   */
+  private boolean loadHints(Segment segment) {
+    try (DataInputStream hints =
+        new DataInputStream(
+            new BufferedInputStream(Files.newInputStream(hintPath(segment.id)), 64 * 1024))) {
+      while (true) {
+        int idLength;
+        try {
+          idLength = hints.readInt();
+        } catch (EOFException e) {
+          break;
+        }
+        byte[] id = new byte[idLength];
+        hints.readFully(id);
+        int offset = hints.readInt();
+        int valueLength = hints.readInt();
+        index(
+            new String(id, StandardCharsets.UTF_8),
+            new Location(segment.id, offset, idLength, valueLength),
+            false);
+      }
+      segment.size = (int) segment.channel.size();
+      return true;
+    } catch (IOException | RuntimeException e) {
+      LOGGER.warn("Unable to read hints of segment " + segment.id + " of " + directory, e);
+      return false;
+    }
+  }
+
+  /**
+   * Indexes a segment by reading its records, verifying their checksums. Reading stops at the
+   * first torn or corrupt record, which is truncated if the segment is the one being written.
+   */
+  private void scan(Segment segment, boolean active) throws IOException {
+    long fileSize = segment.channel.size();
+    int position = 0;
+    CRC32 crc32 = new CRC32();
+    try (DataInputStream records =
+        new DataInputStream(
+            new BufferedInputStream(
+                Files.newInputStream(segmentPath(segment.id)), 64 * 1024))) {
+      while (position + HEADER_BYTES <= fileSize) {
+        final int checksum = records.readInt();
+        int idLength = records.readInt();
+        int valueLength = records.readInt();
+        if (idLength < 0
+            || valueLength < 0
+            || (long) position + HEADER_BYTES + idLength + valueLength > fileSize) {
+          break;
+        }
+        byte[] record = new byte[idLength + valueLength];
+        records.readFully(record);
+        crc32.reset();
+        updateChecksum(crc32, idLength);
+        updateChecksum(crc32, valueLength);
+        crc32.update(record);
+        if ((int) crc32.getValue() != checksum) {
+          break;
+        }
+        index(
+            new String(record, 0, idLength, StandardCharsets.UTF_8),
+            new Location(segment.id, position, idLength, valueLength),
+            active);
+        position += HEADER_BYTES + idLength + valueLength;
+      }
+    }
+    if (position < fileSize) {
+      LOGGER.warn(
+          "Segment " + segment.id + " of " + directory + " has " + (fileSize - position)
+              + " unreadable bytes at offset " + position + (active ? ", truncating." : "."));
+      if (active) {
+        segment.channel.truncate(position);
+        fileSize = position;
+      }
+    }
+    segment.size = (int) fileSize;
+  }
+
+  /**
+   * Returns the mapping of a sealed segment, mapping it if it is not, after dropping the segments
+   * passed over twice until it fits the window.
+   *
+   * @return mapping, or null if the segment is being written or does not fit the window
+   */
+  private ByteBuffer map(Segment segment) throws IOException {
+    MappedByteBuffer mapped = segment.mapped;
+    if (mapped != null) {
+      segment.referenced = true;
+      return mapped;
+    }
+    if (!segment.sealed || segment.size > maxMappedBytes) {
+      return null;
+    }
+    synchronized (mappedSegments) {
+      if (segment.mapped == null) {
+        if (closed || segments.get(segment.id) != segment) {
+          return null;
+        }
+        int secondChances = mappedSegments.size();
+        while (mappedBytes + segment.size > maxMappedBytes) {
+          Segment candidate = mappedSegments.pollFirst();
+          if (candidate.referenced && secondChances-- > 0) {
+            candidate.referenced = false;
+            mappedSegments.addLast(candidate);
+          } else {
+            candidate.mapped = null;
+            mappedBytes -= candidate.size;
+          }
+        }
+        segment.mapped = segment.channel.map(FileChannel.MapMode.READ_ONLY, 0, segment.size);
+        mappedSegments.addLast(segment);
+        mappedBytes += segment.size;
+      }
+      return segment.mapped;
+    }
+  }
+
+  private void unmap(Segment segment) {
+    synchronized (mappedSegments) {
+      if (mappedSegments.remove(segment)) {
+        segment.mapped = null;
+        mappedBytes -= segment.size;
+      }
+    }
+  }
+
+  private Segment openSegment(long id) throws IOException {
+    Segment segment =
+        new Segment(
+            id,
+            FileChannel.open(
+                segmentPath(id),
+                StandardOpenOption.CREATE,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE));
+    segments.put(id, segment);
+    return segment;
+  }
+
+  /**
+   * Reopens the channel of a segment which was closed by the interrupt of a thread reading it.
+   */
+  private synchronized void reopen(Segment segment) throws IOException {
+    if (closed || segment.channel.isOpen() || segments.get(segment.id) != segment) {
+      return;
+    }
+    segment.channel =
+        FileChannel.open(
+            segmentPath(segment.id), StandardOpenOption.READ, StandardOpenOption.WRITE);
+    if (segment == activeSegment) {
+      segment.channel.position(segment.size);
+    }
+  }
+
+  private Path segmentPath(long id) {
+    return directory.resolve(String.format("%020d", id) + SEGMENT_SUFFIX);
+  }
+
+  private Path hintPath(long id) {
+    return directory.resolve(String.format("%020d", id) + HINT_SUFFIX);
+  }
+
+  private static ByteBuffer encode(byte[] id, byte[] value) {
+    CRC32 crc32 = new CRC32();
+    updateChecksum(crc32, id.length);
+    updateChecksum(crc32, value.length);
+    crc32.update(id);
+    crc32.update(value);
+    ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + id.length + value.length);
+    record.putInt((int) crc32.getValue()).putInt(id.length).putInt(value.length);
+    record.put(id).put(value);
+    return ByteBuffer.wrap(record.array());
+  }
+
+  private static void updateChecksum(CRC32 crc32, int value) {
+    crc32.update(value >>> 24);
+    crc32.update(value >>> 16);
+    crc32.update(value >>> 8);
+    crc32.update(value);
+  }
+
+  /**
+   * Location of the latest record of an id.
+   */
+  private static final class Location {
+
+    private final long segmentId;
+    private final int offset;
+    private final int idLength;
+    private final int valueLength;
+
+    private Location(long segmentId, int offset, int idLength, int valueLength) {
+      this.segmentId = segmentId;
+      this.offset = offset;
+      this.idLength = idLength;
+      this.valueLength = valueLength;
+    }
+
+    private int recordLength() {
+      return HEADER_BYTES + idLength + valueLength;
+    }
+
+    private long valuePosition() {
+      return (long) offset + HEADER_BYTES + idLength;
+    }
+  }
+
+  /**
+   * Segment file, with its size and the bytes of records in it which have not been overwritten.
+   * Both are guarded by the log, the size does not change once the segment is sealed.
+   */
+  private static final class Segment {
+
+    private final long id;
+    private volatile FileChannel channel;
+    private int size = 0;
+    private long liveBytes = 0;
+    private volatile boolean sealed = false;
+
+    /**
+     * Mapping of the sealed segment while it is in the window, and whether it was read since the
+     * window last passed over it.
+     */
+    private volatile MappedByteBuffer mapped;
+    private volatile boolean referenced = false;
+
+    private Segment(long id, FileChannel channel) {
+      this.id = id;
+      this.channel = channel;
+    }
+
+    private byte[] read(long position, int length) throws IOException {
+      byte[] value = new byte[length];
+      ByteBuffer buffer = ByteBuffer.wrap(value);
+      while (buffer.hasRemaining()) {
+        if (channel.read(buffer, position + buffer.position()) < 0) {
+          throw new EOFException("segment " + id + " ends before the record.");
+        }
+      }
+      return value;
+    }
+  }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2020 Flipkart Internet, pvt ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.flipkart.gojira.sinkstore.file;
+
+/**
+ * SegmentedLogConfig holds the configuration of {@link SegmentedLogDataStoreHandler}. The path
+ * needs to be provided by the client application, defaults are used for the rest.
+ */
+public class SegmentedLogConfig {
+
+  /**
+   * Directory under which test data and results are written, in separate logs.
+   */
+  private String path = null;
+
+  /**
+   * Size after which the segment being written is sealed and a new one is started.
+   */
+  private int maxSegmentBytes = 64 * 1024 * 1024;
+
+  private FsyncPolicy fsyncPolicy = FsyncPolicy.INTERVAL;
+
+  private long fsyncIntervalInMillis = 1000L;
+
+  /**
+   * Sealed segments in which the ratio of bytes of records which have not been overwritten falls
+   * below this are compacted.
+   */
+  private double compactionLiveRatio = 0.5d;
+
+  /**
+   * Upper bound on the bytes of sealed segments kept memory-mapped for reads. Segments mapped least
+   * recently are dropped from the window once it is full.
+   */
+  private long maxMappedBytes = 256L * 1024 * 1024;
+
+  private SegmentedLogConfig() {}
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  public String getPath() {
+    return path;
+  }
+
+  public int getMaxSegmentBytes() {
+    return maxSegmentBytes;
+  }
+
+  public FsyncPolicy getFsyncPolicy() {
+    return fsyncPolicy;
+  }
+
+  public long getFsyncIntervalInMillis() {
+    return fsyncIntervalInMillis;
+  }
+
+  public double getCompactionLiveRatio() {
+    return compactionLiveRatio;
+  }
+
+  public long getMaxMappedBytes() {
+    return maxMappedBytes;
+  }
+
+  public static class Builder {
+
+    private SegmentedLogConfig segmentedLogConfigToBuild;
+
+    private Builder() {
+      this.segmentedLogConfigToBuild = new SegmentedLogConfig();
+    }
+
+    /**
+     * Builds the config after validating that the path is set.
+     *
+     * @return config
+     */
+    public SegmentedLogConfig build() {
+      if (this.segmentedLogConfigToBuild.path == null) {
+        throw new IllegalArgumentException("path cannot be null.");
+      }
+      return this.segmentedLogConfigToBuild;
+    }
+
+    public Builder setPath(String path) {
+      this.segmentedLogConfigToBuild.path = path;
+      return this;
+    }
+
+    /**
+     * Sets the size at which segments are rolled.
+     *
+     * @param maxSegmentBytes must be greater than 0
+     * @return builder
+     */
+    public Builder setMaxSegmentBytes(int maxSegmentBytes) {
+      if (maxSegmentBytes <= 0) {
+        throw new IllegalArgumentException("maxSegmentBytes must be greater than 0.");
+      }
+      this.segmentedLogConfigToBuild.maxSegmentBytes = maxSegmentBytes;
+      return this;
+    }
+
+    /**
+     * Sets the policy for forcing writes to disk.
+     *
+     * @param fsyncPolicy cannot be null
+     * @return builder
+     */
+    public Builder setFsyncPolicy(FsyncPolicy fsyncPolicy) {
+      if (fsyncPolicy == null) {
+        throw new IllegalArgumentException("fsyncPolicy cannot be null.");
+      }
+      this.segmentedLogConfigToBuild.fsyncPolicy = fsyncPolicy;
+      return this;
+    }
+
+    /**
+     * Sets the interval at which writes are forced to disk with {@link FsyncPolicy#INTERVAL}.
+     *
+     * @param fsyncIntervalInMillis must be greater than 0
+     * @return builder
+     */
+    public Builder setFsyncIntervalInMillis(long fsyncIntervalInMillis) {
+      if (fsyncIntervalInMillis <= 0) {
+        throw new IllegalArgumentException("fsyncIntervalInMillis must be greater than 0.");
+      }
+      this.segmentedLogConfigToBuild.fsyncIntervalInMillis = fsyncIntervalInMillis;
+      return this;
+    }
+
+    /**
+     * Sets the ratio of live bytes below which sealed segments are compacted.
+     *
+     * @param compactionLiveRatio must be between 0 and 1, 0 disables compaction
+     * @return builder
+     */
+    public Builder setCompactionLiveRatio(double compactionLiveRatio) {
+      if (compactionLiveRatio < 0 || compactionLiveRatio > 1) {
+        throw new IllegalArgumentException("compactionLiveRatio must be between 0 and 1.");
+      }
+      this.segmentedLogConfigToBuild.compactionLiveRatio = compactionLiveRatio;
+      return this;
+    }
+
+    /**
+     * Sets the bytes of sealed segments which may be memory-mapped for reads at a time.
+     *
+     * @param maxMappedBytes must not be negative, 0 reads every segment through its channel
+     * @return builder
+     */
+    public Builder setMaxMappedBytes(long maxMappedBytes) {
+      if (maxMappedBytes < 0) {
+        throw new IllegalArgumentException("maxMappedBytes cannot be negative.");
+      }
+      this.segmentedLogConfigToBuild.maxMappedBytes = maxMappedBytes;
+      return this;
+    }
+  }
+}
@@ -0,0 +1,284 @@
+/*
+ * Copyright 2020 Flipkart Internet, pvt ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.flipkart.gojira.sinkstore.file;
+
+import com.flipkart.gojira.models.TestResult;
+import com.flipkart.gojira.sinkstore.SinkException;
+import com.flipkart.gojira.sinkstore.handlers.SinkHandler;
+import com.flipkart.gojira.sinkstore.results.TestResultIndex;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Local implementation of {@link SinkHandler} which appends test data and results to separate
+ * append-only segmented logs under {@link SegmentedLogConfig#getPath()}, in the data and results
+ * directories respectively. Records are read back by id through an in-memory index which is
+ * rebuilt on start, see {@link SegmentedLog}. Test data in sealed segments is read from
+ * memory-mapped segments, and {@link #readBuffer(String)} returns it without copying.
+ *
+ * <p>Results written through {@link #writeTestResult(TestResult)} are additionally kept in full in
+ * a third log, test-results, and aggregated in a {@link TestResultIndex} which is rebuilt from that
+ * log on start.
+ *
+ * <p>Writing a test id again overwrites its earlier record. Space of overwritten records is
+ * reclaimed by compaction, which runs whenever a segment is rolled and can be triggered by calling
+ * {@link #compact()}.
+ *
+ * <p>A directory can be opened by a single instance at a time.
+ */
+public class SegmentedLogDataStoreHandler extends SinkHandler implements Closeable {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SegmentedLogDataStoreHandler.class);
+
+  private final SegmentedLog testDataLog;
+  private final SegmentedLog resultsLog;
+  private final SegmentedLog testResultsLog;
+  private final TestResultIndex testResultIndex = new TestResultIndex();
+  private final ScheduledExecutorService fsyncScheduler;
+
+  /**
+   * Opens the sink at the given directory with default configuration.
+   *
+   * @param path directory under which data is written
+   */
+  public SegmentedLogDataStoreHandler(String path) {
+    this(SegmentedLogConfig.builder().setPath(path).build());
+  }
+
+  /**
+   * Opens the sink as per the config, indexing records already present.
+   *
+   * @param segmentedLogConfig config of the sink
+   */
+  public SegmentedLogDataStoreHandler(SegmentedLogConfig segmentedLogConfig) {
+    try {
+      this.testDataLog =
+          new SegmentedLog(Paths.get(segmentedLogConfig.getPath(), "data"), segmentedLogConfig);
+      this.resultsLog =
+          new SegmentedLog(Paths.get(segmentedLogConfig.getPath(), "results"), segmentedLogConfig);
+      this.testResultsLog =
+          new SegmentedLog(
+              Paths.get(segmentedLogConfig.getPath(), "test-results"), segmentedLogConfig);
+      for (String testId : testResultsLog.ids()) {
+        testResultIndex.add(TestResultCodec.decode(testResultsLog.readBuffer(testId)));
+      }
+    } catch (IOException e) {
+      throw new RuntimeException("Unable to open sink at " + segmentedLogConfig.getPath(), e);
+    }
+    if (FsyncPolicy.INTERVAL.equals(segmentedLogConfig.getFsyncPolicy())) {
+      this.fsyncScheduler =
+          Executors.newSingleThreadScheduledExecutor(
+              runnable -> {
+                Thread thread = new Thread(runnable, "gojira-sink-fsync");
+                thread.setDaemon(true);
+                return thread;
+              });
+      this.fsyncScheduler.scheduleWithFixedDelay(
+          this::sync,
+          segmentedLogConfig.getFsyncIntervalInMillis(),
+          segmentedLogConfig.getFsyncIntervalInMillis(),
+          TimeUnit.MILLISECONDS);
+    } else {
+      this.fsyncScheduler = null;
+    }
+  }
+
+  @Override
+  public void write(String testId, byte[] testData) throws SinkException {
+    writeBatch(Collections.singletonMap(testId, testData));
+  }
+
+  /**
+   * Appends all records in a single write.
+   *
+   * @param testData serialized test data by test id
+   * @throws SinkException if the records could not be written
+   */
+  @Override
+  public void writeBatch(Map<String, byte[]> testData) throws SinkException {
+    try {
+      testDataLog.append(testData);
+    } catch (IOException e) {
+      throw new SinkException("Unable to write test data.", e);
+    }
+  }
+
+  @Override
+  public byte[] read(String testId) throws SinkException {
+    return readValue(testDataLog, testId);
+  }
+
+  /**
+   * Reads test data as a slice of its memory-mapped segment where possible.
+   *
+   * @param testId test id to read
+   * @return read-only view of the serialized test data
+   * @throws SinkException if nothing was written for the id or it could not be read
+   */
+  @Override
+  public ByteBuffer readBuffer(String testId) throws SinkException {
+    ByteBuffer value;
+    try {
+      value = testDataLog.readBuffer(testId);
+    } catch (IOException e) {
+      throw new SinkException("Unable to read id: " + testId, e);
+    }
+    if (value == null) {
+      throw new SinkException("Nothing written for id: " + testId);
+    }
+    return value;
+  }
+
+  @Override
+  public void writeResults(String testId, String result) throws SinkException {
+    writeResultsBatch(Collections.singletonMap(testId, result));
+  }
+
+  /**
+   * Appends all results in a single write.
+   *
+   * @param results result by test id
+   * @throws SinkException if the results could not be written
+   */
+  @Override
+  public void writeResultsBatch(Map<String, String> results) throws SinkException {
+    Map<String, byte[]> records = new LinkedHashMap<>();
+    for (Map.Entry<String, String> result : results.entrySet()) {
+      records.put(result.getKey(), result.getValue().getBytes(StandardCharsets.UTF_8));
+    }
+    try {
+      resultsLog.append(records);
+    } catch (IOException e) {
+      throw new SinkException("Unable to write results.", e);
+    }
+  }
+
+  @Override
+  public String readResults(String testId) throws SinkException {
+    return new String(readValue(resultsLog, testId), StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Writes the full result to the test-results log, then its status to the results log. Results
+   * are written one at a time, so that the result being replaced is removed from the index.
+   *
+   * @param testResult result of the test
+   * @throws SinkException if the result could not be written
+   */
+  @Override
+  public synchronized void writeTestResult(TestResult testResult) throws SinkException {
+    String testId = testResult.getTestId();
+    try {
+      ByteBuffer encoded = testResultsLog.readBuffer(testId);
+      TestResult previous = encoded == null ? null : TestResultCodec.decode(encoded);
+      testResultsLog.append(
+          Collections.singletonMap(testId, TestResultCodec.encode(testResult)));
+      if (previous != null) {
+        testResultIndex.remove(previous);
+      }
+    } catch (IOException e) {
+      throw new SinkException("Unable to write test result of id: " + testId, e);
+    }
+    testResultIndex.add(testResult);
+    writeResults(testId, testResult.getStatus());
+  }
+
+  @Override
+  public TestResult readTestResult(String testId) throws SinkException {
+    try {
+      return TestResultCodec.decode(ByteBuffer.wrap(readValue(testResultsLog, testId)));
+    } catch (IOException e) {
+      throw new SinkException("Unable to read test result of id: " + testId, e);
+    }
+  }
+
+  @Override
+  public TestResultIndex getTestResultIndex() {
+    return testResultIndex;
+  }
+
+  /**
+   * Compacts sealed segments of test data and results which are mostly overwritten.
+   *
+   * @throws SinkException if compaction failed
+   */
+  public void compact() throws SinkException {
+    try {
+      testDataLog.compact();
+      resultsLog.compact();
+      testResultsLog.compact();
+    } catch (IOException e) {
+      throw new SinkException("Unable to compact.", e);
+    }
+  }
+
+  /**
+   * Forces pending writes to disk and closes the logs.
+   *
+   * @throws IOException if the logs could not be closed
+   */
+  @Override
+  public void close() throws IOException {
+    if (fsyncScheduler != null) {
+      fsyncScheduler.shutdownNow();
+    }
+    try {
+      testDataLog.close();
+    } finally {
+      try {
+        resultsLog.close();
+      } finally {
+        testResultsLog.close();
+      }
+    }
+  }
+
+  private void sync() {
+    try {
+      testDataLog.sync();
+      resultsLog.sync();
+      testResultsLog.sync();
+    } catch (IOException e) {
+      LOGGER.error("Unable to force sink to disk.", e);
+    }
+  }
+
+  private static byte[] readValue(SegmentedLog log, String testId) throws SinkException {
+    byte[] value;
+    try {
+      value = log.read(testId);
+    } catch (IOException e) {
+      throw new SinkException("Unable to read id: " + testId, e);
+    }
+    if (value == null) {
+      throw new SinkException("Nothing written for id: " + testId);
+    }
+    return value;
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2020 Flipkart Internet, pvt ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.flipkart.gojira.sinkstore.file;
+
+import com.flipkart.gojira.models.TestResult;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary encoding of {@link TestResult}, led by a version byte. Strings are written as their
+ * UTF-8 length, -1 for null, followed by the bytes.
+ */
+final class TestResultCodec {
+
+  private static final byte VERSION = 1;
+
+  private TestResultCodec() {}
+
+  static byte[] encode(TestResult testResult) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+    DataOutputStream output = new DataOutputStream(bytes);
+    try {
+      output.writeByte(VERSION);
+      writeString(output, testResult.getTestId());
+      writeString(output, testResult.getStatus());
+      writeString(output, testResult.getUri());
+      output.writeInt(testResult.getDiffPaths().size());
+      for (String diffPath : testResult.getDiffPaths()) {
+        writeString(output, diffPath);
+      }
+      writeString(output, testResult.getFailedMethod());
+      writeString(output, testResult.getFailureMessage());
+      output.writeLong(testResult.getEndedAt());
+      output.writeLong(testResult.getDurationInMillis());
+    } catch (IOException e) {
+      throw new IllegalStateException("unable to encode test result to memory.", e);
+    }
+    return bytes.toByteArray();
+  }
+
+  static TestResult decode(ByteBuffer buffer) throws IOException {
+    ByteBuffer input = buffer.duplicate();
+    try {
+      byte version = input.get();
+      if (version != VERSION) {
+        throw new IOException("unknown test result encoding version: " + version);
+      }
+      TestResult.Builder builder =
+          TestResult.builder()
+              .setTestId(readString(input))
+              .setStatus(readString(input))
+              .setUri(readString(input));
+      int diffPathCount = input.getInt();
+      List<String> diffPaths = new ArrayList<>(diffPathCount);
+      for (int i = 0; i < diffPathCount; i++) {
+        diffPaths.add(readString(input));
+      }
+      return builder
+          .setDiffPaths(diffPaths)
+          .setFailedMethod(readString(input))
+          .setFailureMessage(readString(input))
+          .setEndedAt(input.getLong())
+          .setDurationInMillis(input.getLong())
+          .build();
+    } catch (RuntimeException e) {
+      throw new IOException("unable to decode test result.", e);
+    }
+  }
+
+  private static void writeString(DataOutputStream output, String value) throws IOException {
+    if (value == null) {
+      output.writeInt(-1);
+      return;
+    }
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    output.writeInt(bytes.length);
+    output.write(bytes);
+  }
+
+  private static String readString(ByteBuffer input) {
+    int length = input.getInt();
+    if (length < 0) {
+      return null;
+    }
+    byte[] bytes = new byte[length];
+    input.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+}
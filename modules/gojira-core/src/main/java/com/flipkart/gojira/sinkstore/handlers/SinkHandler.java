@@ -16,10 +16,20 @@
 
 package com.flipkart.gojira.sinkstore.handlers;
 
+import com.flipkart.gojira.models.TestResult;
 import com.flipkart.gojira.sinkstore.SinkException;
+import com.flipkart.gojira.sinkstore.results.TestResultIndex;
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Interface to read/write test data and results.
+ *
+ * <p>The batch methods fall back to the single record methods one record at a time.
+ * Implementations backed by a remote or disk store should override them to amortize round trips
+ * and I/O across the batch.
  */
 public abstract class SinkHandler {
 
@@ -29,5 +39,103 @@ public abstract class SinkHandler {
 
   public abstract void writeResults(String testId, String result) throws SinkException;
 
-  // TODO: Add method for reading results.
+  /**
+   * Reads test data as a buffer, which implementations may back by storage to avoid copying it.
+   *
+   * @param testId test id to read
+   * @return serialized test data, positioned at its start
+   * @throws SinkException if the test data could not be read
+   */
+  public ByteBuffer readBuffer(String testId) throws SinkException {
+    return ByteBuffer.wrap(read(testId));
+  }
+
+  /**
+   * Writes test data of many test ids.
+   *
+   * @param testData serialized test data by test id
+   * @throws SinkException if any of the records could not be written, in which case some of them
+   *     may have been written
+   */
+  public void writeBatch(Map<String, byte[]> testData) throws SinkException {
+    for (Map.Entry<String, byte[]> entry : testData.entrySet()) {
+      write(entry.getKey(), entry.getValue());
+    }
+  }
+
+  /**
+   * Reads test data of many test ids.
+   *
+   * @param testIds test ids to read
+   * @return serialized test data by test id, in the order of testIds
+   * @throws SinkException if any of the records could not be read
+   */
+  public Map<String, byte[]> readBatch(List<String> testIds) throws SinkException {
+    Map<String, byte[]> testData = new LinkedHashMap<>();
+    for (String testId : testIds) {
+      testData.put(testId, read(testId));
+    }
+    return testData;
+  }
+
+  /**
+   * Writes results of many test ids.
+   *
+   * @param results result by test id
+   * @throws SinkException if any of the results could not be written, in which case some of them
+   *     may have been written
+   */
+  public void writeResultsBatch(Map<String, String> results) throws SinkException {
+    for (Map.Entry<String, String> entry : results.entrySet()) {
+      writeResults(entry.getKey(), entry.getValue());
+    }
+  }
+
+  /**
+   * Reads the result written for a test id. Implementations which can not read back results do
+   * not override this method.
+   *
+   * @param testId test id
+   * @return result
+   * @throws SinkException if the result could not be read
+   */
+  public String readResults(String testId) throws SinkException {
+    throw new SinkException("reading results is not supported by " + getClass().getSimpleName());
+  }
+
+  /**
+   * Writes the result of a test along with the details of its failure. Falls back to writing only
+   * the status through {@link #writeResults(String, String)}.
+   *
+   * @param testResult result of the test
+   * @throws SinkException if the result could not be written
+   */
+  public void writeTestResult(TestResult testResult) throws SinkException {
+    writeResults(testResult.getTestId(), testResult.getStatus());
+  }
+
+  /**
+   * Reads the result written for a test id through {@link #writeTestResult(TestResult)}.
+   * Implementations which do not keep the details of results do not override this method.
+   *
+   * @param testId test id
+   * @return result
+   * @throws SinkException if the result could not be read
+   */
+  public TestResult readTestResult(String testId) throws SinkException {
+    throw new SinkException(
+        "reading test results is not supported by " + getClass().getSimpleName());
+  }
+
+  /**
+   * Returns aggregates over the results written through {@link #writeTestResult(TestResult)}.
+   * Implementations which do not keep the details of results do not override this method.
+   *
+   * @return index of results, kept up to date as results are written
+   * @throws SinkException if results are not aggregated
+   */
+  public TestResultIndex getTestResultIndex() throws SinkException {
+    throw new SinkException(
+        "aggregating test results is not supported by " + getClass().getSimpleName());
+  }
 }
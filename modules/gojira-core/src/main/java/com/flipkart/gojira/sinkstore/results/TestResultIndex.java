@@ -0,0 +1,144 @@
+/*
+ * Copyright 2020 Flipkart Internet, pvt ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.flipkart.gojira.sinkstore.results;
+
+import com.flipkart.gojira.models.TestResult;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory aggregates over the latest {@link TestResult} of every test id, maintained as results
+ * are written so that queries cost in the number of distinct keys, not in the number of tests.
+ * Counts test ids by status, and failed test ids by uri, by diff path and by failed method. A
+ * test id is counted once per diff path, however many times the path differed.
+ *
+ * <p>Sinks call {@link #add(TestResult)} for every result written and {@link #remove(TestResult)}
+ * for the result it replaces. Updates and queries are thread safe. Queries see each update
+ * atomically per key, not across keys.
+ */
+public final class TestResultIndex {
+
+  private final LongAdder testCount = new LongAdder();
+  private final Map<String, LongAdder> countsByStatus = new ConcurrentHashMap<>();
+  private final Map<String, LongAdder> failureCountsByUri = new ConcurrentHashMap<>();
+  private final Map<String, LongAdder> failureCountsByDiffPath = new ConcurrentHashMap<>();
+  private final Map<String, LongAdder> failureCountsByMethod = new ConcurrentHashMap<>();
+
+  /**
+   * Counts a result.
+   *
+   * @param testResult result to count
+   */
+  public void add(TestResult testResult) {
+    update(testResult, 1);
+  }
+
+  /**
+   * Stops counting a result, which should have been added earlier.
+   *
+   * @param testResult result to stop counting
+   */
+  public void remove(TestResult testResult) {
+    update(testResult, -1);
+  }
+
+  public long getTestCount() {
+    return testCount.sum();
+  }
+
+  /**
+   * Returns the number of test ids whose latest result has each status.
+   *
+   * @return counts by status, highest first
+   */
+  public Map<String, Long> getCountsByStatus() {
+    return top(countsByStatus, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Returns the uris with the most failed test ids.
+   *
+   * @param limit maximum number of uris to return
+   * @return failure counts by uri, highest first
+   */
+  public Map<String, Long> getFailureCountsByUri(int limit) {
+    return top(failureCountsByUri, limit);
+  }
+
+  /**
+   * Returns the diff paths which failed the most test ids.
+   *
+   * @param limit maximum number of diff paths to return
+   * @return failure counts by diff path, highest first
+   */
+  public Map<String, Long> getFailureCountsByDiffPath(int limit) {
+    return top(failureCountsByDiffPath, limit);
+  }
+
+  /**
+   * Returns the intercepted methods which failed the most test ids.
+   *
+   * @param limit maximum number of methods to return
+   * @return failure counts by method, highest first
+   */
+  public Map<String, Long> getFailureCountsByMethod(int limit) {
+    return top(failureCountsByMethod, limit);
+  }
+
+  private void update(TestResult testResult, int delta) {
+    testCount.add(delta);
+    increment(countsByStatus, testResult.getStatus(), delta);
+    if (testResult.isSuccess()) {
+      return;
+    }
+    increment(failureCountsByUri, testResult.getUri(), delta);
+    increment(failureCountsByMethod, testResult.getFailedMethod(), delta);
+    Set<String> diffPaths = new HashSet<>(testResult.getDiffPaths());
+    for (String diffPath : diffPaths) {
+      increment(failureCountsByDiffPath, diffPath, delta);
+    }
+  }
+
+  private static void increment(Map<String, LongAdder> counts, String key, int delta) {
+    if (key != null) {
+      counts.computeIfAbsent(key, k -> new LongAdder()).add(delta);
+    }
+  }
+
+  private static Map<String, Long> top(Map<String, LongAdder> counts, int limit) {
+    List<Map.Entry<String, Long>> entries = new ArrayList<>(counts.size());
+    for (Map.Entry<String, LongAdder> count : counts.entrySet()) {
+      long sum = count.getValue().sum();
+      if (sum > 0) {
+        entries.add(new AbstractMap.SimpleImmutableEntry<>(count.getKey(), sum));
+      }
+    }
+    entries.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+    Map<String, Long> top = new LinkedHashMap<>();
+    for (Map.Entry<String, Long> entry : entries.subList(0, Math.min(limit, entries.size()))) {
+      top.put(entry.getKey(), entry.getValue());
+    }
+    return top;
+  }
+}
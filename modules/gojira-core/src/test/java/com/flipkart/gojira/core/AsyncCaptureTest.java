@@ -0,0 +1,231 @@
+/*
+ * Copyright 2020 Flipkart Internet, pvt ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.flipkart.gojira.core;
+
+import com.flipkart.gojira.core.injectors.GuiceInjector;
+import com.flipkart.gojira.models.ExecutionData;
+import com.flipkart.gojira.models.MethodData;
+import com.flipkart.gojira.models.MethodDataType;
+import com.flipkart.gojira.serde.SerdeHandlerRepository;
+import com.flipkart.gojira.serde.SerdeHandlerRepositoryImpl;
+import com.flipkart.gojira.serde.annotations.SerdeHandler;
+import com.flipkart.gojira.serde.handlers.json.JsonMapListSerdeHandler;
+import com.google.inject.Guice;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class AsyncCaptureTest {
+
+  @Test
+  public void test_CompletionWaitsForPendingCaptures() {
+    GojiraContext context = new GojiraContext("1", new ExecutionData());
+    AtomicInteger completions = new AtomicInteger();
+
+    Assert.assertTrue(context.tryAcquireCapture());
+    Assert.assertTrue(context.tryAcquireCapture());
+    context.complete(completions::incrementAndGet);
+    Assert.assertEquals(0, completions.get());
+
+    context.releaseCapture();
+    Assert.assertEquals(0, completions.get());
+    context.releaseCapture();
+    Assert.assertEquals(1, completions.get());
+
+    // nothing can be captured, nor completed again, once completed.
+    Assert.assertFalse(context.tryAcquireCapture());
+    context.complete(completions::incrementAndGet);
+    Assert.assertEquals(1, completions.get());
+  }
+
+  @Test
+  public void test_CompletionRunsInlineWithoutPendingCaptures() {
+    GojiraContext context = new GojiraContext("1", new ExecutionData());
+    AtomicInteger completions = new AtomicInteger();
+    context.complete(completions::incrementAndGet);
+    Assert.assertEquals(1, completions.get());
+  }
+
+  @Test
+  public void test_SaturatedPoolRejectsWithoutBlocking() throws Exception {
+    AsyncCaptureExecutor.configure(
+        AsyncCaptureConfig.builder().setEnabled(true).setPoolSize(1).setQueueCapacity(1).build());
+    try {
+      AsyncCaptureExecutor executor = AsyncCaptureExecutor.getInstance();
+      CountDownLatch started = new CountDownLatch(1);
+      CountDownLatch release = new CountDownLatch(1);
+      Runnable blocking =
+          () -> {
+            started.countDown();
+            try {
+              release.await();
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+          };
+      Assert.assertTrue(executor.submit(blocking));
+      Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+      Assert.assertTrue(executor.submit(blocking));
+      Assert.assertFalse(executor.submit(blocking));
+      Assert.assertEquals(2, executor.getSubmittedCount());
+      Assert.assertEquals(1, executor.getRejectedCount());
+      release.countDown();
+    } finally {
+      AsyncCaptureExecutor.configure(null);
+    }
+  }
+
+  @Test
+  public void test_ImmutableTypes() {
+    AsyncCaptureExecutor.configure(
+        AsyncCaptureConfig.builder()
+            .setEnabled(true)
+            .setImmutableTypes(Collections.singletonList(URI.class))
+            .build());
+    try {
+      AsyncCaptureExecutor executor = AsyncCaptureExecutor.getInstance();
+      Assert.assertTrue(executor.isImmutable(null));
+      Assert.assertTrue(executor.isImmutable("value"));
+      Assert.assertTrue(executor.isImmutable(1L));
+      Assert.assertTrue(executor.isImmutable(Mode.PROFILE));
+      Assert.assertTrue(executor.isImmutable(URI.create("http://localhost")));
+      Assert.assertFalse(executor.isImmutable(new StringBuilder()));
+      Assert.assertFalse(executor.isImmutable(new byte[0]));
+    } finally {
+      AsyncCaptureExecutor.configure(null);
+    }
+  }
+
+  @Test
+  public void test_ReturnValueSnapshottedBeforeCallerMutatesIt() throws Throwable {
+    AsyncCaptureExecutor.configure(
+        AsyncCaptureConfig.builder().setEnabled(true).setPoolSize(1).setQueueCapacity(2).build());
+    GuiceInjector.assignInjector(
+        Guice.createInjector(
+            binder ->
+                binder
+                    .bind(SerdeHandlerRepository.class)
+                    .toInstance(new SerdeHandlerRepositoryImpl())));
+    CountDownLatch release = new CountDownLatch(1);
+    try {
+      // hold the only capture thread, so that the capture runs after the caller has mutated.
+      Assert.assertTrue(
+          AsyncCaptureExecutor.getInstance()
+              .submit(
+                  () -> {
+                    try {
+                      release.await();
+                    } catch (InterruptedException e) {
+                      Thread.currentThread().interrupt();
+                    }
+                  }));
+      ProfileRepository.begin("async");
+      ProfileRepository.setRequestMode(Mode.PROFILE);
+
+      @SuppressWarnings("unchecked")
+      List<String> returned =
+          (List<String>) new ProfileMethodDataInterceptorHandler().handle(invocationOf("returned"));
+      returned.add("mutated");
+      release.countDown();
+
+      String methodId = AsyncCaptureTest.class.getDeclaredMethod("returned").toGenericString();
+      AtomicReference<byte[]> recorded = new AtomicReference<>();
+      CountDownLatch ended = new CountDownLatch(1);
+      ProfileRepository.end(
+          context -> {
+            ConcurrentHashMap<
+                    String,
+                    ConcurrentSkipListMap<
+                        Long, ConcurrentHashMap<MethodDataType, List<MethodData>>>>
+                recordedMethodDataMap = context.getExecutionData().getTestData().getMethodDataMap();
+            recorded.set(
+                recordedMethodDataMap
+                    .get(methodId)
+                    .firstEntry()
+                    .getValue()
+                    .get(MethodDataType.RETURN)
+                    .get(0)
+                    .getData());
+            ended.countDown();
+          });
+      Assert.assertTrue(ended.await(5, TimeUnit.SECONDS));
+      Assert.assertArrayEquals(
+          new JsonMapListSerdeHandler().serialize(returned()),
+          recorded.get());
+    } finally {
+      release.countDown();
+      GuiceInjector.unAssignInjector();
+      AsyncCaptureExecutor.configure(null);
+    }
+  }
+
+  @SerdeHandler(serdeHandlerClass = JsonMapListSerdeHandler.class)
+  private List<String> returned() {
+    List<String> returned = new ArrayList<>();
+    returned.add("recorded");
+    return returned;
+  }
+
+  private MethodInvocation invocationOf(String methodName) throws NoSuchMethodException {
+    Method method = AsyncCaptureTest.class.getDeclaredMethod(methodName);
+    return new MethodInvocation() {
+      @Override
+      public Method getMethod() {
+        return method;
+      }
+
+      @Override
+      public Object[] getArguments() {
+        return new Object[0];
+      }
+
+      @Override
+      public Object proceed() {
+        return returned();
+      }
+
+      @Override
+      public Object getThis() {
+        return AsyncCaptureTest.this;
+      }
+
+      @Override
+      public AccessibleObject getStaticPart() {
+        return method;
+      }
+    };
+  }
+
+  @Test
+  public void test_DisabledByDefault() {
+    AsyncCaptureExecutor.configure(AsyncCaptureConfig.builder().build());
+    Assert.assertNull(AsyncCaptureExecutor.getInstance());
+  }
+}
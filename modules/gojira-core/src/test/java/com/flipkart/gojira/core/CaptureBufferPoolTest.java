@@ -0,0 +1,102 @@
+/*
+ * Copyright 2020 Flipkart Internet, pvt ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.flipkart.gojira.core;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CaptureBufferPoolTest {
+
+  @After
+  public void tearDown() {
+    CaptureBufferPool.releaseLeases();
+    CaptureBufferPool.configure(CaptureBufferConfig.builder().build());
+  }
+
+  @Test
+  public void test_ReleasedBufferIsReused() {
+    CaptureBufferPool.configure(CaptureBufferConfig.builder().setMinBufferBytes(16).build());
+    CaptureBufferPool pool = CaptureBufferPool.getInstance();
+
+    byte[] buffer = pool.acquire(10);
+    Assert.assertEquals(16, buffer.length);
+    pool.release(buffer);
+    Assert.assertEquals(16, pool.getPooledBytes());
+
+    Assert.assertSame(buffer, pool.acquire(16));
+    Assert.assertEquals(2, pool.getAcquiredCount());
+    Assert.assertEquals(1, pool.getReusedCount());
+    Assert.assertEquals(1, pool.getAllocatedCount());
+    Assert.assertEquals(16, pool.getAllocatedBytes());
+    Assert.assertEquals(0, pool.getPooledBytes());
+  }
+
+  @Test
+  public void test_PoolIsBounded() {
+    CaptureBufferPool.configure(
+        CaptureBufferConfig.builder()
+            .setMinBufferBytes(16)
+            .setMaxBufferBytes(64)
+            .setMaxPooledBytes(96)
+            .build());
+    CaptureBufferPool pool = CaptureBufferPool.getInstance();
+
+    byte[] large = pool.acquire(100);
+    Assert.assertEquals(100, large.length);
+    pool.release(large);
+    Assert.assertEquals(0, pool.getPooledBytes());
+
+    pool.release(pool.acquire(64));
+    pool.release(pool.acquire(32));
+    pool.release(pool.acquire(64));
+    Assert.assertEquals(96, pool.getPooledBytes());
+  }
+
+  @Test
+  public void test_DisabledPoolAllocates() {
+    CaptureBufferPool.configure(CaptureBufferConfig.builder().setEnabled(false).build());
+    CaptureBufferPool pool = CaptureBufferPool.getInstance();
+
+    byte[] buffer = pool.acquire(10);
+    pool.release(buffer);
+    Assert.assertNotSame(buffer, pool.acquire(10));
+    Assert.assertEquals(0, pool.getReusedCount());
+    Assert.assertEquals(2, pool.getAllocatedCount());
+  }
+
+  @Test
+  public void test_CaptureBufferGrowsAndIsReleased() throws Exception {
+    CaptureBufferPool.configure(CaptureBufferConfig.builder().setMinBufferBytes(4).build());
+    CaptureBufferPool pool = CaptureBufferPool.getInstance();
+    byte[] body = "0123456789".getBytes(StandardCharsets.UTF_8);
+
+    CaptureBuffer captureBuffer = CaptureBufferPool.lease();
+    captureBuffer.readFrom(new ByteArrayInputStream(body));
+    Assert.assertArrayEquals(body, captureBuffer.toByteArray());
+    // outgrown buffers of 4 and 8 bytes are back in the pool, 16 bytes are still leased.
+    Assert.assertEquals(12, pool.getPooledBytes());
+
+    CaptureBufferPool.releaseLeases();
+    Assert.assertEquals(28, pool.getPooledBytes());
+    Assert.assertEquals(0, captureBuffer.size());
+    Assert.assertFalse(captureBuffer.ensureCapacity(1, 16));
+  }
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2020 Flipkart Internet, pvt ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.flipkart.gojira.core;
+
+import static com.flipkart.gojira.core.GlobalConstants.TEST_HEADER;
+
+import com.flipkart.gojira.core.injectors.GuiceInjector;
+import com.flipkart.gojira.requestsampling.RequestSamplingModule;
+import com.flipkart.gojira.requestsampling.config.RequestSamplingConfig;
+import com.google.inject.Guice;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HttpFilterTest {
+
+  private static final byte[] BODY = "0123456789".getBytes(StandardCharsets.UTF_8);
+
+  private final ByteArrayOutputStream client = new ByteArrayOutputStream();
+
+  @After
+  public void tearDown() {
+    CaptureBufferPool.releaseLeases();
+    ProfileRepository.setInFlightDataConfig(InFlightDataConfig.builder().build());
+  }
+
+  @Test
+  public void test_ResponseStreamedThroughAndCaptured() throws Exception {
+    HttpFilter.TestServletResponseWrapper wrapper = wrap(InFlightDataConfig.builder().build());
+    wrapper.getOutputStream().write(BODY, 0, 4);
+    Assert.assertEquals(4, client.size());
+    wrapper.getOutputStream().write(BODY, 4, 6);
+
+    Assert.assertArrayEquals(BODY, client.toByteArray());
+    Assert.assertArrayEquals(BODY, wrapper.getBuffer());
+    Assert.assertFalse(wrapper.isPayloadOversized());
+  }
+
+  @Test
+  public void test_OversizedResponseSkipped() throws Exception {
+    HttpFilter.TestServletResponseWrapper wrapper =
+        wrap(
+            InFlightDataConfig.builder()
+                .setMaxPayloadBytes(6)
+                .setOversizedPayloadPolicy(OversizedPayloadPolicy.SKIP)
+                .build());
+    wrapper.getOutputStream().write(BODY);
+
+    Assert.assertArrayEquals(BODY, client.toByteArray());
+    Assert.assertEquals(0, wrapper.getBuffer().length);
+    Assert.assertTrue(wrapper.isPayloadOversized());
+  }
+
+  @Test
+  public void test_OversizedResponseTruncated() throws Exception {
+    HttpFilter.TestServletResponseWrapper wrapper =
+        wrap(
+            InFlightDataConfig.builder()
+                .setMaxPayloadBytes(6)
+                .setOversizedPayloadPolicy(OversizedPayloadPolicy.TRUNCATE)
+                .build());
+    for (byte data : BODY) {
+      wrapper.getOutputStream().write(data);
+    }
+
+    Assert.assertArrayEquals(BODY, client.toByteArray());
+    Assert.assertEquals("012345", new String(wrapper.getBuffer(), StandardCharsets.UTF_8));
+    Assert.assertTrue(wrapper.isPayloadOversized());
+  }
+
+  @Test
+  public void test_UncappedResponseCapturedInFull() throws Exception {
+    HttpFilter.TestServletResponseWrapper wrapper =
+        wrap(
+            InFlightDataConfig.builder()
+                .setMaxPayloadBytes(6)
+                .setOversizedPayloadPolicy(OversizedPayloadPolicy.SKIP)
+                .build(),
+            false);
+    wrapper.getOutputStream().write(BODY);
+
+    Assert.assertArrayEquals(BODY, client.toByteArray());
+    Assert.assertArrayEquals(BODY, wrapper.getBuffer());
+    Assert.assertFalse(wrapper.isPayloadOversized());
+  }
+
+  @Test
+  public void test_NonWhitelistedRequestLeavesNoLeases() throws Exception {
+    runInTestMode(
+        () -> {
+          new HttpFilter()
+              .doFilter(
+                  request("1"),
+                  null,
+                  (req, resp) -> Assert.fail("non-whitelisted request must not be executed"));
+          Assert.assertEquals(0, CaptureBufferPool.getLeaseCount());
+        });
+  }
+
+  @Test
+  public void test_RequestWithoutTestIdLeavesNoLeases() throws Exception {
+    runInTestMode(
+        () -> {
+          try {
+            new HttpFilter().doFilter(request(null), null, (req, resp) -> Assert.fail());
+            Assert.fail("request without test id must be rejected in TEST mode");
+          } catch (RuntimeException e) {
+            Assert.assertEquals(0, CaptureBufferPool.getLeaseCount());
+          }
+        });
+  }
+
+  private interface TestModeAction {
+    void run() throws Exception;
+  }
+
+  private void runInTestMode(TestModeAction action) throws Exception {
+    GuiceInjector.assignInjector(
+        Guice.createInjector(
+            new RequestSamplingModule(
+                RequestSamplingConfig.builder()
+                    .setWhitelist(Collections.singletonList("GET /recorded"))
+                    .build())));
+    ProfileRepository.setMode(Mode.TEST);
+    try {
+      action.run();
+    } finally {
+      ProfileRepository.setMode(Mode.NONE);
+      GuiceInjector.unAssignInjector();
+    }
+  }
+
+  private HttpServletRequest request(String testId) {
+    ServletInputStream body =
+        new ServletInputStream() {
+          private final ByteArrayInputStream input = new ByteArrayInputStream(BODY);
+
+          @Override
+          public int read() {
+            return input.read();
+          }
+
+          @Override
+          public boolean isFinished() {
+            return input.available() == 0;
+          }
+
+          @Override
+          public boolean isReady() {
+            return true;
+          }
+
+          @Override
+          public void setReadListener(ReadListener readListener) {}
+        };
+    return (HttpServletRequest)
+        Proxy.newProxyInstance(
+            HttpServletRequest.class.getClassLoader(),
+            new Class[] {HttpServletRequest.class},
+            (proxy, method, args) -> {
+              switch (method.getName()) {
+                case "getHeader":
+                  return TEST_HEADER.equals(args[0]) ? testId : null;
+                case "getRequestURI":
+                  return "/other";
+                case "getMethod":
+                  return "GET";
+                case "getInputStream":
+                  return body;
+                default:
+                  return null;
+              }
+            });
+  }
+
+  private HttpFilter.TestServletResponseWrapper wrap(InFlightDataConfig inFlightDataConfig) {
+    return wrap(inFlightDataConfig, true);
+  }
+
+  private HttpFilter.TestServletResponseWrapper wrap(
+      InFlightDataConfig inFlightDataConfig, boolean capped) {
+    ProfileRepository.setInFlightDataConfig(inFlightDataConfig);
+    ServletOutputStream clientStream =
+        new ServletOutputStream() {
+          @Override
+          public void write(int data) {
+            client.write(data);
+          }
+
+          @Override
+          public boolean isReady() {
+            return true;
+          }
+
+          @Override
+          public void setWriteListener(WriteListener writeListener) {}
+        };
+    HttpServletResponse response =
+        (HttpServletResponse)
+            Proxy.newProxyInstance(
+                HttpServletResponse.class.getClassLoader(),
+                new Class[] {HttpServletResponse.class},
+                (proxy, method, args) ->
+                    "getOutputStream".equals(method.getName()) ? clientStream : null);
+    return new HttpFilter().new TestServletResponseWrapper(response, capped);
+  }
+}
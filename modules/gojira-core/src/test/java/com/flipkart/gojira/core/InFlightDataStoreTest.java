@@ -0,0 +1,138 @@
+/*
+ * Copyright 2020 Flipkart Internet, pvt ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.flipkart.gojira.core;
+
+import com.flipkart.gojira.models.ExecutionData;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class InFlightDataStoreTest {
+
+  @Test
+  public void test_DropNewRejectsWhenFull() {
+    InFlightDataStore store =
+        new InFlightDataStore(
+            InFlightDataConfig.builder()
+                .setMaxEntries(2)
+                .setOverflowPolicy(OverflowPolicy.DROP_NEW)
+                .build());
+    Assert.assertEquals(
+        InFlightDataStore.Admission.ADMITTED, store.begin(newContext("1")));
+    Assert.assertEquals(
+        InFlightDataStore.Admission.DUPLICATE, store.begin(newContext("1")));
+    Assert.assertEquals(
+        InFlightDataStore.Admission.ADMITTED, store.begin(newContext("2")));
+    Assert.assertEquals(
+        InFlightDataStore.Admission.REJECTED, store.begin(newContext("3")));
+    Assert.assertEquals(2, store.getEntryCount());
+    Assert.assertEquals(1, store.getRejectedCount());
+
+    Assert.assertTrue(store.end(store.get("1")));
+    Assert.assertEquals(
+        InFlightDataStore.Admission.ADMITTED, store.begin(newContext("3")));
+  }
+
+  @Test
+  public void test_EvictOldestMarksEvictedAsFailed() {
+    InFlightDataStore store =
+        new InFlightDataStore(
+            InFlightDataConfig.builder()
+                .setMaxEntries(2)
+                .setOverflowPolicy(OverflowPolicy.EVICT_OLDEST)
+                .build());
+    GojiraContext oldest = newContext("1");
+    store.begin(oldest);
+    store.begin(newContext("2"));
+    Assert.assertEquals(
+        InFlightDataStore.Admission.ADMITTED, store.begin(newContext("3")));
+    Assert.assertNull(store.get("1"));
+    Assert.assertFalse(oldest.isActive());
+    Assert.assertEquals(ProfileState.FAILED, oldest.getExecutionData().getProfileState());
+    Assert.assertEquals(1, store.getEvictedCount());
+    Assert.assertEquals(2, store.getEntryCount());
+  }
+
+  @Test
+  public void test_EndClearsEvictedContext() throws InterruptedException {
+    ProfileRepository.setInFlightDataConfig(
+        InFlightDataConfig.builder()
+            .setMaxEntries(1)
+            .setOverflowPolicy(OverflowPolicy.EVICT_OLDEST)
+            .build());
+    try {
+      Assert.assertTrue(ProfileRepository.begin("1"));
+      GojiraContext evicted = ProfileRepository.getContext();
+      Thread thread =
+          new Thread(
+              () -> {
+                ProfileRepository.begin("2");
+                ProfileRepository.end();
+              });
+      thread.start();
+      thread.join();
+      Assert.assertFalse(evicted.isActive());
+      Assert.assertSame(evicted, ProfileRepository.getContext());
+      Assert.assertEquals(Mode.NONE, ProfileRepository.getRequestMode());
+
+      DefaultProfileOrTestHandler.end(null);
+      Assert.assertNull(ProfileRepository.getContext());
+      Assert.assertEquals(0, ProfileRepository.getInFlightDataStore().getEntryCount());
+    } finally {
+      ProfileRepository.clearGlobalPerRequestID();
+      ProfileRepository.setInFlightDataConfig(InFlightDataConfig.builder().build());
+    }
+  }
+
+  @Test
+  public void test_ByteBudget() {
+    long maxBytes = 3 * InFlightDataStore.ENTRY_OVERHEAD_BYTES;
+    InFlightDataStore store =
+        new InFlightDataStore(
+            InFlightDataConfig.builder()
+                .setMaxBytes(maxBytes)
+                .setOverflowPolicy(OverflowPolicy.DROP_NEW)
+                .build());
+    GojiraContext context = newContext("1");
+    store.begin(context);
+    Assert.assertTrue(store.charge(context, InFlightDataStore.ENTRY_OVERHEAD_BYTES));
+    Assert.assertFalse(store.charge(context, maxBytes));
+    Assert.assertEquals(ProfileState.FAILED, context.getExecutionData().getProfileState());
+    Assert.assertEquals(InFlightDataStore.ENTRY_OVERHEAD_BYTES, store.getByteCount());
+
+    Assert.assertTrue(store.end(context));
+    Assert.assertFalse(context.isActive());
+    Assert.assertEquals(0, store.getByteCount());
+    Assert.assertEquals(0, store.getEntryCount());
+  }
+
+  @Test
+  public void test_AbandonedEntriesExpire() throws InterruptedException {
+    InFlightDataStore store =
+        new InFlightDataStore(InFlightDataConfig.builder().setEntryTtlInMillis(10).build());
+    store.begin(newContext("1"));
+    Thread.sleep(50);
+    store.begin(newContext("2"));
+    Assert.assertNull(store.get("1"));
+    Assert.assertNotNull(store.get("2"));
+    Assert.assertEquals(1, store.getExpiredCount());
+    Assert.assertEquals(1, store.getEntryCount());
+  }
+
+  private static GojiraContext newContext(String id) {
+    return new GojiraContext(id, new ExecutionData());
+  }
+}
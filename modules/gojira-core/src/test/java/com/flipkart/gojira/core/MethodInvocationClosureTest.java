@@ -0,0 +1,65 @@
+/*
+ * Copyright 2020 Flipkart Internet, pvt ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.flipkart.gojira.core;
+
+import com.flipkart.gojira.core.aspects.MethodInvocationClosure;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.runtime.reflect.Factory;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MethodInvocationClosureTest {
+
+  @Test
+  public void test_MethodResolvedOncePerStaticPart() throws Exception {
+    Factory factory = new Factory("MethodInvocationClosureTest.java", getClass());
+    JoinPoint.StaticPart staticPart =
+        factory.makeSJP(
+            JoinPoint.METHOD_EXECUTION,
+            factory.makeMethodSig(
+                Modifier.PRIVATE,
+                "target",
+                MethodInvocationClosureTest.class,
+                new Class[] {String.class},
+                new String[] {"argument"},
+                new Class[0],
+                String.class),
+            1);
+
+    Method method = closure(Factory.makeJP(staticPart, this, this, "first")).getMethod();
+    Assert.assertEquals(
+        MethodInvocationClosureTest.class.getDeclaredMethod("target", String.class), method);
+    Assert.assertSame(
+        method, closure(Factory.makeJP(staticPart, this, this, "second")).getMethod());
+  }
+
+  private String target(String argument) {
+    return argument;
+  }
+
+  private static MethodInvocationClosure closure(JoinPoint joinPoint) {
+    return new MethodInvocationClosure(joinPoint) {
+      @Override
+      public Object execute() {
+        return null;
+      }
+    };
+  }
+}
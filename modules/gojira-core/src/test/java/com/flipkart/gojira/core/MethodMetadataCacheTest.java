@@ -0,0 +1,90 @@
+/*
+ * Copyright 2020 Flipkart Internet, pvt ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.flipkart.gojira.core;
+
+import com.flipkart.gojira.hash.annotations.HashHandler;
+import com.flipkart.gojira.serde.SerdeHandlerRepositoryImpl;
+import com.flipkart.gojira.serde.annotations.SerdeHandler;
+import com.flipkart.gojira.serde.handlers.json.JsonMapListSerdeHandler;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Method;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MethodMetadataCacheTest {
+
+  @Test
+  public void test_ResolvesOncePerMethod() throws Throwable {
+    MethodMetadataCache cache = new MethodMetadataCache(new SerdeHandlerRepositoryImpl(), null);
+    Method method =
+        MethodMetadataCacheTest.class.getDeclaredMethod(
+            "annotated", String.class, byte[].class, Long.class);
+
+    MethodMetadata methodMetadata = cache.get(invocationOf(method));
+    Assert.assertSame(methodMetadata, cache.get(invocationOf(method)));
+    Assert.assertEquals(method.toGenericString(), methodMetadata.getMethodId());
+
+    Assert.assertTrue(
+        methodMetadata.getArgumentSerdeHandler(0) instanceof JsonMapListSerdeHandler);
+    Assert.assertNull(methodMetadata.getArgumentHashHandler(0));
+    Assert.assertTrue(methodMetadata.getArgumentHashHandler(1) instanceof ByteArrayHashHandler);
+    Assert.assertNull(methodMetadata.getArgumentCompareHandler(2));
+    Assert.assertTrue(methodMetadata.getReturnSerdeHandler() instanceof JsonMapListSerdeHandler);
+  }
+
+  // handlers are annotated throughout since the repository has no default serde handler set.
+  @SerdeHandler(serdeHandlerClass = JsonMapListSerdeHandler.class)
+  private String annotated(
+      @SerdeHandler(serdeHandlerClass = JsonMapListSerdeHandler.class) String first,
+      @SerdeHandler(serdeHandlerClass = JsonMapListSerdeHandler.class)
+          @HashHandler(hashHandlerClass = ByteArrayHashHandler.class)
+          byte[] second,
+      @SerdeHandler(serdeHandlerClass = JsonMapListSerdeHandler.class) Long third) {
+    return first;
+  }
+
+  private static MethodInvocation invocationOf(Method method) {
+    return new MethodInvocation() {
+      @Override
+      public Method getMethod() {
+        return method;
+      }
+
+      @Override
+      public Object[] getArguments() {
+        return new Object[method.getParameterTypes().length];
+      }
+
+      @Override
+      public Object proceed() {
+        return null;
+      }
+
+      @Override
+      public Object getThis() {
+        return null;
+      }
+
+      @Override
+      public AccessibleObject getStaticPart() {
+        return method;
+      }
+    };
+  }
+}
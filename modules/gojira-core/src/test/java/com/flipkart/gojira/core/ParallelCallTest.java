@@ -30,7 +30,7 @@ import com.flipkart.gojira.serde.config.SerdeConfig;
 import com.flipkart.gojira.serde.handlers.json.JsonMapListSerdeHandler;
 import com.flipkart.gojira.sinkstore.config.DataStoreConfig;
 import com.flipkart.gojira.sinkstore.config.DataStoreModule;
-import com.flipkart.gojira.sinkstore.file.FileBasedDataStoreHandler;
+import com.flipkart.gojira.sinkstore.file.SegmentedLogDataStoreHandler;
 import com.flipkart.gojira.sinkstore.handlers.SinkHandler;
 import com.google.inject.AbstractModule;
 import java.io.File;
@@ -79,8 +79,8 @@ public class ParallelCallTest {
   private static final String TEST_ID =
       Long.toString(Thread.currentThread().getId() + System.nanoTime());
 
-  // file data-store path
-  private static final String DATASTORE_FILE_PATH = "/tmp/datastore";
+  // segmented log data-store directory
+  private static final String DATASTORE_DIR = "/tmp/gojira-datastore/";
 
   // big-queue properties
   private static final String BIG_QUEUE_MESSAGE_DIR = "/tmp/gojira-messages/";
@@ -111,6 +111,8 @@ public class ParallelCallTest {
   @Test
   public void test() throws Exception {
     DefaultProfileOrTestHandler.start(TEST_ID, HttpTestRequestData.builder().build(), Mode.PROFILE);
+    // the sink is keyed by test data id, so record under the id replayed below.
+    ProfileRepository.setTestDataId(TEST_ID);
     randomizeAndExecuteTask();
     randomizeAndExecuteTask();
     Thread.sleep(WAIT_TIME_IN_MS_BEFORE_ENDING_PROFILING);
@@ -125,7 +127,8 @@ public class ParallelCallTest {
     DefaultProfileOrTestHandler.end(HttpTestResponseData.builder().build());
 
     Assert.assertEquals(RESULT_SUCCESS,
-        new String(DI.di().getInstance(SinkHandler.class).read(TEST_ID)));
+        DI.di().getInstance(SinkHandler.class).readResults(TEST_ID));
+    Assert.assertTrue(DI.di().getInstance(SinkHandler.class).readTestResult(TEST_ID).isSuccess());
   }
 
   /**
@@ -212,18 +215,20 @@ public class ParallelCallTest {
 
   /**
    * 1. un-assign the injector for other tests to use if required. 2. Delete the files created. a.
-   * /tmp/datastore b. /tmp/gojira-messages
+   * /tmp/gojira-datastore b. /tmp/gojira-messages
    *
    * @throws IOException exception if delete fails
    */
   @AfterClass
   public static void tearDown() throws IOException {
     GuiceInjector.unAssignInjector();
-    Files.delete(Paths.get(DATASTORE_FILE_PATH));
-    Files.walk(Paths.get(BIG_QUEUE_MESSAGE_DIR))
-        .sorted(Comparator.reverseOrder())
-        .map(Path::toFile)
-        .forEach(File::delete);
+    ((SegmentedLogDataStoreHandler) DI.di().getInstance(SinkHandler.class)).close();
+    for (String dir : new String[] {DATASTORE_DIR, BIG_QUEUE_MESSAGE_DIR}) {
+      Files.walk(Paths.get(dir))
+          .sorted(Comparator.reverseOrder())
+          .map(Path::toFile)
+          .forEach(File::delete);
+    }
   }
 
   /**
@@ -241,7 +246,7 @@ public class ParallelCallTest {
       DataStoreConfig dataStoreConfig =
           DataStoreConfig.builder()
               .setDataStoreHandler(
-                  new FileBasedDataStoreHandler(DATASTORE_FILE_PATH))
+                  new SegmentedLogDataStoreHandler(DATASTORE_DIR))
               .build();
 
       RequestSamplingConfig requestSamplingConfig =
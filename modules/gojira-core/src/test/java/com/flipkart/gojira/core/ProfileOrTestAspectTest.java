@@ -0,0 +1,126 @@
+/*
+ * Copyright 2020 Flipkart Internet, pvt ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.flipkart.gojira.core;
+
+import com.flipkart.gojira.core.aspects.ProfileOrTestAspect;
+import com.flipkart.gojira.core.injectors.GuiceInjector;
+import com.flipkart.gojira.serde.SerdeHandlerRepository;
+import com.flipkart.gojira.serde.SerdeHandlerRepositoryImpl;
+import com.flipkart.gojira.serde.annotations.SerdeHandler;
+import com.flipkart.gojira.serde.handlers.TestSerdeHandler;
+import com.flipkart.gojira.serde.handlers.json.JsonMapListSerdeHandler;
+import com.google.inject.Guice;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.aopalliance.intercept.MethodInvocation;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ProfileOrTestAspectTest {
+
+  private final AtomicInteger resolvedReturnSerdeHandlers = new AtomicInteger();
+
+  @Test
+  public void test_MethodMetadataCachedAcrossAdvisedCalls() throws Throwable {
+    SerdeHandlerRepository serdeHandlerRepository =
+        new SerdeHandlerRepositoryImpl() {
+          @Override
+          public TestSerdeHandler getOrUpdateAndGetOrDefaultReturnDataSerdeHandler(
+              MethodInvocation methodInvocation) throws Throwable {
+            resolvedReturnSerdeHandlers.incrementAndGet();
+            return super.getOrUpdateAndGetOrDefaultReturnDataSerdeHandler(methodInvocation);
+          }
+        };
+    GuiceInjector.assignInjector(
+        Guice.createInjector(
+            binder ->
+                binder.bind(SerdeHandlerRepository.class).toInstance(serdeHandlerRepository)));
+    ProfileRepository.begin("aspect");
+    try {
+      ProfileRepository.setRequestMode(Mode.PROFILE);
+      ProceedingJoinPoint joinPoint = joinPointOf("profiled");
+
+      Assert.assertEquals("profiled", new ProfileOrTestAspect().around(joinPoint));
+      Assert.assertEquals("profiled", new ProfileOrTestAspect().around(joinPoint));
+
+      Assert.assertEquals(ProfileState.INITIATED, ProfileRepository.getProfileState());
+      Assert.assertEquals(1, resolvedReturnSerdeHandlers.get());
+    } finally {
+      ProfileRepository.end();
+      GuiceInjector.unAssignInjector();
+    }
+  }
+
+  @SerdeHandler(serdeHandlerClass = JsonMapListSerdeHandler.class)
+  public String profiled() {
+    return "profiled";
+  }
+
+  private ProceedingJoinPoint joinPointOf(String methodName) {
+    MethodSignature signature =
+        proxy(
+            MethodSignature.class,
+            (proxy, method, args) -> {
+              switch (method.getName()) {
+                case "getDeclaringType":
+                  return ProfileOrTestAspectTest.class;
+                case "getName":
+                  return methodName;
+                case "getParameterTypes":
+                  return new Class[0];
+                default:
+                  return null;
+              }
+            });
+    // AspectJ creates one static part per advised join point.
+    JoinPoint.StaticPart staticPart =
+        proxy(
+            JoinPoint.StaticPart.class,
+            (proxy, method, args) ->
+                "hashCode".equals(method.getName())
+                    ? System.identityHashCode(proxy)
+                    : "equals".equals(method.getName()) ? proxy == args[0] : null);
+    return proxy(
+        ProceedingJoinPoint.class,
+        (proxy, method, args) -> {
+          switch (method.getName()) {
+            case "getStaticPart":
+              return staticPart;
+            case "getSignature":
+              return signature;
+            case "getArgs":
+              return new Object[0];
+            case "getThis":
+              return this;
+            case "proceed":
+              return profiled();
+            default:
+              return null;
+          }
+        });
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+    return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class[] {type}, handler);
+  }
+}
@@ -0,0 +1,293 @@
+/*
+ * Copyright 2020 Flipkart Internet, pvt ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.flipkart.gojira.core;
+
+import com.flipkart.compare.diff.DiffIgnoreMatcher;
+import com.flipkart.compare.diff.DiffIgnoreRepository;
+import com.flipkart.compare.diff.DiffIgnoreRepositoryImpl;
+import com.flipkart.compare.diff.DiffType;
+import com.flipkart.compare.handlers.TestCompareHandler;
+import com.flipkart.compare.handlers.json.JsonTestCompareHandler;
+import com.flipkart.gojira.compare.GojiraComparisonModule;
+import com.flipkart.gojira.compare.config.GojiraComparisonConfig;
+import com.flipkart.gojira.core.injectors.GuiceInjector;
+import com.flipkart.gojira.hash.TestHashHandler;
+import com.flipkart.gojira.models.MethodData;
+import com.flipkart.gojira.models.MethodDataType;
+import com.flipkart.gojira.serde.SerdeModule;
+import com.flipkart.gojira.serde.config.SerdeConfig;
+import com.flipkart.gojira.serde.handlers.TestSerdeHandler;
+import com.flipkart.gojira.serde.handlers.json.JsonDefaultTestSerdeHandler;
+import com.google.inject.Guice;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RecordedArgumentIndexTest {
+
+  private static final TestSerdeHandler SERDE_HANDLER = new JsonDefaultTestSerdeHandler();
+
+  private final MethodMetadata methodMetadata =
+      new MethodMetadata(
+          "method",
+          new TestSerdeHandler[2],
+          new TestHashHandler[2],
+          new TestCompareHandler[] {new JsonTestCompareHandler(), new JsonTestCompareHandler()},
+          null);
+
+  /**
+   * Assigns an injector with JSON serde and compare handlers, and no ignore patterns.
+   */
+  @Before
+  public void setup() {
+    GuiceInjector.assignInjector(
+        Guice.createInjector(
+            new SerdeModule(SerdeConfig.builder().setDefaultSerdeHandler(SERDE_HANDLER).build()),
+            new GojiraComparisonModule(
+                GojiraComparisonConfig.builder()
+                    .setDiffIgnoreMap(null)
+                    .setDefaultCompareHandler(new JsonTestCompareHandler())
+                    .setResponseDataCompareHandler(new JsonTestCompareHandler())
+                    .build())));
+  }
+
+  @After
+  public void tearDown() {
+    setupDiffIgnorePatterns(DiffType.REMOVE, Collections.emptyList());
+    GuiceInjector.unAssignInjector();
+  }
+
+  @Test
+  public void test_LooksUpEntriesByArgumentFingerprint() {
+    ConcurrentSkipListMap<Long, ConcurrentHashMap<MethodDataType, List<MethodData>>> entries =
+        new ConcurrentSkipListMap<>();
+    entries.put(1L, entry(bytes("{\"a\":1,\"b\":2}"), null));
+    entries.put(2L, entry(bytes("\"b\""), null));
+    // arguments which differ only in the order of keys, or in formatting, compare equal.
+    entries.put(3L, entry(bytes("{ \"b\" : 2, \"a\" : 1 }"), null));
+    entries.put(4L, entry(bytes("{\"a\":1,\"b\":2}"), bytes("1")));
+    // entries without argument data are kept apart, to be compared against every invocation.
+    entries.put(5L, new ConcurrentHashMap<>());
+
+    RecordedArgumentIndex index = build(entries);
+
+    Assert.assertEquals(
+        Arrays.asList(1L, 3L),
+        new ArrayList<>(index.getEntryKeys(fingerprint(bytes("{\"b\":2,\"a\":1}"), null))));
+    Assert.assertEquals(
+        Arrays.asList(4L),
+        new ArrayList<>(index.getEntryKeys(fingerprint(bytes("{\"a\":1,\"b\":2}"), bytes("1")))));
+    Assert.assertTrue(index.getEntryKeys(fingerprint(bytes("\"c\""), null)).isEmpty());
+    // a null argument is not the same as an empty one.
+    Assert.assertTrue(index.getEntryKeys(fingerprint(bytes("\"b\""), new byte[0])).isEmpty());
+    Assert.assertEquals(Arrays.asList(5L), new ArrayList<>(index.getUnindexedEntryKeys()));
+  }
+
+  @Test
+  public void test_OnlyArgumentsWithIgnorablePathsLackFingerprints() {
+    // a pattern which matches no path in the arguments leaves every fingerprint in place.
+    setupDiffIgnorePatterns(DiffType.REMOVE, Collections.singletonList("/, response, /"));
+    Assert.assertNotNull(fingerprint(bytes("{\"a\":{\"c\":[1]}}"), null));
+
+    setupDiffIgnorePatterns(DiffType.REMOVE, Collections.singletonList("/, a, c, (.*), /"));
+    Assert.assertNull(fingerprint(bytes("{\"a\":{\"c\":[1]}}"), null));
+    Assert.assertNotNull(fingerprint(bytes("{\"a\":{\"c\":1}}"), null));
+    Assert.assertNotNull(fingerprint(bytes("\"a\""), null));
+
+    ConcurrentSkipListMap<Long, ConcurrentHashMap<MethodDataType, List<MethodData>>> entries =
+        new ConcurrentSkipListMap<>();
+    entries.put(1L, entry(bytes("{\"a\":{\"c\":[1]}}"), null));
+    entries.put(2L, entry(bytes("{\"a\":{\"c\":1}}"), null));
+    RecordedArgumentIndex index = build(entries);
+    Assert.assertEquals(Arrays.asList(1L), new ArrayList<>(index.getUnindexedEntryKeys()));
+    Assert.assertTrue(index.isBuiltWith(diffIgnoreMatchers()));
+
+    setupDiffIgnorePatterns(DiffType.REMOVE, Collections.emptyList());
+    Assert.assertFalse(index.isBuiltWith(diffIgnoreMatchers()));
+  }
+
+  @Test
+  public void test_ReplaysFirstEntryComparingEqual() throws Throwable {
+    ConcurrentSkipListMap<Long, ConcurrentHashMap<MethodDataType, List<MethodData>>> entries =
+        new ConcurrentSkipListMap<>();
+    entries.put(1L, replayedEntry(argument("b", 2, "a", 1), "first"));
+    entries.put(2L, replayedEntry(argument("a", 1, "b", 2), "second"));
+
+    Assert.assertEquals(
+        Arrays.asList("first", "second"),
+        replay(entries, Arrays.asList(argument("a", 1, "b", 2), argument("a", 1, "b", 2))));
+  }
+
+  @Test
+  public void test_ReplaysEarlierEntryMatchingThroughIgnoredDiffs() throws Throwable {
+    // the first entry has a field which the invocation does not, whose removal is ignored.
+    setupDiffIgnorePatterns(DiffType.REMOVE, Collections.singletonList("/, c, /"));
+    ConcurrentSkipListMap<Long, ConcurrentHashMap<MethodDataType, List<MethodData>>> entries =
+        new ConcurrentSkipListMap<>();
+    entries.put(1L, replayedEntry(argument("a", 1, "c", 3), "first"));
+    entries.put(2L, replayedEntry(argument("a", 1, "b", 2), "second"));
+    entries.put(3L, replayedEntry(argument("a", 1), "third"));
+
+    Assert.assertEquals(
+        Arrays.asList("first", "third"),
+        replay(entries, Arrays.asList(argument("a", 1), argument("a", 1))));
+  }
+
+  /**
+   * Method replayed by the tests, whose recorded entries return what it would.
+   */
+  public String replayed(Map<String, Object> argument) {
+    throw new UnsupportedOperationException("replayed from recorded data");
+  }
+
+  /**
+   * Replays the recorded entries of {@link #replayed(Map)} against invocations with the arguments,
+   * returning what each invocation returned.
+   */
+  private List<String> replay(
+      ConcurrentSkipListMap<Long, ConcurrentHashMap<MethodDataType, List<MethodData>>> entries,
+      List<Map<String, Object>> arguments)
+      throws Throwable {
+    Method method = RecordedArgumentIndexTest.class.getDeclaredMethod("replayed", Map.class);
+    ProfileRepository.begin("replay");
+    try {
+      ProfileRepository.setRequestMode(Mode.TEST);
+      ProfileRepository.getTestData().getMethodDataMap().put(method.toGenericString(), entries);
+      List<String> returned = new ArrayList<>();
+      for (Map<String, Object> argument : arguments) {
+        returned.add(
+            (String) new TestMethodDataInterceptorHandler().handle(invocationOf(method, argument)));
+      }
+      return returned;
+    } finally {
+      ProfileRepository.end();
+    }
+  }
+
+  private MethodInvocation invocationOf(Method method, Map<String, Object> argument) {
+    Object[] arguments = {argument};
+    return new MethodInvocation() {
+      @Override
+      public Method getMethod() {
+        return method;
+      }
+
+      @Override
+      public Object[] getArguments() {
+        return arguments;
+      }
+
+      @Override
+      public Object proceed() {
+        return replayed(argument);
+      }
+
+      @Override
+      public Object getThis() {
+        return RecordedArgumentIndexTest.this;
+      }
+
+      @Override
+      public AccessibleObject getStaticPart() {
+        return method;
+      }
+    };
+  }
+
+  private static ConcurrentHashMap<MethodDataType, List<MethodData>> replayedEntry(
+      Map<String, Object> argument, String returned) throws Exception {
+    ConcurrentHashMap<MethodDataType, List<MethodData>> entry =
+        entry(SERDE_HANDLER.serialize(argument));
+    entry.put(
+        MethodDataType.RETURN,
+        Collections.singletonList(
+            new MethodData(
+                MethodDataType.RETURN,
+                String.class.getName(),
+                SERDE_HANDLER.serialize(returned),
+                0)));
+    return entry;
+  }
+
+  private static Map<String, Object> argument(Object... keysAndValues) {
+    Map<String, Object> argument = new LinkedHashMap<>();
+    for (int i = 0; i < keysAndValues.length; i += 2) {
+      argument.put((String) keysAndValues[i], keysAndValues[i + 1]);
+    }
+    return argument;
+  }
+
+  private RecordedArgumentIndex build(
+      ConcurrentSkipListMap<Long, ConcurrentHashMap<MethodDataType, List<MethodData>>> entries) {
+    return RecordedArgumentIndex.build(entries, methodMetadata, diffIgnoreMatchers());
+  }
+
+  private Long fingerprint(byte[]... arguments) {
+    return RecordedArgumentIndex.fingerprint(arguments, methodMetadata);
+  }
+
+  private static List<DiffIgnoreMatcher> diffIgnoreMatchers() {
+    List<DiffIgnoreMatcher> diffIgnoreMatchers = new ArrayList<>();
+    for (DiffType diffType : DiffType.values()) {
+      diffIgnoreMatchers.add(
+          GuiceInjector.getInjector()
+              .getInstance(DiffIgnoreRepository.class)
+              .getDiffIgnoreMatcher(diffType));
+    }
+    return diffIgnoreMatchers;
+  }
+
+  private static void setupDiffIgnorePatterns(DiffType diffType, List<String> patterns) {
+    new DiffIgnoreRepositoryImpl()
+        .setupDiffIgnorePatterns(Collections.singletonMap(diffType.name(), patterns));
+  }
+
+  private static ConcurrentHashMap<MethodDataType, List<MethodData>> entry(byte[]... arguments) {
+    List<MethodData> argumentsBefore = new ArrayList<>();
+    for (int position = 0; position < arguments.length; position++) {
+      argumentsBefore.add(
+          new MethodData(
+              MethodDataType.ARGUMENT_BEFORE,
+              arguments[position] == null ? null : String.class.getName(),
+              arguments[position],
+              position));
+    }
+    ConcurrentHashMap<MethodDataType, List<MethodData>> entry = new ConcurrentHashMap<>();
+    entry.put(MethodDataType.ARGUMENT_BEFORE, argumentsBefore);
+    entry.put(
+        MethodDataType.RETURN,
+        Collections.singletonList(new MethodData(MethodDataType.RETURN, null, null, 0)));
+    return entry;
+  }
+
+  private static byte[] bytes(String value) {
+    return value.getBytes(StandardCharsets.UTF_8);
+  }
+}
@@ -19,6 +19,10 @@ package com.flipkart.gojira.core.compare;
 import com.flipkart.compare.ComparisonModule;
 import com.flipkart.compare.TestCompareException;
 import com.flipkart.compare.config.ComparisonConfig;
+import com.flipkart.compare.config.JsonCompareConfig;
+import com.flipkart.compare.diff.DiffDetail;
+import com.flipkart.compare.diff.DiffIgnoreRepository;
+import com.flipkart.compare.diff.DiffIgnoreRepositoryImpl;
 import com.flipkart.compare.diff.DiffType;
 import com.flipkart.compare.handlers.TestCompareHandler;
 import com.flipkart.compare.handlers.json.JsonTestCompareHandler;
@@ -28,8 +32,13 @@ import com.flipkart.gojira.core.serde.DeserializeTest;
 import com.flipkart.gojira.serde.TestSerdeException;
 import com.flipkart.gojira.serde.handlers.TestSerdeHandler;
 import com.flipkart.gojira.serde.handlers.json.JsonDefaultTestSerdeHandler;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -107,4 +116,281 @@ public class ComparisonTest {
     Assert.assertEquals(1, exception.getDiffs().size());
     Assert.assertEquals(DiffType.ADD, exception.getDiffs().iterator().next().getDiffType());
   }
+
+  /**
+   * Checks that documents which differ only in formatting and key order have no diffs, while
+   * reordered arrays and reordered duplicate keys still do.
+   *
+   * @throws TestCompareException comparison exception
+   */
+  @Test
+  public void checkCompareCanonicallyEqual() throws TestCompareException {
+    testCompareHandler.compare(
+        bytes("{\"a\":1,\"b\":{\"c\":[1,\"x\",null],\"d\":true}}"),
+        bytes("{ \"b\" : { \"d\" : true, \"c\" : [ 1, \"x\", null ] }, \"a\" : 1 }"));
+
+    TestCompareException exception =
+        Assert.assertThrows(
+            TestCompareException.class,
+            () -> testCompareHandler.compare(bytes("{\"c\":[1,2]}"), bytes("{\"c\":[2,1]}")));
+    Assert.assertEquals(DiffType.MOVE, exception.getDiffs().iterator().next().getDiffType());
+
+    // the last of duplicate keys wins.
+    Assert.assertThrows(
+        TestCompareException.class,
+        () ->
+            testCompareHandler.compare(
+                bytes("{\"a\":1,\"a\":2}"), bytes("{\"a\":2,\"a\":1}")));
+  }
+
+  /**
+   * Checks that diffs in documents with reordered keys are reported against the expected paths,
+   * whether the difference is a changed value, a missing or extra key, or an array element.
+   */
+  @Test
+  public void checkCompareReorderedWithDiffs() {
+    TestCompareException exception =
+        Assert.assertThrows(
+            TestCompareException.class,
+            () ->
+                testCompareHandler.compare(
+                    bytes("{\"a\":1,\"b\":{\"c\":[1,2,3],\"d\":\"x\"},\"e\":true}"),
+                    bytes("{\"f\":0,\"b\":{\"d\":\"y\",\"c\":[1,2,4]},\"a\":1}")));
+    Map<String, DiffType> diffs = new HashMap<>();
+    for (DiffDetail diff : exception.getDiffs()) {
+      diffs.put(diff.getDiffPath(), diff.getDiffType());
+    }
+    Map<String, DiffType> expected = new HashMap<>();
+    expected.put("/, b, c, (.*), /", DiffType.MODIFY);
+    expected.put("/, b, d, /", DiffType.MODIFY);
+    expected.put("/, e, /", DiffType.REMOVE);
+    expected.put("/, f, /", DiffType.ADD);
+    Assert.assertEquals(expected, diffs);
+  }
+
+  /**
+   * Checks that elements of arrays are matched to equal elements irrespective of position, unless
+   * the array path is configured as ordered, and that unmatched elements are diffed against the
+   * closest element.
+   */
+  @Test
+  public void checkCompareArrays() {
+    byte[] expected = bytes("{\"c\":[{\"id\":1,\"v\":\"a\"},{\"id\":2,\"v\":\"b\"},3]}");
+    byte[] actual = bytes("{\"c\":[3,{\"id\":2,\"v\":\"x\"},{\"id\":1,\"v\":\"a\"}]}");
+
+    TestCompareException exception =
+        Assert.assertThrows(
+            TestCompareException.class, () -> testCompareHandler.compare(expected, actual));
+    Map<String, DiffType> diffs = new HashMap<>();
+    for (DiffDetail diff : exception.getDiffs()) {
+      diffs.put(diff.getDiffPath() + " " + diff.getExpectedValue(), diff.getDiffType());
+    }
+    Map<String, DiffType> expectedDiffs = new HashMap<>();
+    expectedDiffs.put("/, c, (.*), / {\"id\":1,\"v\":\"a\"}", DiffType.MOVE);
+    expectedDiffs.put("/, c, (.*), / 3", DiffType.MOVE);
+    expectedDiffs.put("/, c, (.*), v, / \"b\"", DiffType.MODIFY);
+    Assert.assertEquals(expectedDiffs, diffs);
+
+    TestCompareHandler orderedCompareHandler =
+        new JsonTestCompareHandler(
+            JsonCompareConfig.builder()
+                .setOrderedArrayPaths(Collections.singletonList("/, C, /"))
+                .build());
+    exception =
+        Assert.assertThrows(
+            TestCompareException.class, () -> orderedCompareHandler.compare(expected, actual));
+    Assert.assertEquals(3, exception.getDiffs().size());
+    for (DiffDetail diff : exception.getDiffs()) {
+      Assert.assertEquals(DiffType.MODIFY, diff.getDiffType());
+    }
+  }
+
+  /**
+   * Checks that a large shuffled array with a modified element has only the diff of that element.
+   *
+   * @throws TestCompareException comparison exception
+   */
+  @Test
+  public void checkCompareReorderedWithIgnoredDiffs() {
+    DiffIgnoreRepository diffIgnoreRepository = new DiffIgnoreRepositoryImpl();
+    diffIgnoreRepository.setupDiffIgnorePatterns(
+        Collections.singletonMap("MODIFY", Collections.singletonList("/, (.*), traceId, /")));
+    try {
+      TestCompareException exception =
+          Assert.assertThrows(
+              TestCompareException.class,
+              () ->
+                  testCompareHandler.compare(
+                      bytes("[{\"id\":1,\"traceId\":\"a\"},{\"id\":2,\"traceId\":\"b\"}]"),
+                      bytes("[{\"id\":2,\"traceId\":\"c\"},{\"id\":1,\"traceId\":\"d\"}]")));
+      Assert.assertEquals(2, exception.getDiffs().size());
+      for (DiffDetail diff : exception.getDiffs()) {
+        Assert.assertEquals(DiffType.MOVE, diff.getDiffType());
+        Assert.assertEquals("/, (.*), /", diff.getDiffPath());
+      }
+    } finally {
+      diffIgnoreRepository.setupDiffIgnorePatterns(
+          Collections.singletonMap("MODIFY", Collections.emptyList()));
+    }
+  }
+
+  @Test
+  public void checkCompareLargeArray() throws TestCompareException {
+    StringBuilder expected = new StringBuilder("[");
+    StringBuilder actual = new StringBuilder("[");
+    for (int i = 0; i < 2000; i++) {
+      expected.append(i == 0 ? "" : ",").append("{\"id\":").append(i).append('}');
+      int id = 1999 - i;
+      actual.append(i == 0 ? "" : ",").append("{\"id\":").append(id == 7 ? -7 : id).append('}');
+    }
+    byte[] expectedBytes = bytes(expected.append(']').toString());
+    byte[] actualBytes = bytes(actual.append(']').toString());
+
+    TestCompareHandler orderedCompareHandler =
+        new JsonTestCompareHandler(
+            JsonCompareConfig.builder()
+                .setOrderedArrayPaths(Collections.singletonList(".*"))
+                .build());
+    TestCompareException exception =
+        Assert.assertThrows(
+            TestCompareException.class,
+            () -> orderedCompareHandler.compare(expectedBytes, actualBytes));
+    Assert.assertEquals(2000, exception.getDiffs().size());
+
+    exception =
+        Assert.assertThrows(
+            TestCompareException.class,
+            () -> testCompareHandler.compare(expectedBytes, actualBytes));
+    List<String> modifiedPaths = new ArrayList<>();
+    for (DiffDetail diff : exception.getDiffs()) {
+      if (diff.getDiffType() == DiffType.MODIFY) {
+        modifiedPaths.add(diff.getDiffPath());
+      }
+    }
+    Assert.assertEquals(Collections.singletonList("/, (.*), id, /"), modifiedPaths);
+  }
+
+  @Test
+  public void checkCompareInParallel() {
+    StringBuilder expected = new StringBuilder("{\"items\":[");
+    StringBuilder actual = new StringBuilder("{\"items\":[");
+    for (int i = 0; i < 500; i++) {
+      int id = (i * 7) % 500;
+      expected.append(i == 0 ? "" : ",").append("{\"id\":").append(i).append(",\"tags\":[1,2]}");
+      actual
+          .append(i == 0 ? "" : ",")
+          .append("{\"id\":")
+          .append(id)
+          .append(",\"tags\":[")
+          .append(id % 50 == 0 ? "2,1" : "1,2")
+          .append(id % 60 == 0 ? ",3" : "")
+          .append("]}");
+    }
+    expected.append("],\"ordered\":[");
+    actual.append("],\"ordered\":[");
+    for (int i = 0; i < 100; i++) {
+      expected.append(i == 0 ? "" : ",").append(i);
+      actual.append(i == 0 ? "" : ",").append(i % 30 == 0 ? -i : i);
+    }
+    expected.append(']');
+    actual.append(']');
+    for (int i = 0; i < 100; i++) {
+      expected.append(",\"key").append(i).append("\":").append(i);
+      if (i % 40 != 0) {
+        actual.append(",\"key").append(i).append("\":").append(i % 25 == 0 ? -i : i);
+      }
+    }
+    byte[] expectedBytes = bytes(expected.append(",\"removed\":true}").toString());
+    byte[] actualBytes = bytes(actual.append(",\"added\":true}").toString());
+
+    ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+    try {
+      TestCompareHandler sequentialCompareHandler =
+          new JsonTestCompareHandler(
+              JsonCompareConfig.builder()
+                  .setOrderedArrayPaths(Collections.singletonList("/, ordered, /"))
+                  .build());
+      TestCompareHandler parallelCompareHandler =
+          new JsonTestCompareHandler(
+              JsonCompareConfig.builder()
+                  .setOrderedArrayPaths(Collections.singletonList("/, ordered, /"))
+                  .setForkJoinPool(forkJoinPool)
+                  .setParallelThreshold(2)
+                  .build());
+      TestCompareException sequentialException =
+          Assert.assertThrows(
+              TestCompareException.class,
+              () -> sequentialCompareHandler.compare(expectedBytes, actualBytes));
+      TestCompareException parallelException =
+          Assert.assertThrows(
+              TestCompareException.class,
+              () -> parallelCompareHandler.compare(expectedBytes, actualBytes));
+      Assert.assertFalse(sequentialException.getDiffs().isEmpty());
+      Assert.assertEquals(
+          sequentialException.getDiffs().toString(), parallelException.getDiffs().toString());
+    } finally {
+      forkJoinPool.shutdown();
+    }
+  }
+
+  @Test
+  public void checkCompareInParallelWithIgnoredDiffs() {
+    // a large document whose elements are equal in order only when ignored diffs are ignored.
+    StringBuilder expected = new StringBuilder("{\"items\":[");
+    StringBuilder actual = new StringBuilder("{\"items\":[");
+    for (int i = 0; i < 20000; i++) {
+      int id = i < 19990 ? i / 2 : -i;
+      expected.append(i == 0 ? "" : ",").append("{\"id\":").append(i / 2);
+      expected.append(",\"traceId\":\"").append(i % 2 == 0 ? "a" : "b").append("\"}");
+      actual.append(i == 0 ? "" : ",").append("{\"id\":").append(id);
+      actual.append(",\"traceId\":\"").append(i % 2 == 0 ? "b" : "a").append("\"}");
+    }
+    byte[] expectedBytes = bytes(expected.append("]}").toString());
+    byte[] actualBytes = bytes(actual.append("]}").toString());
+
+    DiffIgnoreRepository diffIgnoreRepository = new DiffIgnoreRepositoryImpl();
+    diffIgnoreRepository.setupDiffIgnorePatterns(
+        Collections.singletonMap(
+            "MODIFY", Collections.singletonList("/, items, (.*), traceId, /")));
+    ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+    try {
+      String sequentialDiffs =
+          diffsOf(new JsonTestCompareHandler(), expectedBytes, actualBytes);
+      Assert.assertFalse(sequentialDiffs.contains("MOVE"));
+      Assert.assertEquals(
+          sequentialDiffs,
+          diffsOf(
+              new JsonTestCompareHandler(
+                  JsonCompareConfig.builder().setForkJoinPool(forkJoinPool).build()),
+              expectedBytes,
+              actualBytes));
+      Assert.assertEquals(
+          sequentialDiffs,
+          diffsOf(
+              new JsonTestCompareHandler(
+                  JsonCompareConfig.builder()
+                      .setForkJoinPool(forkJoinPool)
+                      .setParallelThreshold(2)
+                      .build()),
+              expectedBytes,
+              actualBytes));
+    } finally {
+      forkJoinPool.shutdown();
+      diffIgnoreRepository.setupDiffIgnorePatterns(
+          Collections.singletonMap("MODIFY", Collections.emptyList()));
+    }
+  }
+
+  private static String diffsOf(
+      TestCompareHandler testCompareHandler, byte[] expectedBytes, byte[] actualBytes) {
+    TestCompareException exception =
+        Assert.assertThrows(
+            TestCompareException.class,
+            () -> testCompareHandler.compare(expectedBytes, actualBytes));
+    return exception.getDiffs().toString();
+  }
+
+  private static byte[] bytes(String json) {
+    return json.getBytes(StandardCharsets.UTF_8);
+  }
 }
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2020 Flipkart Internet, pvt ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.flipkart.gojira.core.compare;
+
+import com.flipkart.compare.diff.DiffIgnoreMatcher;
+import com.flipkart.compare.diff.DiffIgnoreRepository;
+import com.flipkart.compare.diff.DiffType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Class to test {@link DiffIgnoreMatcher}.
+ */
+public class DiffIgnoreMatcherTest {
+
+  private static final List<String> PATTERNS =
+      Arrays.asList(
+          "/, debugInfo, .*",
+          "/, items, (.*), price, /",
+          ".*, timestamp, /",
+          "/, .*, id, .*",
+          "/, a, .*, .*",
+          "/, (.*), /",
+          ".*k1.*",
+          "/, [a-c], /",
+          ".*");
+
+  private static final List<String> PATHS =
+      Arrays.asList(
+          "/, debuginfo, /",
+          "/, debugInfo, trace, (.*), /",
+          "/, debugInfo",
+          "/, items, (.*), price, /",
+          "/, ITEMS, (.*), Price, /",
+          "/, items, (.*), (.*), price, /",
+          "/, items, price, /",
+          "/, meta, timestamp, /",
+          "/, timestamp, /",
+          "timestamp, /",
+          "/, id, /",
+          "/, x, id, /",
+          "/, x, y, id, z, /",
+          "/, a, /",
+          "/, a, b, /",
+          "/, (.*), /",
+          "/, k1, /",
+          "/, xk1y, /",
+          "/, b, /",
+          "/, , /",
+          "/",
+          "");
+
+  /**
+   * Checks that each pattern matches the same paths as the regular expression.
+   */
+  @Test
+  public void checkMatchesLikePatterns() {
+    for (String pattern : PATTERNS) {
+      Pattern compiled = Pattern.compile(pattern, Pattern.CASE_INSENSITIVE);
+      DiffIgnoreMatcher matcher = DiffIgnoreMatcher.compile(Collections.singletonList(compiled));
+      for (String path : PATHS) {
+        Assert.assertEquals(
+            pattern + " " + path, compiled.matcher(path).matches(), matcher.matches(path));
+      }
+    }
+  }
+
+  /**
+   * Checks that a matcher of several patterns matches the paths any of them matches.
+   */
+  @Test
+  public void checkMatchesAnyPattern() {
+    List<Pattern> compiled = new ArrayList<>();
+    for (String pattern : PATTERNS.subList(0, PATTERNS.size() - 1)) {
+      compiled.add(Pattern.compile(pattern, Pattern.CASE_INSENSITIVE));
+    }
+    DiffIgnoreMatcher matcher = DiffIgnoreMatcher.compile(compiled);
+    for (String path : PATHS) {
+      boolean expected = false;
+      for (Pattern pattern : compiled) {
+        expected |= pattern.matcher(path).matches();
+      }
+      Assert.assertEquals(path, expected, matcher.matches(path));
+    }
+    Assert.assertFalse(matcher.matches(null));
+  }
+
+  /**
+   * Checks that a prefix matches all paths under it only if patterns ending in a wildcard match
+   * every extension of it.
+   */
+  @Test
+  public void checkMatchesAllUnder() {
+    List<Pattern> compiled = new ArrayList<>();
+    for (String pattern :
+        Arrays.asList("/, debugInfo, .*", "/, .*, id, (.*)", ".*k1.*", "/, a, /")) {
+      compiled.add(Pattern.compile(pattern, Pattern.CASE_INSENSITIVE));
+    }
+    DiffIgnoreMatcher matcher = DiffIgnoreMatcher.compile(compiled);
+    Assert.assertTrue(matcher.matchesAllUnder("/, debugInfo"));
+    Assert.assertTrue(matcher.matchesAllUnder("/, DEBUGINFO, trace"));
+    Assert.assertTrue(matcher.matchesAllUnder("/, x, y, id"));
+    Assert.assertFalse(matcher.matchesAllUnder("/, debug"));
+    Assert.assertFalse(matcher.matchesAllUnder("/, id"));
+    Assert.assertFalse(matcher.matchesAllUnder("/, k1"));
+    Assert.assertFalse(matcher.matchesAllUnder("/, a"));
+    Assert.assertFalse(matcher.matchesAllUnder("/"));
+    Assert.assertFalse(
+        DiffIgnoreMatcher.compile(compiled.subList(2, 4)).matchesAllUnder("/, debugInfo"));
+  }
+
+  /**
+   * Checks that a {@link DiffIgnoreRepository} which only provides patterns gets matchers of them,
+   * compiled again once they change.
+   */
+  @Test
+  public void checkRepositoryMatcherFollowsPatterns() {
+    Map<DiffType, List<Pattern>> patterns = new HashMap<>();
+    DiffIgnoreRepository diffIgnoreRepository =
+        new DiffIgnoreRepository() {
+          @Override
+          public void setupDiffIgnorePatterns(Map<String, List<String>> diffIgnoreMap) {}
+
+          @Override
+          public Map<DiffType, List<Pattern>> getDiffIgnorePatterns() {
+            return patterns;
+          }
+        };
+    Assert.assertNull(diffIgnoreRepository.getDiffIgnoreMatcher(DiffType.MODIFY));
+
+    List<Pattern> modifyPatterns = new ArrayList<>();
+    modifyPatterns.add(Pattern.compile("/, a, /", Pattern.CASE_INSENSITIVE));
+    patterns.put(DiffType.MODIFY, modifyPatterns);
+    DiffIgnoreMatcher matcher = diffIgnoreRepository.getDiffIgnoreMatcher(DiffType.MODIFY);
+    Assert.assertTrue(matcher.matches("/, a, /"));
+    Assert.assertFalse(matcher.matches("/, b, /"));
+    Assert.assertSame(matcher, diffIgnoreRepository.getDiffIgnoreMatcher(DiffType.MODIFY));
+
+    modifyPatterns.add(Pattern.compile("/, b, /", Pattern.CASE_INSENSITIVE));
+    matcher = diffIgnoreRepository.getDiffIgnoreMatcher(DiffType.MODIFY);
+    Assert.assertTrue(matcher.matches("/, b, /"));
+
+    patterns.remove(DiffType.MODIFY);
+    Assert.assertNull(diffIgnoreRepository.getDiffIgnoreMatcher(DiffType.MODIFY));
+  }
+}
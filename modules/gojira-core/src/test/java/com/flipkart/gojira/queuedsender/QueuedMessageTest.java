@@ -0,0 +1,45 @@
+/*
+ * Copyright 2020 Flipkart Internet, pvt ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.flipkart.gojira.queuedsender;
+
+import java.nio.charset.StandardCharsets;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class QueuedMessageTest {
+
+  @Test
+  public void test_EncodeDecode() {
+    byte[] testData = "{\"id\":\"1\"}".getBytes(StandardCharsets.UTF_8);
+    QueuedMessage queuedMessage =
+        QueuedMessage.decode(QueuedMessage.encode("12345", 1000L, testData));
+
+    Assert.assertNotNull(queuedMessage);
+    Assert.assertEquals("12345", queuedMessage.getId());
+    Assert.assertEquals(1000L, queuedMessage.getEnqueuedAt());
+    Assert.assertArrayEquals(testData, queuedMessage.getTestData());
+  }
+
+  @Test
+  public void test_DecodeUnframedEntry() {
+    Assert.assertNull(QueuedMessage.decode(new byte[0]));
+    Assert.assertNull(
+        QueuedMessage.decode(
+            "{\"id\":\"1\",\"requestData\":{}}".getBytes(StandardCharsets.UTF_8)));
+  }
+}
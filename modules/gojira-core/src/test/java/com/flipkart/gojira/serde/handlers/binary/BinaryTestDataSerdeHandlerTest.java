@@ -0,0 +1,226 @@
+/*
+ * Copyright 2020 Flipkart Internet, pvt ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.flipkart.gojira.serde.handlers.binary;
+
+import com.flipkart.gojira.models.MethodData;
+import com.flipkart.gojira.models.MethodDataType;
+import com.flipkart.gojira.models.TestData;
+import com.flipkart.gojira.models.http.HttpTestRequestData;
+import com.flipkart.gojira.models.http.HttpTestResponseData;
+import com.flipkart.gojira.models.kafka.KafkaTestRequestData;
+import com.flipkart.gojira.models.kafka.KafkaTestResponseData;
+import com.flipkart.gojira.models.rmq.RmqTestRequestData;
+import com.flipkart.gojira.models.rmq.RmqTestResponseData;
+import com.flipkart.gojira.serde.TestSerdeException;
+import com.flipkart.gojira.serde.handlers.json.JsonDefaultTestSerdeHandler;
+import com.rabbitmq.client.AMQP;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BinaryTestDataSerdeHandlerTest {
+
+  private final BinaryTestDataSerdeHandler binarySerdeHandler = new BinaryTestDataSerdeHandler();
+  private final JsonDefaultTestSerdeHandler jsonSerdeHandler = new JsonDefaultTestSerdeHandler();
+
+  @Test
+  public void test_RoundTripHttpTestData() throws TestSerdeException {
+    TestData<HttpTestRequestData, HttpTestResponseData, ?> testData = new TestData<>();
+    testData.setId("1");
+    testData.setRequestData(
+        HttpTestRequestData.builder()
+            .setBody(bytes("{\"a\":1}"))
+            .setHeaders(Collections.singletonMap("Content-Type", "application/json"))
+            .setMethod("POST")
+            .setQueryParams("b=2")
+            .setUri("/a")
+            .build());
+    testData.setResponseData(
+        HttpTestResponseData.builder()
+            .setStatusCode(200)
+            .setHeaders(Collections.singletonMap("X-Id", "é"))
+            .setBody(bytes("ok"))
+            .build());
+    addMethodData(testData);
+
+    byte[] encoded = binarySerdeHandler.serialize(testData);
+    Assert.assertTrue(encoded.length < jsonSerdeHandler.serialize(testData).length);
+    TestData<?, ?, ?> decoded = binarySerdeHandler.deserialize(encoded, TestData.class);
+
+    Assert.assertEquals("1", decoded.getId());
+    Assert.assertEquals(testData.getRequestData(), decoded.getRequestData());
+    Assert.assertEquals(testData.getResponseData(), decoded.getResponseData());
+    assertMethodData(testData, decoded);
+  }
+
+  @Test
+  public void test_RoundTripKafkaAndFallbackTestData() throws TestSerdeException {
+    TestData<KafkaTestRequestData, KafkaTestResponseData, ?> kafkaTestData = new TestData<>();
+    kafkaTestData.setRequestData(
+        KafkaTestRequestData.builder()
+            .setTopicName("topic")
+            .setKey(bytes("key"))
+            .setValue(bytes("value"))
+            .setHeaders(Collections.singletonMap("h", bytes("v")))
+            .build());
+    kafkaTestData.setResponseData(
+        KafkaTestResponseData.builder().setRespondData(bytes("done")).build());
+
+    ByteBuffer buffer = ByteBuffer.allocateDirect(256);
+    buffer.put(binarySerdeHandler.serialize(kafkaTestData));
+    ((Buffer) buffer).flip();
+    TestData<?, ?, ?> decoded = binarySerdeHandler.deserialize(buffer, TestData.class);
+    KafkaTestRequestData requestData = (KafkaTestRequestData) decoded.getRequestData();
+    Assert.assertEquals(kafkaTestData.getId(), decoded.getId());
+    Assert.assertEquals("topic", requestData.getTopicName());
+    Assert.assertArrayEquals(bytes("value"), requestData.getValue());
+    Assert.assertArrayEquals(bytes("v"), requestData.getHeaders().get("h"));
+    Assert.assertArrayEquals(
+        bytes("done"), ((KafkaTestResponseData) decoded.getResponseData()).getRespondData());
+    Assert.assertTrue(decoded.getMethodDataMap().isEmpty());
+
+    TestData<RmqTestRequestData, RmqTestResponseData, ?> rmqTestData = new TestData<>();
+    rmqTestData.setRequestData(
+        RmqTestRequestData.builder()
+            .setExchangeName("exchange")
+            .setRoutingKey(bytes("route"))
+            .setData(bytes("data"))
+            .setProperties(new AMQP.BasicProperties.Builder().contentType("text/plain").build())
+            .build());
+    decoded =
+        binarySerdeHandler.deserialize(
+            binarySerdeHandler.serialize(rmqTestData), TestData.class);
+    RmqTestRequestData rmqRequestData = (RmqTestRequestData) decoded.getRequestData();
+    Assert.assertEquals("exchange", rmqRequestData.getExchangeName());
+    Assert.assertEquals("text/plain", rmqRequestData.getProperties().getContentType());
+    Assert.assertNull(decoded.getResponseData());
+  }
+
+  @Test
+  public void test_ReadJsonTestData() throws TestSerdeException {
+    TestData<HttpTestRequestData, HttpTestResponseData, ?> testData = new TestData<>();
+    testData.setRequestData(
+        HttpTestRequestData.builder()
+            .setBody(bytes(""))
+            .setHeaders(Collections.emptyMap())
+            .setMethod("GET")
+            .setQueryParams("")
+            .setUri("/a")
+            .build());
+    addMethodData(testData);
+
+    TestData<?, ?, ?> decoded =
+        binarySerdeHandler.deserialize(jsonSerdeHandler.serialize(testData), TestData.class);
+    Assert.assertEquals(testData.getId(), decoded.getId());
+    Assert.assertEquals(testData.getRequestData(), decoded.getRequestData());
+    assertMethodData(testData, decoded);
+  }
+
+  @Test
+  public void test_DecodeMethodDataOnDemand() throws TestSerdeException {
+    TestData<HttpTestRequestData, HttpTestResponseData, ?> testData = new TestData<>();
+    addMethodData(testData);
+    testData
+        .getMethodDataMap()
+        .put("m2", new ConcurrentSkipListMap<>(testData.getMethodDataMap().get("m1")));
+    byte[] encoded = binarySerdeHandler.serialize(testData);
+    ByteBuffer buffer = ByteBuffer.allocateDirect(encoded.length);
+    buffer.put(encoded);
+    ((Buffer) buffer).flip();
+
+    TestData<?, ?, ?> decoded = binarySerdeHandler.deserialize(buffer, TestData.class);
+    // the source buffer may be released once decoded, entries are decoded later.
+    buffer.put(0, (byte) 0);
+    Assert.assertEquals(2, decoded.getEncodedMethodData().size());
+    Assert.assertEquals(2, decoded.getEncodedMethodData().get("m1").getEntryCount());
+
+    Assert.assertEquals(2, decoded.getMethodData("m1").size());
+    Assert.assertNull(decoded.getMethodData("m3"));
+    Assert.assertEquals(
+        Collections.singleton("m2"), decoded.getEncodedMethodData().keySet());
+    assertMethodData(testData, decoded);
+    Assert.assertTrue(decoded.getEncodedMethodData().isEmpty());
+  }
+
+  @Test(expected = TestSerdeException.class)
+  public void test_RejectTruncatedTestData() throws TestSerdeException {
+    TestData<HttpTestRequestData, HttpTestResponseData, ?> testData = new TestData<>();
+    addMethodData(testData);
+    byte[] encoded = binarySerdeHandler.serialize(testData);
+    binarySerdeHandler.deserialize(ByteBuffer.wrap(encoded, 0, encoded.length - 3), TestData.class);
+  }
+
+  private static void addMethodData(TestData<?, ?, ?> testData) {
+    ConcurrentHashMap<MethodDataType, List<MethodData>> first = new ConcurrentHashMap<>();
+    List<MethodData> arguments = new ArrayList<>();
+    arguments.add(
+        new MethodData(MethodDataType.ARGUMENT_BEFORE, "java.lang.String", bytes("x"), 0));
+    arguments.add(new MethodData(MethodDataType.ARGUMENT_BEFORE, "java.lang.Object", null, 1));
+    first.put(MethodDataType.ARGUMENT_BEFORE, arguments);
+    first.put(
+        MethodDataType.RETURN,
+        Collections.singletonList(
+            new MethodData(MethodDataType.RETURN, "java.lang.Integer", bytes("1"), -1)));
+    ConcurrentHashMap<MethodDataType, List<MethodData>> second = new ConcurrentHashMap<>();
+    second.put(
+        MethodDataType.EXCEPTION,
+        Collections.singletonList(
+            new MethodData(MethodDataType.EXCEPTION, "java.lang.Exception", bytes("{}"), -1)));
+    ConcurrentSkipListMap<Long, ConcurrentHashMap<MethodDataType, List<MethodData>>> entries =
+        new ConcurrentSkipListMap<>();
+    entries.put(1L, first);
+    entries.put(2L, second);
+    testData.getMethodDataMap().put("m1", entries);
+  }
+
+  private static void assertMethodData(TestData<?, ?, ?> expected, TestData<?, ?, ?> actual) {
+    Assert.assertEquals(expected.getMethodDataMap().keySet(), actual.getMethodDataMap().keySet());
+    for (String method : expected.getMethodDataMap().keySet()) {
+      ConcurrentSkipListMap<Long, ConcurrentHashMap<MethodDataType, List<MethodData>>> entries =
+          actual.getMethodDataMap().get(method);
+      Assert.assertEquals(expected.getMethodDataMap().get(method).keySet(), entries.keySet());
+      for (Long key : entries.keySet()) {
+        ConcurrentHashMap<MethodDataType, List<MethodData>> expectedEntry =
+            expected.getMethodDataMap().get(method).get(key);
+        Assert.assertEquals(expectedEntry.keySet(), entries.get(key).keySet());
+        for (MethodDataType methodDataType : expectedEntry.keySet()) {
+          List<MethodData> expectedData = expectedEntry.get(methodDataType);
+          List<MethodData> actualData = entries.get(key).get(methodDataType);
+          Assert.assertEquals(expectedData.size(), actualData.size());
+          for (int i = 0; i < expectedData.size(); i++) {
+            Assert.assertEquals(expectedData.get(i).getDataType(), actualData.get(i).getDataType());
+            Assert.assertEquals(
+                expectedData.get(i).getClassName(), actualData.get(i).getClassName());
+            Assert.assertArrayEquals(expectedData.get(i).getData(), actualData.get(i).getData());
+            Assert.assertEquals(expectedData.get(i).getPosition(), actualData.get(i).getPosition());
+          }
+        }
+      }
+    }
+  }
+
+  private static byte[] bytes(String value) {
+    return value.getBytes(StandardCharsets.UTF_8);
+  }
+}
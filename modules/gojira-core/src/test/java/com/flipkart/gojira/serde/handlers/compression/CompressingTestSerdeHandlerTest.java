@@ -0,0 +1,134 @@
+/*
+ * Copyright 2020 Flipkart Internet, pvt ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.flipkart.gojira.serde.handlers.compression;
+
+import com.flipkart.gojira.models.TestData;
+import com.flipkart.gojira.models.http.HttpTestRequestData;
+import com.flipkart.gojira.models.http.HttpTestResponseData;
+import com.flipkart.gojira.serde.TestSerdeException;
+import com.flipkart.gojira.serde.config.CompressionCodec;
+import com.flipkart.gojira.serde.config.CompressionConfig;
+import com.flipkart.gojira.serde.config.SerdeConfig;
+import com.flipkart.gojira.serde.config.TestDataFormat;
+import com.flipkart.gojira.serde.handlers.TestSerdeHandler;
+import com.flipkart.gojira.serde.handlers.json.JsonDefaultTestSerdeHandler;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CompressingTestSerdeHandlerTest {
+
+  private final JsonDefaultTestSerdeHandler jsonSerdeHandler = new JsonDefaultTestSerdeHandler();
+
+  @Test
+  public void test_RoundTripWithEachCodec() throws TestSerdeException {
+    TestData<HttpTestRequestData, HttpTestResponseData, ?> testData = testData(4096);
+    byte[] json = jsonSerdeHandler.serialize(testData);
+    for (TestDataFormat format : TestDataFormat.values()) {
+      for (CompressionCodec codec : CompressionCodec.values()) {
+        TestSerdeHandler testDataSerdeHandler =
+            SerdeConfig.builder()
+                .setTestDataFormat(format)
+                .setTestDataCompression(CompressionConfig.builder().setCodec(codec).build())
+                .build()
+                .getTestDataSerdeHandler();
+        byte[] stored = testDataSerdeHandler.serialize(testData);
+        if (!CompressionCodec.NONE.equals(codec)) {
+          Assert.assertTrue(stored.length < json.length / 4);
+        }
+        ByteBuffer direct = ByteBuffer.allocateDirect(stored.length);
+        direct.put(stored);
+        ((Buffer) direct).flip();
+        for (TestData<?, ?, ?> decoded :
+            Arrays.asList(
+                testDataSerdeHandler.deserialize(stored, TestData.class),
+                testDataSerdeHandler.deserialize(direct, TestData.class))) {
+          Assert.assertEquals(testData.getId(), decoded.getId());
+          Assert.assertEquals(testData.getRequestData(), decoded.getRequestData());
+        }
+      }
+    }
+  }
+
+  @Test
+  public void test_DictionaryAndUncompressedRecords() throws TestSerdeException {
+    TestData<HttpTestRequestData, HttpTestResponseData, ?> testData = testData(600);
+    byte[] json = jsonSerdeHandler.serialize(testData);
+    CompressingTestSerdeHandler plain =
+        new CompressingTestSerdeHandler(
+            jsonSerdeHandler,
+            CompressionConfig.builder()
+                .setCodec(CompressionCodec.DEFLATE)
+                .setMinCompressBytes(0)
+                .build());
+    CompressingTestSerdeHandler withDictionary =
+        new CompressingTestSerdeHandler(
+            jsonSerdeHandler,
+            CompressionConfig.builder()
+                .setCodec(CompressionCodec.DEFLATE)
+                .setMinCompressBytes(0)
+                .setDictionary(json)
+                .build());
+
+    byte[] compressed = withDictionary.serialize(testData);
+    Assert.assertTrue(compressed.length < plain.serialize(testData).length);
+    Assert.assertEquals(
+        testData.getRequestData(),
+        withDictionary.deserialize(compressed, TestData.class).getRequestData());
+    try {
+      plain.deserialize(compressed, TestData.class);
+      Assert.fail("record compressed with a dictionary read without it");
+    } catch (TestSerdeException e) {
+      Assert.assertTrue(e.getMessage().contains("dictionary"));
+    }
+
+    // records stored before compression was enabled are read as they are.
+    Assert.assertEquals(
+        testData.getId(), withDictionary.deserialize(json, TestData.class).getId());
+    CompressingTestSerdeHandler minBytes =
+        new CompressingTestSerdeHandler(
+            jsonSerdeHandler, CompressionConfig.builder().setMinCompressBytes(1 << 20).build());
+    Assert.assertArrayEquals(json, minBytes.serialize(testData));
+    Assert.assertEquals(1, minBytes.getUncompressedRecordCount());
+    Assert.assertEquals(1d, minBytes.getCompressionRatio(), 0d);
+    Assert.assertEquals(1, withDictionary.getCompressedRecordCount());
+    Assert.assertEquals(1, withDictionary.getDecompressedRecordCount());
+    Assert.assertTrue(withDictionary.getCompressionRatio() > 1d);
+  }
+
+  private static TestData<HttpTestRequestData, HttpTestResponseData, ?> testData(int bodyBytes) {
+    StringBuilder body = new StringBuilder("[");
+    while (body.length() < bodyBytes) {
+      body.append("{\"id\":").append(body.length()).append(",\"status\":\"ACTIVE\"},");
+    }
+    body.append("{}]");
+    TestData<HttpTestRequestData, HttpTestResponseData, ?> testData = new TestData<>();
+    testData.setRequestData(
+        HttpTestRequestData.builder()
+            .setBody(body.toString().getBytes(StandardCharsets.UTF_8))
+            .setHeaders(Collections.singletonMap("Content-Type", "application/json"))
+            .setMethod("POST")
+            .setQueryParams("")
+            .setUri("/a")
+            .build());
+    return testData;
+  }
+}
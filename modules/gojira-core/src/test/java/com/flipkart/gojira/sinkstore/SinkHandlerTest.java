@@ -0,0 +1,78 @@
+/*
+ * Copyright 2020 Flipkart Internet, pvt ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.flipkart.gojira.sinkstore;
+
+import com.flipkart.gojira.sinkstore.handlers.SinkHandler;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SinkHandlerTest {
+
+  private final Map<String, byte[]> testDataStore = new HashMap<>();
+  private final Map<String, String> resultStore = new HashMap<>();
+
+  private final SinkHandler sinkHandler =
+      new SinkHandler() {
+        @Override
+        public void write(String testId, byte[] testData) {
+          testDataStore.put(testId, testData);
+        }
+
+        @Override
+        public byte[] read(String testId) throws SinkException {
+          if (!testDataStore.containsKey(testId)) {
+            throw new SinkException();
+          }
+          return testDataStore.get(testId);
+        }
+
+        @Override
+        public void writeResults(String testId, String result) {
+          resultStore.put(testId, result);
+        }
+      };
+
+  @Test
+  public void test_BatchFallsBackToSingleRecord() throws Exception {
+    Map<String, byte[]> testData = new LinkedHashMap<>();
+    testData.put("2", "two".getBytes(StandardCharsets.UTF_8));
+    testData.put("1", "one".getBytes(StandardCharsets.UTF_8));
+    sinkHandler.writeBatch(testData);
+
+    Map<String, byte[]> read = sinkHandler.readBatch(Arrays.asList("1", "2"));
+    Assert.assertEquals(Arrays.asList("1", "2"), Arrays.asList(read.keySet().toArray()));
+    Assert.assertArrayEquals(testData.get("1"), read.get("1"));
+    Assert.assertArrayEquals(testData.get("2"), read.get("2"));
+
+    Map<String, String> results = new LinkedHashMap<>();
+    results.put("1", "SUCCESS");
+    results.put("2", "COMPARE_FAILED");
+    sinkHandler.writeResultsBatch(results);
+    Assert.assertEquals(results, resultStore);
+  }
+
+  @Test(expected = SinkException.class)
+  public void test_ReadBatchFailsOnMissingRecord() throws Exception {
+    sinkHandler.readBatch(Arrays.asList("1"));
+  }
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2020 Flipkart Internet, pvt ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.flipkart.gojira.sinkstore.file;
+
+import com.flipkart.gojira.core.GlobalConstants;
+import com.flipkart.gojira.models.TestResult;
+import com.flipkart.gojira.sinkstore.SinkException;
+import com.flipkart.gojira.sinkstore.results.TestResultIndex;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SegmentedLogDataStoreHandlerTest {
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void test_ReadWrittenRecordsAndResults() throws Exception {
+    try (SegmentedLogDataStoreHandler sink = open(64 * 1024, 0.5d)) {
+      Map<String, byte[]> testData = new LinkedHashMap<>();
+      for (int i = 0; i < 100; i++) {
+        testData.put("id" + i, bytes("data" + i));
+      }
+      sink.writeBatch(testData);
+      sink.write("id7", bytes("rewritten"));
+      sink.writeResults("id7", "SUCCESS");
+
+      Assert.assertArrayEquals(bytes("data42"), sink.read("id42"));
+      Assert.assertArrayEquals(bytes("rewritten"), sink.read("id7"));
+      Assert.assertEquals("SUCCESS", sink.readResults("id7"));
+      Assert.assertEquals(2, sink.readBatch(Arrays.asList("id1", "id2")).size());
+    }
+  }
+
+  @Test(expected = SinkException.class)
+  public void test_ReadMissingRecord() throws Exception {
+    try (SegmentedLogDataStoreHandler sink = open(64 * 1024, 0.5d)) {
+      sink.write("id", bytes("data"));
+      sink.readResults("id");
+    }
+  }
+
+  @Test
+  public void test_RecoverAfterReopen() throws Exception {
+    try (SegmentedLogDataStoreHandler sink = open(256, 0d)) {
+      for (int i = 0; i < 100; i++) {
+        sink.write("id" + i, bytes("data" + i));
+      }
+      sink.write("id0", bytes("rewritten"));
+    }
+    Assert.assertTrue(count(".hint") > 1);
+
+    try (SegmentedLogDataStoreHandler sink = open(256, 0d)) {
+      for (int i = 1; i < 100; i++) {
+        Assert.assertArrayEquals(bytes("data" + i), sink.read("id" + i));
+      }
+      Assert.assertArrayEquals(bytes("rewritten"), sink.read("id0"));
+    }
+  }
+
+  @Test
+  public void test_TruncateTornRecordOnReopen() throws Exception {
+    try (SegmentedLogDataStoreHandler sink = open(64 * 1024, 0.5d)) {
+      sink.write("id1", bytes("data1"));
+      sink.write("id2", bytes("data2"));
+    }
+    Path segment = temporaryFolder.getRoot().toPath().resolve("data").resolve(segmentName(1));
+    long size = Files.size(segment);
+    Files.write(segment, new byte[] {0, 0, 0, 1, 0, 0}, StandardOpenOption.APPEND);
+
+    try (SegmentedLogDataStoreHandler sink = open(64 * 1024, 0.5d)) {
+      Assert.assertEquals(size, Files.size(segment));
+      sink.write("id3", bytes("data3"));
+    }
+    try (SegmentedLogDataStoreHandler sink = open(64 * 1024, 0.5d)) {
+      Assert.assertArrayEquals(bytes("data1"), sink.read("id1"));
+      Assert.assertArrayEquals(bytes("data2"), sink.read("id2"));
+      Assert.assertArrayEquals(bytes("data3"), sink.read("id3"));
+    }
+  }
+
+  @Test
+  public void test_CompactOverwrittenSegments() throws Exception {
+    try (SegmentedLogDataStoreHandler sink = open(256, 0.5d)) {
+      for (int round = 0; round < 50; round++) {
+        for (int i = 0; i < 4; i++) {
+          sink.write("id" + i, bytes("data" + i + "-" + round));
+        }
+      }
+      Assert.assertTrue(count(".log") < 5);
+      for (int i = 0; i < 4; i++) {
+        Assert.assertArrayEquals(bytes("data" + i + "-49"), sink.read("id" + i));
+      }
+    }
+    try (SegmentedLogDataStoreHandler sink = open(256, 0.5d)) {
+      for (int i = 0; i < 4; i++) {
+        Assert.assertArrayEquals(bytes("data" + i + "-49"), sink.read("id" + i));
+      }
+    }
+  }
+
+  @Test
+  public void test_AggregateTestResultsAcrossReopen() throws Exception {
+    TestResult failed =
+        TestResult.builder()
+            .setTestId("id1")
+            .setStatus(GlobalConstants.COMPARE_FAILED)
+            .setUri("/users")
+            .setDiffPaths(Collections.singletonList("/body/name"))
+            .setFailedMethod("m1")
+            .setFailureMessage("no match")
+            .setEndedAt(1000L)
+            .setDurationInMillis(5L)
+            .build();
+    try (SegmentedLogDataStoreHandler sink = open(256, 0.5d)) {
+      sink.writeTestResult(
+          TestResult.builder().setTestId("id1").setStatus(GlobalConstants.UNKNOWN_FAILED).build());
+      sink.writeTestResult(failed);
+      sink.writeTestResult(
+          TestResult.builder()
+              .setTestId("id2")
+              .setStatus(GlobalConstants.RESULT_SUCCESS)
+              .setUri("/users")
+              .build());
+
+      Assert.assertEquals(failed, sink.readTestResult("id1"));
+      Assert.assertEquals(GlobalConstants.COMPARE_FAILED, sink.readResults("id1"));
+      Assert.assertEquals(2, sink.getTestResultIndex().getTestCount());
+    }
+    try (SegmentedLogDataStoreHandler sink = open(256, 0.5d)) {
+      TestResultIndex testResultIndex = sink.getTestResultIndex();
+      Assert.assertEquals(2, testResultIndex.getTestCount());
+      Assert.assertNull(testResultIndex.getCountsByStatus().get(GlobalConstants.UNKNOWN_FAILED));
+      Assert.assertEquals(
+          Collections.singletonMap("/users", 1L), testResultIndex.getFailureCountsByUri(10));
+      Assert.assertEquals(
+          Collections.singletonMap("/body/name", 1L),
+          testResultIndex.getFailureCountsByDiffPath(10));
+      Assert.assertEquals(
+          Collections.singletonMap("m1", 1L), testResultIndex.getFailureCountsByMethod(10));
+      Assert.assertEquals(failed, sink.readTestResult("id1"));
+    }
+  }
+
+  @Test
+  public void test_ReadSealedSegmentsWithinMappedWindow() throws Exception {
+    SegmentedLogConfig segmentedLogConfig =
+        SegmentedLogConfig.builder()
+            .setPath(temporaryFolder.getRoot().getAbsolutePath())
+            .setMaxSegmentBytes(256)
+            .setFsyncPolicy(FsyncPolicy.NEVER)
+            .setCompactionLiveRatio(0d)
+            .setMaxMappedBytes(600)
+            .build();
+    try (SegmentedLog log =
+        new SegmentedLog(temporaryFolder.getRoot().toPath().resolve("log"), segmentedLogConfig)) {
+      for (int i = 0; i < 100; i++) {
+        log.append(Collections.singletonMap("id" + i, bytes("data" + i)));
+      }
+      for (int round = 0; round < 2; round++) {
+        for (int i = 0; i < 100; i++) {
+          ByteBuffer value = log.readBuffer("id" + i);
+          byte[] read = new byte[value.remaining()];
+          value.get(read);
+          Assert.assertArrayEquals(bytes("data" + i), read);
+          Assert.assertTrue(log.mappedBytes() <= 600);
+        }
+      }
+      Assert.assertTrue(log.mappedBytes() > 0);
+      Assert.assertFalse(log.readBuffer("id0").hasArray());
+      Assert.assertTrue(log.readBuffer("id99").hasArray());
+      Assert.assertArrayEquals(bytes("data0"), log.read("id0"));
+    }
+  }
+
+  private SegmentedLogDataStoreHandler open(int maxSegmentBytes, double compactionLiveRatio) {
+    return new SegmentedLogDataStoreHandler(
+        SegmentedLogConfig.builder()
+            .setPath(temporaryFolder.getRoot().getAbsolutePath())
+            .setMaxSegmentBytes(maxSegmentBytes)
+            .setFsyncPolicy(FsyncPolicy.NEVER)
+            .setCompactionLiveRatio(compactionLiveRatio)
+            .build());
+  }
+
+  private long count(String suffix) throws Exception {
+    try (Stream<Path> files = Files.list(new File(temporaryFolder.getRoot(), "data").toPath())) {
+      return files.filter(file -> file.toString().endsWith(suffix)).count();
+    }
+  }
+
+  private static String segmentName(long id) {
+    return String.format("%020d", id) + ".log";
+  }
+
+  private static byte[] bytes(String value) {
+    return value.getBytes(StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2020 Flipkart Internet, pvt ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.flipkart.gojira.sinkstore.results;
+
+import com.flipkart.gojira.core.GlobalConstants;
+import com.flipkart.gojira.models.TestResult;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestResultIndexTest {
+
+  @Test
+  public void test_AggregateFailures() {
+    TestResultIndex testResultIndex = new TestResultIndex();
+    testResultIndex.add(success("1", "/a"));
+    testResultIndex.add(compareFailed("2", "/a", "/body/x", "/body/x", "/body/y"));
+    testResultIndex.add(compareFailed("3", "/b", "/body/x"));
+    testResultIndex.add(
+        TestResult.builder()
+            .setTestId("4")
+            .setStatus(GlobalConstants.UNKNOWN_FAILED)
+            .setUri("/b")
+            .setFailedMethod("m1")
+            .build());
+
+    Assert.assertEquals(4, testResultIndex.getTestCount());
+    Assert.assertEquals(
+        Long.valueOf(2), testResultIndex.getCountsByStatus().get(GlobalConstants.COMPARE_FAILED));
+    Assert.assertEquals(
+        Long.valueOf(1), testResultIndex.getCountsByStatus().get(GlobalConstants.RESULT_SUCCESS));
+    Map<String, Long> byUri = testResultIndex.getFailureCountsByUri(10);
+    Assert.assertEquals(Arrays.asList("/b", "/a"), Arrays.asList(byUri.keySet().toArray()));
+    Assert.assertEquals(Long.valueOf(2), byUri.get("/b"));
+    Map<String, Long> byDiffPath = testResultIndex.getFailureCountsByDiffPath(1);
+    Assert.assertEquals(Collections.singletonMap("/body/x", 2L), byDiffPath);
+    Assert.assertEquals(
+        Collections.singletonMap("m1", 1L), testResultIndex.getFailureCountsByMethod(10));
+  }
+
+  @Test
+  public void test_RemoveReplacedResult() {
+    TestResultIndex testResultIndex = new TestResultIndex();
+    TestResult failed = compareFailed("1", "/a", "/body/x");
+    testResultIndex.add(failed);
+    testResultIndex.remove(failed);
+    testResultIndex.add(success("1", "/a"));
+
+    Assert.assertEquals(1, testResultIndex.getTestCount());
+    Assert.assertEquals(
+        Collections.singletonMap(GlobalConstants.RESULT_SUCCESS, 1L),
+        testResultIndex.getCountsByStatus());
+    Assert.assertTrue(testResultIndex.getFailureCountsByUri(10).isEmpty());
+    Assert.assertTrue(testResultIndex.getFailureCountsByDiffPath(10).isEmpty());
+  }
+
+  private static TestResult success(String testId, String uri) {
+    return TestResult.builder()
+        .setTestId(testId)
+        .setStatus(GlobalConstants.RESULT_SUCCESS)
+        .setUri(uri)
+        .build();
+  }
+
+  private static TestResult compareFailed(String testId, String uri, String... diffPaths) {
+    return TestResult.builder()
+        .setTestId(testId)
+        .setStatus(GlobalConstants.COMPARE_FAILED)
+        .setUri(uri)
+        .setDiffPaths(Arrays.asList(diffPaths))
+        .build();
+  }
+}